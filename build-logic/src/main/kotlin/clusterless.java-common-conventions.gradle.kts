@@ -142,6 +142,7 @@ dependencies {
         implementationAndTestFixture("software.amazon.awssdk:sqs:$awsSdk")
         implementationAndTestFixture("software.amazon.awssdk:glue:$awsSdk")
         implementationAndTestFixture("software.amazon.awssdk:athena:$awsSdk")
+        implementationAndTestFixture("software.amazon.awssdk:apache-client:$awsSdk")
 
         // https://github.com/aws/aws-lambda-java-libs
         implementationAndTestFixture("com.amazonaws:aws-lambda-java-core:1.2.3")
@@ -154,6 +155,9 @@ dependencies {
 
         implementationAndTestFixture("io.github.resilience4j:resilience4j-retry:2.1.0")
 
+        // https://github.com/CRaC/org.crac
+        implementationAndTestFixture("io.github.crac:org-crac:0.1.3")
+
         testImplementationAndTestFixture("org.mockito:mockito-core:5.7.0")
 
         // https://github.com/junit-pioneer/junit-pioneer/releases
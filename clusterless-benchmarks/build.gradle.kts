@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+plugins {
+    id("clusterless.java-common-conventions")
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+dependencies {
+    jmh(project(":clusterless-common"))
+    jmh(project(":clusterless-model"))
+    jmh(project(":clusterless-substrate"))
+    jmh(project(":clusterless-substrate-aws-lambda-common"))
+    jmh(project(":clusterless-substrate-aws-lambda-workload"))
+    jmh(project(":clusterless-substrate-aws-lambda-workload-model"))
+    jmh(project(":clusterless-substrate-aws-common"))
+    jmh(project(":clusterless-substrate-aws-lambda-arc"))
+    jmh(project(":clusterless-substrate-aws-lambda-arc-model"))
+    jmh(project(":clusterless-substrate-aws-lambda-transform"))
+    jmh(project(":clusterless-substrate-aws-lambda-transform-model"))
+    jmh(testFixtures(project(":clusterless-substrate-aws-lambda-common")))
+
+    // handler benchmarks set the env vars read during handler initialization
+    jmh("uk.org.webcompere:system-stubs-core:2.1.3")
+}
+
+// ./gradlew :clusterless-benchmarks:jmh -Pjmh.includes=PartitionExtraction
+// ./gradlew :clusterless-benchmarks:jmh -Pjmh.includes=PathMatcher
+// ./gradlew :clusterless-benchmarks:jmh -Pjmh.includes=StateURIParse
+// ./gradlew :clusterless-benchmarks:jmh -Pjmh.includes=URIs
+// ./gradlew :clusterless-benchmarks:jmh -Pjmh.includes=ManifestJSON
+// ./gradlew :clusterless-benchmarks:jmh -Pjmh.includes=EventSerialization
+// ./gradlew :clusterless-benchmarks:jmh -Pjmh.includes=HandlerBenchmark
+// ./gradlew :clusterless-benchmarks:jmh -Pjmh.includes=S3CopyConcurrency
+jmh {
+    jmhVersion.set("1.37")
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+
+    if (project.hasProperty("jmh.includes")) {
+        includes.set(listOf(project.property("jmh.includes") as String))
+    }
+}
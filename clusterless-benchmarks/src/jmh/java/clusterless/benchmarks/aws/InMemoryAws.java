@@ -0,0 +1,413 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.benchmarks.aws;
+
+import clusterless.cls.util.Env;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import uk.org.webcompere.systemstubs.environment.EnvironmentVariables;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An in-process stand-in for the S3 and EventBridge APIs the handlers call, objects and events are held in memory.
+ * <p>
+ * Only the calls made by the benchmarked handlers are supported, path style S3 object put, conditional put, copy,
+ * get, head, delete, and list v2, and EventBridge PutEvents. Requests go through the real SDK clients over loopback,
+ * so request marshalling, signing, and response parsing are measured along with the handler.
+ * <p>
+ * A latency may be added to every request, so benchmarks of concurrent callers wait on the service as they would
+ * on AWS, instead of on the local CPU.
+ */
+public class InMemoryAws implements AutoCloseable {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+
+    record S3Object(byte[] body, String contentType, String eTag, Instant lastModified, Map<String, String> metadata) {
+    }
+
+    private final ExecutorService executor;
+    private final HttpServer server;
+    private final Duration latency;
+    private final NavigableMap<String, S3Object> objects = new ConcurrentSkipListMap<>();
+    private final AtomicLong events = new AtomicLong();
+
+    public InMemoryAws() throws IOException {
+        this(Duration.ZERO, 8);
+    }
+
+    /**
+     * @param latency added to every request before it is handled
+     * @param threads the number of requests handled concurrently
+     */
+    public InMemoryAws(Duration latency, int threads) throws IOException {
+        this.latency = latency;
+        this.executor = Executors.newFixedThreadPool(threads);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * The endpoint to use for both S3 and EventBridge, an ip address so the S3 client uses path style requests.
+     */
+    public URI endpoint() {
+        return URI.create("http://127.0.0.1:%d".formatted(server.getAddress().getPort()));
+    }
+
+    /**
+     * The environment a handler expects, pointing the SDK clients at this endpoint, with the given props in their
+     * typed env var.
+     * <p>
+     * Must be set up before the handler classes are loaded, as props and clients are read during initialization.
+     */
+    public EnvironmentVariables environment(Object... props) {
+        String endpoint = endpoint().toString();
+
+        EnvironmentVariables environmentVariables = new EnvironmentVariables()
+                .set("AWS_ACCESS_KEY_ID", "benchmark")
+                .set("AWS_SECRET_ACCESS_KEY", "benchmark")
+                .set("AWS_DEFAULT_REGION", "us-east-2")
+                .set("AWS_S3_ENDPOINT", endpoint)
+                .set("AWS_EVENTS_ENDPOINT", endpoint);
+
+        for (Object prop : props) {
+            environmentVariables.set(Env.keyTyped(prop), Env.valueTyped(prop));
+        }
+
+        return environmentVariables;
+    }
+
+    public int objects() {
+        return objects.size();
+    }
+
+    public long events() {
+        return events.get();
+    }
+
+    public void clear() {
+        objects.clear();
+        events.set(0);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!latency.isZero()) {
+                try {
+                    Thread.sleep(latency.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    error(exchange, 503, "ServiceUnavailable");
+                    return;
+                }
+            }
+
+            if (exchange.getRequestHeaders().containsKey("X-amz-target")) {
+                putEvents(exchange);
+                return;
+            }
+
+            String path = exchange.getRequestURI().getPath();
+            int slash = path.indexOf('/', 1);
+            String bucket = slash == -1 ? path.substring(1) : path.substring(1, slash);
+            String key = slash == -1 ? "" : path.substring(slash + 1);
+
+            switch (exchange.getRequestMethod()) {
+                case "PUT" -> put(exchange, bucket, key);
+                case "GET" -> {
+                    if (key.isEmpty()) {
+                        list(exchange, bucket);
+                    } else {
+                        get(exchange, bucket, key, true);
+                    }
+                }
+                case "HEAD" -> get(exchange, bucket, key, false);
+                case "DELETE" -> {
+                    objects.remove(bucket + "/" + key);
+                    exchange.sendResponseHeaders(204, -1);
+                }
+                default -> error(exchange, 405, "MethodNotAllowed");
+            }
+        }
+    }
+
+    private void putEvents(HttpExchange exchange) throws IOException {
+        JsonNode request = MAPPER.readTree(body(exchange));
+        int count = request.path("Entries").size();
+
+        events.addAndGet(count);
+
+        StringBuilder response = new StringBuilder("{\"FailedEntryCount\":0,\"Entries\":[");
+        for (int i = 0; i < count; i++) {
+            response.append(i == 0 ? "" : ",").append("{\"EventId\":\"").append(UUID.randomUUID()).append("\"}");
+        }
+        response.append("]}");
+
+        send(exchange, 200, "application/x-amz-json-1.1", response.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void put(HttpExchange exchange, String bucket, String key) throws IOException {
+        String name = bucket + "/" + key;
+        String copySource = exchange.getRequestHeaders().getFirst("x-amz-copy-source");
+
+        S3Object existing = objects.get(name);
+
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        String ifMatch = exchange.getRequestHeaders().getFirst("If-Match");
+
+        if (("*".equals(ifNoneMatch) && existing != null) || (ifMatch != null && (existing == null || !ifMatch.equals(existing.eTag())))) {
+            body(exchange);
+            error(exchange, 412, "PreconditionFailed");
+            return;
+        }
+
+        if (copySource != null) {
+            String source = URLDecoder.decode(copySource, StandardCharsets.UTF_8);
+            S3Object from = objects.get(source.startsWith("/") ? source.substring(1) : source);
+
+            if (from == null) {
+                error(exchange, 404, "NoSuchKey");
+                return;
+            }
+
+            S3Object copy = new S3Object(from.body(), from.contentType(), from.eTag(), Instant.now(), from.metadata());
+            objects.put(name, copy);
+
+            String result = "<CopyObjectResult><LastModified>%s</LastModified><ETag>%s</ETag></CopyObjectResult>"
+                    .formatted(copy.lastModified(), copy.eTag());
+
+            send(exchange, 200, "application/xml", result.getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+
+        byte[] body = body(exchange);
+
+        Map<String, String> metadata = new HashMap<>();
+        exchange.getRequestHeaders().forEach((header, values) -> {
+            if (header.toLowerCase(Locale.ROOT).startsWith("x-amz-meta-")) {
+                metadata.put(header.substring("x-amz-meta-".length()).toLowerCase(Locale.ROOT), values.get(0));
+            }
+        });
+
+        S3Object object = new S3Object(body, exchange.getRequestHeaders().getFirst("Content-Type"), eTag(body), Instant.now(), metadata);
+        objects.put(name, object);
+
+        exchange.getResponseHeaders().add("ETag", object.eTag());
+        exchange.sendResponseHeaders(200, -1);
+    }
+
+    private void get(HttpExchange exchange, String bucket, String key, boolean withBody) throws IOException {
+        S3Object object = objects.get(bucket + "/" + key);
+
+        if (object == null) {
+            if (withBody) {
+                error(exchange, 404, "NoSuchKey");
+            } else {
+                exchange.sendResponseHeaders(404, -1);
+            }
+            return;
+        }
+
+        exchange.getResponseHeaders().add("ETag", object.eTag());
+        exchange.getResponseHeaders().add("Last-Modified", HTTP_DATE.format(object.lastModified()));
+        object.metadata().forEach((k, v) -> exchange.getResponseHeaders().add("x-amz-meta-" + k, v));
+
+        if (object.contentType() != null) {
+            exchange.getResponseHeaders().add("Content-Type", object.contentType());
+        }
+
+        if (!withBody) {
+            exchange.getResponseHeaders().add("Content-Length", String.valueOf(object.body().length));
+            exchange.sendResponseHeaders(200, -1);
+            return;
+        }
+
+        exchange.sendResponseHeaders(200, object.body().length == 0 ? -1 : object.body().length);
+
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(object.body());
+        }
+    }
+
+    private void list(HttpExchange exchange, String bucket) throws IOException {
+        Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+        String prefix = query.getOrDefault("prefix", "");
+        String delimiter = query.get("delimiter");
+        boolean encode = "url".equals(query.get("encoding-type"));
+
+        StringBuilder contents = new StringBuilder();
+        Set<String> commonPrefixes = new TreeSet<>();
+        int count = 0;
+
+        String from = bucket + "/" + prefix;
+        for (Map.Entry<String, S3Object> entry : objects.tailMap(from, true).entrySet()) {
+            if (!entry.getKey().startsWith(from)) {
+                break;
+            }
+
+            String key = entry.getKey().substring(bucket.length() + 1);
+            int index = delimiter == null ? -1 : key.indexOf(delimiter, prefix.length());
+
+            if (index != -1) {
+                commonPrefixes.add(key.substring(0, index + delimiter.length()));
+                continue;
+            }
+
+            count++;
+            contents.append("<Contents><Key>").append(encode(key, encode)).append("</Key>")
+                    .append("<LastModified>").append(entry.getValue().lastModified()).append("</LastModified>")
+                    .append("<ETag>").append(entry.getValue().eTag().replace("\"", "&quot;")).append("</ETag>")
+                    .append("<Size>").append(entry.getValue().body().length).append("</Size>")
+                    .append("<StorageClass>STANDARD</StorageClass></Contents>");
+        }
+
+        StringBuilder result = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>")
+                .append("<ListBucketResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">")
+                .append("<Name>").append(bucket).append("</Name>")
+                .append("<Prefix>").append(encode(prefix, encode)).append("</Prefix>")
+                .append("<KeyCount>").append(count + commonPrefixes.size()).append("</KeyCount>")
+                .append("<MaxKeys>1000</MaxKeys>")
+                .append("<IsTruncated>false</IsTruncated>");
+
+        if (delimiter != null) {
+            result.append("<Delimiter>").append(encode(delimiter, encode)).append("</Delimiter>");
+        }
+
+        if (encode) {
+            result.append("<EncodingType>url</EncodingType>");
+        }
+
+        result.append(contents);
+
+        for (String commonPrefix : commonPrefixes) {
+            result.append("<CommonPrefixes><Prefix>").append(encode(commonPrefix, encode)).append("</Prefix></CommonPrefixes>");
+        }
+
+        result.append("</ListBucketResult>");
+
+        send(exchange, 200, "application/xml", result.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String encode(String value, boolean encode) {
+        return encode ? URLEncoder.encode(value, StandardCharsets.UTF_8) : value;
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+
+        if (rawQuery == null) {
+            return query;
+        }
+
+        for (String pair : rawQuery.split("&")) {
+            int index = pair.indexOf('=');
+            String name = URLDecoder.decode(index == -1 ? pair : pair.substring(0, index), StandardCharsets.UTF_8);
+            String value = index == -1 ? "" : URLDecoder.decode(pair.substring(index + 1), StandardCharsets.UTF_8);
+            query.put(name, value);
+        }
+
+        return query;
+    }
+
+    /**
+     * Reads the request body, decoding aws-chunked payloads sent by the S3 client over plain http.
+     */
+    private static byte[] body(HttpExchange exchange) throws IOException {
+        byte[] bytes;
+        try (InputStream inputStream = exchange.getRequestBody()) {
+            bytes = inputStream.readAllBytes();
+        }
+
+        if (exchange.getRequestHeaders().getFirst("x-amz-decoded-content-length") == null) {
+            return bytes;
+        }
+
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream(bytes.length);
+
+        int position = 0;
+        while (position < bytes.length) {
+            int lineEnd = indexOf(bytes, position);
+            String header = new String(bytes, position, lineEnd - position, StandardCharsets.US_ASCII);
+            int semicolon = header.indexOf(';');
+            int size = Integer.parseInt(semicolon == -1 ? header.trim() : header.substring(0, semicolon).trim(), 16);
+
+            position = lineEnd + 2;
+
+            if (size == 0) {
+                break;
+            }
+
+            decoded.write(bytes, position, size);
+            position += size + 2;
+        }
+
+        return decoded.toByteArray();
+    }
+
+    private static int indexOf(byte[] bytes, int from) {
+        for (int i = from; i < bytes.length - 1; i++) {
+            if (bytes[i] == '\r' && bytes[i + 1] == '\n') {
+                return i;
+            }
+        }
+
+        return bytes.length;
+    }
+
+    private static void error(HttpExchange exchange, int status, String code) throws IOException {
+        String body = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><Error><Code>%s</Code><Message>%s</Message></Error>".formatted(code, code);
+        send(exchange, status, "application/xml", body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+
+    private static String eTag(byte[] body) {
+        try {
+            return "\"%s\"".formatted(HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(body)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.benchmarks.event;
+
+import clusterless.aws.lambda.TestDatasets;
+import clusterless.cls.json.JSONUtil;
+import clusterless.cls.model.manifest.ManifestState;
+import clusterless.cls.model.state.ArcState;
+import clusterless.cls.substrate.aws.event.ArcNotifyEvent;
+import clusterless.cls.substrate.aws.event.ArcStateContext;
+import clusterless.cls.substrate.aws.event.ArcWorkloadContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link JSONUtil} serialization of the events passed between the boundary, arc state handlers, and
+ * the arc state machine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventSerializationBenchmark {
+    ArcNotifyEvent notifyEvent;
+    ArcStateContext stateContext;
+    String notifyEventJSON;
+    String stateContextJSON;
+
+    @Setup
+    public void setup() {
+        TestDatasets datasets = new TestDatasets(TestDatasets.defaultPlacement, "main");
+        String lotId = "20230227PT5M287";
+
+        notifyEvent = ArcNotifyEvent.Builder.builder()
+                .withDataset(datasets.sourceDatasetMap().get("main"))
+                .withManifest(datasets.manifestIdentifierMap(lotId, datasets.sourceDatasetMap(), ManifestState.complete).get("main").uri())
+                .withLot(lotId)
+                .build();
+
+        stateContext = ArcStateContext.builder()
+                .withArcWorkloadContext(ArcWorkloadContext.builder()
+                        .withArcNotifyEvent(notifyEvent)
+                        .withRole("main")
+                        .build())
+                .withCurrentState(ArcState.running)
+                .build();
+
+        stateContext.sinkManifests().put("main", datasets.manifestIdentifierMap(lotId, datasets.sinkDatasetMap(), ManifestState.complete).get("main").uri());
+
+        notifyEventJSON = JSONUtil.writeAsStringSafe(notifyEvent);
+        stateContextJSON = JSONUtil.writeAsStringSafe(stateContext);
+    }
+
+    @Benchmark
+    public int writeArcNotifyEvent() {
+        return JSONUtil.writeAsStringSafe(notifyEvent).length();
+    }
+
+    @Benchmark
+    public int readArcNotifyEvent() {
+        return JSONUtil.readObjectSafe(notifyEventJSON, ArcNotifyEvent.class).lot().length();
+    }
+
+    @Benchmark
+    public int writeArcStateContext() {
+        return JSONUtil.writeAsStringSafe(stateContext).length();
+    }
+
+    @Benchmark
+    public int readArcStateContext() {
+        return JSONUtil.readObjectSafe(stateContextJSON, ArcStateContext.class).sinkManifests().size();
+    }
+}
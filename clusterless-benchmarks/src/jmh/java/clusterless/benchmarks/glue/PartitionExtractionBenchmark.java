@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package clusterless.benchmarks.glue;
+
+import clusterless.aws.lambda.workload.glue.PartitionExtractor;
+import clusterless.cls.util.URIs;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the Path based partition extraction previously used by the glue add partitions arc against
+ * {@link PartitionExtractor}, for manifests of identifiers in hourly partitions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class PartitionExtractionBenchmark {
+    @Param({"10000", "1000000"})
+    int size;
+
+    @Param({"1000"})
+    int objectsPerPartition;
+
+    final URI datasetPath = URI.create("s3://bucket/dataset/");
+    final Function<String, String> partitionParser = s -> s.substring(s.indexOf('=') + 1);
+
+    List<URI> uris;
+
+    @Setup
+    public void setup() {
+        uris = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            int hour = i / objectsPerPartition;
+            uris.add(URI.create("s3://bucket/dataset/year=2023/month=%02d/day=%02d/hour=%02d/part-%05d.parquet"
+                    .formatted(hour / 720 + 1, hour / 24 % 30 + 1, hour % 24, i % objectsPerPartition)));
+        }
+    }
+
+    @Benchmark
+    public Map<URI, List<String>> pathBased() {
+        Path parent = Paths.get(datasetPath.getPath());
+
+        Set<Path> uniquePaths = uris.stream()
+                .map(u -> parent.relativize(Paths.get(u.getPath())))
+                .map(Path::getParent)
+                .collect(Collectors.toSet());
+
+        return uniquePaths.stream()
+                .collect(Collectors.toMap(
+                        p -> URIs.copyAppendAsPath(datasetPath, p.toString()),
+                        p -> {
+                            List<String> partitionValues = new LinkedList<>();
+                            for (int i = 0; i < p.getNameCount(); i++) {
+                                partitionValues.add(partitionParser.apply(p.getName(i).getFileName().toString()));
+                            }
+                            return partitionValues;
+                        }
+                ));
+    }
+
+    @Benchmark
+    public Map<URI, List<String>> extractor() {
+        Map<String, List<String>> unique = new PartitionExtractor(datasetPath, true, partitionParser)
+                .extract(uris);
+
+        Map<URI, List<String>> partitions = new LinkedHashMap<>();
+        unique.forEach((p, values) -> partitions.put(URIs.copyAppendAsPath(datasetPath, p), values));
+
+        return partitions;
+    }
+}
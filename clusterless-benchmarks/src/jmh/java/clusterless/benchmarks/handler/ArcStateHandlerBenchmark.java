@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.benchmarks.handler;
+
+import clusterless.aws.lambda.TestDatasets;
+import clusterless.aws.lambda.arc.ArcStateCompleteHandler;
+import clusterless.aws.lambda.arc.ArcStateProps;
+import clusterless.aws.lambda.arc.ArcStateStartHandler;
+import clusterless.benchmarks.aws.InMemoryAws;
+import clusterless.cls.model.manifest.ManifestState;
+import clusterless.cls.substrate.aws.event.ArcNotifyEvent;
+import clusterless.cls.substrate.aws.event.ArcStateContext;
+import clusterless.cls.substrate.aws.sdk.ClientPool;
+import clusterless.cls.substrate.uri.ArcStateURI;
+import org.openjdk.jmh.annotations.*;
+import uk.org.webcompere.systemstubs.environment.EnvironmentVariables;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a warm arc state machine round trip, {@link ArcStateStartHandler} followed by
+ * {@link ArcStateCompleteHandler}, end to end against {@link InMemoryAws}.
+ * <p>
+ * Each invocation uses a new lot so every round trip moves a lot from missing, to running, to complete.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArcStateHandlerBenchmark {
+    @Param({"false", "true"})
+    boolean conditionalState;
+
+    TestDatasets datasets;
+    InMemoryAws aws;
+    EnvironmentVariables environment;
+    ArcStateStartHandler startHandler;
+    ArcStateCompleteHandler completeHandler;
+    long lot;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        datasets = new TestDatasets(TestDatasets.defaultPlacement, "main");
+
+        ArcStateProps props = ArcStateProps.builder()
+                .withName("test-arc")
+                .withProject(TestDatasets.project)
+                .withSinks(datasets.sinkDatasetMapAsSink())
+                .withSources(datasets.sourceDatasetMapAsSource())
+                .withArcStatePath(
+                        ArcStateURI.builder()
+                                .withPlacement(TestDatasets.defaultPlacement)
+                                .withProject(TestDatasets.project)
+                                .withArcName("test-arc")
+                                .build()
+                )
+                .withEventBusName("forwarding-bus")
+                .withConditionalState(conditionalState)
+                .build();
+
+        aws = new InMemoryAws();
+        environment = aws.environment(props);
+        environment.setup();
+
+        startHandler = new ArcStateStartHandler();
+        completeHandler = new ArcStateCompleteHandler();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        ClientPool.closeAll();
+        environment.teardown();
+        aws.close();
+    }
+
+    @Benchmark
+    public long handleRequest() {
+        String lotId = "20230227PT5M%09d".formatted(lot++);
+
+        ArcNotifyEvent notifyEvent = ArcNotifyEvent.Builder.builder()
+                .withDataset(datasets.sourceDatasetMap().get("main"))
+                .withManifest(datasets.manifestIdentifierMap(lotId, datasets.sourceDatasetMap(), ManifestState.complete).get("main").uri())
+                .withLot(lotId)
+                .build();
+
+        ArcStateContext startContext = startHandler.handleRequest(notifyEvent, null);
+
+        startContext.sinkManifests().put("main", datasets.manifestIdentifierMap(lotId, datasets.sinkDatasetMap(), ManifestState.complete).get("main").uri());
+
+        completeHandler.handleRequest(startContext, null);
+
+        return aws.events();
+    }
+}
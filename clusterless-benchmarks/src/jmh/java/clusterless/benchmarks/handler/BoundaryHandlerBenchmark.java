@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.benchmarks.handler;
+
+import clusterless.aws.lambda.TestDatasets;
+import clusterless.aws.lambda.boundary.s3put.LotSource;
+import clusterless.aws.lambda.boundary.s3put.PutEventBoundaryHandler;
+import clusterless.aws.lambda.boundary.s3put.S3PutBoundaryProps;
+import clusterless.aws.lambda.transform.json.object.AWSEvent;
+import clusterless.benchmarks.aws.InMemoryAws;
+import clusterless.cls.json.JSONUtil;
+import clusterless.cls.model.manifest.ManifestState;
+import clusterless.cls.substrate.aws.sdk.ClientPool;
+import clusterless.commons.temporal.IntervalUnit;
+import org.openjdk.jmh.annotations.*;
+import uk.org.webcompere.systemstubs.environment.EnvironmentVariables;
+
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a warm {@link PutEventBoundaryHandler} invocation end to end, against {@link InMemoryAws}.
+ * <p>
+ * Each invocation advances the event time by one lot interval, as manifests may only be written once per lot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BoundaryHandlerBenchmark {
+    static final String EVENT = """
+            {
+              "version": "0",
+              "id": "17793124-05d4-b198-2fde-7ededc63b103",
+              "detail-type": "Object Created",
+              "source": "aws.s3",
+              "account": "111122223333",
+              "time": "2021-11-12T00:00:00Z",
+              "region": "us-east-2",
+              "resources": ["arn:aws:s3:::DOC-EXAMPLE-BUCKET1"],
+              "detail": {
+                "version": "0",
+                "bucket": {"name": "DOC-EXAMPLE-BUCKET1"},
+                "object": {
+                  "key": "project/version/y=2023/m=12/d=31/data.json",
+                  "size": 5,
+                  "etag": "b1946ac92492d2347c6235b4d2611184",
+                  "sequencer": "617f08299329d189"
+                },
+                "request-id": "N4N7GDK58NMKJ12R",
+                "requester": "123456789012",
+                "reason": "PutObject"
+              }
+            }
+            """;
+
+    InMemoryAws aws;
+    EnvironmentVariables environment;
+    PutEventBoundaryHandler handler;
+    AWSEvent event;
+    OffsetDateTime time;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        TestDatasets datasets = new TestDatasets(TestDatasets.defaultPlacement, "main");
+
+        S3PutBoundaryProps props = S3PutBoundaryProps.builder()
+                .withLotSource(LotSource.eventTime)
+                .withManifestCompletePath(datasets.manifestPathList(ManifestState.complete).get(0))
+                .withManifestPartialPath(datasets.manifestPathList(ManifestState.partial).get(0))
+                .withLotUnit(IntervalUnit.TWELFTHS.name())
+                .withDataset(datasets.sinkDatasetListAsSink().get(0))
+                .withEventBusName("forwarding-bus")
+                .build();
+
+        aws = new InMemoryAws();
+        environment = aws.environment(props);
+        environment.setup();
+
+        handler = new PutEventBoundaryHandler();
+        event = JSONUtil.readObjectSafe(EVENT, AWSEvent.class);
+        time = event.getTime();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        ClientPool.closeAll();
+        environment.teardown();
+        aws.close();
+    }
+
+    @Benchmark
+    public long handleRequest() {
+        time = time.plusMinutes(5);
+        event.setTime(time);
+
+        handler.handleRequest(event, null);
+
+        return aws.events();
+    }
+}
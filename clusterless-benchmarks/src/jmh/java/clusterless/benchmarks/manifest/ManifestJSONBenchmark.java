@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.benchmarks.manifest;
+
+import clusterless.cls.json.JSONUtil;
+import clusterless.cls.model.UriType;
+import clusterless.cls.model.manifest.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures writing and reading a manifest as a single json document via {@link JSONUtil#OBJECT_MAPPER}, and
+ * as a streamed manifest via {@link ManifestStreamWriter} and {@link ManifestStreamReader}, for each
+ * {@link ManifestUriEncoding}, optionally compressed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class ManifestJSONBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    int uris;
+
+    @Param({"absolute", "frontCoded"})
+    ManifestUriEncoding uriEncoding;
+
+    @Param({"false", "true"})
+    boolean compress;
+
+    URI root;
+    Manifest manifest;
+    byte[] json;
+    byte[] stream;
+
+    @Setup
+    public void setup() throws IOException {
+        root = URI.create("s3://bucket/datasets/name=access-logs/version=20230817/");
+
+        List<URI> list = new ArrayList<>(uris);
+        for (int i = 0; i < uris; i++) {
+            list.add(URI.create("%slot=20230921PT5M%03d/part-%07d.csv.gz".formatted(root, i % 1000, i)));
+        }
+
+        manifest = Manifest.builder()
+                .withState(ManifestState.complete)
+                .withLotId("20230921PT5M000")
+                .withUriType(UriType.identifier)
+                .withUris(list)
+                .build();
+
+        json = JSONUtil.OBJECT_MAPPER.writeValueAsBytes(manifest);
+        stream = writeStreamBytes();
+    }
+
+    @Benchmark
+    public int writeJSON() throws IOException {
+        return JSONUtil.OBJECT_MAPPER.writeValueAsBytes(manifest).length;
+    }
+
+    @Benchmark
+    public int readJSON() throws IOException {
+        return JSONUtil.OBJECT_MAPPER.readValue(json, Manifest.class).uris().size();
+    }
+
+    @Benchmark
+    public int writeStream() throws IOException {
+        return writeStreamBytes().length;
+    }
+
+    @Benchmark
+    public int readStream() throws IOException {
+        int count = 0;
+
+        try (ManifestStreamReader reader = new ManifestStreamReader(new ByteArrayInputStream(stream), compress)) {
+            for (URI ignored : reader) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    private byte[] writeStreamBytes() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(json.length);
+        ManifestHeader header = ManifestHeader.of(manifest, uriEncoding, root);
+
+        try (ManifestStreamWriter writer = new ManifestStreamWriter(outputStream, header, compress)) {
+            writer.writeAll(manifest.uris());
+        }
+
+        return outputStream.toByteArray();
+    }
+}
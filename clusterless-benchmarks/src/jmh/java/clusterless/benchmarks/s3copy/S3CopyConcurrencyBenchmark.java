@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.benchmarks.s3copy;
+
+import clusterless.benchmarks.aws.InMemoryAws;
+import clusterless.cls.substrate.aws.sdk.ClientPool;
+import clusterless.cls.substrate.aws.sdk.S3;
+import clusterless.cls.util.Tuple2;
+import clusterless.cls.util.URIs;
+import org.openjdk.jmh.annotations.*;
+import uk.org.webcompere.systemstubs.environment.EnvironmentVariables;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures objects copied per second by {@link S3#copy(Iterable, int, java.util.function.Consumer, java.util.function.BiFunction)}
+ * for increasing copy concurrency, against {@link InMemoryAws} with a fixed latency per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@OperationsPerInvocation(S3CopyConcurrencyBenchmark.OBJECTS)
+public class S3CopyConcurrencyBenchmark {
+    static final int OBJECTS = 200;
+
+    @Param({"1", "2", "4", "8", "16", "32", "50"})
+    int concurrency;
+
+    @Param({"10"})
+    int latencyMillis;
+
+    InMemoryAws aws;
+    EnvironmentVariables environment;
+    S3 s3;
+    List<Tuple2<URI, URI>> toUris;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        aws = new InMemoryAws(Duration.ofMillis(latencyMillis), S3.MAX_CONNECTIONS);
+        environment = aws.environment();
+        environment.setup();
+
+        s3 = new S3();
+
+        URI fromPath = URI.create("s3://benchmark-from/data/");
+        URI toPath = URI.create("s3://benchmark-to/data/");
+
+        toUris = new ArrayList<>(OBJECTS);
+
+        for (int i = 0; i < OBJECTS; i++) {
+            URI from = URIs.copyAppend(fromPath, "part-%05d.csv".formatted(i));
+            s3.put(from, "application/text", "part=%d".formatted(i))
+                    .isSuccessOrThrowRuntime(r -> "unable to write: %s".formatted(r.errorMessage()));
+            toUris.add(new Tuple2<>(from, URIs.fromTo(fromPath, from, toPath)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        ClientPool.closeAll();
+        environment.teardown();
+        aws.close();
+    }
+
+    @Benchmark
+    public int copy() {
+        AtomicInteger completed = new AtomicInteger();
+
+        boolean result = s3.copy(toUris, concurrency, uri -> completed.incrementAndGet(), (tuple, response) -> true);
+
+        if (!result || completed.get() != OBJECTS) {
+            throw new IllegalStateException("copied: %d, of: %d".formatted(completed.get(), OBJECTS));
+        }
+
+        return completed.get();
+    }
+}
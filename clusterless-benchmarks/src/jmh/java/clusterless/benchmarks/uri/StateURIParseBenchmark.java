@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.benchmarks.uri;
+
+import clusterless.cls.model.deploy.LocatedDataset;
+import clusterless.cls.model.manifest.ManifestState;
+import clusterless.cls.substrate.uri.ArcStateURI;
+import clusterless.cls.substrate.uri.ManifestURI;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Compares the previous decode, split, and regex based parsing of manifest keys against
+ * {@link ManifestURI#parse(String)} and {@link ArcStateURI#parse(String)}, for keys as listed by the scanners.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StateURIParseBenchmark {
+    private static final Pattern VALUE = Pattern.compile("^.+=");
+
+    final int keys = 10_000;
+
+    List<String> manifestKeys;
+    List<String> arcStateKeys;
+
+    @Setup
+    public void setup() {
+        manifestKeys = new ArrayList<>(keys);
+        arcStateKeys = new ArrayList<>(keys);
+
+        for (int i = 0; i < keys; i++) {
+            String lot = "20230921PT5M%03d".formatted(i % 1000);
+            manifestKeys.add("datasets/name=access-logs/version=20230817/lot=%s/state=%s/attempt=%d/manifest.json"
+                    .formatted(lot, i % 2 == 0 ? "complete" : "partial", 1695300000000L + i));
+            arcStateKeys.add("arcs/project=logs/version=20230101/arc=transform/lot=%s/%s.arc"
+                    .formatted(lot, i % 2 == 0 ? "complete" : "running"));
+        }
+    }
+
+    @Benchmark
+    public int manifestSplit() {
+        int count = 0;
+
+        for (String key : manifestKeys) {
+            String template = URLDecoder.decode(key, UTF_8);
+            String[] split = template.split("/");
+
+            ManifestURI uri = ManifestURI.builder()
+                    .withDataset(LocatedDataset.Builder.builder()
+                            .withName(value(split, 1))
+                            .withVersion(value(split, 2))
+                            .build())
+                    .withLotId(value(split, 3))
+                    .withState(parseState(split[4]))
+                    .build();
+
+            count += uri.lotId().length();
+        }
+
+        return count;
+    }
+
+    @Benchmark
+    public int manifestParse() {
+        int count = 0;
+
+        for (String key : manifestKeys) {
+            count += ManifestURI.parse(key).lotId().length();
+        }
+
+        return count;
+    }
+
+    @Benchmark
+    public int arcStateParse() {
+        int count = 0;
+
+        for (String key : arcStateKeys) {
+            count += ArcStateURI.parse(key).lotId().length();
+        }
+
+        return count;
+    }
+
+    private static String value(String[] split, int index) {
+        String value = VALUE.matcher(split[index]).replaceAll("");
+        return value.startsWith("{") && value.endsWith("}") ? null : value;
+    }
+
+    private static ManifestState parseState(String partition) {
+        partition = partition.toLowerCase(Locale.ROOT);
+
+        for (ManifestState value : ManifestState.values()) {
+            if (partition.matches(String.format("^(.*[=])?%s([.].*)?$", value))) {
+                return value;
+            }
+        }
+
+        return null;
+    }
+}
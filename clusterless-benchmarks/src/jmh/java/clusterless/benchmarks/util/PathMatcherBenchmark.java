@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.benchmarks.util;
+
+import clusterless.aws.lambda.util.AntPathMatcher;
+import clusterless.aws.lambda.util.PathMatcher;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Compares the chain of {@link AntPathMatcher} predicates previously built by {@link PathMatcher} against the
+ * compiled patterns it now uses, for a batch of S3 keys and an increasing number of include and exclude patterns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PathMatcherBenchmark {
+    @Param({"1", "10", "50"})
+    int patterns;
+
+    @Param({"false", "true"})
+    boolean ignoreCase;
+
+    final String path = "/dataset/";
+    final int keys = 10_000;
+
+    List<String> paths;
+    Predicate<String> chained;
+    PathMatcher compiled;
+
+    @Setup
+    public void setup() {
+        List<String> includes = new ArrayList<>();
+        List<String> excludes = new ArrayList<>();
+
+        for (int i = 0; i < patterns; i++) {
+            includes.add("/dataset/source=%02d/**/*.parquet".formatted(i));
+            excludes.add(i % 2 == 0 ? "**/_*" : "source=%02d/**/_temporary/**".formatted(i));
+        }
+
+        paths = new ArrayList<>(keys);
+
+        for (int i = 0; i < keys; i++) {
+            String name = i % 10 == 0 ? "_SUCCESS" : "part-%05d.parquet".formatted(i);
+            paths.add("/dataset/source=%02d/year=2023/month=%02d/day=%02d/%s".formatted(i % (patterns * 2), i % 12 + 1, i % 28 + 1, name));
+        }
+
+        chained = chain(includes, excludes);
+        compiled = PathMatcher.builder()
+                .withPath(path)
+                .withIncludes(includes)
+                .withExcludes(excludes)
+                .withIgnoreCase(ignoreCase)
+                .build();
+    }
+
+    private Predicate<String> chain(List<String> includes, List<String> excludes) {
+        AntPathMatcher matcher = new AntPathMatcher('/');
+        matcher.setCaseSensitive(!ignoreCase);
+
+        Predicate<String> include = includes.stream()
+                .map(pattern -> predicate(pattern, matcher))
+                .reduce(Predicate::or)
+                .orElseThrow();
+
+        Predicate<String> exclude = excludes.stream()
+                .map(pattern -> predicate(pattern, matcher))
+                .reduce(Predicate::or)
+                .orElseThrow();
+
+        return include.and(exclude.negate());
+    }
+
+    private Predicate<String> predicate(String pattern, AntPathMatcher matcher) {
+        if (pattern.charAt(0) == '/') {
+            return p -> matcher.match(pattern, p);
+        }
+
+        return p -> matcher.match(pattern, p.subSequence(path.length(), p.length()));
+    }
+
+    @Benchmark
+    public int antPathMatcher() {
+        int kept = 0;
+
+        for (String p : paths) {
+            if (chained.test(p)) {
+                kept++;
+            }
+        }
+
+        return kept;
+    }
+
+    @Benchmark
+    public int compiledPathMatcher() {
+        int kept = 0;
+
+        for (String p : paths) {
+            if (compiled.keep(p)) {
+                kept++;
+            }
+        }
+
+        return kept;
+    }
+}
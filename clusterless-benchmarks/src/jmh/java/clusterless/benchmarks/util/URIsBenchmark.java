@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.benchmarks.util;
+
+import clusterless.cls.util.URIs;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * Measures the uri helpers called per object by the copy and boundary handlers, {@link URIs#normalize(String)},
+ * {@link URIs#copyAppend(URI, String...)}, and {@link URIs#fromTo(URI, URI, URI)} against the cached
+ * {@link URIs#fromTo(URI, URI)} operator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class URIsBenchmark {
+    final int uris = 10_000;
+
+    URI fromBase;
+    URI toBase;
+    List<URI> fromUris;
+    List<String> paths;
+    List<String> names;
+
+    @Setup
+    public void setup() {
+        fromBase = URI.create("s3://from-bucket/datasets/name=access-logs/version=20230817/");
+        toBase = URI.create("s3://to-bucket/datasets/name=access-logs-copy/version=20230817/");
+
+        fromUris = new ArrayList<>(uris);
+        paths = new ArrayList<>(uris);
+        names = new ArrayList<>(uris);
+
+        for (int i = 0; i < uris; i++) {
+            String name = "lot=20230921PT5M%03d/part-%05d.csv".formatted(i % 1000, i);
+            names.add(name);
+            fromUris.add(URI.create(fromBase + name));
+            // every other path has a run of slashes to collapse
+            paths.add(i % 2 == 0 ? "/datasets/name=access-logs/" + name : "/datasets//name=access-logs///" + name);
+        }
+    }
+
+    @Benchmark
+    public int normalize() {
+        int count = 0;
+
+        for (String path : paths) {
+            count += URIs.normalize(path).length();
+        }
+
+        return count;
+    }
+
+    @Benchmark
+    public int copyAppend() {
+        int count = 0;
+
+        for (String name : names) {
+            count += URIs.copyAppend(fromBase, name).getPath().length();
+        }
+
+        return count;
+    }
+
+    @Benchmark
+    public int fromToPerCall() {
+        int count = 0;
+
+        for (URI from : fromUris) {
+            count += URIs.fromTo(fromBase, from, toBase).getPath().length();
+        }
+
+        return count;
+    }
+
+    @Benchmark
+    public int fromToOperator() {
+        int count = 0;
+
+        UnaryOperator<URI> fromTo = URIs.fromTo(fromBase, toBase);
+
+        for (URI from : fromUris) {
+            count += fromTo.apply(from).getPath().length();
+        }
+
+        return count;
+    }
+}
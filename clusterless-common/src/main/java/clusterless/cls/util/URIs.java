@@ -15,7 +15,7 @@ import javax.annotation.Nullable;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URLEncoder;
-import java.util.regex.Pattern;
+import java.util.function.UnaryOperator;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
@@ -23,8 +23,6 @@ import static java.nio.charset.StandardCharsets.UTF_8;
  *
  */
 public class URIs {
-    private static final Pattern NORMALIZE = Pattern.compile("(?<!:)/{2,}");
-
     public static URI create(String scheme, String authority, String path) {
         try {
             return new URI(scheme, authority, normalize("/", path), null, null);
@@ -34,6 +32,12 @@ public class URIs {
     }
 
     public static URI copyAppendAsPath(URI uri, String... path) {
+        String joined = join(uri.getPath(), path, true);
+
+        if (joined != null) {
+            return create(uri, joined);
+        }
+
         return copyAppend(
                 uri,
                 Partition.NULL
@@ -47,6 +51,12 @@ public class URIs {
             return uri;
         }
 
+        String joined = join(uri.getPath(), path, path[path.length - 1].endsWith("/"));
+
+        if (joined != null) {
+            return create(uri, joined);
+        }
+
         try {
             String normalize = normalize(
                     Partition.of(uri.getPath())
@@ -59,6 +69,62 @@ public class URIs {
         }
     }
 
+    private static URI create(URI uri, String path) {
+        try {
+            return new URI(uri.getScheme(), uri.getAuthority(), path, null, null);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("unable to copy uri", e);
+        }
+    }
+
+    /**
+     * Joins the path elements with a slash, in a single pass collapsing repeated slashes.
+     * <p>
+     * Returns null if any element is null or empty, or contains a colon, as these are left to {@link Partition}
+     * and the colon rule in {@link #normalize(String)}.
+     */
+    private static String join(String base, String[] path, boolean trailingSlash) {
+        if (base == null || base.indexOf(':') != -1) {
+            return null;
+        }
+
+        int length = base.length() + path.length + 1;
+        for (String element : path) {
+            if (element == null || element.isEmpty() || element.indexOf(':') != -1) {
+                return null;
+            }
+
+            length += element.length();
+        }
+
+        StringBuilder builder = new StringBuilder(length);
+
+        appendCollapsed(builder, base);
+
+        for (String element : path) {
+            appendCollapsed(builder, "/");
+            appendCollapsed(builder, element);
+        }
+
+        if (trailingSlash) {
+            appendCollapsed(builder, "/");
+        }
+
+        return builder.toString();
+    }
+
+    private static void appendCollapsed(StringBuilder builder, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+
+            if (c == '/' && !builder.isEmpty() && builder.charAt(builder.length() - 1) == '/') {
+                continue;
+            }
+
+            builder.append(c);
+        }
+    }
+
     public static URI copyWith(URI uri, String path) {
         if (Strings.isNullOrEmpty(path)) {
             path = "/";
@@ -93,7 +159,42 @@ public class URIs {
      */
     public static String normalize(String path) {
         String empty = Strings.nullToEmpty(path);
-        return NORMALIZE.matcher(empty).replaceAll("/");
+
+        if (!empty.contains("//")) {
+            return empty;
+        }
+
+        // same as replacing (?<!:)/{2,} with a single slash, a run following a colon retains up to two slashes
+        StringBuilder builder = new StringBuilder(empty.length());
+
+        int i = 0;
+        while (i < empty.length()) {
+            char c = empty.charAt(i);
+
+            if (c != '/') {
+                builder.append(c);
+                i++;
+                continue;
+            }
+
+            int run = i;
+            while (run < empty.length() && empty.charAt(run) == '/') {
+                run++;
+            }
+
+            int slashes = run - i;
+            boolean afterColon = i > 0 && empty.charAt(i - 1) == ':';
+
+            builder.append('/');
+
+            if (afterColon && slashes >= 2) {
+                builder.append('/');
+            }
+
+            i = run;
+        }
+
+        return builder.toString();
     }
 
     public static String normalize(String path, String append) {
@@ -199,26 +300,46 @@ public class URIs {
     }
 
     public static URI fromTo(URI fromBase, URI from, URI toBase) {
+        return fromTo(fromBase, toBase).apply(from);
+    }
+
+    /**
+     * Returns a function that rebases a uri under {@code fromBase} to the same relative path under {@code toBase}.
+     * <p>
+     * The normalized base paths are computed once, so rebasing many uris only appends each relative path.
+     */
+    public static UnaryOperator<URI> fromTo(URI fromBase, URI toBase) {
         String fromBaseScheme = fromBase.getScheme();
-        String fromScheme = from.getScheme();
-        if (!fromBaseScheme.equals(fromScheme)) {
-            throw new IllegalArgumentException(String.format("fromBase and from must have the same scheme, got fromBase: %s, from: %s", fromBaseScheme, fromScheme));
+        String fromBaseHost = fromBase.getHost();
+        String fromBasePath = normalize(fromBase.getPath(), "/");
+        String toBasePath = toBase.getPath();
+        String toPrefix = join(toBasePath, new String[]{"/"}, false);
 
-        }
+        return from -> {
+            String fromScheme = from.getScheme();
+            if (!fromBaseScheme.equals(fromScheme)) {
+                throw new IllegalArgumentException(String.format("fromBase and from must have the same scheme, got fromBase: %s, from: %s", fromBaseScheme, fromScheme));
+            }
 
-        String fromBaseHost = fromBase.getHost();
-        String fromHost = from.getHost();
-        if (!fromBaseHost.equals(fromHost)) {
-            throw new IllegalArgumentException(String.format("fromBase and from must have the same host, got fromBase: %s, from: %s", fromBaseHost, fromHost));
-        }
+            String fromHost = from.getHost();
+            if (!fromBaseHost.equals(fromHost)) {
+                throw new IllegalArgumentException(String.format("fromBase and from must have the same host, got fromBase: %s, from: %s", fromBaseHost, fromHost));
+            }
 
-        String fromBasePath = normalize(fromBase.getPath(), "/");
-        String fromPath = normalize(from.getPath());
-        if (!fromPath.startsWith(fromBasePath)) {
-            throw new IllegalArgumentException(String.format("fromBase and from must have a common path, got fromBase: %s, from: %s", fromBasePath, fromPath));
-        }
+            String fromPath = normalize(from.getPath());
+            if (!fromPath.startsWith(fromBasePath)) {
+                throw new IllegalArgumentException(String.format("fromBase and from must have a common path, got fromBase: %s, from: %s", fromBasePath, fromPath));
+            }
+
+            String relative = fromPath.substring(fromBasePath.length());
+
+            // a normalized relative path without a leading slash may be appended directly
+            if (toPrefix == null || relative.isEmpty() || relative.charAt(0) == '/' || relative.indexOf(':') != -1) {
+                return copyAppend(toBase, relative);
+            }
 
-        return copyAppend(toBase, fromPath.substring(fromBasePath.length()));
+            return create(toBase, toPrefix.concat(relative));
+        };
     }
 
     public static String encodeOnly(String chars, String path) {
@@ -15,6 +15,7 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import java.net.URI;
+import java.util.function.UnaryOperator;
 import java.util.stream.Stream;
 
 /**
@@ -32,6 +33,10 @@ public class URIsTest {
         Assertions.assertEquals("/foo/", URIs.normalize("/foo//"));
         Assertions.assertEquals("/foo/", URIs.normalize("/foo/"));
         Assertions.assertEquals("", URIs.normalize(IS_NULL));
+        Assertions.assertEquals("/foo/bar/", URIs.normalize("///foo///bar//"));
+        Assertions.assertEquals("s3://foo/bar", URIs.normalize("s3://foo//bar"));
+        Assertions.assertEquals("s3://foo", URIs.normalize("s3:////foo"));
+        Assertions.assertEquals("s3:/foo", URIs.normalize("s3:/foo"));
     }
 
     @Test
@@ -186,6 +191,17 @@ public class URIsTest {
         Assertions.assertEquals(expectedTo, actualTo);
     }
 
+    @Test
+    public void fromToMany() {
+        UnaryOperator<URI> fromTo = URIs.fromTo(URI.create("s3://from/path"), URI.create("s3://to/path1/path2"));
+
+        Assertions.assertEquals(URI.create("s3://to/path1/path2/one/file.txt"), fromTo.apply(URI.create("s3://from/path/one/file.txt")));
+        Assertions.assertEquals(URI.create("s3://to/path1/path2/one/two/"), fromTo.apply(URI.create("s3://from/path//one//two/")));
+        Assertions.assertEquals(URI.create("s3://to/path1/path2/one/file%20name.txt"), fromTo.apply(URI.create("s3://from/path/one/file%20name.txt")));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> fromTo.apply(URI.create("s3://other/path/one/file.txt")));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> fromTo.apply(URI.create("s3://from/other/one/file.txt")));
+    }
+
     @Test
     public void selectEncode() {
         Assertions.assertEquals("foo/bar", URIs.encodeOnly("", "foo/bar"));
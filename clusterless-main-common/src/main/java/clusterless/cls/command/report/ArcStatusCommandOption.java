@@ -25,6 +25,12 @@ public class ArcStatusCommandOption extends CommonCommandOptions {
     )
     RangeOptions rangeOptions = new RangeOptions();
 
+    @CommandLine.ArgGroup(
+            exclusive = false,
+            heading = "Cache Options:%n"
+    )
+    CacheOptions cacheOptions = new CacheOptions();
+
     @CommandLine.Option(
             names = {"--name"},
             description = "Filter results by the name of the arc."
@@ -47,6 +53,10 @@ public class ArcStatusCommandOption extends CommonCommandOptions {
         return rangeOptions;
     }
 
+    public CacheOptions cacheOptions() {
+        return cacheOptions;
+    }
+
     public Moment earliest() {
         return rangeOptions.earliest();
     }
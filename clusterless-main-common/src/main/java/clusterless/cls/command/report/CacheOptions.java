@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.cls.command.report;
+
+import picocli.CommandLine;
+
+import java.time.Duration;
+
+public class CacheOptions {
+    @CommandLine.Option(
+            names = {"--cache"},
+            negatable = true,
+            defaultValue = "true",
+            fallbackValue = "true",
+            description = {
+                    "Cache state listings locally, subsequent reports only list new and recent states.",
+                    "(default: ${DEFAULT-VALUE})"
+            }
+    )
+    private boolean cache = true;
+
+    @CommandLine.Option(
+            names = {"--cache-ttl"},
+            description = {
+                    "Cached states for lots within this duration of when they were listed are listed again,",
+                    "as their state may have changed since. ISO-8601 duration, e.g. PT1H or P1D.",
+                    "(default: ${DEFAULT-VALUE})"
+            },
+            defaultValue = "PT1H"
+    )
+    private Duration cacheTTL = Duration.ofHours(1);
+
+    @CommandLine.Option(
+            names = {"--refresh-cache"},
+            description = "Discard cached state listings and list again."
+    )
+    private boolean refreshCache = false;
+
+    public boolean cache() {
+        return cache;
+    }
+
+    public Duration cacheTTL() {
+        return cacheTTL;
+    }
+
+    public boolean refreshCache() {
+        return refreshCache;
+    }
+}
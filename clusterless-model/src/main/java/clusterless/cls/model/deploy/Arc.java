@@ -10,6 +10,8 @@ package clusterless.cls.model.deploy;
 
 import clusterless.cls.json.JsonRequiredProperty;
 import clusterless.cls.managed.component.DocumentsModel;
+import clusterless.cls.model.manifest.ManifestFormat;
+import clusterless.cls.model.manifest.ManifestUriEncoding;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -35,6 +37,19 @@ import java.util.Map;
                                 
                 workload: The workload to be deployed. Optional.
                           See the documentation for the arc component for details.
+
+                conditionalState: Store the state of each lot in a single object updated with conditional writes.
+                                  Optional, the default is false.
+
+                manifestFormat: json|ndjson
+                                How the sink manifests are written. Optional, the default is json.
+                                ndjson streams lots over 10,000 uris as gzip compressed newline delimited json,
+                                workloads reading the manifests outside of clusterless must support this form.
+
+                manifestUriEncoding: absolute|frontCoded
+                                     How the uris of ndjson manifests are encoded. Optional, the default is absolute.
+                                     frontCoded stores each uri as the prefix it shares with the previous uri and
+                                     the remaining suffix.
                 """
 )
 public class Arc<W extends Workload<?>> extends Extensible {
@@ -47,6 +62,12 @@ public class Arc<W extends Workload<?>> extends Extensible {
 
     W workload;
 
+    boolean conditionalState = false;
+
+    ManifestFormat manifestFormat = ManifestFormat.json;
+
+    ManifestUriEncoding manifestUriEncoding = ManifestUriEncoding.absolute;
+
     public Arc() {
     }
 
@@ -69,4 +90,16 @@ public class Arc<W extends Workload<?>> extends Extensible {
     public W workload() {
         return workload;
     }
+
+    public boolean conditionalState() {
+        return conditionalState;
+    }
+
+    public ManifestFormat manifestFormat() {
+        return manifestFormat;
+    }
+
+    public ManifestUriEncoding manifestUriEncoding() {
+        return manifestUriEncoding;
+    }
 }
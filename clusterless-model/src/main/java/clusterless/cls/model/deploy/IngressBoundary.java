@@ -9,6 +9,8 @@
 package clusterless.cls.model.deploy;
 
 import clusterless.cls.json.JsonRequiredProperty;
+import clusterless.cls.model.manifest.ManifestFormat;
+import clusterless.cls.model.manifest.ManifestUriEncoding;
 
 /**
  *
@@ -18,7 +20,19 @@ public abstract class IngressBoundary extends Boundary {
     @JsonRequiredProperty
     private String lotUnit;
 
+    private ManifestFormat manifestFormat = ManifestFormat.json;
+
+    private ManifestUriEncoding manifestUriEncoding = ManifestUriEncoding.absolute;
+
     public String lotUnit() {
         return lotUnit;
     }
+
+    public ManifestFormat manifestFormat() {
+        return manifestFormat;
+    }
+
+    public ManifestUriEncoding manifestUriEncoding() {
+        return manifestUriEncoding;
+    }
 }
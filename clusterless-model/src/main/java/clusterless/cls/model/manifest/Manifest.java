@@ -21,6 +21,12 @@ import java.util.List;
  */
 public class Manifest implements Content, Struct {
     public static final String JSON_EXTENSION = "json";
+    public static final String JSON_CONTENT_TYPE = "application/json";
+    /**
+     * The content type of a streamed manifest, see {@link ManifestStreamWriter}.
+     */
+    public static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+    public static final String GZIP_ENCODING = "gzip";
 
     @JsonRequiredProperty
     protected ManifestState state;
@@ -66,7 +72,7 @@ public class Manifest implements Content, Struct {
 
     @Override
     public String contentType() {
-        return "application/json";
+        return JSON_CONTENT_TYPE;
     }
 
     public static final class Builder {
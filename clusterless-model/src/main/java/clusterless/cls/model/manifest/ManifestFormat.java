@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.cls.model.manifest;
+
+/**
+ * How a manifest is written.
+ * <p>
+ * Manifests are read by workloads outside this project, so the json document remains the default.
+ */
+public enum ManifestFormat {
+    /**
+     * A single json document.
+     */
+    json,
+    /**
+     * Lots larger than the streaming threshold are streamed as gzip compressed newline delimited json, see
+     * {@link ManifestStreamWriter}. Smaller lots are written as json.
+     */
+    ndjson
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.cls.model.manifest;
+
+import clusterless.cls.model.Struct;
+import clusterless.cls.model.UriType;
+
+import java.net.URI;
+
+/**
+ * The first line of a streamed manifest, everything in a {@link Manifest} except the uris.
+ * <p>
+ * The count is the number of uri lines that follow, readers use it to detect a truncated manifest. The root is
+ * typically the dataset path, and is the seed for {@link ManifestUriEncoding#frontCoded} uris.
+ */
+public class ManifestHeader implements Struct {
+    public static final int CURRENT_VERSION = 1;
+
+    protected int version = CURRENT_VERSION;
+    protected ManifestState state;
+    protected String comment;
+    protected String lotId;
+    protected UriType uriType = UriType.identifier;
+    protected long count;
+    protected ManifestUriEncoding uriEncoding = ManifestUriEncoding.absolute;
+    protected URI root;
+
+    public ManifestHeader() {
+    }
+
+    public ManifestHeader(ManifestState state, String comment, String lotId, UriType uriType, long count) {
+        this(state, comment, lotId, uriType, count, ManifestUriEncoding.absolute, null);
+    }
+
+    public ManifestHeader(ManifestState state, String comment, String lotId, UriType uriType, long count, ManifestUriEncoding uriEncoding, URI root) {
+        this.state = state;
+        this.comment = comment;
+        this.lotId = lotId;
+        this.uriType = uriType;
+        this.count = count;
+        this.uriEncoding = uriEncoding;
+        this.root = root;
+    }
+
+    public static ManifestHeader of(Manifest manifest) {
+        return of(manifest, ManifestUriEncoding.absolute, null);
+    }
+
+    public static ManifestHeader of(Manifest manifest, ManifestUriEncoding uriEncoding, URI root) {
+        return new ManifestHeader(
+                manifest.state(),
+                manifest.comment(),
+                manifest.lotId(),
+                manifest.uriType(),
+                manifest.uris() != null ? manifest.uris().size() : 0,
+                uriEncoding,
+                root
+        );
+    }
+
+    public int version() {
+        return version;
+    }
+
+    public ManifestState state() {
+        return state;
+    }
+
+    public String comment() {
+        return comment;
+    }
+
+    public String lotId() {
+        return lotId;
+    }
+
+    public UriType uriType() {
+        return uriType;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public ManifestUriEncoding uriEncoding() {
+        return uriEncoding;
+    }
+
+    public URI root() {
+        return root;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ManifestHeader{");
+        sb.append("version=").append(version);
+        sb.append(", state=").append(state);
+        sb.append(", comment='").append(comment).append('\'');
+        sb.append(", lotId='").append(lotId).append('\'');
+        sb.append(", uriType=").append(uriType);
+        sb.append(", count=").append(count);
+        sb.append(", uriEncoding=").append(uriEncoding);
+        sb.append(", root=").append(root);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -13,6 +13,7 @@ import clusterless.commons.naming.Partition;
 import clusterless.commons.util.Strings;
 
 import java.util.Locale;
+import java.util.regex.Pattern;
 
 public enum ManifestState implements State, Partition.EnumPartition {
     complete,
@@ -38,6 +39,15 @@ public enum ManifestState implements State, Partition.EnumPartition {
         return false;
     }
 
+    private static final ManifestState[] VALUES = values();
+    private static final Pattern[] PATTERNS = new Pattern[VALUES.length];
+
+    static {
+        for (int i = 0; i < VALUES.length; i++) {
+            PATTERNS[i] = Pattern.compile(String.format("^(.*[=])?%s([.].*)?$", VALUES[i]));
+        }
+    }
+
     public static ManifestState parse(String partition) {
         if (Strings.emptyToNull(partition) == null) {
             return null;
@@ -45,9 +55,9 @@ public enum ManifestState implements State, Partition.EnumPartition {
 
         partition = partition.toLowerCase(Locale.ROOT);
 
-        for (ManifestState value : values()) {
-            if (partition.matches(String.format("^(.*[=])?%s([.].*)?$", value))) {
-                return value;
+        for (int i = 0; i < VALUES.length; i++) {
+            if (PATTERNS[i].matcher(partition).matches()) {
+                return VALUES[i];
             }
         }
 
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.cls.model.manifest;
+
+import clusterless.cls.json.JSONUtil;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Lazily reads the uris of a manifest, either written by {@link ManifestStreamWriter}, or from an
+ * in-memory {@link Manifest}.
+ * <p>
+ * Only a single pass over the uris is supported. If the stream ends before the number of uris declared
+ * in the header were read, an {@link IllegalStateException} is thrown.
+ */
+public class ManifestStreamReader implements Iterable<URI>, Closeable {
+    private static final ObjectReader headerReader = JSONUtil.objectReaderFor(ManifestHeader.class);
+
+    private final ManifestHeader header;
+    private final Iterator<URI> iterator;
+    private final Closeable closeable;
+    private boolean iterated = false;
+
+    /**
+     * Reads a manifest from the given json manifest, all uris are already in memory.
+     */
+    public static ManifestStreamReader of(Manifest manifest) {
+        List<URI> uris = manifest.uris() != null ? manifest.uris() : List.of();
+        return new ManifestStreamReader(ManifestHeader.of(manifest), uris.iterator(), () -> {
+        });
+    }
+
+    public ManifestStreamReader(InputStream inputStream, boolean compressed) throws IOException {
+        Objects.requireNonNull(inputStream, "inputStream");
+
+        InputStream stream = compressed ? new GZIPInputStream(inputStream, 64 * 1024) : inputStream;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8), 64 * 1024);
+
+        String line = reader.readLine();
+
+        if (line == null) {
+            reader.close();
+            throw new IllegalStateException("manifest is missing header");
+        }
+
+        this.header = headerReader.readValue(line);
+        this.iterator = new LineIterator(reader, header);
+        this.closeable = reader;
+    }
+
+    private ManifestStreamReader(ManifestHeader header, Iterator<URI> iterator, Closeable closeable) {
+        this.header = header;
+        this.iterator = iterator;
+        this.closeable = closeable;
+    }
+
+    public ManifestHeader header() {
+        return header;
+    }
+
+    @Override
+    public Iterator<URI> iterator() {
+        if (iterated) {
+            throw new IllegalStateException("manifest may only be iterated once");
+        }
+
+        iterated = true;
+
+        return iterator;
+    }
+
+    /**
+     * Reads all remaining uris into a json {@link Manifest}.
+     */
+    public Manifest toManifest() {
+        List<URI> uris = new ArrayList<>((int) Math.min(header.count(), Integer.MAX_VALUE));
+
+        iterator().forEachRemaining(uris::add);
+
+        return Manifest.builder()
+                .withState(header.state())
+                .withComment(header.comment())
+                .withLotId(header.lotId())
+                .withUriType(header.uriType())
+                .withUris(uris)
+                .build();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeable.close();
+    }
+
+    private static class LineIterator implements Iterator<URI> {
+        private final BufferedReader reader;
+        private final long count;
+        private final boolean frontCoded;
+        private String previous;
+        private long read = 0;
+        private String next;
+
+        LineIterator(BufferedReader reader, ManifestHeader header) {
+            this.reader = reader;
+            this.count = header.count();
+            this.frontCoded = header.uriEncoding() == ManifestUriEncoding.frontCoded;
+            this.previous = header.root() != null ? header.root().toString() : "";
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+
+            if (read == count) {
+                return false;
+            }
+
+            try {
+                next = reader.readLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            if (next == null) {
+                throw new IllegalStateException(String.format("manifest truncated, read %d uris, header declared: %d", read, count));
+            }
+
+            return true;
+        }
+
+        @Override
+        public URI next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            URI uri = URI.create(frontCoded ? decode(next) : next);
+            next = null;
+            read++;
+
+            return uri;
+        }
+
+        private String decode(String line) {
+            int tab = line.indexOf('\t');
+
+            if (tab == -1) {
+                throw new IllegalStateException("invalid front coded uri at line: " + (read + 2));
+            }
+
+            int shared = Integer.parseInt(line, 0, tab, 10);
+
+            if (shared > previous.length()) {
+                throw new IllegalStateException("invalid front coded uri at line: " + (read + 2));
+            }
+
+            previous = previous.substring(0, shared) + line.substring(tab + 1);
+
+            return previous;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.cls.model.manifest;
+
+import clusterless.cls.json.JSONUtil;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes a manifest as newline delimited json, a {@link ManifestHeader} line followed by one uri per line,
+ * optionally gzip compressed.
+ * <p>
+ * Uris are written as they are given, so a manifest of any size can be written with constant memory when the
+ * given stream is itself streaming. Uris are written in full, or front coded, per {@link ManifestHeader#uriEncoding()}.
+ */
+public class ManifestStreamWriter implements Closeable {
+    private static final ObjectWriter headerWriter = JSONUtil.OBJECT_WRITER.forType(ManifestHeader.class);
+
+    private final ManifestHeader header;
+    private final Writer writer;
+    private final boolean frontCoded;
+    private String previous;
+    private long written = 0;
+
+    public ManifestStreamWriter(OutputStream outputStream, ManifestHeader header, boolean compress) throws IOException {
+        Objects.requireNonNull(outputStream, "outputStream");
+        this.header = Objects.requireNonNull(header, "header");
+
+        OutputStream stream = compress ? new GZIPOutputStream(outputStream, 64 * 1024) : outputStream;
+        this.writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 64 * 1024);
+        this.frontCoded = header.uriEncoding() == ManifestUriEncoding.frontCoded;
+        this.previous = header.root() != null ? header.root().toString() : "";
+
+        writer.write(headerWriter.writeValueAsString(header));
+        writer.write('\n');
+    }
+
+    public ManifestHeader header() {
+        return header;
+    }
+
+    public long written() {
+        return written;
+    }
+
+    public void write(URI uri) throws IOException {
+        Objects.requireNonNull(uri, "uri");
+
+        if (written == header.count()) {
+            throw new IllegalStateException("more uris written than declared in header: " + header.count());
+        }
+
+        String value = uri.toString();
+
+        if (frontCoded) {
+            int shared = sharedPrefix(previous, value);
+            writer.write(Integer.toString(shared));
+            writer.write('\t');
+            writer.write(value, shared, value.length() - shared);
+            previous = value;
+        } else {
+            writer.write(value);
+        }
+
+        writer.write('\n');
+        written++;
+    }
+
+    static int sharedPrefix(String lhs, String rhs) {
+        int max = Math.min(lhs.length(), rhs.length());
+        int shared = 0;
+
+        while (shared < max && lhs.charAt(shared) == rhs.charAt(shared)) {
+            shared++;
+        }
+
+        // never split a surrogate pair across the prefix and suffix
+        if (shared > 0 && shared < rhs.length() && Character.isHighSurrogate(rhs.charAt(shared - 1))) {
+            shared--;
+        }
+
+        return shared;
+    }
+
+    public void writeAll(Iterable<URI> uris) throws IOException {
+        for (URI uri : uris) {
+            write(uri);
+        }
+    }
+
+    /**
+     * Flushes and closes the underlying stream.
+     * <p>
+     * If fewer uris were written than declared by the header, the underlying stream is left open so the caller
+     * can discard it, instead of publishing an incomplete manifest.
+     */
+    @Override
+    public void close() throws IOException {
+        if (written != header.count()) {
+            throw new IllegalStateException(String.format("wrote %d uris, header declared: %d", written, header.count()));
+        }
+
+        writer.close();
+    }
+}
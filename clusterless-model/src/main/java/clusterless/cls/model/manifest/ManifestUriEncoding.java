@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.cls.model.manifest;
+
+/**
+ * How uris are encoded in the lines of a streamed manifest.
+ */
+public enum ManifestUriEncoding {
+    /**
+     * Each line is the full uri.
+     */
+    absolute,
+    /**
+     * Each line is the length of the prefix shared with the previous uri, a tab, then the remaining suffix.
+     * <p>
+     * The first uri is coded against the {@link ManifestHeader#root()}, so uris under the dataset root
+     * are effectively stored relative to it.
+     */
+    frontCoded
+}
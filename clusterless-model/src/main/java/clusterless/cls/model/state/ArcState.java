@@ -13,6 +13,7 @@ import clusterless.commons.naming.Partition;
 import clusterless.commons.util.Strings;
 
 import java.util.Locale;
+import java.util.regex.Pattern;
 
 /**
  * <pre>
@@ -34,6 +35,15 @@ public enum ArcState implements State, Partition.EnumPartition {
         return "state";
     }
 
+    private static final ArcState[] VALUES = values();
+    private static final Pattern[] PATTERNS = new Pattern[VALUES.length];
+
+    static {
+        for (int i = 0; i < VALUES.length; i++) {
+            PATTERNS[i] = Pattern.compile(String.format("^(.*[=])?%s([.].*)?$", VALUES[i]));
+        }
+    }
+
     public static ArcState parse(String state) {
         if (Strings.emptyToNull(state) == null) {
             return null;
@@ -41,9 +51,9 @@ public enum ArcState implements State, Partition.EnumPartition {
 
         state = state.toLowerCase(Locale.ROOT);
 
-        for (ArcState value : values()) {
-            if (state.matches(String.format("^(.*[=])?%s([.].*)?$", value))) {
-                return value;
+        for (int i = 0; i < VALUES.length; i++) {
+            if (PATTERNS[i].matcher(state).matches()) {
+                return VALUES[i];
             }
         }
 
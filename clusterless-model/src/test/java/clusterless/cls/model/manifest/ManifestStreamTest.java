@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.cls.model.manifest;
+
+import clusterless.cls.model.UriType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ *
+ */
+public class ManifestStreamTest {
+    static List<URI> uris(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> URI.create("s3://bucket/dataset/lot=20230101/part-%05d.csv".formatted(i)))
+                .toList();
+    }
+
+    static byte[] write(ManifestHeader header, List<URI> uris, boolean compress) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try (ManifestStreamWriter writer = new ManifestStreamWriter(outputStream, header, compress)) {
+            writer.writeAll(uris);
+        }
+
+        return outputStream.toByteArray();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void roundTrip(boolean compress) throws IOException {
+        List<URI> uris = uris(1000);
+        ManifestHeader header = new ManifestHeader(ManifestState.complete, "comment", "20230101", UriType.identifier, uris.size());
+
+        byte[] bytes = write(header, uris, compress);
+
+        try (ManifestStreamReader reader = new ManifestStreamReader(new ByteArrayInputStream(bytes), compress)) {
+            Assertions.assertEquals(ManifestState.complete, reader.header().state());
+            Assertions.assertEquals("20230101", reader.header().lotId());
+            Assertions.assertEquals(1000, reader.header().count());
+
+            List<URI> results = new ArrayList<>();
+            reader.forEach(results::add);
+
+            Assertions.assertEquals(uris, results);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void toManifest(boolean compress) throws IOException {
+        List<URI> uris = uris(10);
+        ManifestHeader header = new ManifestHeader(ManifestState.partial, null, "20230101", UriType.path, uris.size());
+
+        try (ManifestStreamReader reader = new ManifestStreamReader(new ByteArrayInputStream(write(header, uris, compress)), compress)) {
+            Manifest manifest = reader.toManifest();
+
+            Assertions.assertEquals(ManifestState.partial, manifest.state());
+            Assertions.assertEquals(UriType.path, manifest.uriType());
+            Assertions.assertEquals(uris, manifest.uris());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void empty(boolean compress) throws IOException {
+        ManifestHeader header = new ManifestHeader(ManifestState.empty, null, "20230101", UriType.identifier, 0);
+
+        try (ManifestStreamReader reader = new ManifestStreamReader(new ByteArrayInputStream(write(header, List.of(), compress)), compress)) {
+            Assertions.assertFalse(reader.iterator().hasNext());
+        }
+    }
+
+    @Test
+    void truncated() throws IOException {
+        List<URI> uris = uris(10);
+        ManifestHeader header = new ManifestHeader(ManifestState.complete, null, "20230101", UriType.identifier, uris.size());
+
+        String manifest = new String(write(header, uris, false));
+        String truncated = manifest.substring(0, manifest.indexOf("part-00005"));
+        truncated = truncated.substring(0, truncated.lastIndexOf('\n') + 1);
+
+        try (ManifestStreamReader reader = new ManifestStreamReader(new ByteArrayInputStream(truncated.getBytes()), false)) {
+            Assertions.assertThrows(IllegalStateException.class, reader::toManifest);
+        }
+    }
+
+    @Test
+    void countMismatch() throws IOException {
+        ManifestHeader header = new ManifestHeader(ManifestState.complete, null, "20230101", UriType.identifier, 2);
+
+        ManifestStreamWriter writer = new ManifestStreamWriter(new ByteArrayOutputStream(), header, false);
+        writer.write(URI.create("s3://bucket/a"));
+
+        Assertions.assertThrows(IllegalStateException.class, writer::close);
+
+        writer.write(URI.create("s3://bucket/b"));
+        Assertions.assertThrows(IllegalStateException.class, () -> writer.write(URI.create("s3://bucket/c")));
+    }
+
+    @Test
+    void legacy() {
+        List<URI> uris = uris(3);
+        Manifest manifest = Manifest.builder()
+                .withState(ManifestState.complete)
+                .withLotId("20230101")
+                .withUris(uris)
+                .build();
+
+        ManifestStreamReader reader = ManifestStreamReader.of(manifest);
+
+        Assertions.assertEquals(3, reader.header().count());
+        Assertions.assertEquals(uris, reader.toManifest().uris());
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.cls.model.manifest;
+
+import clusterless.cls.model.UriType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ *
+ */
+public class ManifestUriEncodingTest {
+    static final URI root = URI.create("s3://clusterless-sample-bucket/datasets/ingress/example/20230101/");
+
+    static List<URI> uris(int count) {
+        List<URI> uris = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            uris.add(URI.create("%shour=%02d/part-%08d-c000.snappy.parquet".formatted(root, i % 24, i)));
+        }
+
+        // as listed from s3
+        uris.sort(null);
+
+        return uris;
+    }
+
+    static byte[] write(List<URI> uris, ManifestUriEncoding encoding, boolean compress) throws IOException {
+        ManifestHeader header = new ManifestHeader(ManifestState.complete, null, "20230101", UriType.identifier, uris.size(), encoding, root);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try (ManifestStreamWriter writer = new ManifestStreamWriter(outputStream, header, compress)) {
+            writer.writeAll(uris);
+        }
+
+        return outputStream.toByteArray();
+    }
+
+    static List<URI> read(byte[] bytes, boolean compress) throws IOException {
+        try (ManifestStreamReader reader = new ManifestStreamReader(new ByteArrayInputStream(bytes), compress)) {
+            return reader.toManifest().uris();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void roundTrip(boolean compress) throws IOException {
+        List<URI> uris = uris(1000);
+
+        Assertions.assertEquals(uris, read(write(uris, ManifestUriEncoding.frontCoded, compress), compress));
+    }
+
+    @Test
+    void outsideRoot() throws IOException {
+        List<URI> uris = List.of(
+                URI.create("s3://other-bucket/data/part-00000.csv"),
+                URI.create(root + "part-00001.csv"),
+                URI.create(root + "part-00001.csv"),
+                URI.create(root + "p%C3%A4rt-00002.csv"),
+                URI.create(root + "p\u00e4rt-\ud83d\ude00.csv"),
+                URI.create(root + "p\u00e4rt-\ud83d\ude01.csv"),
+                URI.create("s3://clusterless-sample-bucket/")
+        );
+
+        Assertions.assertEquals(uris, read(write(uris, ManifestUriEncoding.frontCoded, false), false));
+    }
+
+    @Test
+    void sharedPrefix() {
+        Assertions.assertEquals(0, ManifestStreamWriter.sharedPrefix("", "abc"));
+        Assertions.assertEquals(2, ManifestStreamWriter.sharedPrefix("abd", "abc"));
+        Assertions.assertEquals(3, ManifestStreamWriter.sharedPrefix("abc", "abc"));
+        Assertions.assertEquals(1, ManifestStreamWriter.sharedPrefix("a\ud83d\ude00", "a\ud83d\ude01"));
+    }
+
+    /**
+     * Not a timing benchmark, bounds the encoded size of a large lot.
+     */
+    @Test
+    void size() throws IOException {
+        List<URI> uris = uris(100_000);
+
+        int absolute = write(uris, ManifestUriEncoding.absolute, false).length;
+        int absoluteGzip = write(uris, ManifestUriEncoding.absolute, true).length;
+        int frontCoded = write(uris, ManifestUriEncoding.frontCoded, false).length;
+        int frontCodedGzip = write(uris, ManifestUriEncoding.frontCoded, true).length;
+
+        Assertions.assertTrue(frontCoded * 4 < absolute, "front coded: %d, absolute: %d".formatted(frontCoded, absolute));
+        Assertions.assertTrue(frontCodedGzip * 10 < absolute, "front coded+gzip: %d, absolute: %d".formatted(frontCodedGzip, absolute));
+        Assertions.assertTrue(frontCodedGzip < absoluteGzip, "front coded+gzip: %d, absolute+gzip: %d".formatted(frontCodedGzip, absoluteGzip));
+    }
+}
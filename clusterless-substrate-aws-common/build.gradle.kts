@@ -31,6 +31,7 @@ dependencies {
     implementation("software.amazon.awssdk:glue")
     implementation("software.amazon.awssdk:athena")
     implementation("software.amazon.awssdk:cloudwatchlogs")
+    implementation("software.amazon.awssdk:apache-client") // tune the default http client
 
     implementation("org.apache.logging.log4j:log4j-slf4j-impl") // awssdk
 }
@@ -12,6 +12,8 @@ import org.jetbrains.annotations.NotNull;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.athena.AthenaClient;
 
+import java.net.URI;
+
 /**
  * SELECT * FROM "<table_name>$partitions" to get count
  */
@@ -33,13 +35,18 @@ public class Athena extends ClientBase<AthenaClient> {
     }
 
     @Override
-    protected AthenaClient createClient(String region) {
-        logEndpointOverride();
+    protected ClientFactory<AthenaClient> clientFactory() {
+        return Athena::newClient;
+    }
+
+    private static AthenaClient newClient(String profile, String region, URI endpointOverride) {
+        logEndpointOverride(Athena.class, endpointOverride);
 
         return AthenaClient.builder()
                 .region(Region.of(region))
-                .credentialsProvider(credentialsProvider)
+                .credentialsProvider(RefreshableCredentialsProvider.forProfile(profile))
                 .endpointOverride(endpointOverride)
+                .overrideConfiguration(overrideConfiguration())
                 .build();
     }
 }
@@ -12,13 +12,16 @@ import com.google.common.base.Throwables;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
-import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.awscore.AwsClient;
 import software.amazon.awssdk.awscore.AwsResponse;
 import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
 import software.amazon.awssdk.awscore.exception.AwsServiceException;
 import software.amazon.awssdk.awscore.internal.AwsErrorCode;
 import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.retry.RetryMode;
+import software.amazon.awssdk.core.retry.RetryPolicy;
 import software.amazon.awssdk.http.SdkHttpResponse;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
@@ -37,6 +40,7 @@ import java.util.function.Predicate;
  */
 public abstract class ClientBase<C extends AwsClient> {
     private static final Logger LOG = LogManager.getLogger(ClientBase.class);
+    public static final int DEFAULT_MAX_ATTEMPTS = 5;
     protected static final boolean localStackEnabled = Boolean.getBoolean("clusterless.localstack.enabled");
     protected static final String defaultRegion = Optional.ofNullable(System.getenv("AWS_REGION")).orElse(System.getenv("AWS_DEFAULT_REGION"));
     protected static final String defaultProfile = System.getenv("AWS_PROFILE");
@@ -44,7 +48,7 @@ public abstract class ClientBase<C extends AwsClient> {
     protected URI endpointOverride = Optional.ofNullable(System.getenv().get(getEndpointEnvVar()))
             .map(URI::create)
             .orElse(null);
-    protected final DefaultCredentialsProvider credentialsProvider;
+    protected final String profile;
     protected final String region;
 
     public ClientBase() {
@@ -52,17 +56,38 @@ public abstract class ClientBase<C extends AwsClient> {
     }
 
     public ClientBase(String profile) {
-        this.credentialsProvider = DefaultCredentialsProvider.builder()
-                .profileName(profile)
-                .build();
+        this.profile = profile;
         this.region = defaultRegion;
+
+        declare();
     }
 
     public ClientBase(String profile, String region) {
-        this.credentialsProvider = DefaultCredentialsProvider.builder()
-                .profileName(profile == null ? defaultProfile : profile)
-                .build();
+        this.profile = profile == null ? defaultProfile : profile;
         this.region = region == null ? defaultRegion : region;
+
+        declare();
+    }
+
+    /**
+     * Creates a client from the values a pooled client is keyed by.
+     * <p>
+     * A declared factory is retained by the {@link ClientPool} for the life of the JVM, so it must not capture the
+     * instance that declared it, implementations are expected to be static method references.
+     */
+    @FunctionalInterface
+    protected interface ClientFactory<C extends AwsClient> {
+        C create(String profile, String region, URI endpointOverride);
+    }
+
+    private void declare() {
+        ClientFactory<C> factory = clientFactory();
+        String profile = this.profile;
+        String region = this.region;
+        URI endpointOverride = this.endpointOverride;
+
+        // only the factory and the values are retained, not this instance
+        ClientPool.declare(key(region), () -> factory.create(profile, region, endpointOverride));
     }
 
     @NotNull
@@ -79,36 +104,66 @@ public abstract class ClientBase<C extends AwsClient> {
         return response.sdkHttpResponse.statusText().orElse(String.format("status code: %d", response.sdkHttpResponse.statusCode()));
     }
 
+    /**
+     * Returns the pooled client for this service, profile, region, and endpoint.
+     * <p>
+     * The client is shared across threads and invocations and must not be closed by the caller.
+     */
+    protected C client() {
+        return client(region);
+    }
+
+    protected C client(String region) {
+        return ClientPool.acquire(key(region), () -> createClient(region));
+    }
+
+    private ClientPool.Key key(String region) {
+        return new ClientPool.Key(getClass(), profile, region, endpointOverride);
+    }
+
+    /**
+     * The configuration every client is created with.
+     * <p>
+     * Throttled and transient failures are retried by the client, in the adaptive retry mode, clients sharing a
+     * service rate limit themselves once throttled, instead of many parallel callers stampeding the service.
+     * Attempts are recorded in {@link RetryMetrics}.
+     */
+    protected static ClientOverrideConfiguration overrideConfiguration() {
+        return ClientOverrideConfiguration.builder()
+                .retryPolicy(RetryPolicy.builder(RetryMode.ADAPTIVE)
+                        .numRetries(DEFAULT_MAX_ATTEMPTS - 1)
+                        .build())
+                .addExecutionInterceptor(RetryMetrics.interceptor())
+                .build();
+    }
+
     protected C createClient() {
         return createClient(region);
     }
 
-    protected abstract C createClient(String region);
+    protected C createClient(String region) {
+        return clientFactory().create(profile, region, endpointOverride);
+    }
 
-    protected void logEndpointOverride() {
+    protected abstract ClientFactory<C> clientFactory();
+
+    protected static void logEndpointOverride(Class<?> service, URI endpointOverride) {
         if (endpointOverride != null) {
-            LOG.info("{}: client using endpoint override: {}", getClass().getSimpleName(), endpointOverride);
+            LOG.info("{}: client using endpoint override: {}", service.getSimpleName(), endpointOverride);
         } else if (localStackEnabled) {
-            LOG.warn("{}: client not using endpoint override", getClass().getSimpleName());
+            LOG.warn("{}: client not using endpoint override", service.getSimpleName());
         }
     }
 
     public abstract class Responses implements Iterable<Response>, AutoCloseable {
-        C client;
-
         public Responses() {
         }
 
-        public Responses(C client) {
-            this.client = client;
-        }
-
+        /**
+         * The underlying client is pooled, so there is nothing to release here.
+         */
         @Override
         public void close() {
-            if (client != null) {
-                client.close();
-                client = null;
-            }
         }
     }
 
@@ -118,6 +173,7 @@ public abstract class ClientBase<C extends AwsClient> {
         final SdkHttpResponse sdkHttpResponse;
         Exception exception;
         ResponseBytes<GetObjectResponse> objectAsBytes;
+        ResponseInputStream<GetObjectResponse> objectAsStream;
 
         public Response(AwsResponse awsResponse) {
             this.awsResponse = awsResponse;
@@ -136,6 +192,12 @@ public abstract class ClientBase<C extends AwsClient> {
             this.objectAsBytes = objectAsBytes;
         }
 
+        public Response(ResponseInputStream<GetObjectResponse> objectAsStream) {
+            this.awsResponse = objectAsStream.response();
+            this.sdkHttpResponse = this.awsResponse.sdkHttpResponse();
+            this.objectAsStream = objectAsStream;
+        }
+
         protected AwsResponse awsResponse() {
             return awsResponse;
         }
@@ -221,6 +283,27 @@ public abstract class ClientBase<C extends AwsClient> {
             return false;
         }
 
+        public boolean isNotFound() {
+            if (exception instanceof AwsServiceException serviceException) {
+                return serviceException.statusCode() == 404;
+            }
+
+            return false;
+        }
+
+        /**
+         * @return true if a conditional request did not match, or lost a race with a concurrent conditional request
+         */
+        public boolean isPreconditionFailed() {
+            if (exception instanceof AwsServiceException serviceException) {
+                AwsErrorDetails awsErrorDetails = serviceException.awsErrorDetails();
+                return serviceException.statusCode() == 412 ||
+                       awsErrorDetails != null && "ConditionalRequestConflict".equals(awsErrorDetails.errorCode());
+            }
+
+            return false;
+        }
+
         public boolean isThrottled() {
             if (exception instanceof AwsServiceException serviceException) {
                 return serviceException.isThrottlingException();
@@ -238,14 +321,21 @@ public abstract class ClientBase<C extends AwsClient> {
         }
 
         public GetObjectResponse asGetObjectResponse() {
-            return objectAsBytes.response();
+            return (GetObjectResponse) awsResponse;
         }
 
         public ByteBuffer asByteBuffer() {
             return objectAsBytes.asByteBuffer();
         }
 
+        /**
+         * If this response was returned by a streaming get, the stream must be closed by the caller.
+         */
         public InputStream asInputStream() {
+            if (objectAsStream != null) {
+                return objectAsStream;
+            }
+
             return objectAsBytes.asInputStream();
         }
 
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.cls.substrate.aws.sdk;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import software.amazon.awssdk.awscore.AwsClient;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Holds one long-lived AWS SDK client per service, profile, region, and endpoint.
+ * <p>
+ * AWS SDK clients are thread safe and own their HTTP connection pool and credential chain, so rebuilding
+ * them per call throws away warm TLS connections. Clients are retained across Lambda invocations for the life
+ * of the JVM and are closed on JVM shutdown, or explicitly via {@link #closeAll()}.
+ */
+public final class ClientPool {
+    private static final Logger LOG = LogManager.getLogger(ClientPool.class);
+
+    private static final Map<Key, Entry> clients = new ConcurrentHashMap<>();
+    private static final Map<Key, Supplier<? extends AwsClient>> declared = new ConcurrentHashMap<>();
+    private static final LongAdder created = new LongAdder();
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder closed = new LongAdder();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(ClientPool::closeAll, "clusterless-client-pool"));
+    }
+
+    record Key(Class<?> service, String profile, String region, URI endpoint) {
+    }
+
+    private record Entry(AwsClient client) {
+    }
+
+    /**
+     * Pool statistics, cumulative for the life of the JVM.
+     *
+     * @param size    the number of clients currently pooled
+     * @param created the number of clients created
+     * @param hits    the number of times a pooled client was reused
+     * @param closed  the number of clients closed
+     */
+    public record Stats(int size, long created, long hits, long closed) {
+        @Override
+        public String toString() {
+            return String.format("clients: %d, created: %d, hits: %d, closed: %d", size, created, hits, closed);
+        }
+    }
+
+    private ClientPool() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <C extends AwsClient> C acquire(Key key, Supplier<C> factory) {
+        Objects.requireNonNull(key, "key");
+
+        Entry entry = clients.get(key);
+
+        if (entry != null) {
+            hits.increment();
+            return (C) entry.client();
+        }
+
+        entry = clients.computeIfAbsent(key, k -> {
+            created.increment();
+            LOG.info("creating pooled client for: {}, profile: {}, region: {}", k.service().getSimpleName(), k.profile(), k.region());
+            return new Entry(factory.get());
+        });
+
+        return (C) entry.client();
+    }
+
+    /**
+     * Declares a client that will likely be acquired, so it may be created ahead of use by {@link #prime()}.
+     */
+    static void declare(Key key, Supplier<? extends AwsClient> factory) {
+        Objects.requireNonNull(key, "key");
+        declared.putIfAbsent(key, factory);
+    }
+
+    /**
+     * Creates every declared client not already pooled, no requests are made and no credentials are resolved.
+     * Clients that fail to be created are logged and skipped, they will be created, or fail, on first use.
+     * <p>
+     * Moves the class loading and initialization of client creation ahead of the first request, for example
+     * before a Lambda SnapStart checkpoint.
+     *
+     * @return the number of clients created
+     */
+    public static int prime() {
+        long before = created.sum();
+
+        declared.forEach((key, factory) -> {
+            try {
+                acquire(key, factory);
+            } catch (RuntimeException exception) {
+                LOG.warn("unable to prime client for: {}, region: {}, message: {}", key.service().getSimpleName(), key.region(), exception.getMessage());
+            }
+        });
+
+        return (int) (created.sum() - before);
+    }
+
+    public static Stats stats() {
+        return new Stats(clients.size(), created.sum(), hits.sum(), closed.sum());
+    }
+
+    /**
+     * Closes and removes all pooled clients, subsequent calls will create new clients.
+     */
+    public static void closeAll() {
+        for (Key key : clients.keySet()) {
+            Entry entry = clients.remove(key);
+
+            if (entry == null) {
+                continue;
+            }
+
+            try {
+                entry.client().close();
+                closed.increment();
+            } catch (Exception exception) {
+                LOG.warn("unable to close pooled client for: {}, message: {}", key.service().getSimpleName(), exception.getMessage());
+            }
+        }
+    }
+}
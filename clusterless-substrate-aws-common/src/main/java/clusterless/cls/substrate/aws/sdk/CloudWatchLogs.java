@@ -37,13 +37,18 @@ public class CloudWatchLogs extends ClientBase<CloudWatchLogsClient> {
     }
 
     @Override
-    protected CloudWatchLogsClient createClient(String region) {
-        logEndpointOverride();
+    protected ClientFactory<CloudWatchLogsClient> clientFactory() {
+        return CloudWatchLogs::newClient;
+    }
+
+    private static CloudWatchLogsClient newClient(String profile, String region, URI endpointOverride) {
+        logEndpointOverride(CloudWatchLogs.class, endpointOverride);
 
         return CloudWatchLogsClient.builder()
                 .region(region == null ? null : Region.of(region)) // allows sdk to lookup region in chain
-                .credentialsProvider(credentialsProvider)
+                .credentialsProvider(RefreshableCredentialsProvider.forProfile(profile))
                 .endpointOverride(endpointOverride)
+                .overrideConfiguration(overrideConfiguration())
                 .build();
     }
 
@@ -58,7 +63,8 @@ public class CloudWatchLogs extends ClientBase<CloudWatchLogsClient> {
                 .logStreamNamePrefix(logStreamPrefix)
                 .build();
 
-        try (CloudWatchLogsClient client = createClient(region)) {
+        try {
+            CloudWatchLogsClient client = client(region);
             return new Response(client.createExportTask(request));
         } catch (Exception exception) {
             return new Response(exception);
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package clusterless.cls.substrate.aws.sdk;
+
+import clusterless.cls.substrate.aws.event.NotifyEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsRequestEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Collects events and puts them with as few PutEvents requests as possible, each holding at most
+ * {@link EventBus#MAX_ENTRIES} entries and {@link EventBus#MAX_REQUEST_SIZE} bytes.
+ * <p>
+ * A request is made when the next event would not fit, and on {@link #flush()} or {@link #close()}. Entries that
+ * fail within a request are resent by {@link EventBus#putAll(List)}, a batch that still fails throws.
+ */
+public class EventBatch implements AutoCloseable {
+    private static final Logger LOG = LogManager.getLogger(EventBatch.class);
+
+    private final EventBus eventBus;
+    private final List<PutEventsRequestEntry> pending = new ArrayList<>(EventBus.MAX_ENTRIES);
+    private int pendingSize = 0;
+    private int requests = 0;
+    private int published = 0;
+
+    public EventBatch() {
+        this(new EventBus());
+    }
+
+    public EventBatch(EventBus eventBus) {
+        this.eventBus = Objects.requireNonNull(eventBus, "eventBus");
+    }
+
+    /**
+     * @return the number of PutEvents requests made, not counting retries
+     */
+    public int requests() {
+        return requests;
+    }
+
+    /**
+     * @return the number of events put
+     */
+    public int published() {
+        return published;
+    }
+
+    public void add(String eventBusName, NotifyEvent event) {
+        add(EventBus.entry(eventBusName, event));
+    }
+
+    public void add(PutEventsRequestEntry entry) {
+        int size = EventBus.entrySize(entry);
+
+        if (size > EventBus.MAX_REQUEST_SIZE) {
+            throw new IllegalArgumentException("event larger than: " + EventBus.MAX_REQUEST_SIZE + ", got: " + size);
+        }
+
+        if (pending.size() == EventBus.MAX_ENTRIES || pendingSize + size > EventBus.MAX_REQUEST_SIZE) {
+            flush();
+        }
+
+        pending.add(entry);
+        pendingSize += size;
+    }
+
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        LOG.info("putting {} events, size: {}", pending.size(), pendingSize);
+
+        EventBus.Response response = eventBus.putAll(List.copyOf(pending));
+
+        requests++;
+
+        response.isSuccessOrThrowRuntime(
+                r -> String.format("unable to publish %d events, %s", pending.size(), r.errorMessage())
+        );
+
+        published += pending.size();
+        pending.clear();
+        pendingSize = 0;
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+}
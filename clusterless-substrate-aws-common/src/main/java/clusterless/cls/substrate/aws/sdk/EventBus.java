@@ -10,33 +10,72 @@ package clusterless.cls.substrate.aws.sdk;
 
 import clusterless.cls.json.JSONUtil;
 import clusterless.cls.substrate.aws.event.NotifyEvent;
+import io.github.resilience4j.core.IntervalFunction;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.eventbridge.EventBridgeClient;
 import software.amazon.awssdk.services.eventbridge.model.CreateEventBusRequest;
 import software.amazon.awssdk.services.eventbridge.model.PutEventsRequest;
 import software.amazon.awssdk.services.eventbridge.model.PutEventsRequestEntry;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsResponse;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsResultEntry;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
 
 /**
  *
  */
 public class EventBus extends ClientBase<EventBridgeClient> {
+    private static final Logger LOG = LogManager.getLogger(EventBus.class);
+
+    /**
+     * The most entries allowed in a single PutEvents request.
+     */
+    public static final int MAX_ENTRIES = 10;
+    /**
+     * The largest PutEvents request allowed, as measured by {@link #entrySize(PutEventsRequestEntry)}.
+     */
+    public static final int MAX_REQUEST_SIZE = 256 * 1024;
+
+    private int maxEntryAttempts = DEFAULT_MAX_ATTEMPTS;
+    private IntervalFunction entryInterval = IntervalFunction.ofExponentialRandomBackoff(Duration.ofMillis(100), 2.0, 0.5, Duration.ofSeconds(5));
+
     public EventBus() {
     }
 
+    /**
+     * Sets how often, and how long to wait before, entries that failed within a successful PutEvents are resent.
+     */
+    public void setEntryRetry(int maxEntryAttempts, IntervalFunction entryInterval) {
+        this.maxEntryAttempts = Math.max(1, maxEntryAttempts);
+        this.entryInterval = entryInterval;
+    }
+
     @NotNull
     protected String getEndpointEnvVar() {
         return "AWS_EVENTS_ENDPOINT";
     }
 
     @Override
-    protected EventBridgeClient createClient(String region) {
-        logEndpointOverride();
+    protected ClientFactory<EventBridgeClient> clientFactory() {
+        return EventBus::newClient;
+    }
+
+    private static EventBridgeClient newClient(String profile, String region, URI endpointOverride) {
+        logEndpointOverride(EventBus.class, endpointOverride);
 
         return EventBridgeClient.builder()
                 .region(Region.of(region))
-                .credentialsProvider(credentialsProvider)
+                .credentialsProvider(RefreshableCredentialsProvider.forProfile(profile))
                 .endpointOverride(endpointOverride)
+                .overrideConfiguration(overrideConfiguration())
                 .build();
     }
 
@@ -45,23 +84,127 @@ public class EventBus extends ClientBase<EventBridgeClient> {
     }
 
     public Response put(String eventBusName, String source, String detailType, Object event) {
+        PutEventsRequestEntry entry = entry(eventBusName, source, detailType, event);
+
+        PutEventsRequest request = PutEventsRequest.builder()
+                .entries(entry)
+                .build();
+
+        try {
+            EventBridgeClient eventBridgeClient = client();
+            return new Response(eventBridgeClient.putEvents(request));
+        } catch (Exception exception) {
+            return new Response(exception);
+        }
+    }
+
+    public static PutEventsRequestEntry entry(String eventBusName, NotifyEvent event) {
+        return entry(eventBusName, event.eventSource(), event.eventDetail(), event);
+    }
+
+    public static PutEventsRequestEntry entry(String eventBusName, String source, String detailType, Object event) {
         String detail = JSONUtil.writeAsStringSafe(event);
 
-        PutEventsRequestEntry entry = PutEventsRequestEntry.builder()
+        return PutEventsRequestEntry.builder()
                 .eventBusName(eventBusName)
                 .source(source)
                 .detailType(detailType)
                 .detail(detail)
                 .build();
+    }
 
-        PutEventsRequest request = PutEventsRequest.builder()
-                .entries(entry)
-                .build();
+    /**
+     * The size of the entry as counted against the {@link #MAX_REQUEST_SIZE} of a PutEvents request.
+     */
+    public static int entrySize(PutEventsRequestEntry entry) {
+        int size = entry.time() != null ? 14 : 0;
 
-        try (EventBridgeClient eventBridgeClient = createClient()) {
-            return new Response(eventBridgeClient.putEvents(request));
-        } catch (Exception exception) {
-            return new Response(exception);
+        size += utf8Length(entry.source());
+        size += utf8Length(entry.detailType());
+        size += utf8Length(entry.detail());
+
+        if (entry.hasResources()) {
+            for (String resource : entry.resources()) {
+                size += utf8Length(resource);
+            }
+        }
+
+        return size;
+    }
+
+    private static int utf8Length(String value) {
+        return value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * Puts all entries in a single PutEvents request, any entries that fail within a successful request are
+     * resent, with backoff, until all succeed or the entry attempts are exhausted.
+     *
+     * @param entries at most {@link #MAX_ENTRIES} entries
+     * @return the last response, or a failed response naming the error codes of the entries not put
+     */
+    public Response putAll(List<PutEventsRequestEntry> entries) {
+        if (entries.size() > MAX_ENTRIES) {
+            throw new IllegalArgumentException("may not put more than " + MAX_ENTRIES + " entries, got: " + entries.size());
+        }
+
+        List<PutEventsRequestEntry> pending = entries;
+        int attempt = 0;
+
+        while (true) {
+            attempt++;
+
+            PutEventsRequest request = PutEventsRequest.builder()
+                    .entries(pending)
+                    .build();
+
+            Response response;
+
+            try {
+                EventBridgeClient eventBridgeClient = client();
+                response = new Response(eventBridgeClient.putEvents(request));
+            } catch (Exception exception) {
+                response = new Response(exception);
+            }
+
+            if (!response.isSuccess()) {
+                return response;
+            }
+
+            PutEventsResponse putEventsResponse = (PutEventsResponse) response.awsResponse();
+
+            if (putEventsResponse.failedEntryCount() == null || putEventsResponse.failedEntryCount() == 0) {
+                return response;
+            }
+
+            // result entries are in the same order as the request entries
+            List<PutEventsRequestEntry> failed = new ArrayList<>(putEventsResponse.failedEntryCount());
+            TreeSet<String> errorCodes = new TreeSet<>();
+            List<PutEventsResultEntry> results = putEventsResponse.entries();
+
+            for (int i = 0; i < results.size(); i++) {
+                if (results.get(i).errorCode() != null) {
+                    failed.add(pending.get(i));
+                    errorCodes.add(results.get(i).errorCode());
+                }
+            }
+
+            if (attempt >= maxEntryAttempts) {
+                return new Response(new IllegalStateException(String.format("unable to put %d of %d events, error codes: %s", failed.size(), entries.size(), errorCodes)));
+            }
+
+            long interval = entryInterval.apply(attempt);
+
+            LOG.warn("resending {} failed events, attempt: {} of {}, in: {}ms, error codes: {}", failed.size(), attempt + 1, maxEntryAttempts, interval, errorCodes);
+
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new Response(e);
+            }
+
+            pending = failed;
         }
     }
 
@@ -70,7 +213,8 @@ public class EventBus extends ClientBase<EventBridgeClient> {
                 .name(eventBusName)
                 .build();
 
-        try (EventBridgeClient eventBridgeClient = createClient()) {
+        try {
+            EventBridgeClient eventBridgeClient = client();
             return new Response(eventBridgeClient.createEventBus(request));
         } catch (Exception exception) {
             return new Response(exception);
@@ -41,13 +41,18 @@ public class Glue extends ClientBase<GlueClient> {
     }
 
     @Override
-    protected GlueClient createClient(String region) {
-        logEndpointOverride();
+    protected ClientFactory<GlueClient> clientFactory() {
+        return Glue::newClient;
+    }
+
+    private static GlueClient newClient(String profile, String region, URI endpointOverride) {
+        logEndpointOverride(Glue.class, endpointOverride);
 
         return GlueClient.builder()
                 .region(Region.of(region))
-                .credentialsProvider(credentialsProvider)
+                .credentialsProvider(RefreshableCredentialsProvider.forProfile(profile))
                 .endpointOverride(endpointOverride)
+                .overrideConfiguration(overrideConfiguration())
                 .build();
     }
 
@@ -58,7 +63,8 @@ public class Glue extends ClientBase<GlueClient> {
                         .build())
                 .build();
 
-        try (GlueClient glueClient = createClient()) {
+        try {
+            GlueClient glueClient = client();
             return new Response(glueClient.createDatabase(request));
         } catch (Exception exception) {
             return new Response(exception);
@@ -78,7 +84,8 @@ public class Glue extends ClientBase<GlueClient> {
                         .build())
                 .build();
 
-        try (GlueClient glueClient = createClient()) {
+        try {
+            GlueClient glueClient = client();
             return new Response(glueClient.createTable(request));
         } catch (Exception exception) {
             return new Response(exception);
@@ -91,7 +98,8 @@ public class Glue extends ClientBase<GlueClient> {
                 .name(tableName)
                 .build();
 
-        try (GlueClient glueClient = createClient()) {
+        try {
+            GlueClient glueClient = client();
             return new Response(glueClient.getTable(request));
         } catch (Exception exception) {
             return new Response(exception);
@@ -105,14 +113,23 @@ public class Glue extends ClientBase<GlueClient> {
     }
 
     public Response listPartitions(String catalog, String databaseName, String tableName, int maxResults) {
+        return listPartitions(catalog, databaseName, tableName, maxResults, null);
+    }
+
+    /**
+     * @param nextToken the token returned by {@link #nextToken(Response)} for the previous page, or null
+     */
+    public Response listPartitions(String catalog, String databaseName, String tableName, int maxResults, String nextToken) {
         GetPartitionsRequest request = GetPartitionsRequest.builder()
                 .catalogId(catalog)
                 .databaseName(databaseName)
                 .tableName(tableName)
                 .maxResults(maxResults)
+                .nextToken(nextToken)
                 .build();
 
-        try (GlueClient glueClient = createClient()) {
+        try {
+            GlueClient glueClient = client();
             return new Response(glueClient.getPartitions(request));
         } catch (Exception exception) {
             // possible exceptions:
@@ -127,6 +144,15 @@ public class Glue extends ClientBase<GlueClient> {
         return ((GetPartitionsResponse) response.awsResponse).partitions();
     }
 
+    /**
+     * @return the token for the next page of partitions, or null if this is the last page
+     */
+    public String nextToken(Response response) {
+        Objects.requireNonNull(response.awsResponse);
+
+        return ((GetPartitionsResponse) response.awsResponse).nextToken();
+    }
+
     public Response addPartitions(String catalog, Table table, Map<URI, List<String>> partitions) {
         Objects.requireNonNull(table, "table");
 
@@ -165,7 +191,8 @@ public class Glue extends ClientBase<GlueClient> {
                 .partitionInputList(partitionInputList)
                 .build();
 
-        try (GlueClient glueClient = createClient()) {
+        try {
+            GlueClient glueClient = client();
             return new Response(glueClient.batchCreatePartition(request));
         } catch (Exception exception) {
             // possible exceptions:
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.cls.substrate.aws.sdk;
+
+import clusterless.cls.util.URIs;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static clusterless.cls.util.Threads.daemonThreads;
+
+/**
+ * Lists many key ranges or prefixes concurrently, following every ListObjectsV2 continuation, and returns the keys
+ * in the order the ranges were given.
+ * <p>
+ * Ranges are listed by at most {@code concurrency} threads, results are held in memory until consumed.
+ * <p>
+ * Requests against the listed keys, like reading object metadata, may be made through {@link #map(List, Function)}
+ * with the same bound.
+ */
+public class ParallelLister {
+    private static final Logger LOG = LogManager.getLogger(ParallelLister.class);
+
+    public static final int DEFAULT_CONCURRENCY = 8;
+
+    /**
+     * A range of keys under a path.
+     *
+     * @param startInclusive keys after this key are listed, if null all keys under the path
+     * @param endExclusive   keys at or after this key are not listed, if null all keys under the path
+     */
+    public record Range(URI startInclusive, URI endExclusive) {
+    }
+
+    private final S3 s3;
+    private final int concurrency;
+
+    public ParallelLister(S3 s3) {
+        this(s3, DEFAULT_CONCURRENCY);
+    }
+
+    public ParallelLister(S3 s3, int concurrency) {
+        this.s3 = Objects.requireNonNull(s3, "s3");
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    public int concurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Lists all keys under each path, results are grouped per path in the order of the given paths.
+     */
+    public List<List<String>> listAllGrouped(List<URI> paths) {
+        List<Future<List<String>>> futures = submit(paths.stream()
+                .map(path -> new Tuple(path, new Range(null, null)))
+                .toList());
+
+        return futures.stream()
+                .map(ParallelLister::get)
+                .toList();
+    }
+
+    /**
+     * Lists the keys under the path within each range, ranges are expected to be ordered and not overlap.
+     */
+    public Stream<String> list(URI path, List<Range> ranges) {
+        Objects.requireNonNull(path, "path");
+
+        List<Tuple> tasks = ranges.stream()
+                .map(range -> new Tuple(path, range))
+                .toList();
+
+        return list(tasks);
+    }
+
+    /**
+     * Applies the function to each key with at most {@code concurrency} threads, results are returned in the order
+     * of the given keys.
+     */
+    public <T> List<T> map(List<String> keys, Function<String, T> function) {
+        Objects.requireNonNull(function, "function");
+
+        List<Callable<T>> tasks = keys.stream()
+                .<Callable<T>>map(key -> () -> function.apply(key))
+                .toList();
+
+        return submit(tasks, "s3-request").stream()
+                .map(ParallelLister::get)
+                .toList();
+    }
+
+    private record Tuple(URI path, Range range) {
+    }
+
+    private Stream<String> list(List<Tuple> tasks) {
+        return submit(tasks).stream()
+                .flatMap(f -> get(f).stream());
+    }
+
+    private List<Future<List<String>>> submit(List<Tuple> tasks) {
+        List<Callable<List<String>>> callables = tasks.stream()
+                .<Callable<List<String>>>map(task -> () -> listRange(task.path(), task.range()))
+                .toList();
+
+        return submit(callables, "s3-list");
+    }
+
+    private <T> List<Future<T>> submit(List<Callable<T>> tasks, String prefix) {
+        if (tasks.isEmpty()) {
+            return List.of();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(concurrency, tasks.size()), daemonThreads(prefix));
+
+        try {
+            List<Future<T>> futures = new ArrayList<>(tasks.size());
+
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+
+            return futures;
+        } finally {
+            // queued tasks still run, the threads exit once all complete
+            executor.shutdown();
+        }
+    }
+
+    private List<String> listRange(URI path, Range range) {
+        String endKey = range.endExclusive() != null ? URIs.asKey(range.endExclusive()) : null;
+
+        List<String> results = new ArrayList<>();
+        int pages = 0;
+
+        try (S3.Responses responses = s3.listObjectsIterable(path, range.startInclusive())) {
+            for (S3.Response response : responses) {
+                pages++;
+
+                response.isSuccessOrThrowRuntime(r -> String.format("unable to list objects at: %s, %s", path, r.errorMessage()));
+
+                for (String key : s3.listChildren(response)) {
+                    if (endKey != null && key.compareTo(endKey) >= 0) {
+                        LOG.debug("listed: {}, range: {}, pages: {}, keys: {}", path, range, pages, results.size());
+                        return results;
+                    }
+
+                    results.add(key);
+                }
+            }
+        }
+
+        LOG.debug("listed: {}, range: {}, pages: {}, keys: {}", path, range, pages, results.size());
+
+        return results;
+    }
+
+    private static <T> T get(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("interrupted while listing");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
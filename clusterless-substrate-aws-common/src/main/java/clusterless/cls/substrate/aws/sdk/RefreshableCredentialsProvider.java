@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.cls.substrate.aws.sdk;
+
+import software.amazon.awssdk.auth.credentials.AwsCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A default credentials provider chain, shared by all clients of the same profile, that can be rebuilt.
+ * <p>
+ * The default chain retains the first provider to resolve credentials, and some providers retain the credentials.
+ * After a Lambda SnapStart restore those belong to the environment the snapshot was taken in, so
+ * {@link #refreshAll()} discards them and the next call resolves credentials again.
+ */
+public final class RefreshableCredentialsProvider implements AwsCredentialsProvider {
+    private static final Map<String, RefreshableCredentialsProvider> providers = new ConcurrentHashMap<>();
+
+    public static RefreshableCredentialsProvider forProfile(String profile) {
+        return providers.computeIfAbsent(profile == null ? "" : profile, k -> new RefreshableCredentialsProvider(profile));
+    }
+
+    /**
+     * Rebuilds every provider chain, returns the number of chains rebuilt.
+     */
+    public static int refreshAll() {
+        providers.values().forEach(RefreshableCredentialsProvider::refresh);
+        return providers.size();
+    }
+
+    private final String profile;
+    private volatile DefaultCredentialsProvider delegate;
+
+    private RefreshableCredentialsProvider(String profile) {
+        this.profile = profile;
+        this.delegate = create(profile);
+    }
+
+    private static DefaultCredentialsProvider create(String profile) {
+        return DefaultCredentialsProvider.builder()
+                .profileName(profile)
+                .build();
+    }
+
+    public void refresh() {
+        DefaultCredentialsProvider previous = delegate;
+        delegate = create(profile);
+        previous.close();
+    }
+
+    @Override
+    public AwsCredentials resolveCredentials() {
+        return delegate.resolveCredentials();
+    }
+}
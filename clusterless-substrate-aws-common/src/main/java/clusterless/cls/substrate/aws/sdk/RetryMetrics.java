@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.cls.substrate.aws.sdk;
+
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per operation retry counts, cumulative for the life of the JVM.
+ * <p>
+ * Attempts are counted by the {@link #interceptor()} every client is created with, see
+ * {@link ClientBase#overrideConfiguration()}.
+ */
+public final class RetryMetrics {
+    private static final Map<String, Counters> operations = new ConcurrentHashMap<>();
+    private static final ExecutionAttribute<AtomicInteger> ATTEMPTS = new ExecutionAttribute<>("RetryMetricsAttempts");
+    private static final ExecutionInterceptor INTERCEPTOR = new AttemptInterceptor();
+
+    static class Counters {
+        final LongAdder calls = new LongAdder();
+        final LongAdder retries = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAccumulator maxAttempts = new LongAccumulator(Math::max, 0);
+    }
+
+    /**
+     * @param calls       the number of calls made
+     * @param retries     the number of retry attempts across all calls
+     * @param failures    the number of calls that failed after all attempts
+     * @param maxAttempts the most attempts made by a single call
+     */
+    public record Snapshot(long calls, long retries, long failures, long maxAttempts) {
+        @Override
+        public String toString() {
+            return String.format("calls: %d, retries: %d, failures: %d, max attempts: %d", calls, retries, failures, maxAttempts);
+        }
+    }
+
+    /**
+     * Counts the attempts the client makes for each call, including its retries.
+     */
+    static class AttemptInterceptor implements ExecutionInterceptor {
+        @Override
+        public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+            executionAttributes.putAttribute(ATTEMPTS, new AtomicInteger());
+        }
+
+        @Override
+        public void beforeTransmission(Context.BeforeTransmission context, ExecutionAttributes executionAttributes) {
+            AtomicInteger attempts = executionAttributes.getAttribute(ATTEMPTS);
+
+            if (attempts != null) {
+                attempts.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+            record(executionAttributes, true);
+        }
+
+        @Override
+        public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+            record(executionAttributes, false);
+        }
+
+        private static void record(ExecutionAttributes executionAttributes, boolean success) {
+            AtomicInteger attempts = executionAttributes.getAttribute(ATTEMPTS);
+            String service = executionAttributes.getAttribute(SdkExecutionAttribute.SERVICE_NAME);
+            String operation = executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+
+            // a failure before the first transmission, like a credentials error, is still one attempt
+            RetryMetrics.record(String.format("%s:%s", service, operation), attempts == null ? 1 : Math.max(1, attempts.get()), success);
+        }
+    }
+
+    private RetryMetrics() {
+    }
+
+    public static ExecutionInterceptor interceptor() {
+        return INTERCEPTOR;
+    }
+
+    static void record(String operation, int attempts, boolean success) {
+        Counters counters = operations.computeIfAbsent(operation, k -> new Counters());
+
+        counters.calls.increment();
+        counters.retries.add(attempts - 1);
+        counters.maxAttempts.accumulate(attempts);
+
+        if (!success) {
+            counters.failures.increment();
+        }
+    }
+
+    /**
+     * @return a sorted snapshot of all operations keyed by {@code service:operation}
+     */
+    public static Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> result = new TreeMap<>();
+
+        operations.forEach((operation, counters) -> result.put(operation, new Snapshot(
+                counters.calls.sum(),
+                counters.retries.sum(),
+                counters.failures.sum(),
+                counters.maxAttempts.get()
+        )));
+
+        return result;
+    }
+
+    public static void reset() {
+        operations.clear();
+    }
+}
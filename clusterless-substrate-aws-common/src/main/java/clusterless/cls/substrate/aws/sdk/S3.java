@@ -12,33 +12,115 @@ import clusterless.cls.json.JSONUtil;
 import clusterless.cls.util.Tuple2;
 import clusterless.cls.util.URIs;
 import com.google.common.collect.Iterables;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
 import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
 import software.amazon.awssdk.services.s3.paginators.ListObjectsV2Iterable;
+import software.amazon.awssdk.utils.http.SdkHttpUtils;
 
 import java.net.URI;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import static clusterless.cls.util.Threads.daemonThreads;
+
 /**
  *
  */
 public class S3 extends ClientBase<S3Client> {
+    private static final Logger LOG = LogManager.getLogger(S3.class);
 
     public static final int MAX_PAYLOAD = 1024 * 1024;
 
+    /**
+     * The maximum connections held by the SDK http client, concurrent requests beyond this value
+     * wait on a free connection.
+     */
+    public static final int MAX_CONNECTIONS = 50;
+
+    /**
+     * The largest object a single CopyObject request will accept.
+     */
+    public static final long MAX_COPY_SIZE = 5L * 1024 * 1024 * 1024;
+
+    /**
+     * The maximum number of parts allowed in a multipart upload.
+     */
+    public static final int MAX_PARTS = 10_000;
+
+    /**
+     * The minimum size of any multipart upload part, but the last.
+     */
+    public static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    /**
+     * Controls when and how a server-side copy is split into parallel UploadPartCopy requests.
+     * <p>
+     * When the threshold is below {@link #MAX_COPY_SIZE}, the source object is inspected before copying to learn its
+     * size. Otherwise, a multipart copy is only attempted when CopyObject rejects the source as too large, so the
+     * common case of small objects costs a single request.
+     * <p>
+     * Both paths write the destination with the same settings. User metadata and tags are copied from the source,
+     * the encryption and storage class are the destination bucket defaults.
+     *
+     * @param threshold   objects larger than this, in bytes, are copied in parts
+     * @param partSize    the size of each part in bytes, increased if the object would exceed {@link #MAX_PARTS}
+     * @param concurrency the maximum number of parts copied concurrently, across all objects in a single copy call
+     */
+    public record MultipartCopy(long threshold, long partSize, int concurrency) {
+        public static final MultipartCopy DEFAULT = new MultipartCopy(MAX_COPY_SIZE, 256L * 1024 * 1024, 8);
+
+        public MultipartCopy {
+            if (threshold < MIN_PART_SIZE) {
+                throw new IllegalArgumentException("threshold must be at least: " + MIN_PART_SIZE);
+            }
+
+            if (partSize < MIN_PART_SIZE || partSize > MAX_COPY_SIZE) {
+                throw new IllegalArgumentException("partSize must be between: " + MIN_PART_SIZE + " and: " + MAX_COPY_SIZE);
+            }
+
+            if (concurrency < 1) {
+                throw new IllegalArgumentException("concurrency must be greater than zero");
+            }
+        }
+
+        boolean isMultipart(long size) {
+            return size > Math.min(threshold, MAX_COPY_SIZE);
+        }
+
+        long partSizeFor(long size) {
+            long minimum = (size + MAX_PARTS - 1) / MAX_PARTS;
+            return Math.max(partSize, minimum);
+        }
+    }
+
     public static URI createS3URI(String bucket, String key) {
         return URIs.create("s3", bucket, key);
     }
@@ -67,13 +149,22 @@ public class S3 extends ClientBase<S3Client> {
     }
 
     @Override
-    protected S3Client createClient(String region) {
-        logEndpointOverride();
+    protected ClientFactory<S3Client> clientFactory() {
+        return S3::newClient;
+    }
+
+    private static S3Client newClient(String profile, String region, URI endpointOverride) {
+        logEndpointOverride(S3.class, endpointOverride);
 
         return S3Client.builder()
                 .region(region == null ? null : Region.of(region)) // allows sdk to lookup region in chain
-                .credentialsProvider(credentialsProvider)
+                .credentialsProvider(RefreshableCredentialsProvider.forProfile(profile))
                 .endpointOverride(endpointOverride)
+                .overrideConfiguration(overrideConfiguration())
+                .httpClientBuilder(ApacheHttpClient.builder()
+                        .maxConnections(MAX_CONNECTIONS)
+                        // concurrent copies and part copies queue on the pool, wait instead of failing
+                        .connectionAcquisitionTimeout(Duration.ofMinutes(2)))
                 .build();
     }
 
@@ -81,7 +172,8 @@ public class S3 extends ClientBase<S3Client> {
         ListBucketsRequest request = ListBucketsRequest.builder()
                 .build();
 
-        try (S3Client client = createClient(region)) {
+        try {
+            S3Client client = client(region);
             return new Response(client.listBuckets(request));
         } catch (Exception exception) {
             return new Response(exception);
@@ -117,7 +209,8 @@ public class S3 extends ClientBase<S3Client> {
                 .bucket(bucketName)
                 .build();
 
-        try (S3Client client = createClient(region)) {
+        try {
+            S3Client client = client(region);
             return new Response(client.headBucket(request));
         } catch (Exception exception) {
             return new Response(exception);
@@ -137,7 +230,8 @@ public class S3 extends ClientBase<S3Client> {
                 .key(URIs.asKey(identifier))
                 .build();
 
-        try (S3Client client = createClient(region)) {
+        try {
+            S3Client client = client(region);
             return new Response(client.headObject(request));
         } catch (Exception exception) {
             return new Response(exception);
@@ -168,7 +262,8 @@ public class S3 extends ClientBase<S3Client> {
                 .bucket(bucketName)
                 .build();
 
-        try (S3Client client = createClient(region)) {
+        try {
+            S3Client client = client(region);
             return new Response(client.createBucket(request));
         } catch (Exception exception) {
             return new Response(exception);
@@ -216,13 +311,98 @@ public class S3 extends ClientBase<S3Client> {
                 .contentType(contentType)
                 .build();
 
-        try (S3Client client = createClient()) {
+        try {
+            S3Client client = client();
             return new Response(client.putObject(putObjectRequest, requestBody));
         } catch (Exception exception) {
             return new Response(exception);
         }
     }
 
+    /**
+     * Puts the object only if no object exists at the identifier, in a single request.
+     * <p>
+     * If an object exists, {@link Response#isPreconditionFailed()} is true.
+     */
+    public Response putIfAbsent(URI identifier, String contentType, Object value) {
+        Objects.requireNonNull(value, "value");
+
+        String body = JSONUtil.writeAsStringSafe(value);
+
+        return putIfMatch(identifier, contentType, ByteBuffer.wrap(body.getBytes(StandardCharsets.UTF_8)), Map.of(), null);
+    }
+
+    /**
+     * Puts the object only if the current object has the given ETag, or if the eTag is null, only if no object
+     * exists at the identifier.
+     * <p>
+     * If the condition does not hold, or a concurrent conditional put wins, {@link Response#isPreconditionFailed()}
+     * is true.
+     * <p>
+     * A retry of a put that was applied fails the condition against its own write, and the client retries failed
+     * requests, so when the condition fails the object is read back, and if it holds the intended body and metadata,
+     * the put is treated as a success, see {@link #ifWritten(URI, Response, boolean, Predicate)}.
+     *
+     * @param metadata the user metadata to write with the object, may be empty
+     * @param eTag     the ETag the current object must have, may be null
+     */
+    public Response putIfMatch(URI identifier, String contentType, ByteBuffer byteBuffer, Map<String, String> metadata, String eTag) {
+        Objects.requireNonNull(identifier, "identifier");
+        Objects.requireNonNull(contentType, "contentType");
+        Objects.requireNonNull(byteBuffer, "byteBuffer");
+        Objects.requireNonNull(metadata, "metadata");
+
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(identifier.getHost())
+                .key(URIs.asKey(identifier))
+                .contentType(contentType)
+                .metadata(metadata)
+                .overrideConfiguration(o -> {
+                    if (eTag == null) {
+                        o.putHeader("If-None-Match", "*");
+                    } else {
+                        o.putHeader("If-Match", eTag);
+                    }
+                })
+                .build();
+
+        RequestBody requestBody = byteBuffer.hasRemaining() ? RequestBody.fromByteBuffer(byteBuffer) : RequestBody.empty();
+
+        Response response;
+
+        try {
+            S3Client client = client();
+            response = new Response(client.putObject(putObjectRequest, requestBody));
+        } catch (Exception exception) {
+            response = new Response(exception);
+        }
+
+        return ifWritten(identifier, response, false, current -> current.asByteBuffer().equals(byteBuffer) &&
+                                                                 metadata(current).entrySet().containsAll(metadata.entrySet()));
+    }
+
+    /**
+     * If the conditional write failed its precondition, reads the object and returns the read response if
+     * the object is the intended write, otherwise the given response is returned.
+     *
+     * @param head       read the object with a head request instead of a get
+     * @param isIntended tests the read response
+     */
+    Response ifWritten(URI identifier, Response response, boolean head, Predicate<Response> isIntended) {
+        if (!response.isPreconditionFailed()) {
+            return response;
+        }
+
+        Response current = head ? exists(identifier) : get(identifier);
+
+        if (current.isSuccess() && isIntended.test(current)) {
+            LOG.info("precondition failed, found the intended object at: {}, likely a retried request", identifier);
+            return current;
+        }
+
+        return response;
+    }
+
     public Response get(URI identifier) {
         Objects.requireNonNull(identifier, "identifier");
 
@@ -234,21 +414,62 @@ public class S3 extends ClientBase<S3Client> {
                 .key(key)
                 .build();
 
-        try (S3Client client = createClient()) {
+        try {
+            S3Client client = client();
             return new Response(client.getObjectAsBytes(getObjectRequest));
         } catch (Exception exception) {
             return new Response(exception);
         }
     }
 
-    public Response remove(URI identifier) {
+    /**
+     * Gets the object without buffering it in memory, the caller must close {@link Response#asInputStream()}.
+     */
+    public Response getStream(URI identifier) {
         Objects.requireNonNull(identifier, "identifier");
 
-        try (S3Client client = createClient()) {
-            return remove(client, identifier);
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                .bucket(identifier.getHost())
+                .key(URIs.asKey(identifier))
+                .build();
+
+        try {
+            S3Client client = client();
+            return new Response(client.getObject(getObjectRequest));
+        } catch (Exception exception) {
+            return new Response(exception);
         }
     }
 
+    /**
+     * Opens a stream that uploads to the given identifier in parts as it is written, see {@link S3UploadStream}.
+     *
+     * @param contentEncoding the content encoding, may be null
+     */
+    public S3UploadStream putStream(URI identifier, String contentType, String contentEncoding) {
+        return putStream(identifier, contentType, contentEncoding, S3UploadStream.DEFAULT_PART_SIZE);
+    }
+
+    public S3UploadStream putStream(URI identifier, String contentType, String contentEncoding, int partSize) {
+        return new S3UploadStream(this, identifier, contentType, contentEncoding, partSize);
+    }
+
+    /**
+     * Opens a stream like {@link #putStream(URI, String, String)}, but the upload only completes if no object exists
+     * at the identifier.
+     */
+    public S3UploadStream putStreamIfAbsent(URI identifier, String contentType, String contentEncoding) {
+        return new S3UploadStream(this, identifier, contentType, contentEncoding, S3UploadStream.DEFAULT_PART_SIZE, true);
+    }
+
+    public Response remove(URI identifier) {
+        Objects.requireNonNull(identifier, "identifier");
+
+        S3Client client = client();
+
+        return remove(client, identifier);
+    }
+
     private S3.Response remove(S3Client client, URI identifier) {
         try {
             return new Response(client.deleteObject(createDeleteRequest(identifier)));
@@ -272,51 +493,51 @@ public class S3 extends ClientBase<S3Client> {
         Objects.requireNonNull(toIdentifier, "toIdentifier");
         Objects.requireNonNull(append, "append");
 
-        try (S3Client client = createClient()) {
-            Response getResponse = get(fromIdentifier);
+        S3Client client = client();
 
-            if (!getResponse.isSuccess()) {
-                return getResponse;
-            }
+        Response getResponse = get(fromIdentifier);
 
-            if (getResponse.asGetObjectResponse().contentLength() < MAX_PAYLOAD) {
-                ByteBuffer byteBuffer = getResponse.asByteBuffer();
-                String newLine = byteBuffer.capacity() != 0 ? "\n" : "";
-                ByteBuffer buffer = ByteBuffer.allocate(byteBuffer.capacity() + append.length() + newLine.length());
-                buffer.put(byteBuffer);
-                buffer.put(newLine.getBytes());
-                buffer.put(append.getBytes());
-                String contentType = getResponse.asGetObjectResponse().contentType();
-                Response putResponse = put(toIdentifier, contentType, buffer);
-
-                if (!putResponse.isSuccess()) {
-                    return putResponse;
-                }
-            } else {
-                ClientBase<S3Client>.Response response = copy(client, fromIdentifier, toIdentifier);
+        if (!getResponse.isSuccess()) {
+            return getResponse;
+        }
 
-                if (!response.isSuccess()) {
-                    return response;
-                }
+        if (getResponse.asGetObjectResponse().contentLength() < MAX_PAYLOAD) {
+            ByteBuffer byteBuffer = getResponse.asByteBuffer();
+            String newLine = byteBuffer.capacity() != 0 ? "\n" : "";
+            ByteBuffer buffer = ByteBuffer.allocate(byteBuffer.capacity() + append.length() + newLine.length());
+            buffer.put(byteBuffer);
+            buffer.put(newLine.getBytes());
+            buffer.put(append.getBytes());
+            String contentType = getResponse.asGetObjectResponse().contentType();
+            Response putResponse = put(toIdentifier, contentType, buffer);
+
+            if (!putResponse.isSuccess()) {
+                return putResponse;
             }
+        } else {
+            ClientBase<S3Client>.Response response = copy(client, fromIdentifier, toIdentifier, MultipartCopy.DEFAULT);
 
-            return remove(client, fromIdentifier);
+            if (!response.isSuccess()) {
+                return response;
+            }
         }
+
+        return remove(client, fromIdentifier);
     }
 
     public Response move(URI fromIdentifier, URI toIdentifier) {
         Objects.requireNonNull(fromIdentifier, "fromIdentifier");
         Objects.requireNonNull(toIdentifier, "toIdentifier");
 
-        try (S3Client client = createClient()) {
-            ClientBase<S3Client>.Response response = copy(client, fromIdentifier, toIdentifier);
+        S3Client client = client();
 
-            if (!response.isSuccess()) {
-                return response;
-            }
+        ClientBase<S3Client>.Response response = copy(client, fromIdentifier, toIdentifier, MultipartCopy.DEFAULT);
 
-            return remove(client, fromIdentifier);
+        if (!response.isSuccess()) {
+            return response;
         }
+
+        return remove(client, fromIdentifier);
     }
 
     public Response listPaths(URI path) {
@@ -355,7 +576,8 @@ public class S3 extends ClientBase<S3Client> {
                 .maxKeys(maxKeys)
                 .build();
 
-        try (S3Client client = createClient()) {
+        try {
+            S3Client client = client();
             return new Response(client.listObjectsV2(listObjectsV2Request));
         } catch (Exception exception) {
             return new Response(exception);
@@ -404,10 +626,9 @@ public class S3 extends ClientBase<S3Client> {
                 .maxKeys(maxKeys)
                 .build();
 
-        S3Client client = createClient();
         try {
-            ListObjectsV2Iterable awsResponse = client.listObjectsV2Paginator(listObjectsV2Request);
-            return new Responses(client) {
+            ListObjectsV2Iterable awsResponse = client().listObjectsV2Paginator(listObjectsV2Request);
+            return new Responses() {
                 @NotNull
                 @Override
                 public Iterator<Response> iterator() {
@@ -415,7 +636,6 @@ public class S3 extends ClientBase<S3Client> {
                 }
             };
         } catch (Exception exception) {
-            client.close();
             return new Responses() {
                 @NotNull
                 @Override
@@ -473,7 +693,7 @@ public class S3 extends ClientBase<S3Client> {
 
 
     /**
-     * Has a limit of 5G objects,
+     * Copies the object, falling back to a multipart copy if the object is larger than {@link #MAX_COPY_SIZE}.
      *
      * @param from
      * @param to
@@ -483,21 +703,112 @@ public class S3 extends ClientBase<S3Client> {
         Objects.requireNonNull(from, "from");
         Objects.requireNonNull(to, "to");
 
-        try (S3Client client = createClient()) {
-            return copy(client, from, to);
-        }
+        S3Client client = client();
+
+        return copy(client, from, to, MultipartCopy.DEFAULT);
+    }
+
+    public boolean copy(Iterable<Tuple2<URI, URI>> toUris, Consumer<URI> success, BiFunction<Tuple2<URI, URI>, Response, Boolean> isFailure) {
+        return copy(toUris, 1, success, isFailure);
+    }
+
+    public boolean copy(Iterable<Tuple2<URI, URI>> toUris, int maxInFlight, Consumer<URI> success, BiFunction<Tuple2<URI, URI>, Response, Boolean> isFailure) {
+        return copy(toUris, maxInFlight, MultipartCopy.DEFAULT, success, isFailure);
     }
 
-    public boolean copy(List<Tuple2<URI, URI>> toUris, Consumer<URI> success, BiFunction<Tuple2<URI, URI>, Response, Boolean> isFailure) {
+    /**
+     * Copies each from/to pair with at most {@code maxInFlight} copy requests outstanding.
+     * <p>
+     * The success and isFailure callbacks are always invoked on the calling thread, in completion order, so callers
+     * may keep unsynchronized bookkeeping. When isFailure returns true, no further copies are submitted, in-flight
+     * requests are cancelled, and false is returned.
+     * <p>
+     * maxInFlight is capped by {@link #MAX_CONNECTIONS}, the size of the SDK connection pool.
+     * <p>
+     * toUris is iterated once, and only as copies are submitted, so it may lazily produce the pairs.
+     *
+     * @param toUris        the from/to pairs to copy
+     * @param maxInFlight   the maximum number of concurrent copy requests
+     * @param multipartCopy when to copy large objects in parallel parts
+     * @param success       called with the destination of every successful copy
+     * @param isFailure     called with every failed copy, return true to stop copying
+     * @return true if all copies were attempted without being stopped
+     */
+    public boolean copy(Iterable<Tuple2<URI, URI>> toUris, int maxInFlight, MultipartCopy multipartCopy, Consumer<URI> success, BiFunction<Tuple2<URI, URI>, Response, Boolean> isFailure) {
         Objects.requireNonNull(toUris, "toUris");
+        Objects.requireNonNull(multipartCopy, "multipartCopy");
+
+        int threads = Math.min(Math.max(1, maxInFlight), MAX_CONNECTIONS);
+
+        if (toUris instanceof Collection<Tuple2<URI, URI>> collection) {
+            threads = Math.min(threads, collection.size());
+        }
+
+        if (threads <= 1) {
+            return copySerially(toUris, multipartCopy, success, isFailure);
+        }
 
-        try (S3Client client = createClient()) {
+        S3Client client = client();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, daemonThreads("s3-copy"));
+        ExecutorService partExecutor = partExecutor(multipartCopy);
+        CompletionService<Tuple2<Tuple2<URI, URI>, Response>> completionService = new ExecutorCompletionService<>(executor);
+
+        try {
+            Iterator<Tuple2<URI, URI>> iterator = toUris.iterator();
+            int inFlight = 0;
+
+            while (inFlight < threads && iterator.hasNext()) {
+                submitCopy(completionService, client, multipartCopy, partExecutor, iterator.next());
+                inFlight++;
+            }
+
+            while (inFlight > 0) {
+                Tuple2<Tuple2<URI, URI>, Response> result = completionService.take().get();
+                inFlight--;
+
+                Tuple2<URI, URI> tuple = result.get_1();
+                S3.Response response = result.get_2();
+
+                if (response.isSuccess()) {
+                    success.accept(tuple.get_2());
+                } else if (isFailure.apply(tuple, response)) { // stop on true
+                    return false; // failure
+                }
+
+                if (iterator.hasNext()) {
+                    submitCopy(completionService, client, multipartCopy, partExecutor, iterator.next());
+                    inFlight++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while copying objects", e);
+        } catch (ExecutionException e) {
+            // copy() captures all exceptions into a Response, so this is unexpected
+            throw new IllegalStateException("unable to copy objects", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            partExecutor.shutdownNow();
+        }
+
+        return true; // success
+    }
+
+    private void submitCopy(CompletionService<Tuple2<Tuple2<URI, URI>, Response>> completionService, S3Client client, MultipartCopy multipartCopy, ExecutorService partExecutor, Tuple2<URI, URI> tuple) {
+        completionService.submit(() -> new Tuple2<>(tuple, copy(client, tuple.get_1(), tuple.get_2(), multipartCopy, partExecutor)));
+    }
+
+    private boolean copySerially(Iterable<Tuple2<URI, URI>> toUris, MultipartCopy multipartCopy, Consumer<URI> success, BiFunction<Tuple2<URI, URI>, Response, Boolean> isFailure) {
+        S3Client client = client();
+        ExecutorService partExecutor = partExecutor(multipartCopy);
+
+        try {
             for (Tuple2<URI, URI> tuple : toUris) {
                 URI from = tuple.get_1();
                 URI to = tuple.get_2();
 
-                // TODO: apply retry logic here. note response knows about throttling and retryable exceptions
-                S3.Response response = copy(client, from, to);
+                S3.Response response = copy(client, from, to, multipartCopy, partExecutor);
 
                 if (response.isSuccess()) {
                     success.accept(to);
@@ -508,13 +819,228 @@ public class S3 extends ClientBase<S3Client> {
                     }
                 }
             }
+        } finally {
+            partExecutor.shutdownNow();
         }
+
         return true; // success
     }
 
+    /**
+     * Parts of every object in a copy call share this pool, bounding the total parts in flight
+     * regardless of how many objects are copied concurrently. Threads are only started once a part is submitted.
+     */
+    private static ExecutorService partExecutor(MultipartCopy multipartCopy) {
+        return Executors.newFixedThreadPool(Math.min(multipartCopy.concurrency(), MAX_CONNECTIONS), daemonThreads("s3-copy-part"));
+    }
+
+    private Response copy(S3Client client, URI from, URI to, MultipartCopy multipartCopy) {
+        ExecutorService partExecutor = partExecutor(multipartCopy);
+
+        try {
+            return copy(client, from, to, multipartCopy, partExecutor);
+        } finally {
+            partExecutor.shutdownNow();
+        }
+    }
+
+    private Response copy(S3Client client, URI from, URI to, MultipartCopy multipartCopy, ExecutorService partExecutor) {
+        if (multipartCopy.threshold() < MAX_COPY_SIZE) {
+            Response head = head(client, from);
+
+            if (!head.isSuccess()) {
+                return head;
+            }
+
+            HeadObjectResponse headObject = (HeadObjectResponse) head.awsResponse;
+
+            if (multipartCopy.isMultipart(headObject.contentLength())) {
+                return multipartCopy(client, from, to, headObject, multipartCopy, partExecutor);
+            }
+
+            return copy(client, from, to);
+        }
+
+        Response response = copy(client, from, to);
+
+        if (!isCopySourceTooLarge(response)) {
+            return response;
+        }
+
+        Response head = head(client, from);
+
+        if (!head.isSuccess()) {
+            return head;
+        }
+
+        return multipartCopy(client, from, to, (HeadObjectResponse) head.awsResponse, multipartCopy, partExecutor);
+    }
+
+    private static boolean isCopySourceTooLarge(Response response) {
+        if (response.exception instanceof AwsServiceException serviceException && serviceException.awsErrorDetails() != null) {
+            String errorMessage = serviceException.awsErrorDetails().errorMessage();
+            return "InvalidRequest".equals(serviceException.awsErrorDetails().errorCode())
+                   && errorMessage != null
+                   && errorMessage.contains("copy source is larger than the maximum allowable size");
+        }
+
+        return false;
+    }
+
+    private Response head(S3Client client, URI identifier) {
+        HeadObjectRequest request = HeadObjectRequest.builder()
+                .bucket(identifier.getHost())
+                .key(URIs.asKey(identifier))
+                .build();
+
+        try {
+            return new Response(client.headObject(request));
+        } catch (Exception exception) {
+            return new Response(exception);
+        }
+    }
+
+    /**
+     * Copies the object with parallel UploadPartCopy requests. The upload is aborted if any part fails, so no
+     * partial object is ever visible at the destination.
+     * <p>
+     * Unlike CopyObject, a multipart upload does not carry over the source metadata or tags, so they are read from
+     * the source and set on the upload.
+     */
+    private Response multipartCopy(S3Client client, URI from, URI to, HeadObjectResponse source, MultipartCopy multipartCopy, ExecutorService partExecutor) {
+        String fromBucket = from.getHost();
+        String fromKey = URIs.asKey(from);
+        String toBucket = to.getHost();
+        String toKey = URIs.asKey(to);
+
+        long size = source.contentLength();
+        long partSize = multipartCopy.partSizeFor(size);
+        int parts = (int) ((size + partSize - 1) / partSize);
+
+        String uploadId;
+
+        try {
+            CreateMultipartUploadRequest createRequest = createMultipartUploadRequest(source, toBucket, toKey, tagging(client, fromBucket, fromKey));
+
+            uploadId = client.createMultipartUpload(createRequest).uploadId();
+        } catch (Exception exception) {
+            return new Response(exception);
+        }
+
+        List<Future<CompletedPart>> futures = new ArrayList<>(parts);
+
+        try {
+            for (int i = 0; i < parts; i++) {
+                int partNumber = i + 1;
+                long start = i * partSize;
+                long end = Math.min(start + partSize, size) - 1;
+
+                UploadPartCopyRequest partRequest = UploadPartCopyRequest.builder()
+                        .sourceBucket(fromBucket)
+                        .sourceKey(fromKey)
+                        .copySourceIfMatch(source.eTag()) // fail if the source changes mid copy
+                        .copySourceRange(String.format("bytes=%d-%d", start, end))
+                        .destinationBucket(toBucket)
+                        .destinationKey(toKey)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .build();
+
+                futures.add(partExecutor.submit(() -> CompletedPart.builder()
+                        .partNumber(partNumber)
+                        .eTag(client.uploadPartCopy(partRequest).copyPartResult().eTag())
+                        .build()));
+            }
+
+            List<CompletedPart> completedParts = new ArrayList<>(parts);
+
+            for (Future<CompletedPart> future : futures) {
+                completedParts.add(future.get());
+            }
+
+            CompleteMultipartUploadRequest completeRequest = CompleteMultipartUploadRequest.builder()
+                    .bucket(toBucket)
+                    .key(toKey)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder()
+                            .parts(completedParts)
+                            .build())
+                    .build();
+
+            return new Response(client.completeMultipartUpload(completeRequest));
+        } catch (Exception exception) {
+            // the pool is shared with other objects, only cancel the parts of this one
+            futures.forEach(future -> future.cancel(true));
+            abortMultipartUpload(client, toBucket, toKey, uploadId);
+
+            if (exception instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (exception instanceof ExecutionException && exception.getCause() instanceof Exception cause) {
+                return new Response(cause);
+            }
+
+            return new Response(exception);
+        }
+    }
+
+    /**
+     * Matches the defaults of CopyObject, the source metadata and tags are copied, the encryption and storage class
+     * are left to the destination bucket defaults.
+     */
+    static CreateMultipartUploadRequest createMultipartUploadRequest(HeadObjectResponse source, String toBucket, String toKey, String tagging) {
+        return CreateMultipartUploadRequest.builder()
+                .bucket(toBucket)
+                .key(toKey)
+                .contentType(source.contentType())
+                .contentEncoding(source.contentEncoding())
+                .contentDisposition(source.contentDisposition())
+                .cacheControl(source.cacheControl())
+                .metadata(source.metadata())
+                .tagging(tagging)
+                .build();
+    }
+
+    /**
+     * @return the source object tags encoded as a tagging header, or null if there are none
+     */
+    private static String tagging(S3Client client, String bucket, String key) {
+        GetObjectTaggingRequest request = GetObjectTaggingRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .build();
+
+        List<Tag> tags = client.getObjectTagging(request).tagSet();
+
+        if (tags.isEmpty()) {
+            return null;
+        }
+
+        return tags.stream()
+                .map(tag -> SdkHttpUtils.urlEncode(tag.key()) + "=" + SdkHttpUtils.urlEncode(tag.value()))
+                .collect(Collectors.joining("&"));
+    }
+
+    private static void abortMultipartUpload(S3Client client, String bucket, String key, String uploadId) {
+        AbortMultipartUploadRequest request = AbortMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .uploadId(uploadId)
+                .build();
+
+        try {
+            client.abortMultipartUpload(request);
+        } catch (Exception exception) {
+            LOG.error("unable to abort multipart copy to: s3://{}/{}, upload id: {}, message: {}", bucket, key, uploadId, exception.getMessage());
+        }
+    }
+
     private Response copy(S3Client client, URI from, URI to) {
+        CopyObjectRequest request = createCopyRequest(from, to);
+
         try {
-            return new Response(client.copyObject(createCopyRequest(from, to)));
+            return new Response(client.copyObject(request));
         } catch (Exception exception) {
             return new Response(exception);
         }
@@ -534,6 +1060,31 @@ public class S3 extends ClientBase<S3Client> {
                 .build();
     }
 
+    public String eTag(Response response) {
+        if (response.awsResponse instanceof GetObjectResponse getObjectResponse) {
+            return getObjectResponse.eTag();
+        } else if (response.awsResponse instanceof HeadObjectResponse headObjectResponse) {
+            return headObjectResponse.eTag();
+        } else if (response.awsResponse instanceof PutObjectResponse putObjectResponse) {
+            return putObjectResponse.eTag();
+        }
+
+        return null;
+    }
+
+    /**
+     * @return the user metadata of a get or head object response, or an empty map
+     */
+    public Map<String, String> metadata(Response response) {
+        if (response.awsResponse instanceof GetObjectResponse getObjectResponse) {
+            return getObjectResponse.metadata();
+        } else if (response.awsResponse instanceof HeadObjectResponse headObjectResponse) {
+            return headObjectResponse.metadata();
+        }
+
+        return Map.of();
+    }
+
     public Instant lastModified(Response response) {
         return ((HeadObjectResponse) response.awsResponse).lastModified();
     }
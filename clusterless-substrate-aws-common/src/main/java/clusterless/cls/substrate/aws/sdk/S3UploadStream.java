@@ -0,0 +1,336 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.cls.substrate.aws.sdk;
+
+import clusterless.cls.util.URIs;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An {@link OutputStream} that uploads to S3 in parts as data is written, holding at most one part in memory.
+ * <p>
+ * If less than one part is written, a single PutObject is made on {@link #close()}. Otherwise, a multipart upload
+ * is started when the first part fills and completed on close. Call {@link #abort()} to discard everything written,
+ * no object will be visible at the destination.
+ * <p>
+ * If created with ifAbsent, the final PutObject or CompleteMultipartUpload is conditional on no object existing,
+ * and if one does {@link S3.Response#isPreconditionFailed()} is true on the {@link #response()}. The client may
+ * retry the conditional request, so if the condition fails the existing object is compared against the upload, by content
+ * for a PutObject, and by the multipart ETag for a CompleteMultipartUpload, and if they match the upload succeeds.
+ * A multipart ETag is only comparable if the bucket does not encrypt with KMS keys.
+ */
+public class S3UploadStream extends OutputStream {
+    private static final Logger LOG = LogManager.getLogger(S3UploadStream.class);
+
+    public static final int DEFAULT_PART_SIZE = 8 * 1024 * 1024;
+
+    private final S3 s3;
+    private final URI identifier;
+    private final String bucket;
+    private final String key;
+    private final String contentType;
+    private final String contentEncoding;
+    private final boolean ifAbsent;
+    private final byte[] buffer;
+    private final List<CompletedPart> completedParts = new ArrayList<>();
+
+    private int position = 0;
+    private String uploadId;
+    private boolean closed = false;
+    private S3.Response response;
+
+    S3UploadStream(S3 s3, URI identifier, String contentType, String contentEncoding, int partSize) {
+        this(s3, identifier, contentType, contentEncoding, partSize, false);
+    }
+
+    S3UploadStream(S3 s3, URI identifier, String contentType, String contentEncoding, int partSize, boolean ifAbsent) {
+        this.s3 = Objects.requireNonNull(s3, "s3");
+        this.identifier = Objects.requireNonNull(identifier, "identifier");
+        this.bucket = identifier.getHost();
+        this.key = URIs.asKey(identifier);
+        this.contentType = Objects.requireNonNull(contentType, "contentType");
+        this.contentEncoding = contentEncoding;
+        this.ifAbsent = ifAbsent;
+
+        if (partSize < S3.MIN_PART_SIZE) {
+            throw new IllegalArgumentException("partSize must be at least: " + S3.MIN_PART_SIZE);
+        }
+
+        this.buffer = new byte[partSize];
+    }
+
+    /**
+     * @return the response of the final PutObject or CompleteMultipartUpload, null until closed
+     */
+    public S3.Response response() {
+        return response;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+
+        if (position == buffer.length) {
+            uploadPart();
+        }
+
+        buffer[position++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        ensureOpen();
+
+        while (length > 0) {
+            if (position == buffer.length) {
+                uploadPart();
+            }
+
+            int count = Math.min(length, buffer.length - position);
+            System.arraycopy(bytes, offset, buffer, position, count);
+            position += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * Completes the upload, if the upload fails any started multipart upload is aborted.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+
+        if (uploadId == null) {
+            putObject();
+            return;
+        }
+
+        try {
+            if (position > 0) {
+                uploadPart();
+            }
+
+            complete();
+        } catch (IOException | RuntimeException e) {
+            abortUpload();
+            throw e;
+        }
+    }
+
+    /**
+     * Discards all written data, no object is written.
+     */
+    public void abort() {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+
+        if (uploadId != null) {
+            abortUpload();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("stream closed: " + identifier);
+        }
+    }
+
+    private void putObject() throws IOException {
+        PutObjectRequest request = PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .contentType(contentType)
+                .contentEncoding(contentEncoding)
+                .overrideConfiguration(o -> {
+                    if (ifAbsent) {
+                        o.putHeader("If-None-Match", "*");
+                    }
+                })
+                .build();
+
+        byte[] bytes = Arrays.copyOf(buffer, position);
+        RequestBody requestBody = RequestBody.fromBytes(bytes);
+
+        try {
+            response = s3.new Response(s3.client().putObject(request, requestBody));
+        } catch (Exception exception) {
+            response = s3.new Response(exception);
+        }
+
+        if (ifAbsent) {
+            response = s3.ifWritten(identifier, response, false, current -> current.asByteBuffer().equals(ByteBuffer.wrap(bytes)));
+        }
+
+        throwOnFailure("unable to put object");
+    }
+
+    private void uploadPart() throws IOException {
+        if (uploadId == null) {
+            createUpload();
+        }
+
+        int partNumber = completedParts.size() + 1;
+
+        UploadPartRequest request = UploadPartRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .contentLength((long) position)
+                .build();
+
+        RequestBody requestBody = RequestBody.fromBytes(Arrays.copyOf(buffer, position));
+
+        S3.Response partResponse;
+
+        try {
+            partResponse = s3.new Response(s3.client().uploadPart(request, requestBody));
+        } catch (Exception exception) {
+            partResponse = s3.new Response(exception);
+        }
+
+        if (!partResponse.isSuccess()) {
+            response = partResponse;
+            abort();
+            throwOnFailure("unable to upload part: " + partNumber);
+        }
+
+        completedParts.add(CompletedPart.builder()
+                .partNumber(partNumber)
+                .eTag(((UploadPartResponse) partResponse.awsResponse()).eTag())
+                .build());
+
+        position = 0;
+    }
+
+    private void createUpload() throws IOException {
+        CreateMultipartUploadRequest request = CreateMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .contentType(contentType)
+                .contentEncoding(contentEncoding)
+                .build();
+
+        try {
+            response = s3.new Response(s3.client().createMultipartUpload(request));
+        } catch (Exception exception) {
+            response = s3.new Response(exception);
+        }
+
+        throwOnFailure("unable to create multipart upload");
+
+        uploadId = ((CreateMultipartUploadResponse) response.awsResponse()).uploadId();
+    }
+
+    private void complete() throws IOException {
+        CompleteMultipartUploadRequest request = CompleteMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .uploadId(uploadId)
+                .multipartUpload(CompletedMultipartUpload.builder()
+                        .parts(completedParts)
+                        .build())
+                .overrideConfiguration(o -> {
+                    if (ifAbsent) {
+                        o.putHeader("If-None-Match", "*");
+                    }
+                })
+                .build();
+
+        try {
+            response = s3.new Response(s3.client().completeMultipartUpload(request));
+        } catch (Exception exception) {
+            response = s3.new Response(exception);
+        }
+
+        if (ifAbsent) {
+            String eTag = multipartETag();
+            response = s3.ifWritten(identifier, response, true, current -> eTag != null && eTag.equals(unquote(s3.eTag(current))));
+        }
+
+        throwOnFailure("unable to complete multipart upload");
+
+        LOG.info("uploaded {} parts to: {}", completedParts.size(), identifier);
+    }
+
+    /**
+     * The ETag S3 assigns a completed multipart upload, the MD5 of the concatenated part MD5s, and the part count.
+     *
+     * @return null if a part ETag is not an MD5
+     */
+    private String multipartETag() {
+        MessageDigest digest;
+
+        try {
+            digest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        try {
+            for (CompletedPart part : completedParts) {
+                digest.update(HexFormat.of().parseHex(unquote(part.eTag())));
+            }
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        return HexFormat.of().formatHex(digest.digest()) + "-" + completedParts.size();
+    }
+
+    private static String unquote(String eTag) {
+        return eTag == null ? "" : eTag.replace("\"", "");
+    }
+
+    private void abortUpload() {
+        AbortMultipartUploadRequest request = AbortMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .uploadId(uploadId)
+                .build();
+
+        try {
+            s3.client().abortMultipartUpload(request);
+        } catch (Exception exception) {
+            LOG.error("unable to abort multipart upload to: {}, upload id: {}, message: {}", identifier, uploadId, exception.getMessage());
+        }
+    }
+
+    private void throwOnFailure(String message) throws IOException {
+        if (response.isSuccess()) {
+            return;
+        }
+
+        throw new IOException(String.format("%s: %s, %s", message, identifier, response.errorMessage()), response.exception());
+    }
+}
@@ -14,9 +14,11 @@ import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.sqs.SqsClient;
 import software.amazon.awssdk.services.sqs.model.*;
 
+import java.net.URI;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import static software.amazon.awssdk.services.sqs.model.MessageSystemAttributeName.APPROXIMATE_RECEIVE_COUNT;
 import static software.amazon.awssdk.services.sqs.model.MessageSystemAttributeName.SENT_TIMESTAMP;
 
 public class SQS extends ClientBase<SqsClient> {
@@ -29,13 +31,18 @@ public class SQS extends ClientBase<SqsClient> {
     }
 
     @Override
-    protected SqsClient createClient(String region) {
-        logEndpointOverride();
+    protected ClientFactory<SqsClient> clientFactory() {
+        return SQS::newClient;
+    }
+
+    private static SqsClient newClient(String profile, String region, URI endpointOverride) {
+        logEndpointOverride(SQS.class, endpointOverride);
 
         return SqsClient.builder()
                 .region(Region.of(region))
-                .credentialsProvider(credentialsProvider)
+                .credentialsProvider(RefreshableCredentialsProvider.forProfile(profile))
                 .endpointOverride(endpointOverride)
+                .overrideConfiguration(overrideConfiguration())
                 .build();
     }
 
@@ -44,7 +51,8 @@ public class SQS extends ClientBase<SqsClient> {
                 .queueName(queueName)
                 .build();
 
-        try (SqsClient sqsClient = createClient()) {
+        try {
+            SqsClient sqsClient = client();
             return new Response(sqsClient.createQueue(request));
         } catch (Exception exception) {
             return new Response(exception);
@@ -52,10 +60,10 @@ public class SQS extends ClientBase<SqsClient> {
     }
 
     public Response queueUrl(String queueName) {
-        try (SqsClient client = createClient()) {
-            GetQueueUrlRequest queueUrlRequest = GetQueueUrlRequest.builder().queueName(queueName).build();
-            return new Response(client.getQueueUrl(queueUrlRequest));
-        }
+        SqsClient client = client();
+
+        GetQueueUrlRequest queueUrlRequest = GetQueueUrlRequest.builder().queueName(queueName).build();
+        return new Response(client.getQueueUrl(queueUrlRequest));
     }
 
     public String queueUrl(Response response) {
@@ -72,7 +80,8 @@ public class SQS extends ClientBase<SqsClient> {
                 .messageBody(source)
                 .build();
 
-        try (SqsClient sqsClient = createClient()) {
+        try {
+            SqsClient sqsClient = client();
             return new Response(sqsClient.sendMessage(request));
         } catch (Exception exception) {
             return new Response(exception);
@@ -82,12 +91,13 @@ public class SQS extends ClientBase<SqsClient> {
     public Response get(String queueUrl, int waitTimeSeconds) {
         ReceiveMessageRequest request = ReceiveMessageRequest.builder()
                 .waitTimeSeconds(waitTimeSeconds)
-                .attributeNamesWithStrings(SENT_TIMESTAMP.toString())
+                .attributeNamesWithStrings(SENT_TIMESTAMP.toString(), APPROXIMATE_RECEIVE_COUNT.toString())
                 .maxNumberOfMessages(10) // the maximum allowed by SQS
                 .queueUrl(queueUrl)
                 .build();
 
-        try (SqsClient sqsClient = createClient()) {
+        try {
+            SqsClient sqsClient = client();
             return new Response(sqsClient.receiveMessage(request));
         } catch (Exception exception) {
             return new Response(exception);
@@ -113,13 +123,45 @@ public class SQS extends ClientBase<SqsClient> {
                 .entries(entries)
                 .build();
 
-        try (SqsClient sqsClient = createClient()) {
+        try {
+            SqsClient sqsClient = client();
             return new Response(sqsClient.deleteMessageBatch(request));
         } catch (Exception exception) {
             return new Response(exception);
         }
     }
 
+    /**
+     * Hides the messages from receivers for the given duration, at most 10 receipt handles are allowed per call.
+     */
+    public Response changeVisibility(String queueUrl, List<String> receiptHandles, int visibilityTimeoutSeconds) {
+        if (receiptHandles.isEmpty()) {
+            throw new IllegalArgumentException("receiptHandles cannot be empty");
+        }
+        final int[] count = {0};
+        long currentTimeMillis = System.currentTimeMillis();
+
+        List<ChangeMessageVisibilityBatchRequestEntry> entries = receiptHandles.stream()
+                .map(s -> ChangeMessageVisibilityBatchRequestEntry.builder()
+                        .id(String.format("%d-%d", currentTimeMillis, count[0]++))
+                        .receiptHandle(s)
+                        .visibilityTimeout(visibilityTimeoutSeconds)
+                        .build())
+                .collect(Collectors.toList());
+
+        ChangeMessageVisibilityBatchRequest request = ChangeMessageVisibilityBatchRequest.builder()
+                .queueUrl(queueUrl)
+                .entries(entries)
+                .build();
+
+        try {
+            SqsClient sqsClient = client();
+            return new Response(sqsClient.changeMessageVisibilityBatch(request));
+        } catch (Exception exception) {
+            return new Response(exception);
+        }
+    }
+
     public List<Message> get(Response response) {
         return ((ReceiveMessageResponse) response.awsResponse()).messages();
     }
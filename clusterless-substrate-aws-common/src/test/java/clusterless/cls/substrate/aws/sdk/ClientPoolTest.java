@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.cls.substrate.aws.sdk;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.lang.ref.WeakReference;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.*;
+
+/**
+ *
+ */
+public class ClientPoolTest {
+    static class TestClient extends ClientBase<S3Client> {
+        // clients created per region, as other tests declare clients that prime also creates
+        static final Map<String, AtomicInteger> created = new ConcurrentHashMap<>();
+
+        static int created(String region) {
+            return created.getOrDefault(region, new AtomicInteger()).get();
+        }
+
+        public TestClient(String region) {
+            super("test-profile", region);
+        }
+
+        @Override
+        protected @NotNull String getEndpointEnvVar() {
+            return "CLS_TEST_ENDPOINT";
+        }
+
+        @Override
+        protected ClientFactory<S3Client> clientFactory() {
+            return TestClient::newClient;
+        }
+
+        private static S3Client newClient(String profile, String region, URI endpointOverride) {
+            created.computeIfAbsent(region, k -> new AtomicInteger()).incrementAndGet();
+            return mock(S3Client.class);
+        }
+    }
+
+    @BeforeEach
+    void reset() {
+        TestClient.created.clear();
+    }
+
+    @AfterEach
+    void closeAll() {
+        ClientPool.closeAll();
+    }
+
+    @Test
+    void reuse() {
+        TestClient first = new TestClient("us-east-1");
+        TestClient second = new TestClient("us-east-1");
+
+        long hits = ClientPool.stats().hits();
+
+        S3Client client = first.client();
+
+        Assertions.assertSame(client, first.client());
+        Assertions.assertSame(client, second.client());
+        Assertions.assertEquals(1, TestClient.created("us-east-1"));
+        Assertions.assertEquals(hits + 2, ClientPool.stats().hits());
+    }
+
+    @Test
+    void perRegion() {
+        TestClient client = new TestClient("us-east-1");
+
+        Assertions.assertNotSame(client.client(), client.client("us-west-2"));
+        Assertions.assertEquals(1, TestClient.created("us-east-1"));
+        Assertions.assertEquals(1, TestClient.created("us-west-2"));
+        Assertions.assertEquals(2, ClientPool.stats().size());
+    }
+
+    @Test
+    void close() {
+        TestClient client = new TestClient("us-east-1");
+
+        S3Client s3Client = client.client();
+
+        ClientPool.closeAll();
+
+        verify(s3Client, times(1)).close();
+        Assertions.assertEquals(0, ClientPool.stats().size());
+        Assertions.assertNotSame(s3Client, client.client());
+    }
+
+    @Test
+    void prime() {
+        TestClient client = new TestClient("eu-west-1");
+
+        Assertions.assertEquals(0, TestClient.created("eu-west-1"));
+
+        Assertions.assertTrue(ClientPool.prime() >= 1);
+        Assertions.assertEquals(1, TestClient.created("eu-west-1"));
+
+        long hits = ClientPool.stats().hits();
+
+        client.client();
+
+        Assertions.assertEquals(1, TestClient.created("eu-west-1"));
+        Assertions.assertEquals(hits + 1, ClientPool.stats().hits());
+    }
+
+    /**
+     * The declared factory is retained for the life of the JVM, it must not retain the declaring instance.
+     */
+    @Test
+    void declareDoesNotRetain() throws InterruptedException {
+        WeakReference<TestClient> reference = new WeakReference<>(new TestClient("ap-south-1"));
+
+        for (int i = 0; i < 10 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        Assertions.assertNull(reference.get());
+
+        Assertions.assertTrue(ClientPool.prime() >= 1);
+        Assertions.assertEquals(1, TestClient.created("ap-south-1"));
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package clusterless.cls.substrate.aws.sdk;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.services.eventbridge.EventBridgeClient;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsRequest;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsRequestEntry;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsResponse;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsResultEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ *
+ */
+public class EventBatchTest {
+    static class TestEventBus extends EventBus {
+        @Override
+        protected EventBridgeClient createClient(String region) {
+            return mock(EventBridgeClient.class);
+        }
+    }
+
+    TestEventBus eventBus = new TestEventBus();
+    List<PutEventsRequest> requests = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        eventBus.setEntryRetry(3, attempt -> 0L);
+    }
+
+    @AfterEach
+    void closeAll() {
+        ClientPool.closeAll();
+    }
+
+    void answer(Function<PutEventsRequest, Set<Integer>> failures) {
+        when(eventBus.client().putEvents(any(PutEventsRequest.class))).thenAnswer(invocation -> {
+            PutEventsRequest request = invocation.getArgument(0);
+            requests.add(request);
+
+            Set<Integer> failed = failures.apply(request);
+
+            List<PutEventsResultEntry> entries = new ArrayList<>();
+            for (int i = 0; i < request.entries().size(); i++) {
+                entries.add(failed.contains(i) ?
+                        PutEventsResultEntry.builder().errorCode("ThrottlingException").build() :
+                        PutEventsResultEntry.builder().eventId("event-" + i).build());
+            }
+
+            return (PutEventsResponse) PutEventsResponse.builder()
+                    .failedEntryCount(failed.size())
+                    .entries(entries)
+                    .sdkHttpResponse(SdkHttpResponse.builder().statusCode(200).build())
+                    .build();
+        });
+    }
+
+    @NotNull
+    static PutEventsRequestEntry entry(int index, int detailSize) {
+        return EventBus.entry("test-bus", "test-source", "test-detail", Map.of("index", index, "detail", "x".repeat(detailSize)));
+    }
+
+    @Test
+    void batchesByCount() {
+        answer(request -> Set.of());
+
+        try (EventBatch batch = new EventBatch(eventBus)) {
+            for (int i = 0; i < 25; i++) {
+                batch.add(entry(i, 10));
+            }
+        }
+
+        Assertions.assertEquals(3, requests.size());
+        Assertions.assertEquals(List.of(10, 10, 5), requests.stream().map(r -> r.entries().size()).toList());
+    }
+
+    @Test
+    void batchesBySize() {
+        answer(request -> Set.of());
+
+        EventBatch batch = new EventBatch(eventBus);
+
+        for (int i = 0; i < 5; i++) {
+            batch.add(entry(i, 100 * 1024));
+        }
+
+        batch.close();
+
+        Assertions.assertEquals(3, batch.requests());
+        Assertions.assertEquals(5, batch.published());
+
+        for (PutEventsRequest request : requests) {
+            Assertions.assertTrue(request.entries().stream().mapToInt(EventBus::entrySize).sum() <= EventBus.MAX_REQUEST_SIZE);
+        }
+    }
+
+    @Test
+    void resendsFailedEntries() {
+        // fail the second and fourth entries of the first request only
+        answer(request -> requests.size() == 1 ? Set.of(1, 3) : Set.of());
+
+        EventBatch batch = new EventBatch(eventBus);
+
+        for (int i = 0; i < 5; i++) {
+            batch.add(entry(i, 10));
+        }
+
+        batch.flush();
+
+        Assertions.assertEquals(1, batch.requests());
+        Assertions.assertEquals(2, requests.size());
+        Assertions.assertEquals(List.of(entry(1, 10), entry(3, 10)), requests.get(1).entries());
+    }
+
+    @Test
+    void failsAfterEntryAttempts() {
+        answer(request -> Set.of(0));
+
+        EventBatch batch = new EventBatch(eventBus);
+
+        batch.add(entry(0, 10));
+        batch.add(entry(1, 10));
+
+        Assertions.assertThrows(RuntimeException.class, batch::flush);
+        Assertions.assertEquals(3, requests.size());
+    }
+}
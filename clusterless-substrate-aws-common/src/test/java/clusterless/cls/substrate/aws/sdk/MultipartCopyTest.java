@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.cls.substrate.aws.sdk;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ServerSideEncryption;
+import software.amazon.awssdk.services.s3.model.StorageClass;
+
+import java.util.Map;
+
+/**
+ *
+ */
+public class MultipartCopyTest {
+    static final long MB = 1024 * 1024;
+
+    @Test
+    void partSize() {
+        S3.MultipartCopy multipartCopy = new S3.MultipartCopy(64 * MB, 16 * MB, 4);
+
+        Assertions.assertEquals(16 * MB, multipartCopy.partSizeFor(100 * MB));
+        Assertions.assertEquals(16 * MB, multipartCopy.partSizeFor(16 * MB * S3.MAX_PARTS));
+
+        // 5TB object must fit within the part limit
+        long fiveTB = 5L * 1024 * 1024 * MB;
+        long partSize = multipartCopy.partSizeFor(fiveTB);
+        Assertions.assertTrue((fiveTB + partSize - 1) / partSize <= S3.MAX_PARTS);
+    }
+
+    @Test
+    void isMultipart() {
+        S3.MultipartCopy multipartCopy = new S3.MultipartCopy(64 * MB, 16 * MB, 4);
+
+        Assertions.assertFalse(multipartCopy.isMultipart(64 * MB));
+        Assertions.assertTrue(multipartCopy.isMultipart(64 * MB + 1));
+
+        // objects over the CopyObject limit are always copied in parts
+        S3.MultipartCopy above = new S3.MultipartCopy(2 * S3.MAX_COPY_SIZE, 16 * MB, 4);
+
+        Assertions.assertFalse(above.isMultipart(S3.MAX_COPY_SIZE));
+        Assertions.assertTrue(above.isMultipart(S3.MAX_COPY_SIZE + 1));
+    }
+
+    /**
+     * A multipart copy should write the destination as CopyObject would, keeping the source metadata and tags
+     * but leaving encryption and storage class to the destination bucket defaults.
+     */
+    @Test
+    void uploadUsesDestinationDefaults() {
+        HeadObjectResponse source = HeadObjectResponse.builder()
+                .contentType("application/json")
+                .cacheControl("no-cache")
+                .metadata(Map.of("owner", "ingest"))
+                .serverSideEncryption(ServerSideEncryption.AWS_KMS)
+                .ssekmsKeyId("arn:aws:kms:us-west-2:111111111111:key/source")
+                .bucketKeyEnabled(true)
+                .storageClass(StorageClass.GLACIER_IR)
+                .build();
+
+        CreateMultipartUploadRequest request = S3.createMultipartUploadRequest(source, "to-bucket", "to/key", "team=data");
+
+        Assertions.assertEquals("to-bucket", request.bucket());
+        Assertions.assertEquals("to/key", request.key());
+        Assertions.assertEquals("application/json", request.contentType());
+        Assertions.assertEquals("no-cache", request.cacheControl());
+        Assertions.assertEquals(Map.of("owner", "ingest"), request.metadata());
+        Assertions.assertEquals("team=data", request.tagging());
+
+        Assertions.assertNull(request.serverSideEncryption());
+        Assertions.assertNull(request.ssekmsKeyId());
+        Assertions.assertNull(request.bucketKeyEnabled());
+        Assertions.assertNull(request.storageClass());
+    }
+
+    @Test
+    void invalid() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new S3.MultipartCopy(MB, 16 * MB, 4));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new S3.MultipartCopy(64 * MB, MB, 4));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new S3.MultipartCopy(64 * MB, 16 * MB, 0));
+    }
+}
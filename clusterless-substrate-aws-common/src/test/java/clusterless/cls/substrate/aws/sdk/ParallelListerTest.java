@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.cls.substrate.aws.sdk;
+
+import clusterless.cls.util.URIs;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ *
+ */
+public class ParallelListerTest {
+    /**
+     * Serves sorted keys two per page, as ListObjectsV2 would.
+     */
+    static class PagedS3 extends S3 {
+        final TreeSet<String> keys = new TreeSet<>();
+        final AtomicInteger pages = new AtomicInteger();
+
+        @Override
+        public Responses listObjectsIterable(URI path, URI startExclusive) {
+            String prefix = URIs.asKeyPath(path);
+            String startAfter = URIs.asKey(startExclusive);
+
+            List<String> listed = (startAfter == null ? keys : keys.tailSet(startAfter, false)).stream()
+                    .filter(k -> k.startsWith(prefix))
+                    .toList();
+
+            List<Response> responses = new ArrayList<>();
+
+            for (int i = 0; i < listed.size(); i += 2) {
+                List<S3Object> contents = listed.subList(i, Math.min(i + 2, listed.size())).stream()
+                        .map(k -> S3Object.builder().key(k).build())
+                        .toList();
+
+                responses.add(new Response(page(contents)));
+            }
+
+            return new Responses() {
+                @NotNull
+                @Override
+                public Iterator<Response> iterator() {
+                    Iterator<Response> iterator = responses.iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Response next() {
+                            pages.incrementAndGet();
+                            return iterator.next();
+                        }
+                    };
+                }
+            };
+        }
+
+        static ListObjectsV2Response page(List<S3Object> contents) {
+            return (ListObjectsV2Response) ListObjectsV2Response.builder()
+                    .contents(contents)
+                    .sdkHttpResponse(SdkHttpResponse.builder().statusCode(200).build())
+                    .build();
+        }
+    }
+
+    @Test
+    void ranges() {
+        PagedS3 s3 = new PagedS3();
+
+        IntStream.range(0, 20)
+                .mapToObj(i -> "arcs/arc=a/lot=%02d/state.arc".formatted(i))
+                .forEach(s3.keys::add);
+
+        URI path = URI.create("s3://bucket/arcs/arc=a/");
+
+        List<ParallelLister.Range> ranges = List.of(
+                new ParallelLister.Range(URI.create("s3://bucket/arcs/arc=a/lot=02/"), URI.create("s3://bucket/arcs/arc=a/lot=07/")),
+                new ParallelLister.Range(URI.create("s3://bucket/arcs/arc=a/lot=07/"), URI.create("s3://bucket/arcs/arc=a/lot=12/")),
+                new ParallelLister.Range(URI.create("s3://bucket/arcs/arc=a/lot=12/"), URI.create("s3://bucket/arcs/arc=a/lot=13/"))
+        );
+
+        List<String> expected = IntStream.range(2, 13)
+                .mapToObj(i -> "arcs/arc=a/lot=%02d/state.arc".formatted(i))
+                .toList();
+
+        Assertions.assertEquals(expected, new ParallelLister(s3, 2).list(path, ranges).toList());
+    }
+
+    @Test
+    void allPages() {
+        PagedS3 s3 = new PagedS3();
+
+        IntStream.range(0, 11).mapToObj(i -> "projects/a/%02d".formatted(i)).forEach(s3.keys::add);
+        IntStream.range(0, 3).mapToObj(i -> "projects/b/%02d".formatted(i)).forEach(s3.keys::add);
+
+        List<List<String>> grouped = new ParallelLister(s3).listAllGrouped(List.of(
+                URI.create("s3://bucket/projects/b/"),
+                URI.create("s3://bucket/projects/a/"),
+                URI.create("s3://bucket/projects/c/")
+        ));
+
+        Assertions.assertEquals(3, grouped.get(0).size());
+        Assertions.assertEquals(11, grouped.get(1).size());
+        Assertions.assertEquals(0, grouped.get(2).size());
+        Assertions.assertEquals(6 + 2, s3.pages.get());
+    }
+
+    @Test
+    void mapInOrder() {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+
+        List<String> keys = IntStream.range(0, 20)
+                .mapToObj(i -> "arcs/arc=a/lot=%02d/lot.arc".formatted(i))
+                .toList();
+
+        List<String> results = new ParallelLister(new PagedS3(), 3).map(keys, key -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            active.decrementAndGet();
+            return key.endsWith("05/lot.arc") ? null : key.toUpperCase();
+        });
+
+        Assertions.assertEquals(keys.size(), results.size());
+        Assertions.assertNull(results.get(5));
+        Assertions.assertEquals(keys.get(7).toUpperCase(), results.get(7));
+        Assertions.assertTrue(maxActive.get() <= 3);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.cls.substrate.aws.sdk;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.core.retry.RetryMode;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+
+/**
+ *
+ */
+public class RetryMetricsTest {
+    @BeforeEach
+    void reset() {
+        RetryMetrics.reset();
+    }
+
+    ExecutionAttributes attributes(String operation) {
+        ExecutionAttributes attributes = new ExecutionAttributes();
+        attributes.putAttribute(SdkExecutionAttribute.SERVICE_NAME, "Test");
+        attributes.putAttribute(SdkExecutionAttribute.OPERATION_NAME, operation);
+        return attributes;
+    }
+
+    @Test
+    void adaptiveRetryPolicy() {
+        ClientOverrideConfiguration configuration = ClientBase.overrideConfiguration();
+
+        RetryPolicy retryPolicy = configuration.retryPolicy().orElseThrow();
+
+        Assertions.assertEquals(RetryMode.ADAPTIVE, retryPolicy.retryMode());
+        Assertions.assertEquals(ClientBase.DEFAULT_MAX_ATTEMPTS - 1, retryPolicy.numRetries().intValue());
+        Assertions.assertTrue(configuration.executionInterceptors().contains(RetryMetrics.interceptor()));
+    }
+
+    @Test
+    void countsAttempts() {
+        ExecutionInterceptor interceptor = RetryMetrics.interceptor();
+
+        ExecutionAttributes retried = attributes("PutObject");
+        interceptor.beforeExecution(null, retried);
+        interceptor.beforeTransmission(null, retried);
+        interceptor.beforeTransmission(null, retried);
+        interceptor.beforeTransmission(null, retried);
+        interceptor.afterExecution(null, retried);
+
+        ExecutionAttributes failed = attributes("PutObject");
+        interceptor.beforeExecution(null, failed);
+        interceptor.beforeTransmission(null, failed);
+        interceptor.onExecutionFailure(null, failed);
+
+        RetryMetrics.Snapshot snapshot = RetryMetrics.snapshot().get("Test:PutObject");
+        Assertions.assertEquals(2, snapshot.calls());
+        Assertions.assertEquals(2, snapshot.retries());
+        Assertions.assertEquals(1, snapshot.failures());
+        Assertions.assertEquals(3, snapshot.maxAttempts());
+    }
+}
@@ -61,6 +61,7 @@ public class ArcOrchestration extends ManagedConstruct implements Orchestration
                                 .build()
                 )
                 .withEventBusName(Events.arcEventBusNameRef(this))
+                .withConditionalState(arc.conditionalState())
                 .build();
 
         this.runtimeProps = LambdaJavaRuntimeProps.builder()
@@ -54,7 +54,7 @@ public abstract class ArcStateGate extends ArcStateMachineFragment {
         grantPermissionsTo(function);
 
         LambdaInvoke startState = LambdaInvoke.Builder.create(this, baseId.with("Invoke").camelCase())
-                .lambdaFunction(function)
+                .lambdaFunction(Functions.applySnapStart(function, runtimeProps))
                 .payloadResponseOnly(true) // sets .invocationType(LambdaInvocationType.REQUEST_RESPONSE)
                 .retryOnServiceExceptions(true)
                 .build();
@@ -25,6 +25,11 @@ public class LambdaJavaRuntimeProps extends RuntimeProps {
 
     private Architecture architecture = Architecture.ARM_64;
 
+    /**
+     * Enables Lambda SnapStart, invocations will be made against the latest published version of the function.
+     */
+    private boolean snapStart = false;
+
     public LambdaJavaRuntimeProps() {
     }
 
@@ -41,6 +46,11 @@ public class LambdaJavaRuntimeProps extends RuntimeProps {
         this.architecture = architecture;
     }
 
+    public LambdaJavaRuntimeProps(int memorySizeMB, int retryAttempts, int timeoutMin, Architecture architecture, boolean snapStart) {
+        this(memorySizeMB, retryAttempts, timeoutMin, architecture);
+        this.snapStart = snapStart;
+    }
+
     public int memorySizeMB() {
         return memorySizeMB;
     }
@@ -57,6 +67,10 @@ public class LambdaJavaRuntimeProps extends RuntimeProps {
         return architecture;
     }
 
+    public boolean snapStart() {
+        return snapStart;
+    }
+
     public static Builder builder() {
         return Builder.aLambdaJavaRuntimeProps();
     }
@@ -67,6 +81,7 @@ public class LambdaJavaRuntimeProps extends RuntimeProps {
         int retryAttempts = 3;
         int timeoutMin = 5;
         Architecture architecture = Architecture.ARM_64;
+        boolean snapStart = false;
 
         private Builder() {
         }
@@ -95,8 +110,13 @@ public class LambdaJavaRuntimeProps extends RuntimeProps {
             return this;
         }
 
+        public Builder withSnapStart(boolean snapStart) {
+            this.snapStart = snapStart;
+            return this;
+        }
+
         public LambdaJavaRuntimeProps build() {
-            return new LambdaJavaRuntimeProps(memorySizeMB, retryAttempts, timeoutMin, architecture);
+            return new LambdaJavaRuntimeProps(memorySizeMB, retryAttempts, timeoutMin, architecture, snapStart);
         }
     }
 }
@@ -8,10 +8,14 @@
 
 package clusterless.cls.substrate.aws.resources;
 
+import clusterless.cls.substrate.aws.props.LambdaJavaRuntimeProps;
 import clusterless.commons.naming.Label;
 import clusterless.commons.naming.Region;
 import clusterless.commons.substrate.aws.cdk.scoped.ScopedApp;
 import software.amazon.awscdk.Stack;
+import software.amazon.awscdk.services.lambda.CfnFunction;
+import software.amazon.awscdk.services.lambda.Function;
+import software.amazon.awscdk.services.lambda.IFunction;
 import software.amazon.awscdk.services.lambda.Runtime;
 import software.constructs.Construct;
 
@@ -22,6 +26,26 @@ public class Functions {
         return Runtime.JAVA_17;
     }
 
+    /**
+     * Enables SnapStart on the published versions of the function, if requested by the runtime props.
+     * <p>
+     * SnapStart only applies to published versions, so the returned function must be the one invoked. If SnapStart
+     * is not enabled, the given function is returned.
+     */
+    public static IFunction applySnapStart(Function function, LambdaJavaRuntimeProps runtimeProps) {
+        if (!runtimeProps.snapStart()) {
+            return function;
+        }
+
+        // set on the underlying resource, the Function builder rejects SnapStart on arm64 in this cdk version
+        CfnFunction cfnFunction = (CfnFunction) function.getNode().getDefaultChild();
+        cfnFunction.setSnapStart(CfnFunction.SnapStartProperty.builder()
+                .applyOn("PublishedVersions")
+                .build());
+
+        return function.getCurrentVersion();
+    }
+
     public static String functionName(Construct scope, String modelName, String functionName) {
         Objects.requireNonNull(modelName, "modelName may not be null");
         Objects.requireNonNull(functionName, "functionName may not be null");
@@ -31,6 +31,7 @@ import software.amazon.awscdk.services.iam.IRole;
 import software.amazon.awscdk.services.iam.Role;
 import software.amazon.awscdk.services.iam.ServicePrincipal;
 import software.amazon.awscdk.services.lambda.Function;
+import software.amazon.awscdk.services.lambda.IFunction;
 import software.amazon.awscdk.services.logs.LogGroup;
 import software.amazon.awscdk.services.logs.RetentionDays;
 import software.amazon.awscdk.services.stepfunctions.*;
@@ -50,6 +51,7 @@ public class BatchExecArcConstruct extends ArcConstruct<BatchExecArc> {
     private final JobQueue jobQueue;
     private final BatchPayloadCommand payloadCommand;
     private final Function function;
+    private final IFunction invokable;
 
     public BatchExecArcConstruct(@NotNull ManagedComponentContext context, @NotNull BatchExecArc model) {
         super(context, model);
@@ -123,8 +125,10 @@ public class BatchExecArcConstruct extends ArcConstruct<BatchExecArc> {
                 .workload()
                 .lambdaRuntimeProps();
 
-        function = new WorkloadManagedConstruct(context, baseId, modelName, handler, lambdaJavaRuntimeProps, environment)
-                .function();
+        WorkloadManagedConstruct workload = new WorkloadManagedConstruct(context, baseId, modelName, handler, lambdaJavaRuntimeProps, environment);
+
+        function = workload.function();
+        invokable = workload.invokable();
 
         grantManifestRead(function());
     }
@@ -170,7 +174,7 @@ public class BatchExecArcConstruct extends ArcConstruct<BatchExecArc> {
 
         // add lambda to scrape manifests
         LambdaInvoke invoke = LambdaInvoke.Builder.create(this, "BatchResults")
-                .lambdaFunction(function())
+                .lambdaFunction(invokable)
                 .retryOnServiceExceptions(true)
                 .payloadResponseOnly(true) // sets .invocationType(LambdaInvocationType.REQUEST_RESPONSE)
                 .inputPath(inputPath)
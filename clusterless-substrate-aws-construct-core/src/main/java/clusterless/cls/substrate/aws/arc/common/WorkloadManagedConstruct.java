@@ -19,12 +19,14 @@ import clusterless.commons.substrate.aws.cdk.construct.LambdaLogGroupConstruct;
 import org.jetbrains.annotations.NotNull;
 import software.amazon.awscdk.Duration;
 import software.amazon.awscdk.services.lambda.Function;
+import software.amazon.awscdk.services.lambda.IFunction;
 
 import java.util.Map;
 import java.util.regex.Pattern;
 
 public class WorkloadManagedConstruct extends ManagedConstruct {
     private final Function function;
+    private final IFunction invokable;
 
     public WorkloadManagedConstruct(@NotNull ManagedComponentContext context, Label baseId, Label modelName, String handler, LambdaJavaRuntimeProps lambdaJavaRuntimeProps, Map<String, String> environment) {
         super(context, baseId);
@@ -44,9 +46,18 @@ public class WorkloadManagedConstruct extends ManagedConstruct {
                 .build();
 
         new LambdaLogGroupConstruct(this, functionLabel, function);
+
+        invokable = Functions.applySnapStart(function, lambdaJavaRuntimeProps);
     }
 
     public Function function() {
         return function;
     }
+
+    /**
+     * The function, or its published version if SnapStart is enabled, to be invoked.
+     */
+    public IFunction invokable() {
+        return invokable;
+    }
 }
@@ -19,6 +19,7 @@ import org.jetbrains.annotations.NotNull;
 import software.amazon.awscdk.services.iam.Effect;
 import software.amazon.awscdk.services.iam.PolicyStatement;
 import software.amazon.awscdk.services.lambda.Function;
+import software.amazon.awscdk.services.lambda.IFunction;
 import software.amazon.awscdk.services.stepfunctions.IChainable;
 import software.amazon.awscdk.services.stepfunctions.TaskStateBase;
 import software.amazon.awscdk.services.stepfunctions.tasks.LambdaInvoke;
@@ -35,6 +36,7 @@ public class GlueAddPartitionsArcConstruct extends ArcConstruct<GlueAddPartition
     private final Label baseId = Label.of("Func");
     private final String handler = "clusterless.aws.lambda.workload.glue.GlueAddPartitionsArcEventHandler";
     private final Function function;
+    private final IFunction invokable;
 
     public GlueAddPartitionsArcConstruct(@NotNull ManagedComponentContext context, @NotNull GlueAddPartitionsArc model) {
         super(context, model);
@@ -47,8 +49,10 @@ public class GlueAddPartitionsArcConstruct extends ArcConstruct<GlueAddPartition
                 .workload()
                 .runtimeProps();
 
-        function = new WorkloadManagedConstruct(context, baseId, modelName, handler, lambdaJavaRuntimeProps, environment)
-                .function();
+        WorkloadManagedConstruct workload = new WorkloadManagedConstruct(context, baseId, modelName, handler, lambdaJavaRuntimeProps, environment);
+
+        function = workload.function();
+        invokable = workload.invokable();
 
         grantCreatePartition();
         grantManifestAndDatasetPermissionsTo(function());
@@ -62,6 +66,7 @@ public class GlueAddPartitionsArcConstruct extends ArcConstruct<GlueAddPartition
         List<String> actions = List.of(
                 "glue:CreatePartition",
                 "glue:BatchCreatePartition",
+                "glue:GetPartitions",
                 "glue:GetTable"
         );
         applyToEachTable(
@@ -86,7 +91,7 @@ public class GlueAddPartitionsArcConstruct extends ArcConstruct<GlueAddPartition
     @Override
     public IChainable createState(String inputPath, String resultPath, IChainable failed, Consumer<TaskStateBase> taskAmendments) {
         LambdaInvoke invoke = LambdaInvoke.Builder.create(this, "AddPartitionsFunction")
-                .lambdaFunction(function())
+                .lambdaFunction(invokable)
                 .retryOnServiceExceptions(true)
                 .payloadResponseOnly(true) // sets .invocationType(LambdaInvocationType.REQUEST_RESPONSE)
                 .inputPath(inputPath)
@@ -42,6 +42,17 @@ import clusterless.cls.substrate.aws.managed.ManagedComponentContext;
                     none: do not list any partitions in the manifest, just the glue:// uri
                     all: list all partitions found in the source manifest
                     added: list only partitions that did not previously exist in the table
+
+                concurrency: defaults to 4
+                    the number of batches of up to 100 partitions added to the table at the same time
+
+                partitionCacheSize: defaults to 100000
+                    the most partitions per table remembered by a warm lambda as existing, and not added again,
+                    zero disables the cache
+
+                partitionCacheTTLMinutes: defaults to 60
+                    how often the remembered partitions are reloaded from the table, a partition dropped from
+                    the table after it was remembered is not added again until then
                 """
 )
 public class GlueAddPartitionsArcProvider implements ArcComponentService<ManagedComponentContext, GlueAddPartitionsArc, GlueAddPartitionsArcConstruct> {
@@ -11,7 +11,9 @@ package clusterless.cls.substrate.aws.arc.props;
 import clusterless.aws.lambda.arc.ArcProps;
 import clusterless.cls.managed.dataset.DatasetOwnerLookup;
 import clusterless.cls.model.deploy.*;
+import clusterless.cls.model.manifest.ManifestFormat;
 import clusterless.cls.model.manifest.ManifestState;
+import clusterless.cls.model.manifest.ManifestUriEncoding;
 import clusterless.cls.substrate.aws.event.ArcNotifyEvent;
 import clusterless.cls.substrate.aws.event.ArcWorkloadContext;
 import clusterless.cls.substrate.aws.resources.StateURIs;
@@ -45,12 +47,16 @@ public class ArcEnvBuilder {
     private final Map<String, SourceDataset> sources;
     private final Map<String, SinkDataset> sinks;
     private final WorkloadProps workloadProps;
+    private final ManifestFormat manifestFormat;
+    private final ManifestUriEncoding manifestUriEncoding;
 
     public ArcEnvBuilder(Placement placement, Arc<? extends Workload<? extends WorkloadProps>> model) {
         this.placement = placement;
         this.sources = model.sources();
         this.sinks = model.sinks();
         this.workloadProps = model.workload().workloadProps();
+        this.manifestFormat = model.manifestFormat();
+        this.manifestUriEncoding = model.manifestUriEncoding();
         this.arcProps = createArcProps();
     }
 
@@ -71,6 +77,8 @@ public class ArcEnvBuilder {
                 .withSourceManifestPaths(sourceManifestPaths)
                 .withSinkManifestTemplates(sinkManifestPaths)
                 .withWorkloadProps(workloadProps)
+                .withManifestFormat(manifestFormat)
+                .withManifestUriEncoding(manifestUriEncoding)
                 .build();
     }
 
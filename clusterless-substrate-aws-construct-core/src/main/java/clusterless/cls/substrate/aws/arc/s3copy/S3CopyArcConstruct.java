@@ -16,6 +16,7 @@ import clusterless.cls.substrate.aws.props.LambdaJavaRuntimeProps;
 import clusterless.commons.naming.Label;
 import org.jetbrains.annotations.NotNull;
 import software.amazon.awscdk.services.lambda.Function;
+import software.amazon.awscdk.services.lambda.IFunction;
 import software.amazon.awscdk.services.stepfunctions.IChainable;
 import software.amazon.awscdk.services.stepfunctions.TaskStateBase;
 import software.amazon.awscdk.services.stepfunctions.tasks.LambdaInvoke;
@@ -30,6 +31,7 @@ public class S3CopyArcConstruct extends ArcConstruct<S3CopyArc> {
     private final Label baseId = Label.of("Func");
     private final String handler = "clusterless.aws.lambda.workload.s3copy.S3CopyArcEventHandler";
     private final Function function;
+    private final IFunction invokable;
 
     public S3CopyArcConstruct(@NotNull ManagedComponentContext context, @NotNull S3CopyArc model) {
         super(context, model);
@@ -41,8 +43,10 @@ public class S3CopyArcConstruct extends ArcConstruct<S3CopyArc> {
                 .workload()
                 .runtimeProps();
 
-        function = new WorkloadManagedConstruct(context, baseId, modelName, handler, lambdaJavaRuntimeProps, environment)
-                .function();
+        WorkloadManagedConstruct workload = new WorkloadManagedConstruct(context, baseId, modelName, handler, lambdaJavaRuntimeProps, environment);
+
+        function = workload.function();
+        invokable = workload.invokable();
 
         grantManifestAndDatasetPermissionsTo(function());
     }
@@ -54,7 +58,7 @@ public class S3CopyArcConstruct extends ArcConstruct<S3CopyArc> {
     @Override
     public IChainable createState(String inputPath, String resultPath, IChainable failed, Consumer<TaskStateBase> taskAmendments) {
         LambdaInvoke invoke = LambdaInvoke.Builder.create(this, "S3CopyFunction")
-                .lambdaFunction(function())
+                .lambdaFunction(invokable)
                 .retryOnServiceExceptions(true)
                 .payloadResponseOnly(true) // sets .invocationType(LambdaInvocationType.REQUEST_RESPONSE)
                 .inputPath(inputPath)
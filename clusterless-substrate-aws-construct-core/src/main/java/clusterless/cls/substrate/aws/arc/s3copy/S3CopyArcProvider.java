@@ -36,6 +36,15 @@ import clusterless.cls.substrate.aws.managed.ManagedComponentContext;
                 workloadProps.filter.ignoreCase: Whether to ignore case when matching patterns. Default is false.
                                 
                 workloadProps.failArcOnPartialPercent: The percentage of files that can fail before the Arc fails. Default is 0.0.
+                workloadProps.copyConcurrency: The maximum number of objects copied concurrently. Default is 10, max is 50.
+                                
+                Objects larger than the multipart threshold are copied in parallel ranges, objects over 5GB are always
+                copied this way. Setting a threshold below 5GB requires an extra request per object to learn its size.
+                Metadata and tags of the source are retained, encryption and storage class are the destination defaults.
+
+                workloadProps.multipartThresholdMB: The object size, in MB, above which to copy in parts. Default is 5120.
+                workloadProps.multipartPartSizeMB: The size, in MB, of each part. Default is 256.
+                workloadProps.multipartConcurrency: The maximum number of parts copied concurrently, across all objects. Default is 8.
                 """
 )
 public class S3CopyArcProvider implements ArcComponentService<ManagedComponentContext, S3CopyArc, S3CopyArcConstruct> {
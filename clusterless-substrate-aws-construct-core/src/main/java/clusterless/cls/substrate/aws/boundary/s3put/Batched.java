@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.cls.substrate.aws.boundary.s3put;
+
+import clusterless.aws.lambda.boundary.s3put.LotSource;
+import clusterless.cls.model.Struct;
+
+public class Batched implements Struct {
+    LotSource lotSource = LotSource.objectModifiedTime;
+    String keyRegex;
+    String keyTimestampFormat;
+    int batchSize = 1000;
+    int batchWindowSec = 60;
+    int maxReceiveCount = 5;
+
+    public LotSource lotSource() {
+        return lotSource;
+    }
+
+    public String keyRegex() {
+        return keyRegex;
+    }
+
+    public String keyTimestampFormat() {
+        return keyTimestampFormat;
+    }
+
+    public int batchSize() {
+        return batchSize;
+    }
+
+    public int batchWindowSec() {
+        return batchWindowSec;
+    }
+
+    public int maxReceiveCount() {
+        return maxReceiveCount;
+    }
+}
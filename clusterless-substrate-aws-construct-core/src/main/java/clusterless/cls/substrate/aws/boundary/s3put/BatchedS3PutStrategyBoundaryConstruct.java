@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.cls.substrate.aws.boundary.s3put;
+
+import clusterless.aws.lambda.boundary.s3put.LotSource;
+import clusterless.aws.lambda.boundary.s3put.S3PutBoundaryProps;
+import clusterless.cls.model.deploy.SinkDataset;
+import clusterless.cls.model.manifest.ManifestState;
+import clusterless.cls.substrate.aws.construct.ExtensibleConstruct;
+import clusterless.cls.substrate.aws.managed.ManagedComponentContext;
+import clusterless.cls.substrate.aws.props.Lookup;
+import clusterless.cls.substrate.aws.resource.s3.S3BucketResourceConstruct;
+import clusterless.cls.substrate.aws.resources.*;
+import clusterless.cls.substrate.uri.ManifestURI;
+import clusterless.cls.util.Env;
+import clusterless.cls.util.URIs;
+import clusterless.commons.naming.Label;
+import clusterless.commons.substrate.aws.cdk.construct.LambdaLogGroupConstruct;
+import clusterless.commons.substrate.aws.cdk.scoped.ScopedStack;
+import clusterless.commons.temporal.IntervalUnits;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import software.amazon.awscdk.Duration;
+import software.amazon.awscdk.RemovalPolicy;
+import software.amazon.awscdk.services.events.EventBus;
+import software.amazon.awscdk.services.events.IEventBus;
+import software.amazon.awscdk.services.events.Rule;
+import software.amazon.awscdk.services.events.Schedule;
+import software.amazon.awscdk.services.events.targets.SqsQueue;
+import software.amazon.awscdk.services.lambda.Function;
+import software.amazon.awscdk.services.lambda.eventsources.SqsEventSource;
+import software.amazon.awscdk.services.s3.Bucket;
+import software.amazon.awscdk.services.s3.IBucket;
+import software.amazon.awscdk.services.s3.NotificationKeyFilter;
+import software.amazon.awscdk.services.s3.notifications.SqsDestination;
+import software.amazon.awscdk.services.sqs.DeadLetterQueue;
+import software.amazon.awscdk.services.sqs.Queue;
+import software.amazon.awscdk.services.sqs.QueueEncryption;
+
+import java.net.URI;
+import java.time.temporal.TemporalUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Put events are delivered to a queue, and the queue invokes the lambda with batches of events. Every batch appends
+ * a part to its lots, and a single manifest and availability event is published per lot once the lot has ended,
+ * instead of one per object.
+ * <p>
+ * A scheduled message is sent to the queue every lot interval, so lots close when no objects arrive. Messages
+ * failing more than {@link Batched#maxReceiveCount()} times are moved to a dead letter queue.
+ */
+public class BatchedS3PutStrategyBoundaryConstruct extends ExtensibleConstruct<S3PutListenerBoundary> {
+    private static final Logger LOG = LogManager.getLogger(BatchedS3PutStrategyBoundaryConstruct.class);
+
+    public BatchedS3PutStrategyBoundaryConstruct(@NotNull ManagedComponentContext context, @NotNull S3PutListenerBoundary model) {
+        super(context, model, Label.of("Batched").with(model.name()));
+
+        // confirm unit exits
+        TemporalUnit temporalUnit = IntervalUnits.find(model().lotUnit());
+        IntervalUnits.verifyHasFormatter(temporalUnit);
+
+        if (model().batched().lotSource() == LotSource.keyTimestampRegex && (model().batched().keyRegex() == null || model().batched().keyTimestampFormat() == null)) {
+            throw new IllegalArgumentException("batched.keyRegex and batched.keyTimestampFormat are required for lotSource: " + LotSource.keyTimestampRegex);
+        }
+
+        URI listenURI = URIs.normalizeURI(model().dataset().pathURI());
+
+        String listenBucketName = listenURI.getHost();
+        String listenPathPrefix = URIs.asKeyPath(listenURI); // slash at end
+        String manifestBucketNameRef = BootstrapStores.manifestStoreNameRef(this);
+        String eventBusRef = Events.arcEventBusNameRef(this);
+
+        IBucket listenBucket = Bucket.fromBucketName(this, "ListenBucket", listenBucketName);
+        IBucket manifestBucket = Bucket.fromBucketName(this, "ManifestBucket", manifestBucketNameRef);
+        IEventBus arcEventBus = EventBus.fromEventBusName(this, "EventBus", eventBusRef);
+
+        String queueName = Queues.queueName(this, model().name()).lowerHyphen();
+        String deadLetterQueueName = Queues.queueName(this, model().name() + "DLQ").lowerHyphen();
+
+        Queue deadLetterQueue = Queue.Builder.create(this, "S3EventDeadLetterQueue")
+                .encryption(QueueEncryption.UNENCRYPTED)
+                .enforceSsl(false)
+                .removalPolicy(RemovalPolicy.DESTROY)
+                .retentionPeriod(Duration.days(14)) // the maximum, so failures may be inspected
+                .queueName(deadLetterQueueName)
+                .build();
+
+        Queue s3EventQueue = Queue.Builder.create(this, "S3EventQueue")
+                // with KMS_MANAGED enabled, there is a 'validation' error on deploy
+                // this is a permission problem
+                .encryption(QueueEncryption.UNENCRYPTED)
+                .enforceSsl(false)
+                .removalPolicy(RemovalPolicy.DESTROY)
+                .retentionPeriod(Duration.days(4)) // 4 days is default
+                // aws recommends six times the function timeout for a queue event source
+                .visibilityTimeout(Duration.minutes(Math.min(12 * 60, 6 * model().runtimeProps().timeoutMin())))
+                .deadLetterQueue(DeadLetterQueue.builder()
+                        .queue(deadLetterQueue)
+                        .maxReceiveCount(model().batched().maxReceiveCount())
+                        .build())
+                .queueName(queueName)
+                .build();
+
+        // attempts to prevent PutBucketNotificationConfiguration errors if the bucket is yet available
+        // if the bucket doesn't exist in this stack, it should already be created in another stack
+        ScopedStack.scopedOf(this)
+                .findHaving(S3BucketResourceConstruct.class)
+                .filter(b -> b.model().bucketName().equals(listenBucketName))
+                .forEach(b -> {
+                    LOG.info("adding dependency on bucket: {} for queue: {}", listenBucketName, queueName);
+                    s3EventQueue.getNode().addDependency(b);
+                });
+
+        // declare lambda to convert put event into arc event
+        ManifestURI manifestComplete = StateURIs.manifestPath(this, ManifestState.complete, model().dataset());
+        ManifestURI manifestPartial = StateURIs.manifestPath(this, ManifestState.partial, model().dataset());
+
+        S3PutBoundaryProps transformProps = S3PutBoundaryProps.builder()
+                .withEventBusName(eventBusRef)
+                .withDataset(SinkDataset.Builder.builder()
+                        .withName(model().dataset().name())
+                        .withVersion(model.dataset().version())
+                        .withPublish(model.dataset().publish())
+                        .withPathURI(listenURI)
+                        .build())
+                .withManifestCompletePath(manifestComplete)
+                .withManifestPartialPath(manifestPartial)
+                .withLotUnit(model.lotUnit())
+                .withLotSource(model().batched().lotSource())
+                .withKeyRegex(model().batched().keyRegex())
+                .withKeyTimestampFormat(model().batched().keyTimestampFormat())
+                .withLotCloseDelaySec(lotCloseDelaySec())
+                .withFilter(model().filter())
+                .withManifestFormat(model().manifestFormat())
+                .withManifestUriEncoding(model().manifestUriEncoding())
+                .build();
+
+        Map<String, String> environment = Env.toEnv(transformProps);
+
+        String functionName = Functions.functionName(this, model().name(), "Int");
+        Label functionLabel = Label.of(model().name()).with("Int");
+        Function transformEventFunction = Function.Builder.create(this, functionLabel.camelCase())
+                .functionName(functionName)
+                .code(Assets.find(Pattern.compile("^.*-aws-lambda-transform-.*\\.zip$"))) // get packaged code
+                .handler("clusterless.aws.lambda.boundary.batcheds3put.BatchedPutEventBoundaryHandler") // get handler class name
+                .environment(environment)
+                .runtime(Functions.defaultJVM())
+                .memorySize(model().runtimeProps().memorySizeMB())
+                .timeout(Duration.minutes(model().runtimeProps().timeoutMin()))
+                .architecture(Lookup.architecture(model().runtimeProps().architecture()))
+                .build();
+
+        new LambdaLogGroupConstruct(this, functionLabel, transformEventFunction);
+
+        arcEventBus.grantPutEventsTo(transformEventFunction);
+        manifestBucket.grantReadWrite(transformEventFunction);
+        listenBucket.grantRead(transformEventFunction);
+
+        // the queue invokes the function once the batch is full or the window has passed
+        // failed messages are returned to the queue, the remainder are deleted
+        LOG.info("creating queue event source with batch size: {}, window: {}s", model().batched().batchSize(), model().batched().batchWindowSec());
+
+        Functions.applySnapStart(transformEventFunction, model().runtimeProps())
+                .addEventSource(SqsEventSource.Builder.create(s3EventQueue)
+                        .batchSize(model().batched().batchSize())
+                        .maxBatchingWindow(Duration.seconds(model().batched().batchWindowSec()))
+                        .reportBatchItemFailures(true)
+                        .build());
+
+        // the lambda still applies the full filter, the notifications only drop events the lambda would
+        PathFilterPushdown pushdown = new PathFilterPushdown(listenPathPrefix, model().filter());
+
+        for (PathFilterPushdown.KeyFilter keyFilter : pushdown.notificationKeyFilters()) {
+            LOG.info("creating notification key filter: {}", keyFilter);
+
+            // performs a PutBucketNotificationConfiguration operation to the S3 API
+            // this may fail if the bucket creation is not yet completed
+            listenBucket.addObjectCreatedNotification(
+                    new SqsDestination(s3EventQueue),
+                    NotificationKeyFilter.builder()
+                            .prefix(keyFilter.prefix().isEmpty() ? null : keyFilter.prefix())
+                            .suffix(keyFilter.suffix().isEmpty() ? null : keyFilter.suffix())
+                            .build()
+            );
+        }
+
+        // closes lots when no objects arrive, the message holds no records so only lots are closed
+        Duration lotInterval = Duration.minutes(temporalUnit.getDuration().toMinutes());
+
+        LOG.info("creating rule schedule with rate: {}", lotInterval.toHumanString());
+
+        Rule.Builder.create(this, "LotCloseEvent")
+                .ruleName(Rules.ruleName(this, model().name() + "LotClose").lowerHyphen())
+                .enabled(true)
+                .schedule(Schedule.rate(lotInterval))
+                .targets(List.of(new SqsQueue(s3EventQueue)))
+                .build();
+    }
+
+    /**
+     * A message for a lot may arrive until the batch window has passed, and be processed until the function
+     * times out.
+     */
+    private int lotCloseDelaySec() {
+        return model().batched().batchWindowSec() + model().runtimeProps().timeoutMin() * 60;
+    }
+}
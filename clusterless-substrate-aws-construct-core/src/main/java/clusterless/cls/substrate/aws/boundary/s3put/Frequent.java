@@ -12,8 +12,28 @@ import clusterless.cls.model.Struct;
 
 public class Frequent implements Struct {
     int queueFetchWaitSec = 0;
+    int queueReceivers = 1;
+    int queueDrainReserveSec = 30;
+    String keyRegex;
+    String keyTimestampFormat;
 
     public int queueFetchWaitSec() {
         return queueFetchWaitSec;
     }
+
+    public int queueReceivers() {
+        return queueReceivers;
+    }
+
+    public int queueDrainReserveSec() {
+        return queueDrainReserveSec;
+    }
+
+    public String keyRegex() {
+        return keyRegex;
+    }
+
+    public String keyTimestampFormat() {
+        return keyTimestampFormat;
+    }
 }
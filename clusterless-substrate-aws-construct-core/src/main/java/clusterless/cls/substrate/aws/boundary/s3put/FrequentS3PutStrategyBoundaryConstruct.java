@@ -57,6 +57,10 @@ public class FrequentS3PutStrategyBoundaryConstruct extends ExtensibleConstruct<
         TemporalUnit temporalUnit = IntervalUnits.find(model().lotUnit());
         IntervalUnits.verifyHasFormatter(temporalUnit);
 
+        if ((model().frequent().keyRegex() == null) != (model().frequent().keyTimestampFormat() == null)) {
+            throw new IllegalArgumentException("frequent.keyRegex and frequent.keyTimestampFormat must be given together");
+        }
+
         URI listenURI = URIs.normalizeURI(model().dataset().pathURI());
 
         String listenBucketName = listenURI.getHost();
@@ -99,6 +103,10 @@ public class FrequentS3PutStrategyBoundaryConstruct extends ExtensibleConstruct<
                 .withEventBusName(eventBusRef)
                 .withSqsQueueName(queueName)
                 .withSqsWaitTimeSeconds(model().frequent().queueFetchWaitSec())
+                .withSqsReceivers(model().frequent().queueReceivers())
+                .withSqsDrainReserveSeconds(model().frequent().queueDrainReserveSec())
+                .withKeyRegex(model().frequent().keyRegex())
+                .withKeyTimestampFormat(model().frequent().keyTimestampFormat())
                 .withDataset(SinkDataset.Builder.builder()
                         .withName(model().dataset().name())
                         .withVersion(model.dataset().version())
@@ -109,6 +117,8 @@ public class FrequentS3PutStrategyBoundaryConstruct extends ExtensibleConstruct<
                 .withManifestPartialPath(manifestPartial)
                 .withLotUnit(model.lotUnit())
                 .withFilter(model().filter())
+                .withManifestFormat(model().manifestFormat())
+                .withManifestUriEncoding(model().manifestUriEncoding())
                 .build();
 
         Map<String, String> environment = Env.toEnv(transformProps);
@@ -126,7 +136,7 @@ public class FrequentS3PutStrategyBoundaryConstruct extends ExtensibleConstruct<
                 .architecture(Lookup.architecture(model().runtimeProps().architecture()))
                 .build();
 
-        LambdaFunction lambdaFunction = LambdaFunction.Builder.create(transformEventFunction)
+        LambdaFunction lambdaFunction = LambdaFunction.Builder.create(Functions.applySnapStart(transformEventFunction, model().runtimeProps()))
                 .retryAttempts(model().runtimeProps().retryAttempts())
                 .build();
 
@@ -139,12 +149,20 @@ public class FrequentS3PutStrategyBoundaryConstruct extends ExtensibleConstruct<
 
         // performs a PutBucketNotificationConfiguration operation to the S3 API
         // this may fail if the bucket creation is not yet completed
-        listenBucket.addObjectCreatedNotification(
-                new SqsDestination(s3EventQueue),
-                NotificationKeyFilter.builder()
-                        .prefix(listenPathPrefix)
-                        .build()
-        );
+        // the lambda still applies the full filter, the notifications only drop events the lambda would
+        PathFilterPushdown pushdown = new PathFilterPushdown(listenPathPrefix, model().filter());
+
+        for (PathFilterPushdown.KeyFilter keyFilter : pushdown.notificationKeyFilters()) {
+            LOG.info("creating notification key filter: {}", keyFilter);
+
+            listenBucket.addObjectCreatedNotification(
+                    new SqsDestination(s3EventQueue),
+                    NotificationKeyFilter.builder()
+                            .prefix(keyFilter.prefix().isEmpty() ? null : keyFilter.prefix())
+                            .suffix(keyFilter.suffix().isEmpty() ? null : keyFilter.suffix())
+                            .build()
+            );
+        }
 
         // https://docs.aws.amazon.com/eventbridge/latest/userguide/eb-cron-expressions.html
         if (temporalUnit.getDuration().toMinutes() > 60) {
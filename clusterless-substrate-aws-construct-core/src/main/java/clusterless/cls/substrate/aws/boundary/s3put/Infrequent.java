@@ -10,13 +10,11 @@ package clusterless.cls.substrate.aws.boundary.s3put;
 
 import clusterless.aws.lambda.boundary.s3put.LotSource;
 import clusterless.cls.model.Struct;
-import com.fasterxml.jackson.annotation.JsonIgnore;
 
 public class Infrequent implements Struct {
     LotSource lotSource = LotSource.objectModifiedTime;
-
-    @JsonIgnore
     String keyRegex;
+    String keyTimestampFormat;
     boolean enableEventBridge = false;
 
     public LotSource lotSource() {
@@ -27,6 +25,10 @@ public class Infrequent implements Struct {
         return keyRegex;
     }
 
+    public String keyTimestampFormat() {
+        return keyTimestampFormat;
+    }
+
     public boolean enableEventBridge() {
         return enableEventBridge;
     }
@@ -8,6 +8,7 @@
 
 package clusterless.cls.substrate.aws.boundary.s3put;
 
+import clusterless.aws.lambda.boundary.s3put.LotSource;
 import clusterless.aws.lambda.boundary.s3put.S3PutBoundaryProps;
 import clusterless.cls.model.deploy.SinkDataset;
 import clusterless.cls.model.manifest.ManifestState;
@@ -57,6 +58,10 @@ public class InfrequentS3PutStrategyBoundaryConstruct extends ExtensibleConstruc
         TemporalUnit temporalUnit = IntervalUnits.find(model().lotUnit());
         IntervalUnits.verifyHasFormatter(temporalUnit);
 
+        if (model().infrequent().lotSource() == LotSource.keyTimestampRegex && (model().infrequent().keyRegex() == null || model().infrequent().keyTimestampFormat() == null)) {
+            throw new IllegalArgumentException("infrequent.keyRegex and infrequent.keyTimestampFormat are required for lotSource: " + LotSource.keyTimestampRegex);
+        }
+
         URI listenURI = URIs.normalizeURI(model().dataset().pathURI());
 
         String listenBucketName = listenURI.getHost();
@@ -86,7 +91,10 @@ public class InfrequentS3PutStrategyBoundaryConstruct extends ExtensibleConstruc
                 .withLotUnit(model.lotUnit())
                 .withLotSource(model().infrequent().lotSource())
                 .withKeyRegex(model().infrequent().keyRegex())
+                .withKeyTimestampFormat(model().infrequent().keyTimestampFormat())
                 .withFilter(model().filter())
+                .withManifestFormat(model().manifestFormat())
+                .withManifestUriEncoding(model().manifestUriEncoding())
                 .build();
 
         Map<String, String> environment = Env.toEnv(transformProps);
@@ -104,7 +112,7 @@ public class InfrequentS3PutStrategyBoundaryConstruct extends ExtensibleConstruc
                 .architecture(Lookup.architecture(model().runtimeProps().architecture()))
                 .build();
 
-        LambdaFunction lambdaFunction = LambdaFunction.Builder.create(transformEventFunction)
+        LambdaFunction lambdaFunction = LambdaFunction.Builder.create(Functions.applySnapStart(transformEventFunction, model().runtimeProps()))
                 .retryAttempts(model().runtimeProps().retryAttempts())
                 .build();
 
@@ -141,19 +149,20 @@ public class InfrequentS3PutStrategyBoundaryConstruct extends ExtensibleConstruc
             }
         }
 
+        // the lambda still applies the full filter, the rule only drops events the lambda would
+        PathFilterPushdown pushdown = new PathFilterPushdown(listenPathPrefix, model().filter());
+
         EventPattern pattern = EventPattern.builder()
                 .source(List.of("aws.s3"))
                 .detailType(List.of("Object Created"))
                 .detail(OrderedSafeMaps.of(
                         "bucket.name", SafeList.of(listenBucketName),
-                        "object.key", SafeList.of(
-                                OrderedSafeMaps.of(
-                                        "prefix", listenPathPrefix
-                                )
-                        )
+                        "object.key", pushdown.eventBridgeKeyFilters()
                 ))
                 .build();
 
+        LOG.info("creating rule object key filter: {}", pushdown.eventBridgeKeyFilters());
+
         LOG.info("creating rule pattern for: {}:{}", pattern.getSource(), pattern.getDetailType());
 
         Rule.Builder.create(this, "ListenerEvent")
@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.cls.substrate.aws.boundary.s3put;
+
+import clusterless.cls.model.deploy.partial.PathFilter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Translates the {@link PathFilter} includes and excludes into S3 notification and EventBridge rule key filters,
+ * so fewer events reach the boundary lambda.
+ * <p>
+ * The pushed down filters are conservative, the included keys are always a superset, and the excluded keys always
+ * a subset, of those the {@code PathMatcher} in the lambda keeps or drops. The lambda always applies the full
+ * filter as a second stage.
+ * <p>
+ * Includes are only pushed down if every include can be, as includes are OR'd, and never when case is ignored.
+ * Ant style wildcards are widened to a single {@code *}, which matches any characters, including the separator.
+ * <p>
+ * Neither EventBridge nor S3 can AND an exclusion with a key prefix, so an exclude is only pushed into the
+ * EventBridge rule when listening to the root of the bucket and no includes are pushed down.
+ * <p>
+ * Keys with repeated path separators are not considered.
+ */
+public class PathFilterPushdown {
+    /**
+     * A S3 notification key filter, an empty suffix is no suffix.
+     */
+    public record KeyFilter(String prefix, String suffix) {
+    }
+
+    private final String keyPrefix;
+    private final char pathSeparator;
+    private final List<List<String>> includes;
+    private final String excludeSuffix;
+
+    public PathFilterPushdown(String keyPrefix, PathFilter filter) {
+        this.keyPrefix = keyPrefix == null ? "" : keyPrefix;
+        this.pathSeparator = filter == null || filter.pathSeparator() == 0 ? '/' : filter.pathSeparator();
+        this.includes = filter == null ? null : includes(filter);
+        this.excludeSuffix = filter == null || this.includes != null || !this.keyPrefix.isEmpty() ? null : excludeSuffix(filter);
+    }
+
+    public String keyPrefix() {
+        return keyPrefix;
+    }
+
+    public boolean hasIncludes() {
+        return includes != null;
+    }
+
+    public boolean hasExclude() {
+        return excludeSuffix != null;
+    }
+
+    /**
+     * The values of the EventBridge {@code object.key} detail pattern, the values are OR'd.
+     */
+    public List<Map<String, Object>> eventBridgeKeyFilters() {
+        if (includes != null) {
+            return includes.stream()
+                    .map(PathFilterPushdown::wildcard)
+                    .distinct()
+                    .map(w -> Map.<String, Object>of("wildcard", w))
+                    .toList();
+        }
+
+        if (excludeSuffix != null) {
+            return List.of(Map.of("anything-but", Map.of("suffix", excludeSuffix)));
+        }
+
+        return List.of(Map.of("prefix", keyPrefix));
+    }
+
+    /**
+     * The S3 notification key filters, one notification per filter.
+     * <p>
+     * S3 rejects notifications on the same event type with overlapping filters, so overlapping filters are merged
+     * into their common prefix and suffix.
+     */
+    public List<KeyFilter> notificationKeyFilters() {
+        if (includes == null) {
+            return List.of(new KeyFilter(keyPrefix, ""));
+        }
+
+        List<KeyFilter> filters = new ArrayList<>();
+
+        for (List<String> parts : includes) {
+            String prefix = parts.get(0);
+            String suffix = parts.size() == 1 ? "" : parts.get(parts.size() - 1);
+            filters.add(new KeyFilter(prefix, suffix));
+        }
+
+        boolean merged = true;
+
+        while (merged) {
+            merged = false;
+
+            outer:
+            for (int i = 0; i < filters.size(); i++) {
+                for (int j = i + 1; j < filters.size(); j++) {
+                    KeyFilter lhs = filters.get(i);
+                    KeyFilter rhs = filters.get(j);
+
+                    if (!overlaps(lhs, rhs)) {
+                        continue;
+                    }
+
+                    filters.set(i, new KeyFilter(commonPrefix(lhs.prefix(), rhs.prefix()), commonSuffix(lhs.suffix(), rhs.suffix())));
+                    filters.remove(j);
+                    merged = true;
+                    break outer;
+                }
+            }
+        }
+
+        return filters;
+    }
+
+    private static boolean overlaps(KeyFilter lhs, KeyFilter rhs) {
+        boolean prefixes = lhs.prefix().startsWith(rhs.prefix()) || rhs.prefix().startsWith(lhs.prefix());
+        boolean suffixes = lhs.suffix().endsWith(rhs.suffix()) || rhs.suffix().endsWith(lhs.suffix());
+
+        return prefixes && suffixes;
+    }
+
+    private static String commonPrefix(String lhs, String rhs) {
+        int length = Math.min(lhs.length(), rhs.length());
+        int i = 0;
+
+        while (i < length && lhs.charAt(i) == rhs.charAt(i)) {
+            i++;
+        }
+
+        return lhs.substring(0, i);
+    }
+
+    private static String commonSuffix(String lhs, String rhs) {
+        int length = Math.min(lhs.length(), rhs.length());
+        int i = 0;
+
+        while (i < length && lhs.charAt(lhs.length() - 1 - i) == rhs.charAt(rhs.length() - 1 - i)) {
+            i++;
+        }
+
+        return lhs.substring(lhs.length() - i);
+    }
+
+    private static String wildcard(List<String> parts) {
+        StringBuilder builder = new StringBuilder();
+
+        for (int i = 0; i < parts.size(); i++) {
+            if (i != 0) {
+                builder.append('*');
+            }
+
+            String part = parts.get(i);
+
+            for (int c = 0; c < part.length(); c++) {
+                char ch = part.charAt(c);
+
+                if (ch == '*' || ch == '\\') {
+                    builder.append('\\');
+                }
+
+                builder.append(ch);
+            }
+        }
+
+        return builder.toString();
+    }
+
+    private List<List<String>> includes(PathFilter filter) {
+        if (filter.includes() == null || filter.includes().isEmpty() || filter.ignoreCase()) {
+            return null;
+        }
+
+        List<List<String>> results = new ArrayList<>();
+
+        for (String include : filter.includes()) {
+            List<String> parts = include == null || include.isEmpty() ? null : translate(include);
+
+            if (parts == null) {
+                return null;
+            }
+
+            results.add(parts);
+        }
+
+        return results;
+    }
+
+    /**
+     * Returns the literal parts of the key glob, a wildcard is between each part, or null if the pattern cannot
+     * be translated.
+     */
+    private List<String> translate(String pattern) {
+        boolean absolute = pattern.charAt(0) == pathSeparator;
+        List<String> parts = new ArrayList<>();
+        StringBuilder literal = new StringBuilder(absolute ? "" : keyPrefix);
+
+        int length = pattern.length();
+        int start = absolute ? 1 : 0;
+        boolean pendingSeparator = false;
+
+        for (int i = start; i <= length; i++) {
+            if (i != length && pattern.charAt(i) != pathSeparator) {
+                continue;
+            }
+
+            String segment = pattern.substring(start, i);
+            start = i + 1;
+
+            if (segment.isEmpty()) {
+                continue;
+            }
+
+            if (segment.equals("**")) {
+                // ** matches zero or more segments, so absorbs the separators around it
+                pendingSeparator = false;
+                wildcard(parts, literal);
+                continue;
+            }
+
+            if (pendingSeparator) {
+                literal.append(pathSeparator);
+            }
+
+            if (!translateSegment(segment, parts, literal)) {
+                return null;
+            }
+
+            pendingSeparator = true;
+        }
+
+        boolean endsWithDoubleStar = !pendingSeparator && !parts.isEmpty() && literal.isEmpty();
+
+        if (!endsWithDoubleStar && pattern.charAt(length - 1) == pathSeparator && length != 1) {
+            literal.append(pathSeparator);
+        }
+
+        parts.add(literal.toString());
+
+        // an absolute pattern must be within the listened to prefix
+        if (absolute && !parts.get(0).startsWith(keyPrefix)) {
+            return null;
+        }
+
+        return parts;
+    }
+
+    private static boolean translateSegment(String segment, List<String> parts, StringBuilder literal) {
+        int length = segment.length();
+
+        for (int i = 0; i < length; i++) {
+            char ch = segment.charAt(i);
+
+            switch (ch) {
+                case '*', '?' -> wildcard(parts, literal);
+                case '{' -> {
+                    int depth = 1;
+
+                    while (depth != 0 && ++i < length) {
+                        char next = segment.charAt(i);
+
+                        if (next == '{') {
+                            depth++;
+                        } else if (next == '}') {
+                            depth--;
+                        }
+                    }
+
+                    if (depth != 0) {
+                        return false;
+                    }
+
+                    wildcard(parts, literal);
+                }
+                default -> literal.append(ch);
+            }
+        }
+
+        return true;
+    }
+
+    private static void wildcard(List<String> parts, StringBuilder literal) {
+        // consecutive wildcards collapse into one
+        if (!parts.isEmpty() && literal.isEmpty()) {
+            return;
+        }
+
+        parts.add(literal.toString());
+        literal.setLength(0);
+    }
+
+    private String excludeSuffix(PathFilter filter) {
+        if (filter.excludes() == null) {
+            return null;
+        }
+
+        for (String exclude : filter.excludes()) {
+            if (exclude == null) {
+                continue;
+            }
+
+            String relative = exclude.startsWith(String.valueOf(pathSeparator)) ? exclude.substring(1) : exclude;
+            String head = "**" + pathSeparator;
+
+            if (!relative.startsWith(head)) {
+                continue;
+            }
+
+            String last = relative.substring(head.length());
+
+            if (last.indexOf(pathSeparator) != -1 || last.indexOf('?') != -1 || last.indexOf('{') != -1) {
+                continue;
+            }
+
+            // **/*X drops every key ending with X
+            if (last.length() > 1 && last.charAt(0) == '*' && last.indexOf('*', 1) == -1) {
+                return last.substring(1);
+            }
+
+            // **/X drops every key ending with /X
+            if (!last.isEmpty() && last.indexOf('*') == -1) {
+                return pathSeparator + last;
+            }
+        }
+
+        return null;
+    }
+}
@@ -27,6 +27,7 @@ public class S3PutListenerBoundary extends IngressBoundary {
             15
     );
     Infrequent infrequent = new Infrequent();
+    Batched batched = new Batched();
     Frequent frequent = new Frequent();
 
     PathFilter filter = new PathFilter();
@@ -46,6 +47,10 @@ public class S3PutListenerBoundary extends IngressBoundary {
         return infrequent;
     }
 
+    public Batched batched() {
+        return batched;
+    }
+
     public Frequent frequent() {
         return frequent;
     }
@@ -28,6 +28,10 @@ public class S3PutListenerBoundaryConstruct extends IngressBoundaryConstruct<S3P
                 LOG.info("creating infrequent s3 put listener boundary");
                 new InfrequentS3PutStrategyBoundaryConstruct(context, model);
                 break;
+            case batched:
+                LOG.info("creating batched s3 put listener boundary");
+                new BatchedS3PutStrategyBoundaryConstruct(context, model);
+                break;
             case frequent:
                 LOG.info("creating frequent s3 put listener boundary");
                 new FrequentS3PutStrategyBoundaryConstruct(context, model);
@@ -28,19 +28,60 @@ import clusterless.cls.substrate.aws.managed.ManagedComponentContext;
                                 
                 lotUnit: Fourths|Sixth|Twelfths|etc
                     the interval of a lot, see documentation for supported intervals
+
+                manifestFormat: json|ndjson
+                    how the lot manifests are written, default is json
+                    ndjson streams lots over 10,000 uris as gzip compressed newline delimited json,
+                    workloads reading the manifests outside of clusterless must support this form
+
+                manifestUriEncoding: absolute|frontCoded
+                    how the uris of ndjson manifests are encoded, default is absolute
+                    frontCoded stores each uri as the prefix it shares with the previous uri and the remaining suffix
                                 
-                eventArrival: infrequent|frequent
+                eventArrival: infrequent|batched|frequent
                     expected frequency of event arrivals
                     infrequent is once per interval and frequent more than once per interval
+                    batched collects put events in a queue, every batch appends its events to their lots, and
+                    each lot is published once after it has ended, later events roll into the current lot
                                 
-                infrequent.lotSource: objectModifiedTime|eventTime
+                infrequent.lotSource: objectModifiedTime|eventTime|keyTimestampRegex
                     objectModifiedTime will use the last modified time of the object
                     eventTime will use the time the event was received by the listener
+                    keyTimestampRegex will use the timestamp parsed from the object key
+
+                infrequent.keyRegex: regex
+                    The regex matched against the object key, every capturing group is concatenated into the timestamp.
+                    For example, 'y=(\\d{4})/m=(\\d{2})/d=(\\d{2})/h=(\\d{2})'.
+
+                infrequent.keyTimestampFormat: format
+                    The java DateTimeFormatter pattern the timestamp is parsed with, UTC is assumed.
+                    For example, 'yyyyMMddHH'.
                                 
                 infrequent.enableEventBridge: true|false
                     true will enable event bridge on the bucket
                     if the bucket was not declared with eventBridgeNotification enabled, it must be set here
 
+                batched.lotSource: objectModifiedTime|eventTime|keyTimestampRegex
+                    objectModifiedTime will use the last modified time of the object
+                    eventTime will use the time the event was received by the queue
+                    keyTimestampRegex will use the timestamp parsed from the object key
+
+                batched.keyRegex, batched.keyTimestampFormat:
+                    See infrequent.keyRegex and infrequent.keyTimestampFormat.
+
+                batched.batchSize: count
+                    The maximum number of put events in a batch, default is 1000.
+                    Values greater than 10 require a batchWindowSec greater than zero (0).
+
+                batched.batchWindowSec: seconds
+                    The maximum time to gather put events before invoking the function, default is 60.
+                    The maximum allowed is 300 seconds.
+                    A lot is published once this window, and the function timeout, have passed after the lot ended.
+
+                batched.maxReceiveCount: count
+                    The number of times a put event is retried before it is moved to the dead letter queue,
+                    default is 5.
+
                 frequent.queueFetchWaitSec: seconds
                     The duration (in seconds) for which the call waits for a message to arrive in the queue
                     before returning. If a message is available, the call returns sooner than WaitTimeSeconds.
@@ -48,6 +89,19 @@ import clusterless.cls.substrate.aws.managed.ManagedComponentContext;
                     empty list of messages.
                     It is recommended to leave this value at zero (0).
 
+                frequent.queueReceivers: count
+                    The number of concurrent receivers draining the queue, default is 1.
+                    Increase when many thousands of objects arrive per interval.
+
+                frequent.keyRegex, frequent.keyTimestampFormat:
+                    Optional, see infrequent.keyRegex and infrequent.keyTimestampFormat.
+                    If given, an object is collected by the first interval ending after its key timestamp,
+                    instead of the time its event was received by the queue.
+
+                frequent.queueDrainReserveSec: seconds
+                    Receiving stops when the function has this many seconds remaining, default is 30.
+                    All received messages are written to the manifest, the remainder are collected in a later lot.
+
                 For frequently arriving events, all paths are collected until the end of the interval, except those
                 paths that do not pass the filter, if given. The filter is a list of include and exclude patterns.
                                 
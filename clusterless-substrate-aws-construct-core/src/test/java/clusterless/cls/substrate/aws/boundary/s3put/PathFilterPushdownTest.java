@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.cls.substrate.aws.boundary.s3put;
+
+import clusterless.cls.json.JSONUtil;
+import clusterless.cls.model.deploy.partial.PathFilter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ *
+ */
+public class PathFilterPushdownTest {
+    static PathFilter filter(List<String> includes, List<String> excludes, boolean ignoreCase) {
+        return JSONUtil.readObjectSafe(JSONUtil.writeAsStringSafe(Map.of(
+                "includes", includes,
+                "excludes", excludes,
+                "ignoreCase", ignoreCase
+        )), PathFilter.class);
+    }
+
+    static List<String> wildcards(PathFilterPushdown pushdown) {
+        return pushdown.eventBridgeKeyFilters().stream()
+                .map(m -> (String) m.get("wildcard"))
+                .toList();
+    }
+
+    @Test
+    void noFilter() {
+        PathFilterPushdown pushdown = new PathFilterPushdown("data/", filter(List.of(), List.of(), false));
+
+        Assertions.assertFalse(pushdown.hasIncludes());
+        Assertions.assertEquals(List.of(Map.of("prefix", "data/")), pushdown.eventBridgeKeyFilters());
+        Assertions.assertEquals(List.of(new PathFilterPushdown.KeyFilter("data/", "")), pushdown.notificationKeyFilters());
+    }
+
+    @Test
+    void includes() {
+        PathFilterPushdown pushdown = new PathFilterPushdown("data/", filter(List.of("**/*.csv", "2023/**", "year=*/month=??/part-{id:\\d+}.json"), List.of(), false));
+
+        Assertions.assertTrue(pushdown.hasIncludes());
+        Assertions.assertEquals(List.of("data/*.csv", "data/2023*", "data/year=*/month=*/part-*.json"), wildcards(pushdown));
+    }
+
+    @Test
+    void absoluteIncludes() {
+        PathFilterPushdown within = new PathFilterPushdown("data/", filter(List.of("/data/logs/**/*.gz"), List.of(), false));
+
+        Assertions.assertEquals(List.of("data/logs*.gz"), wildcards(within));
+
+        PathFilterPushdown outside = new PathFilterPushdown("data/", filter(List.of("/data/logs/**/*.gz", "/other/**"), List.of(), false));
+
+        Assertions.assertFalse(outside.hasIncludes());
+    }
+
+    @Test
+    void notPushable() {
+        Assertions.assertFalse(new PathFilterPushdown("data/", filter(List.of("**/*.csv"), List.of(), true)).hasIncludes());
+        Assertions.assertFalse(new PathFilterPushdown("data/", filter(List.of("**/*.csv", "part-{id"), List.of(), false)).hasIncludes());
+    }
+
+    @Test
+    void escapes() {
+        PathFilterPushdown pushdown = new PathFilterPushdown("da*ta/", filter(List.of("a\\b/*"), List.of(), false));
+
+        Assertions.assertEquals(List.of("da\\*ta/a\\\\b/*"), wildcards(pushdown));
+    }
+
+    @Test
+    void notificationFilters() {
+        PathFilterPushdown pushdown = new PathFilterPushdown("data/", filter(List.of("**/*.csv", "**/*.json", "logs/*.gz"), List.of(), false));
+
+        Assertions.assertEquals(
+                List.of(
+                        new PathFilterPushdown.KeyFilter("data/", ".csv"),
+                        new PathFilterPushdown.KeyFilter("data/", ".json"),
+                        new PathFilterPushdown.KeyFilter("data/logs/", ".gz")
+                ),
+                pushdown.notificationKeyFilters()
+        );
+    }
+
+    @Test
+    void notificationFiltersMerged() {
+        PathFilterPushdown pushdown = new PathFilterPushdown("data/", filter(List.of("**/*.csv", "logs/*.csv", "logs/*sv"), List.of(), false));
+
+        Assertions.assertEquals(
+                List.of(new PathFilterPushdown.KeyFilter("data/", "sv")),
+                pushdown.notificationKeyFilters()
+        );
+    }
+
+    @Test
+    void excludes() {
+        PathFilterPushdown root = new PathFilterPushdown("", filter(List.of(), List.of("**/*.tmp"), false));
+
+        Assertions.assertTrue(root.hasExclude());
+        Assertions.assertEquals(List.of(Map.of("anything-but", Map.of("suffix", ".tmp"))), root.eventBridgeKeyFilters());
+
+        PathFilterPushdown marker = new PathFilterPushdown("", filter(List.of(), List.of("**/_SUCCESS"), false));
+
+        Assertions.assertEquals(List.of(Map.of("anything-but", Map.of("suffix", "/_SUCCESS"))), marker.eventBridgeKeyFilters());
+
+        // an exclusion cannot be combined with the prefix
+        PathFilterPushdown prefixed = new PathFilterPushdown("data/", filter(List.of(), List.of("**/*.tmp"), false));
+
+        Assertions.assertFalse(prefixed.hasExclude());
+        Assertions.assertEquals(List.of(Map.of("prefix", "data/")), prefixed.eventBridgeKeyFilters());
+    }
+}
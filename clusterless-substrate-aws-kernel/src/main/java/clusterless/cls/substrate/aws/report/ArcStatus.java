@@ -10,6 +10,7 @@ package clusterless.cls.substrate.aws.report;
 
 import clusterless.cls.command.report.ArcStatusCommandOption;
 import clusterless.cls.substrate.aws.report.reporter.Reporter;
+import clusterless.cls.substrate.aws.report.scanner.ListingCache;
 import clusterless.cls.substrate.aws.report.scanner.ArcScanner;
 import clusterless.cls.util.Moment;
 import picocli.CommandLine;
@@ -45,13 +46,14 @@ public class ArcStatus implements Callable<Integer> {
         String profile = arcsCommand.commandOptions.profile();
         Moment earliest = arcStatusCommandOption.earliest();
         Moment latest = arcStatusCommandOption.latest();
+        ListingCache listingCache = ListingCache.from(arcStatusCommandOption.cacheOptions());
 
         if (arcStatusCommandOption.list()) {
             Reporter<ArcStatusRecord> reporter = Reporter.instance(arcsCommand.kernel().printer(), ArcStatusRecord.class);
 
             try (Stream<ArcRecord> arcStream = arcsCommand.listAllArcs(arcRecordPredicate)) {
                 reporter.report(arcStream
-                        .map(arcRecord -> new ArcScanner(profile, arcRecord, earliest, latest))
+                        .map(arcRecord -> new ArcScanner(profile, arcRecord, earliest, latest, listingCache))
                         .flatMap(ArcScanner::scan)
                 );
             }
@@ -60,7 +62,7 @@ public class ArcStatus implements Callable<Integer> {
 
             try (Stream<ArcRecord> arcStream = arcsCommand.listAllArcs(arcRecordPredicate)) {
                 reporter.report(arcStream
-                        .map(arcRecord -> new ArcScanner(profile, arcRecord, earliest, latest))
+                        .map(arcRecord -> new ArcScanner(profile, arcRecord, earliest, latest, listingCache))
                         .map(ArcScanner::summarizeScan)
                 );
             }
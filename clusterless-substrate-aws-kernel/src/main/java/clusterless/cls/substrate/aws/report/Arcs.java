@@ -11,7 +11,6 @@ package clusterless.cls.substrate.aws.report;
 import clusterless.cls.command.report.ArcsCommandOptions;
 import clusterless.cls.model.deploy.Project;
 import clusterless.cls.substrate.aws.report.reporter.Reporter;
-import clusterless.cls.substrate.aws.sdk.S3;
 import clusterless.cls.substrate.uri.ArcURI;
 import org.jetbrains.annotations.NotNull;
 import picocli.CommandLine;
@@ -24,6 +23,7 @@ import java.util.TreeSet;
 import java.util.concurrent.Callable;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
@@ -73,14 +73,17 @@ public class Arcs extends Reports implements Callable<Integer> {
 
     @NotNull
     public Stream<ArcRecord> listAllArcs(Predicate<ArcRecord> arcRecordPredicate) {
-        S3 s3 = new S3(commandOptions.profile());
-
         Predicate<Project> sorted = projectFilter(commandOptions);
 
-        return listAllProjects(commandOptions)
+        List<ProjectRecord> projectRecords = listAllProjects(commandOptions)
                 .filter(r -> sorted.test(r.project))
-                .map(r -> Map.entry(r.placement, listAllArcKeys(s3, r)))
-                .flatMap(e -> e.getValue().stream().map(a -> Map.entry(e.getKey(), ArcURI.parse("/" + a))))
+                .toList();
+
+        List<List<String>> arcKeys = listAllKeysFor(commandOptions.profile(), projectRecords, Arcs::arcPrefix);
+
+        return IntStream.range(0, projectRecords.size())
+                .boxed()
+                .flatMap(i -> arcKeys.get(i).stream().map(a -> Map.entry(projectRecords.get(i).placement, ArcURI.parse("/" + a))))
                 .map(e -> new ArcRecord(e.getKey(), e.getValue().project(), e.getValue().arcName()))
                 .filter(arcRecordPredicate);
     }
@@ -102,19 +105,11 @@ public class Arcs extends Reports implements Callable<Integer> {
         return sorted::contains;
     }
 
-    private static List<String> listAllArcKeys(S3 s3, ProjectRecord projectRecord) {
-        URI uri = ArcURI.builder()
+    private static URI arcPrefix(ProjectRecord projectRecord) {
+        return ArcURI.builder()
                 .withPlacement(projectRecord.placement)
                 .withProject(projectRecord.project)
                 .build()
                 .uriPrefix();
-
-        S3.Response response = s3.listObjects(uri);
-
-        response.isSuccessOrThrowRuntime(
-                r -> String.format("unable to list projects in: %s, %s", uri, r.errorMessage())
-        );
-
-        return s3.listChildren(response);
     }
 }
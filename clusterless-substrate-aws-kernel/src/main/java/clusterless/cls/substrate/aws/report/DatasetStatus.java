@@ -10,6 +10,7 @@ package clusterless.cls.substrate.aws.report;
 
 import clusterless.cls.command.report.DatasetStatusCommandOption;
 import clusterless.cls.substrate.aws.report.reporter.Reporter;
+import clusterless.cls.substrate.aws.report.scanner.ListingCache;
 import clusterless.cls.substrate.aws.report.scanner.ManifestScanner;
 import clusterless.cls.util.Moment;
 import picocli.CommandLine;
@@ -45,13 +46,14 @@ public class DatasetStatus implements Callable<Integer> {
         String profile = datasetsCommand.commandOptions.profile();
         Moment earliest = datasetStatusCommandOption.earliest();
         Moment latest = datasetStatusCommandOption.latest();
+        ListingCache listingCache = ListingCache.from(datasetStatusCommandOption.cacheOptions());
 
         if (datasetStatusCommandOption.list()) {
             Reporter<DatasetStatusRecord> reporter = Reporter.instance(datasetsCommand.kernel().printer(), DatasetStatusRecord.class);
 
             try (Stream<DatasetRecord> datasetStream = datasetsCommand.listAllDatasets(datasetRecordPredicate)) {
                 reporter.report(datasetStream
-                        .map(datasetRecord -> new ManifestScanner(profile, datasetRecord, earliest, latest))
+                        .map(datasetRecord -> new ManifestScanner(profile, datasetRecord, earliest, latest, listingCache))
                         .flatMap(ManifestScanner::scan)
                 );
             }
@@ -60,7 +62,7 @@ public class DatasetStatus implements Callable<Integer> {
 
             try (Stream<DatasetRecord> datasetRecordStream = datasetsCommand.listAllDatasets(datasetRecordPredicate)) {
                 reporter.report(datasetRecordStream
-                        .map(arcRecord -> new ManifestScanner(profile, arcRecord, earliest, latest))
+                        .map(arcRecord -> new ManifestScanner(profile, arcRecord, earliest, latest, listingCache))
                         .map(ManifestScanner::summarizeScan)
                 );
             }
@@ -11,6 +11,7 @@ package clusterless.cls.substrate.aws.report;
 import clusterless.cls.command.report.ReportCommandOptions;
 import clusterless.cls.model.deploy.Placement;
 import clusterless.cls.substrate.aws.CommonCommand;
+import clusterless.cls.substrate.aws.sdk.ParallelLister;
 import clusterless.cls.substrate.aws.sdk.S3;
 import clusterless.cls.substrate.store.StateStore;
 import clusterless.cls.substrate.store.Stores;
@@ -23,6 +24,7 @@ import org.jetbrains.annotations.NotNull;
 import java.net.URI;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 public class Reports extends CommonCommand {
@@ -31,12 +33,17 @@ public class Reports extends CommonCommand {
     protected Stream<ProjectRecord> listAllProjects(ReportCommandOptions commandOptions) {
         List<Placement> placements = filterPlacements(commandOptions);
 
+        List<List<String>> children = listAllKeysFor(commandOptions.profile(), placements, placement -> ProjectURI.builder()
+                .withPlacement(placement)
+                .build()
+                .uriPrefix());
+
         Stream<ProjectRecord> records = StreamEx.empty();
 
-        for (Placement placement : placements) {
-            List<String> children = listAllProjectKeysFor(commandOptions.profile(), placement);
+        for (int i = 0; i < placements.size(); i++) {
+            Placement placement = placements.get(i);
 
-            Stream<ProjectRecord> recordStream = children.stream().map("/"::concat)
+            Stream<ProjectRecord> recordStream = children.get(i).stream().map("/"::concat)
                     .map(ProjectURI::parse)
                     .map(ProjectURI::project)
                     .map(p -> new ProjectRecord(placement, p));
@@ -47,33 +54,21 @@ public class Reports extends CommonCommand {
         return records;
     }
 
-    protected static List<String> listAllProjectKeysFor(String profile, Placement placement) {
-        S3 s3 = new S3(profile);
-
-        URI uri = ProjectURI.builder()
-                .withPlacement(placement)
-                .build()
-                .uriPrefix();
-
-        S3.Response response = s3.listObjects(uri);
-
-        response.isSuccessOrThrowRuntime(
-                r -> String.format("unable to list projects in: %s, %s", uri, r.errorMessage())
-        );
-
-        return s3.listChildren(response);
-    }
-
     @NotNull
     protected Stream<DatasetRecord> listAllDatasets(ReportCommandOptions commandOptions) {
         List<Placement> placements = filterPlacements(commandOptions);
 
+        List<List<String>> children = listAllKeysFor(commandOptions.profile(), placements, placement -> DatasetURI.builder()
+                .withPlacement(placement)
+                .build()
+                .uriPrefix());
+
         Stream<DatasetRecord> records = StreamEx.empty();
 
-        for (Placement placement : placements) {
-            List<String> children = listAllDatasetKeysFor(commandOptions.profile(), placement);
+        for (int i = 0; i < placements.size(); i++) {
+            Placement placement = placements.get(i);
 
-            Stream<DatasetRecord> recordStream = children.stream().map("/"::concat)
+            Stream<DatasetRecord> recordStream = children.get(i).stream().map("/"::concat)
                     .map(DatasetURI::parse)
                     .map(DatasetURI::dataset)
                     .map(p -> new DatasetRecord(placement, p));
@@ -84,21 +79,17 @@ public class Reports extends CommonCommand {
         return records;
     }
 
-    protected static List<String> listAllDatasetKeysFor(String profile, Placement placement) {
+    /**
+     * Lists every key under each prefix concurrently, following all pages of the listing.
+     */
+    protected static <T> List<List<String>> listAllKeysFor(String profile, List<T> values, Function<T, URI> prefix) {
         S3 s3 = new S3(profile);
 
-        URI uri = DatasetURI.builder()
-                .withPlacement(placement)
-                .build()
-                .uriPrefix();
-
-        S3.Response response = s3.listObjects(uri);
-
-        response.isSuccessOrThrowRuntime(
-                r -> String.format("unable to list datasets in: %s, %s", uri, r.errorMessage())
-        );
+        List<URI> uris = values.stream()
+                .map(prefix)
+                .toList();
 
-        return s3.listChildren(response);
+        return new ParallelLister(s3).listAllGrouped(uris);
     }
 
     protected List<Placement> listAllPlacements(String profile) {
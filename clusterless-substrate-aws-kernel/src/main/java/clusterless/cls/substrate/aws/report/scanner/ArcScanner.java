@@ -12,11 +12,17 @@ import clusterless.cls.model.state.ArcState;
 import clusterless.cls.substrate.aws.report.ArcRecord;
 import clusterless.cls.substrate.aws.report.ArcStatusRecord;
 import clusterless.cls.substrate.aws.report.ArcStatusSummaryRecord;
+import clusterless.cls.substrate.aws.sdk.ParallelLister;
+import clusterless.cls.substrate.aws.sdk.S3;
 import clusterless.cls.substrate.uri.ArcStateURI;
 import clusterless.cls.substrate.uri.StateURI;
 import clusterless.cls.util.Moment;
 import org.jetbrains.annotations.NotNull;
 
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
 public class ArcScanner extends Scanner<ArcRecord, ArcStatusRecord, ArcStatusSummaryRecord, ArcState> {
@@ -25,6 +31,10 @@ public class ArcScanner extends Scanner<ArcRecord, ArcStatusRecord, ArcStatusSum
         super(profile, arcRecord, earliest, latest);
     }
 
+    public ArcScanner(String profile, ArcRecord arcRecord, Moment earliest, Moment latest, ListingCache listingCache) {
+        super(profile, arcRecord, earliest, latest, listingCache);
+    }
+
     @Override
     protected StateURI<?, ?> createStateURIFrom(ArcRecord record) {
         return ArcStateURI.builder()
@@ -35,9 +45,53 @@ public class ArcScanner extends Scanner<ArcRecord, ArcStatusRecord, ArcStatusSum
     }
 
     @NotNull
-    protected Stream<ArcStatusRecord> parseStreamIntoUri(Stream<String> resultStream) {
-        return resultStream.map(ArcStateURI::parse)
-                .map(uri -> new ArcStatusRecord(record, uri.lotId(), uri.state()));
+    protected Stream<ArcStatusRecord> parseStreamIntoUri(S3 s3, Stream<String> resultStream) {
+        List<String> keys = resultStream.toList();
+
+        List<String> lotStateKeys = keys.stream()
+                .filter(ArcStateURI::isLotStateObject)
+                .toList();
+
+        Map<String, ArcState> lotStates = lotStatesFor(s3, lotStateKeys);
+
+        return keys.stream().map(key -> {
+            ArcStateURI uri = ArcStateURI.parse(key);
+            ArcState state = ArcStateURI.isLotStateObject(key) ? lotStates.get(key) : uri.state();
+            return new ArcStatusRecord(record, uri.lotId(), state);
+        });
+    }
+
+    /**
+     * Lots written by a conditional arc state store hold their state in the metadata of a single object, the
+     * objects are read concurrently with the same bound as the listing.
+     */
+    protected Map<String, ArcState> lotStatesFor(S3 s3, List<String> keys) {
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+
+        List<ArcState> states = new ParallelLister(s3, concurrency)
+                .map(keys, key -> lotStateFor(s3, key));
+
+        // states may be null, so not collected with Collectors.toMap
+        Map<String, ArcState> result = new HashMap<>(keys.size());
+
+        for (int i = 0; i < keys.size(); i++) {
+            result.put(keys.get(i), states.get(i));
+        }
+
+        return result;
+    }
+
+    protected ArcState lotStateFor(S3 s3, String key) {
+        URI identifier = S3.createS3URI(stateURI.uriPath().getHost(), key);
+        S3.Response response = s3.exists(identifier);
+
+        if (!response.isSuccess()) {
+            return null;
+        }
+
+        return ArcState.parse(s3.metadata(response).get(ArcStateURI.STATE_METADATA));
     }
 
     @Override
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.cls.substrate.aws.report.scanner;
+
+import clusterless.cls.command.report.CacheOptions;
+import clusterless.cls.config.ConfigManager;
+import clusterless.cls.json.JSONUtil;
+import com.google.common.hash.Hashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A local, on-disk cache of state object keys listed by a {@link Scanner}, one file per state prefix.
+ * <p>
+ * Each entry records the interval of lots it covers, and when it was listed. Lots that had already settled, were
+ * older than the ttl, when the entry was listed are trusted. Later lots, or lots outside the covered interval, are
+ * listed again, and the entry is updated.
+ */
+public class ListingCache {
+    private static final Logger LOG = LoggerFactory.getLogger(ListingCache.class);
+
+    public static final Path DEFAULT_CACHE_DIR = ConfigManager.GLOBAL_CONFIG_DIR.resolve("cache").resolve("listings");
+
+    /**
+     * @param path     the listed state prefix
+     * @param from     the earliest instant covered, inclusive
+     * @param until    the latest instant covered, exclusive
+     * @param listedAt when the entry was last updated
+     * @param keys     the sorted keys within the covered interval
+     */
+    public record Entry(URI path, Instant from, Instant until, Instant listedAt, List<String> keys) {
+    }
+
+    private final Path cacheDir;
+    private final Duration ttl;
+    private final boolean refresh;
+
+    public static ListingCache from(CacheOptions cacheOptions) {
+        if (!cacheOptions.cache()) {
+            return null;
+        }
+
+        return new ListingCache(DEFAULT_CACHE_DIR, cacheOptions.cacheTTL(), cacheOptions.refreshCache());
+    }
+
+    public ListingCache(Path cacheDir, Duration ttl, boolean refresh) {
+        this.cacheDir = cacheDir;
+        this.ttl = ttl;
+        this.refresh = refresh;
+    }
+
+    public Duration ttl() {
+        return ttl;
+    }
+
+    public Optional<Entry> get(URI path) {
+        if (refresh) {
+            return Optional.empty();
+        }
+
+        Path file = fileFor(path);
+
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+
+        try {
+            Entry entry = JSONUtil.readAsObjectSafe(file, Entry.class);
+
+            if (!path.equals(entry.path())) {
+                return Optional.empty();
+            }
+
+            return Optional.of(entry);
+        } catch (RuntimeException e) {
+            LOG.warn("ignoring unreadable listing cache: {}, {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public void put(Entry entry) {
+        Path file = fileFor(entry.path());
+
+        try {
+            Files.createDirectories(cacheDir);
+
+            Path temp = Files.createTempFile(cacheDir, file.getFileName().toString(), ".tmp");
+            JSONUtil.writeAsStringSafe(temp, entry);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | UncheckedIOException e) {
+            // the cache is an optimization, never fail the report
+            LOG.warn("unable to write listing cache: {}, {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the instant before which the lots of the entry may be trusted, if the entry covers the given instant.
+     * <p>
+     * A lot still open when the entry was listed may have changed since, no matter how long ago that was.
+     */
+    public Optional<Instant> trustedUntil(Entry entry, Instant from) {
+        if (entry.from().isAfter(from)) {
+            return Optional.empty();
+        }
+
+        Instant settled = entry.listedAt().minus(ttl);
+        Instant trustedUntil = entry.until().isBefore(settled) ? entry.until() : settled;
+
+        if (!trustedUntil.isAfter(from)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(trustedUntil);
+    }
+
+    /**
+     * Retains the cached keys before the trusted key, followed by the keys listed from the trusted instant.
+     *
+     * @param cached       the cached entry
+     * @param trustedUntil the instant returned by {@link #trustedUntil(Entry, Instant)}
+     * @param trustedKey   the key of the lot of the trusted instant
+     * @param listedUntil  the instant listed until, exclusive
+     * @param listed       the sorted keys listed, may be empty if nothing needed listing
+     * @param listedAt     when the keys were listed
+     */
+    public static Entry merge(Entry cached, Instant trustedUntil, String trustedKey, Instant listedUntil, List<String> listed, Instant listedAt) {
+        List<String> keys = new ArrayList<>();
+
+        cached.keys().stream()
+                .filter(key -> key.compareTo(trustedKey) < 0)
+                .forEach(keys::add);
+
+        keys.addAll(listed);
+
+        Instant until = listedUntil.isAfter(trustedUntil) ? listedUntil : trustedUntil;
+
+        return new Entry(cached.path(), cached.from(), until, listedAt, keys);
+    }
+
+    protected Path fileFor(URI path) {
+        String name = Hashing.sha256()
+                .hashString(path.toString(), StandardCharsets.UTF_8)
+                .toString();
+
+        return cacheDir.resolve(name + ".json");
+    }
+}
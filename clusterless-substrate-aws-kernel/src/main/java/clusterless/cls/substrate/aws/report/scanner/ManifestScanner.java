@@ -12,6 +12,7 @@ import clusterless.cls.model.manifest.ManifestState;
 import clusterless.cls.substrate.aws.report.DatasetRecord;
 import clusterless.cls.substrate.aws.report.DatasetStatusRecord;
 import clusterless.cls.substrate.aws.report.DatasetStatusSummaryRecord;
+import clusterless.cls.substrate.aws.sdk.S3;
 import clusterless.cls.substrate.uri.ManifestURI;
 import clusterless.cls.substrate.uri.StateURI;
 import clusterless.cls.util.Moment;
@@ -25,6 +26,10 @@ public class ManifestScanner extends Scanner<DatasetRecord, DatasetStatusRecord,
         super(profile, datasetRecord, earliest, latest);
     }
 
+    public ManifestScanner(String profile, DatasetRecord datasetRecord, Moment earliest, Moment latest, ListingCache listingCache) {
+        super(profile, datasetRecord, earliest, latest, listingCache);
+    }
+
     @Override
     protected StateURI<?, ?> createStateURIFrom(DatasetRecord record) {
         return ManifestURI.builder()
@@ -34,7 +39,7 @@ public class ManifestScanner extends Scanner<DatasetRecord, DatasetStatusRecord,
     }
 
     @NotNull
-    protected Stream<DatasetStatusRecord> parseStreamIntoUri(Stream<String> resultStream) {
+    protected Stream<DatasetStatusRecord> parseStreamIntoUri(S3 s3, Stream<String> resultStream) {
         return resultStream.map(ManifestURI::parse)
                 .map(uri -> new DatasetStatusRecord(record, uri.lotId(), uri.state()));
     }
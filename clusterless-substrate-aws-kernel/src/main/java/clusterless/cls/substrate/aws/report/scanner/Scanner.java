@@ -11,10 +11,11 @@ package clusterless.cls.substrate.aws.report.scanner;
 import clusterless.cls.model.State;
 import clusterless.cls.substrate.aws.report.StatusRecord;
 import clusterless.cls.substrate.aws.report.StatusSummaryRecord;
-import clusterless.cls.substrate.aws.sdk.ClientBase;
+import clusterless.cls.substrate.aws.sdk.ParallelLister;
 import clusterless.cls.substrate.aws.sdk.S3;
 import clusterless.cls.substrate.uri.StateURI;
 import clusterless.cls.util.Moment;
+import clusterless.cls.util.URIs;
 import clusterless.commons.temporal.IntervalUnits;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
@@ -24,11 +25,17 @@ import java.net.URI;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.TemporalUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 public abstract class Scanner<Rec, StatusRec extends StatusRecord<S>, StatusSummaryRec extends StatusSummaryRecord<S>, S extends State> {
     protected static final Logger LOG = LoggerFactory.getLogger(ArcScanner.class);
+    /**
+     * The lot range is split into this many sub-ranges per listing thread, so uneven ranges still balance.
+     */
+    protected static final int RANGES_PER_THREAD = 4;
     protected final String profile;
     protected final Rec record;
     protected final StateURI<?, ?> stateURI;
@@ -38,10 +45,20 @@ public abstract class Scanner<Rec, StatusRec extends StatusRecord<S>, StatusSumm
     protected final String endLotExclusive;
     private final Instant earliestInstant;
     private final Instant latestInstant;
+    protected int concurrency = ParallelLister.DEFAULT_CONCURRENCY;
+    protected final ListingCache listingCache;
 
     public Scanner(String profile, Rec record, Moment earliest, Moment latest) {
+        this(profile, record, earliest, latest, null);
+    }
+
+    /**
+     * @param listingCache may be null to always list from S3
+     */
+    public Scanner(String profile, Rec record, Moment earliest, Moment latest, ListingCache listingCache) {
         this.profile = profile;
         this.record = record;
+        this.listingCache = listingCache;
         LOG.info("creating scanner for: {}", record);
 
         this.stateURI = createStateURIFrom(record);
@@ -70,28 +87,109 @@ public abstract class Scanner<Rec, StatusRec extends StatusRecord<S>, StatusSumm
         S3 s3 = new S3(profile);
         LOG.info("using profile: {}", profile);
 
+        if (listingCache == null) {
+            return parseStreamIntoUri(s3, listKeys(s3, earliestInstant, latestInstant).stream());
+        }
+
+        return parseStreamIntoUri(s3, scanWithCache(s3).stream());
+    }
+
+    /**
+     * Lists only the lots not already held by the cache, or not yet settled when cached, then updates the cache.
+     */
+    protected List<String> scanWithCache(S3 s3) {
         URI path = stateURI.uriPath();
-        // since no state information is associated, the lot id is inclusive as the next actual key is the object
-        URI startInclusive = stateURI.withLot(startLotInclusive).uriPath();
-        URI endExclusive = stateURI.withLot(endLotExclusive).uriPath();
-        final ClientBase<?>.Response[] response = new ClientBase.Response[]{null};
+        Optional<ListingCache.Entry> cached = listingCache.get(path);
+
+        // the cache may be used if it covers the start of the range, up to the lots settled when it was listed
+        Optional<Instant> trustedUntil = cached.flatMap(entry -> listingCache.trustedUntil(entry, earliestInstant));
+
+        Instant listFrom = trustedUntil.map(instant -> min(instant, latestInstant)).orElse(earliestInstant);
 
-        LOG.info("scanning earliest: {}, latest: {}", startInclusive, endExclusive);
-        S3.Responses responses = s3.listObjectsIterable(path, startInclusive);
+        String startKey = lotKey(earliestInstant);
+        String listFromKey = lotKey(listFrom);
+        String endKey = lotKey(latestInstant);
 
-        Stream<String> resultStream = s3.listChildrenStream(responses, endExclusive, objectName(), r -> response[0] = r);
+        Instant listedAt = Instant.now();
+        List<String> listed = listFrom.isBefore(latestInstant) && !listFromKey.equals(endKey) ? listKeys(s3, listFrom, latestInstant) : List.of();
 
-        try {
-            return parseStreamIntoUri(resultStream);
-        } finally {
-            if (response[0] != null) {
-                response[0].isSuccessOrThrow(e -> new RuntimeException("unable to list objects at: " + path, e));
+        LOG.info("listing cache: {}, cached lots before: {}, listed: {}", trustedUntil.isPresent() ? "hit" : "miss", listFromKey, listed.size());
+
+        ListingCache.Entry entry = trustedUntil
+                .map(instant -> ListingCache.merge(cached.get(), instant, lotKey(instant), latestInstant, listed, listedAt))
+                .orElseGet(() -> new ListingCache.Entry(path, earliestInstant, latestInstant, listedAt, listed));
+
+        listingCache.put(entry);
+
+        return entry.keys().stream()
+                .filter(key -> key.compareTo(startKey) >= 0 && key.compareTo(endKey) < 0)
+                .toList();
+    }
+
+    protected List<String> listKeys(S3 s3, Instant from, Instant until) {
+        URI path = stateURI.uriPath();
+        List<ParallelLister.Range> ranges = lotRanges(from, until);
+
+        LOG.info("scanning earliest: {}, latest: {}, ranges: {}, concurrency: {}", lotKey(from), lotKey(until), ranges.size(), concurrency);
+
+        return new ParallelLister(s3, concurrency)
+                .list(path, ranges)
+                .filter(key -> key.endsWith(objectName())) // only return objects, not directories
+                .toList();
+    }
+
+    private String lotKey(Instant instant) {
+        return URIs.asKey(stateURI.withLot(IntervalUnits.formatter(temporalUnit).format(instant)).uriPath());
+    }
+
+    private static Instant min(Instant lhs, Instant rhs) {
+        return lhs.isBefore(rhs) ? lhs : rhs;
+    }
+
+    /**
+     * Splits the lots in [from, until) into contiguous ranges of whole intervals.
+     */
+    protected List<ParallelLister.Range> lotRanges(Instant from, Instant until) {
+        long intervals = Math.max(1, Duration.between(from, until).dividedBy(temporalUnit.getDuration()));
+        long maxRanges = (long) concurrency * RANGES_PER_THREAD;
+        long intervalsPerRange = Math.max(1, (intervals + maxRanges - 1) / maxRanges);
+
+        String startLot = IntervalUnits.formatter(temporalUnit).format(from);
+        String endLot = IntervalUnits.formatter(temporalUnit).format(until);
+
+        List<String> lots = new ArrayList<>();
+        lots.add(startLot);
+
+        Instant current = from.plus(intervalsPerRange, temporalUnit);
+        while (current.isBefore(until)) {
+            String lot = IntervalUnits.formatter(temporalUnit).format(current);
+
+            if (!lot.equals(lots.get(lots.size() - 1))) {
+                lots.add(lot);
             }
+
+            current = current.plus(intervalsPerRange, temporalUnit);
+        }
+
+        if (!endLot.equals(lots.get(lots.size() - 1))) {
+            lots.add(endLot);
+        }
+
+        List<ParallelLister.Range> ranges = new ArrayList<>(lots.size() - 1);
+
+        // since no state information is associated, the lot id is inclusive as the next actual key is the object
+        for (int i = 0; i < lots.size() - 1; i++) {
+            ranges.add(new ParallelLister.Range(
+                    stateURI.withLot(lots.get(i)).uriPath(),
+                    stateURI.withLot(lots.get(i + 1)).uriPath()
+            ));
         }
+
+        return ranges;
     }
 
     @NotNull
-    protected abstract Stream<StatusRec> parseStreamIntoUri(Stream<String> resultStream);
+    protected abstract Stream<StatusRec> parseStreamIntoUri(S3 s3, Stream<String> resultStream);
 
     protected TemporalUnit findTemporalKeyFor(StateURI<?, ?> stateURI) {
         // discover interval
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.cls.substrate.aws.report.scanner;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ *
+ */
+public class ListingCacheTest {
+    @TempDir
+    Path cacheDir;
+
+    URI path = URI.create("s3://bucket/arcs/project=p/arc=a/");
+
+    ListingCache.Entry entry() {
+        Instant now = Instant.parse("2023-01-02T00:00:00Z");
+        return new ListingCache.Entry(path, now.minus(Duration.ofDays(1)), now, now, List.of("arcs/project=p/arc=a/lot=20230101/complete.arc"));
+    }
+
+    @Test
+    void roundTrip() {
+        ListingCache cache = new ListingCache(cacheDir, Duration.ofHours(1), false);
+
+        Assertions.assertTrue(cache.get(path).isEmpty());
+
+        cache.put(entry());
+
+        Assertions.assertEquals(entry(), cache.get(path).orElseThrow());
+        Assertions.assertTrue(cache.get(URI.create("s3://bucket/arcs/project=p/arc=b/")).isEmpty());
+    }
+
+    @Test
+    void refresh() {
+        new ListingCache(cacheDir, Duration.ofHours(1), false).put(entry());
+
+        Assertions.assertTrue(new ListingCache(cacheDir, Duration.ofHours(1), true).get(path).isEmpty());
+    }
+
+    String key(String lot, String state) {
+        return "arcs/project=p/arc=a/lot=%s/%s.arc".formatted(lot, state);
+    }
+
+    String lotKey(String lot) {
+        return "arcs/project=p/arc=a/lot=%s/".formatted(lot);
+    }
+
+    @Test
+    void coversRangeStart() {
+        ListingCache cache = new ListingCache(cacheDir, Duration.ofHours(1), false);
+
+        ListingCache.Entry entry = new ListingCache.Entry(path, Instant.parse("2023-01-01T00:00:00Z"), Instant.parse("2023-01-05T00:00:00Z"), Instant.parse("2023-01-10T00:00:00Z"), List.of());
+
+        Assertions.assertEquals(Instant.parse("2023-01-05T00:00:00Z"), cache.trustedUntil(entry, Instant.parse("2023-01-02T00:00:00Z")).orElseThrow());
+        Assertions.assertEquals(Instant.parse("2023-01-05T00:00:00Z"), cache.trustedUntil(entry, Instant.parse("2023-01-01T00:00:00Z")).orElseThrow());
+
+        // starts before the entry, or after the trusted lots
+        Assertions.assertTrue(cache.trustedUntil(entry, Instant.parse("2022-12-31T00:00:00Z")).isEmpty());
+        Assertions.assertTrue(cache.trustedUntil(entry, Instant.parse("2023-01-05T00:00:00Z")).isEmpty());
+    }
+
+    @Test
+    void partial() {
+        ListingCache cache = new ListingCache(cacheDir, Duration.ofHours(1), false);
+
+        ListingCache.Entry entry = new ListingCache.Entry(
+                path,
+                Instant.parse("2023-01-01T00:00:00Z"),
+                Instant.parse("2023-01-03T00:00:00Z"),
+                Instant.parse("2023-01-10T00:00:00Z"),
+                List.of(key("20230101", "complete"), key("20230102", "complete"))
+        );
+
+        Instant trustedUntil = cache.trustedUntil(entry, Instant.parse("2023-01-01T00:00:00Z")).orElseThrow();
+
+        Assertions.assertEquals(Instant.parse("2023-01-03T00:00:00Z"), trustedUntil);
+
+        Instant listedAt = Instant.parse("2023-01-11T00:00:00Z");
+        ListingCache.Entry merged = ListingCache.merge(entry, trustedUntil, lotKey("20230103"), Instant.parse("2023-01-05T00:00:00Z"), List.of(key("20230103", "complete"), key("20230104", "complete")), listedAt);
+
+        Assertions.assertEquals(Instant.parse("2023-01-01T00:00:00Z"), merged.from());
+        Assertions.assertEquals(Instant.parse("2023-01-05T00:00:00Z"), merged.until());
+        Assertions.assertEquals(listedAt, merged.listedAt());
+        Assertions.assertEquals(List.of(key("20230101", "complete"), key("20230102", "complete"), key("20230103", "complete"), key("20230104", "complete")), merged.keys());
+
+        // the cache covers more than the range, nothing is listed and the later lots are retained
+        merged = ListingCache.merge(merged, Instant.parse("2023-01-05T00:00:00Z"), lotKey("20230105"), Instant.parse("2023-01-03T00:00:00Z"), List.of(), listedAt);
+
+        Assertions.assertEquals(Instant.parse("2023-01-05T00:00:00Z"), merged.until());
+        Assertions.assertEquals(4, merged.keys().size());
+    }
+
+    @Test
+    void stale() {
+        ListingCache cache = new ListingCache(cacheDir, Duration.ofHours(1), false);
+
+        // listed shortly after the 20230103 lot began, while it was still running
+        ListingCache.Entry entry = new ListingCache.Entry(
+                path,
+                Instant.parse("2023-01-01T00:00:00Z"),
+                Instant.parse("2023-01-04T00:00:00Z"),
+                Instant.parse("2023-01-03T00:30:00Z"),
+                List.of(key("20230101", "complete"), key("20230102", "complete"), key("20230103", "running"))
+        );
+
+        // no matter how much later the cache is read, lots not settled when listed are not trusted
+        Instant trustedUntil = cache.trustedUntil(entry, Instant.parse("2023-01-01T00:00:00Z")).orElseThrow();
+
+        Assertions.assertEquals(Instant.parse("2023-01-02T23:30:00Z"), trustedUntil);
+
+        ListingCache.Entry merged = ListingCache.merge(entry, trustedUntil, lotKey("20230102"), Instant.parse("2023-01-04T00:00:00Z"), List.of(key("20230102", "complete"), key("20230103", "complete")), Instant.parse("2023-02-01T00:00:00Z"));
+
+        Assertions.assertEquals(List.of(key("20230101", "complete"), key("20230102", "complete"), key("20230103", "complete")), merged.keys());
+
+        // once listed after the lot settled, the lot is trusted
+        Assertions.assertEquals(Instant.parse("2023-01-04T00:00:00Z"), cache.trustedUntil(merged, Instant.parse("2023-01-01T00:00:00Z")).orElseThrow());
+    }
+}
@@ -23,6 +23,7 @@ public class ArcStateProps implements Struct {
     Map<String, SinkDataset> sinks;
     ArcStateURI arcStatePath;
     String eventBusName;
+    boolean conditionalState = false;
 
     public static Builder builder() {
         return Builder.anArcStateProps();
@@ -52,6 +53,10 @@ public class ArcStateProps implements Struct {
         return eventBusName;
     }
 
+    public boolean conditionalState() {
+        return conditionalState;
+    }
+
     public static final class Builder {
         Project project;
         String name;
@@ -59,6 +64,7 @@ public class ArcStateProps implements Struct {
         Map<String, SinkDataset> sinks;
         ArcStateURI arcStatePath;
         String eventBusName;
+        boolean conditionalState = false;
 
         private Builder() {
         }
@@ -97,6 +103,11 @@ public class ArcStateProps implements Struct {
             return this;
         }
 
+        public Builder withConditionalState(boolean conditionalState) {
+            this.conditionalState = conditionalState;
+            return this;
+        }
+
         public ArcStateProps build() {
             ArcStateProps arcStateProps = new ArcStateProps();
             arcStateProps.project = this.project;
@@ -105,6 +116,7 @@ public class ArcStateProps implements Struct {
             arcStateProps.sources = this.sources;
             arcStateProps.name = this.name;
             arcStateProps.arcStatePath = this.arcStatePath;
+            arcStateProps.conditionalState = this.conditionalState;
             return arcStateProps;
         }
     }
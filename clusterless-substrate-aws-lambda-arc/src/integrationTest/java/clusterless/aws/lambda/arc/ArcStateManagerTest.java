@@ -32,12 +32,16 @@ public class ArcStateManagerTest extends LocalStackBase {
                 .build();
     }
 
+    protected ArcStateManager createArcStateManager() {
+        return new ArcStateManager(getProps().arcStatePath());
+    }
+
     /**
      * Embedded in a single test as we don't need to initialize the state between runs
      */
     @Test
     void states() {
-        ArcStateManager arcStateManager = new ArcStateManager(getProps().arcStatePath());
+        ArcStateManager arcStateManager = createArcStateManager();
 
         new TestLots().lotStream(5).forEach(lot -> {
             testStateTransition(arcStateManager, null, ArcState.running, ArcState.complete, lot);
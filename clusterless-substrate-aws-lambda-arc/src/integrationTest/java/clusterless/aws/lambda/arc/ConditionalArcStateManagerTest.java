@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package clusterless.aws.lambda.arc;
+
+import clusterless.aws.lambda.TestLots;
+import clusterless.cls.model.state.ArcState;
+import clusterless.cls.substrate.aws.sdk.S3;
+import clusterless.cls.substrate.uri.ArcStateURI;
+import clusterless.cls.util.URIs;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+public class ConditionalArcStateManagerTest extends ArcStateManagerTest {
+    @Override
+    protected ArcStateManager createArcStateManager() {
+        return new ConditionalArcStateManager(getProps().arcStatePath());
+    }
+
+    @Test
+    void race() {
+        ArcStateManager first = createArcStateManager();
+        ArcStateManager second = createArcStateManager();
+
+        // a lot not used by the states test
+        String lotId = new TestLots().lots(6).get(5);
+
+        Assertions.assertTrue(first.findStateFor(lotId).isEmpty());
+        Assertions.assertTrue(second.findStateFor(lotId).isEmpty());
+
+        first.setStateFor(lotId, ArcState.running);
+
+        Assertions.assertThrows(IllegalStateException.class, () -> second.setStateFor(lotId, ArcState.running));
+
+        Assertions.assertEquals(ArcState.running, second.findStateFor(lotId).orElse(null));
+        Assertions.assertEquals(ArcState.running, second.setStateFor(lotId, ArcState.complete, "done").orElse(null));
+
+        Assertions.assertThrows(IllegalStateException.class, () -> first.setStateFor(lotId, ArcState.complete));
+    }
+
+    /**
+     * A found state is transitioned without being read again, a concurrent change fails the transition.
+     */
+    @Test
+    void foundState() {
+        ArcStateManager first = createArcStateManager();
+        ArcStateManager second = createArcStateManager();
+
+        String lotId = new TestLots().lots(8).get(7);
+
+        ArcStateManager.LotState firstFound = first.findLotStateFor(lotId);
+        ArcStateManager.LotState secondFound = second.findLotStateFor(lotId);
+
+        Assertions.assertTrue(firstFound.state().isEmpty());
+        Assertions.assertTrue(secondFound.state().isEmpty());
+
+        Assertions.assertTrue(first.setStateFor(firstFound, ArcState.running).isEmpty());
+
+        Assertions.assertThrows(IllegalStateException.class, () -> second.setStateFor(secondFound, ArcState.running));
+
+        ArcStateManager.LotState running = second.findLotStateFor(lotId);
+
+        Assertions.assertEquals(ArcState.running, running.state().orElse(null));
+        Assertions.assertEquals(ArcState.running, second.setStateFor(running, ArcState.complete).orElse(null));
+
+        // the found state is stale once transitioned
+        Assertions.assertThrows(IllegalStateException.class, () -> second.setStateFor(running, ArcState.partial));
+    }
+
+    /**
+     * A retried conditional put fails its condition against its own write, it must be seen as a success.
+     */
+    @Test
+    void retriedPut() {
+        S3 s3 = new S3();
+
+        String lotId = new TestLots().lots(7).get(6);
+        URI identifier = URIs.copyAppend(getProps().arcStatePath().withLot(lotId).uri(), "retried.arc");
+        Map<String, String> metadata = Map.of(ArcStateURI.STATE_METADATA, ArcState.running.name());
+
+        ByteBuffer body = ByteBuffer.wrap("payload".getBytes(StandardCharsets.UTF_8));
+        ByteBuffer other = ByteBuffer.wrap("other".getBytes(StandardCharsets.UTF_8));
+
+        Assertions.assertTrue(s3.putIfMatch(identifier, "application/txt", body, metadata, null).isSuccess());
+        Assertions.assertTrue(s3.putIfMatch(identifier, "application/txt", body, metadata, null).isSuccess());
+        Assertions.assertTrue(s3.putIfMatch(identifier, "application/txt", other, metadata, null).isPreconditionFailed());
+        Assertions.assertTrue(s3.putIfMatch(identifier, "application/txt", body, Map.of(ArcStateURI.STATE_METADATA, ArcState.complete.name()), null).isPreconditionFailed());
+    }
+}
@@ -13,6 +13,7 @@ import clusterless.cls.model.manifest.ManifestState;
 import clusterless.cls.model.state.ArcState;
 import clusterless.cls.substrate.aws.event.ArcStateContext;
 import clusterless.cls.substrate.aws.event.ArcWorkloadContext;
+import clusterless.cls.substrate.aws.sdk.EventBatch;
 import clusterless.cls.substrate.uri.ManifestURI;
 import clusterless.cls.substrate.uri.StateURI;
 import clusterless.cls.util.Env;
@@ -35,7 +36,7 @@ public class ArcStateCompleteHandler extends StreamResultHandler<ArcStateContext
                     .build()
     );
 
-    protected ArcStateManager arcStateManager = new ArcStateManager(arcStateProps.arcStatePath());
+    protected ArcStateManager arcStateManager = ArcStateManager.of(arcStateProps);
 
     protected Map<String, ArcNotifyEventPublisher> eventPublishers = ArcNotifyEventPublisher.publishers(
             arcStateProps.eventBusName(),
@@ -131,17 +132,20 @@ public class ArcStateCompleteHandler extends StreamResultHandler<ArcStateContext
         String lotId = stateContext.arcWorkloadContext().arcNotifyEvent().lot();
 
         if (newArcState == ArcState.complete) {
-            // push notify on each sink
-            for (Map.Entry<String, URI> entry : sinkManifests.entrySet()) {
-                String role = entry.getKey();
-                URI manifestURI = entry.getValue();
-
-                // TODO: add status of arc
-                eventPublishers.get(role).publishEvent(lotId, manifestURI);
+            // push notify on each sink, in as few requests as possible
+            try (EventBatch eventBatch = new EventBatch()) {
+                for (Map.Entry<String, URI> entry : sinkManifests.entrySet()) {
+                    String role = entry.getKey();
+                    URI manifestURI = entry.getValue();
+
+                    // TODO: add status of arc
+                    eventPublishers.get(role).publishEvent(lotId, manifestURI, eventBatch);
+                }
             }
         }
 
-        // change state to complete/partial
+        // change state to complete/partial, the state is read by the manager as the start handler ran in another
+        // invocation, the payload is appended to the body read
         Optional<ArcState> priorArcState = arcStateManager.setStateFor(lotId, newArcState, hasWorkloadError ? workloadError : null);
 
         // confirm there isn't some race condition
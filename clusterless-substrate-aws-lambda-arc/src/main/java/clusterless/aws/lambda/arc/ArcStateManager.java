@@ -24,10 +24,32 @@ import java.util.stream.Collectors;
 
 public class ArcStateManager {
     private static final Logger LOG = LogManager.getLogger(ArcStateManager.class);
-    private final S3 s3 = new S3();
+    protected final S3 s3 = new S3();
 
     final ArcStateURI arcStatePath;
 
+    /**
+     * The state of a lot as found by {@link #findLotStateFor(String)}, passed back to
+     * {@link #setStateFor(LotState, ArcState, Object)} so the transition can be made against what was found.
+     */
+    public static class LotState {
+        final String lotId;
+        final ArcState state;
+
+        protected LotState(String lotId, ArcState state) {
+            this.lotId = lotId;
+            this.state = state;
+        }
+
+        public String lotId() {
+            return lotId;
+        }
+
+        public Optional<ArcState> state() {
+            return Optional.ofNullable(state);
+        }
+    }
+
     public ArcStateManager(ArcStateURI arcStatePath) {
         Objects.requireNonNull(arcStatePath, "arcStatePath");
         this.arcStatePath = arcStatePath;
@@ -37,6 +59,17 @@ public class ArcStateManager {
         }
     }
 
+    /**
+     * @return a {@link ConditionalArcStateManager} if the props enable a conditional state store
+     */
+    public static ArcStateManager of(ArcStateProps arcStateProps) {
+        if (arcStateProps.conditionalState()) {
+            return new ConditionalArcStateManager(arcStateProps.arcStatePath());
+        }
+
+        return new ArcStateManager(arcStateProps.arcStatePath());
+    }
+
     /**
      * @param lotId
      * @return
@@ -75,6 +108,24 @@ public class ArcStateManager {
         return currentState;
     }
 
+    /**
+     * Transitions the lot from the given found state.
+     * <p>
+     * The state is found again by this manager, the returned prior state must be compared with the found state
+     * by the caller.
+     */
+    public Optional<ArcState> setStateFor(LotState current, ArcState newState) {
+        return setStateFor(current, newState, null);
+    }
+
+    public Optional<ArcState> setStateFor(LotState current, ArcState newState, Object payload) {
+        return setStateFor(current.lotId(), newState, payload);
+    }
+
+    public LotState findLotStateFor(String lotId) {
+        return new LotState(lotId, findStateFor(lotId).orElse(null));
+    }
+
     public Optional<ArcState> findStateFor(String lotId) {
         //  s3://state_bucket/{project}/{version}/{arc}/{lot}/
         URI path = arcStatePath.withLot(lotId).uri();
@@ -34,7 +34,7 @@ public class ArcStateStartHandler extends StreamResultHandler<ArcNotifyEvent, Ar
                     .build()
     );
 
-    ArcStateManager arcStateManager = new ArcStateManager(arcStateProps.arcStatePath());
+    ArcStateManager arcStateManager = ArcStateManager.of(arcStateProps);
 
     protected ArcStateStartHandler(ArcStateManager arcStateManager) {
         this();
@@ -79,7 +79,8 @@ public class ArcStateStartHandler extends StreamResultHandler<ArcNotifyEvent, Ar
         String lotId = event.lot();
 
         // get arc state
-        Optional<ArcState> currentState = arcStateManager.findStateFor(lotId);
+        ArcStateManager.LotState lotState = arcStateManager.findLotStateFor(lotId);
+        Optional<ArcState> currentState = lotState.state();
 
         eventObserver.applyCurrentState(lotId, currentState.orElse(null));
 
@@ -115,7 +116,7 @@ public class ArcStateStartHandler extends StreamResultHandler<ArcNotifyEvent, Ar
         }
 
         // set to running
-        Optional<ArcState> previousState = arcStateManager.setStateFor(lotId, ArcState.running);
+        Optional<ArcState> previousState = arcStateManager.setStateFor(lotState, ArcState.running);
 
         // confirm there isn't some race condition
         // TODO: create new exception to capture in state machine
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package clusterless.aws.lambda.arc;
+
+import clusterless.cls.json.JSONUtil;
+import clusterless.cls.model.state.ArcState;
+import clusterless.cls.substrate.aws.sdk.S3;
+import clusterless.cls.substrate.uri.ArcStateURI;
+import clusterless.cls.util.URIs;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Stores the state of each lot in a single object, {@code {lot}/lot.arc}, the state is held in the object
+ * metadata and any payloads are appended to the object body.
+ * <p>
+ * A transition is a single conditional PUT, If-Match the ETag read, or If-None-Match if the lot has no state.
+ * A concurrent transition fails the condition and throws an {@link IllegalStateException}, instead of being
+ * detected after the fact.
+ * <p>
+ * A caller that has already found the state with {@link #findLotStateFor(String)} passes it back to
+ * {@link #setStateFor(LotState, ArcState, Object)}, so the object is not read again. The found state is held by
+ * the caller, not the manager, as a manager is retained across invocations of a warm lambda. Otherwise, the
+ * transition reads the object first.
+ */
+public class ConditionalArcStateManager extends ArcStateManager {
+    private static final Logger LOG = LogManager.getLogger(ConditionalArcStateManager.class);
+
+    static class Snapshot extends LotState {
+        final String eTag;
+        final ByteBuffer body;
+
+        Snapshot(String lotId, ArcState state, String eTag, ByteBuffer body) {
+            super(lotId, state);
+            this.eTag = eTag;
+            this.body = body;
+        }
+    }
+
+    public ConditionalArcStateManager(ArcStateURI arcStatePath) {
+        super(arcStatePath);
+    }
+
+    @Override
+    public Optional<ArcState> setStateFor(String lotId, ArcState newState, Object payload) {
+        return setStateFor(read(lotId), newState, payload);
+    }
+
+    @Override
+    public Optional<ArcState> setStateFor(LotState lotState, ArcState newState, Object payload) {
+        if (!(lotState instanceof Snapshot current)) {
+            throw new IllegalArgumentException("lot state not found by this manager: " + lotState.lotId());
+        }
+
+        String lotId = current.lotId();
+
+        if (current.state == newState) {
+            throw new IllegalStateException("already in current state: " + newState);
+        }
+
+        LOG.info("found current state: {}", current.state);
+
+        URI identifier = lotStateIdentifier(lotId);
+
+        LOG.info("setting arc state to: {}, at: {}", newState, identifier);
+
+        ByteBuffer body = payload == null ? current.body : appendLine(current.body, JSONUtil.writeAsStringSafe(payload));
+
+        S3.Response response = s3.putIfMatch(identifier, "application/txt", body, Map.of(ArcStateURI.STATE_METADATA, newState.name()), current.eTag);
+
+        if (response.isPreconditionFailed()) {
+            throw new IllegalStateException("unexpected state change for lot: " + lotId + ", from: " + current.state + ", to: " + newState);
+        }
+
+        response.isSuccessOrThrow(e -> new RuntimeException("unable to set state at: " + identifier, e));
+
+        return current.state();
+    }
+
+    @Override
+    public LotState findLotStateFor(String lotId) {
+        Snapshot snapshot = read(lotId);
+
+        LOG.info("found state: {}", snapshot.state);
+
+        return snapshot;
+    }
+
+    @Override
+    public Optional<ArcState> findStateFor(String lotId) {
+        return findLotStateFor(lotId).state();
+    }
+
+    private Snapshot read(String lotId) {
+        URI identifier = lotStateIdentifier(lotId);
+
+        LOG.info("reading state for: {}", identifier);
+
+        S3.Response response = s3.get(identifier);
+
+        if (response.isNotFound()) {
+            return new Snapshot(lotId, null, null, ByteBuffer.allocate(0));
+        }
+
+        response.isSuccessOrThrow(e -> new RuntimeException("unable to read state at: " + identifier, e));
+
+        ArcState state = ArcState.parse(s3.metadata(response).get(ArcStateURI.STATE_METADATA));
+
+        if (state == null) {
+            throw new IllegalStateException("no arc state found in metadata of: " + identifier);
+        }
+
+        return new Snapshot(lotId, state, s3.eTag(response), response.asByteBuffer());
+    }
+
+    private URI lotStateIdentifier(String lotId) {
+        //  s3://state_bucket/{project}/{version}/{arc}/{lot}/lot.arc
+        return URIs.copyAppend(arcStatePath.withLot(lotId).uri(), ArcStateURI.LOT_STATE_OBJECT);
+    }
+
+    private static ByteBuffer appendLine(ByteBuffer body, String line) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        boolean hasBody = body.remaining() != 0;
+        ByteBuffer buffer = ByteBuffer.allocate(body.remaining() + bytes.length + (hasBody ? 1 : 0));
+
+        buffer.put(body.duplicate());
+
+        if (hasBody) {
+            buffer.put((byte) '\n');
+        }
+
+        buffer.put(bytes);
+
+        return buffer.flip();
+    }
+}
@@ -83,6 +83,7 @@ public class EventSerializationTest extends LambdaHandlerTestBase {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 
         ArcStateManager arcStateManager = mock();
+        when(arcStateManager.findLotStateFor(anyString())).thenReturn(new ArcStateManager.LotState(lotId, null));
 
         new ArcStateStartHandler(arcStateManager).handleRequest(inputStream, outputStream, null);
 
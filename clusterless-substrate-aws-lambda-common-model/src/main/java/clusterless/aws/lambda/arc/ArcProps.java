@@ -12,6 +12,8 @@ import clusterless.cls.model.Struct;
 import clusterless.cls.model.deploy.SinkDataset;
 import clusterless.cls.model.deploy.SourceDataset;
 import clusterless.cls.model.deploy.WorkloadProps;
+import clusterless.cls.model.manifest.ManifestFormat;
+import clusterless.cls.model.manifest.ManifestUriEncoding;
 import clusterless.cls.substrate.uri.ManifestURI;
 
 import java.util.Map;
@@ -28,6 +30,9 @@ public class ArcProps<P extends WorkloadProps> implements Struct {
 
     P workloadProps;
 
+    ManifestFormat manifestFormat = ManifestFormat.json;
+    ManifestUriEncoding manifestUriEncoding = ManifestUriEncoding.absolute;
+
     public ArcProps() {
     }
 
@@ -55,12 +60,22 @@ public class ArcProps<P extends WorkloadProps> implements Struct {
         return workloadProps;
     }
 
+    public ManifestFormat manifestFormat() {
+        return manifestFormat;
+    }
+
+    public ManifestUriEncoding manifestUriEncoding() {
+        return manifestUriEncoding;
+    }
+
     public static final class Builder<P extends WorkloadProps> {
         Map<String, SourceDataset> sources;
         Map<String, SinkDataset> sinks;
         Map<String, ManifestURI> sourceManifestPaths;
         Map<String, ManifestURI> sinkManifestTemplates;
         P workloadProps;
+        ManifestFormat manifestFormat = ManifestFormat.json;
+        ManifestUriEncoding manifestUriEncoding = ManifestUriEncoding.absolute;
 
         private Builder() {
         }
@@ -94,6 +109,16 @@ public class ArcProps<P extends WorkloadProps> implements Struct {
             return this;
         }
 
+        public Builder<P> withManifestFormat(ManifestFormat manifestFormat) {
+            this.manifestFormat = manifestFormat;
+            return this;
+        }
+
+        public Builder<P> withManifestUriEncoding(ManifestUriEncoding manifestUriEncoding) {
+            this.manifestUriEncoding = manifestUriEncoding;
+            return this;
+        }
+
         public ArcProps<P> build() {
             ArcProps<P> arcProps = new ArcProps<P>();
             arcProps.sinkManifestTemplates = this.sinkManifestTemplates;
@@ -101,6 +126,8 @@ public class ArcProps<P extends WorkloadProps> implements Struct {
             arcProps.sources = this.sources;
             arcProps.workloadProps = this.workloadProps;
             arcProps.sourceManifestPaths = this.sourceManifestPaths;
+            arcProps.manifestFormat = this.manifestFormat;
+            arcProps.manifestUriEncoding = this.manifestUriEncoding;
             return arcProps;
         }
     }
@@ -33,6 +33,9 @@ dependencies {
     api("com.amazonaws:aws-lambda-java-core")
     api("com.amazonaws:aws-lambda-java-log4j2")
 
+    // lambda snapstart checkpoint and restore hooks
+    api("io.github.crac:org-crac")
+
     testFixturesImplementation(project(":clusterless-common"))
     testFixturesImplementation(project(":clusterless-model"))
     testFixturesImplementation(project(":clusterless-substrate-aws-common"))
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.aws.lambda;
+
+import clusterless.cls.json.JSONUtil;
+import clusterless.cls.substrate.aws.sdk.ClientPool;
+import clusterless.cls.substrate.aws.sdk.RefreshableCredentialsProvider;
+import com.fasterxml.jackson.databind.JavaType;
+import com.google.common.base.Stopwatch;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+
+import java.util.Objects;
+
+/**
+ * Primes a handler before a Lambda SnapStart checkpoint, and refreshes credentials after restore.
+ * <p>
+ * Before the checkpoint, the Jackson serializers for the handler event and result types are built, and the AWS SDK
+ * clients declared while the handler was initialized are created. No requests are made, so no connections or
+ * credentials are captured in the snapshot.
+ * <p>
+ * After restore, the credential provider chains are rebuilt so credentials are resolved in the restored environment.
+ * <p>
+ * Outside SnapStart, or a CRaC enabled JVM, registration is a no-op. The hooks may be invoked directly.
+ */
+public class SnapStartPriming implements Resource {
+    private static final Logger LOG = LogManager.getLogger(SnapStartPriming.class);
+
+    private final JavaType readType;
+    private final JavaType writeType;
+
+    /**
+     * Registers priming for the given types, the caller must retain the returned instance as the global
+     * context only holds a weak reference to it.
+     *
+     * @param readType  the handler event type
+     * @param writeType the handler result type, may be null
+     */
+    public static SnapStartPriming register(JavaType readType, JavaType writeType) {
+        SnapStartPriming priming = new SnapStartPriming(readType, writeType);
+
+        Core.getGlobalContext().register(priming);
+
+        return priming;
+    }
+
+    public SnapStartPriming(JavaType readType, JavaType writeType) {
+        Objects.requireNonNull(readType, "readType");
+        this.readType = readType;
+        this.writeType = writeType;
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+
+        boolean serializers = JSONUtil.OBJECT_MAPPER.canDeserialize(readType);
+
+        if (writeType != null) {
+            serializers &= JSONUtil.OBJECT_MAPPER.canSerialize(writeType.getRawClass());
+        }
+
+        int clients = ClientPool.prime();
+
+        LOG.info("primed before checkpoint, serializers: {}, clients created: {}, duration: {}", serializers, clients, stopwatch.elapsed());
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) {
+        int providers = RefreshableCredentialsProvider.refreshAll();
+
+        LOG.info("refreshed after restore, credential providers: {}, client pool: {}", providers, ClientPool.stats());
+    }
+}
@@ -9,6 +9,8 @@
 package clusterless.aws.lambda;
 
 import clusterless.cls.json.JSONUtil;
+import clusterless.cls.substrate.aws.sdk.ClientPool;
+import clusterless.cls.substrate.aws.sdk.RetryMetrics;
 import clusterless.cls.util.Memory;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
@@ -35,8 +37,11 @@ public abstract class StreamHandler<E> implements RequestStreamHandler {
 
     protected ObjectReader reader;
 
+    protected final SnapStartPriming priming;
+
     public StreamHandler(Class<E> type) {
         this.reader = objectReaderFor(type);
+        this.priming = SnapStartPriming.register(reader.getValueType(), null);
     }
 
     public void handleRequest(InputStream input, OutputStream output, Context context) throws IOException {
@@ -51,6 +56,8 @@ public abstract class StreamHandler<E> implements RequestStreamHandler {
 
             LOG.info("memory: {}", Memory.memoryUsage());
             LOG.info("duration: {}", stopwatch.elapsed());
+            LOG.info("client pool: {}", ClientPool.stats());
+            LOG.info("client retries: {}", RetryMetrics.snapshot());
         }
     }
 
@@ -9,6 +9,8 @@
 package clusterless.aws.lambda;
 
 import clusterless.cls.json.JSONUtil;
+import clusterless.cls.substrate.aws.sdk.ClientPool;
+import clusterless.cls.substrate.aws.sdk.RetryMetrics;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
 import com.fasterxml.jackson.databind.JavaType;
@@ -54,14 +56,18 @@ public abstract class StreamResultHandler<E, R> implements RequestStreamHandler
 
     protected final ObjectWriter writer;
 
+    protected final SnapStartPriming priming;
+
     public StreamResultHandler(Class<E> readerType, JavaType writerType) {
         this.reader = objectReaderFor(readerType);
         this.writer = objectWriterFor(writerType);
+        this.priming = SnapStartPriming.register(reader.getValueType(), writerType);
     }
 
     public StreamResultHandler(Class<E> readerType, Class<R> writerType) {
         this.reader = objectReaderFor(readerType);
         this.writer = objectWriterFor(writerType);
+        this.priming = SnapStartPriming.register(reader.getValueType(), JSONUtil.OBJECT_MAPPER.constructType(writerType));
     }
 
     public void handleRequest(InputStream input, OutputStream output, Context context) throws IOException {
@@ -81,6 +87,9 @@ public abstract class StreamResultHandler<E, R> implements RequestStreamHandler
         } catch (RuntimeException e) {
             LOG.error("unable to handle request", e);
             throw e;
+        } finally {
+            LOG.info("client pool: {}", ClientPool.stats());
+            LOG.info("client retries: {}", RetryMetrics.snapshot());
         }
 
         try {
@@ -11,7 +11,7 @@ package clusterless.aws.lambda.arc;
 import clusterless.aws.lambda.EventResultHandler;
 import clusterless.cls.model.deploy.SinkDataset;
 import clusterless.cls.model.deploy.WorkloadProps;
-import clusterless.cls.model.manifest.Manifest;
+import clusterless.cls.model.manifest.ManifestHeader;
 import clusterless.cls.substrate.aws.event.ArcWorkloadContext;
 import clusterless.cls.util.Env;
 import clusterless.cls.util.Lazy;
@@ -51,10 +51,8 @@ public abstract class ArcEventHandler<P extends WorkloadProps> extends EventResu
     protected ArcEventObserver observer() {
         return new ArcEventObserver() {
             @Override
-            public void applyFromManifest(URI uri, Manifest manifest) {
-                String lotId = manifest.lotId();
-                int size = manifest.uris() != null ? manifest.uris().size() : 0;
-                LOG.info("manifest from dataset uri: {}, lot: {}, size: {}", uri, lotId, size);
+            public void applyFromManifest(URI uri, ManifestHeader header) {
+                LOG.info("manifest from dataset uri: {}, lot: {}, size: {}", uri, header.lotId(), header.count());
             }
 
             @Override
@@ -69,6 +67,11 @@ public abstract class ArcEventHandler<P extends WorkloadProps> extends EventResu
             public void applyToManifest(String role, URI manifest) {
                 LOG.info("write manifest: {}, with role: {}", manifest, role);
             }
+
+            @Override
+            public void applyCacheHits(String role, int hits, int misses) {
+                LOG.info("cache hits: {}, misses: {}, with role: {}", hits, misses, role);
+            }
         };
     }
 }
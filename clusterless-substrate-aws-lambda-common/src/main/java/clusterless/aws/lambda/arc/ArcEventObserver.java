@@ -10,12 +10,15 @@ package clusterless.aws.lambda.arc;
 
 import clusterless.aws.lambda.EventObserver;
 import clusterless.cls.model.deploy.SinkDataset;
-import clusterless.cls.model.manifest.Manifest;
+import clusterless.cls.model.manifest.ManifestHeader;
 
 import java.net.URI;
 
 public interface ArcEventObserver extends EventObserver {
-    default void applyFromManifest(URI uri, Manifest manifest) {
+    /**
+     * @param header the incoming manifest, without its uris, which are streamed
+     */
+    default void applyFromManifest(URI uri, ManifestHeader header) {
     }
 
     default void applyToDataset(String role, SinkDataset sinkDataset) {
@@ -23,4 +26,11 @@ public interface ArcEventObserver extends EventObserver {
 
     default void applyToManifest(String role, URI manifest) {
     }
+
+    /**
+     * @param hits   the number of items found in a cache, and not written
+     * @param misses the number of items not found in a cache
+     */
+    default void applyCacheHits(String role, int hits, int misses) {
+    }
 }
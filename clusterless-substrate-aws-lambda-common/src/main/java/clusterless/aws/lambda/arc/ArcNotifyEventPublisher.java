@@ -10,6 +10,7 @@ package clusterless.aws.lambda.arc;
 
 import clusterless.cls.model.deploy.SinkDataset;
 import clusterless.cls.substrate.aws.event.ArcNotifyEvent;
+import clusterless.cls.substrate.aws.sdk.EventBatch;
 import clusterless.cls.substrate.aws.sdk.EventBus;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -17,6 +18,7 @@ import org.apache.logging.log4j.Logger;
 import java.net.URI;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 public class ArcNotifyEventPublisher {
@@ -37,6 +39,38 @@ public class ArcNotifyEventPublisher {
     }
 
     public void publishEvent(String lotId, URI manifestURI) {
+        Optional<ArcNotifyEvent> event = createEvent(lotId, manifestURI);
+
+        if (event.isEmpty()) {
+            return;
+        }
+
+        ArcNotifyEvent notifyEvent = event.get();
+
+        LOG.info("publishing {} on {}", () -> notifyEvent.getClass().getSimpleName(), () -> eventBusName);
+
+        EventBus.Response response = eventBus.put(eventBusName, notifyEvent);
+
+        response.isSuccessOrThrowRuntime(
+                r -> String.format("unable to publish event: %s, %s", eventBusName, r.errorMessage())
+        );
+    }
+
+    /**
+     * Adds the event to the batch, it is published when the batch is flushed.
+     */
+    public void publishEvent(String lotId, URI manifestURI, EventBatch eventBatch) {
+        createEvent(lotId, manifestURI)
+                .ifPresent(notifyEvent -> {
+                    LOG.info("batching {} on {}", () -> notifyEvent.getClass().getSimpleName(), () -> eventBusName);
+                    eventBatch.add(eventBusName, notifyEvent);
+                });
+    }
+
+    /**
+     * @return the event, or empty if the dataset is not published
+     */
+    public Optional<ArcNotifyEvent> createEvent(String lotId, URI manifestURI) {
         Objects.requireNonNull(lotId, "lotId may not be null");
         Objects.requireNonNull(manifestURI, "manifestURI may not be null");
 
@@ -49,15 +83,9 @@ public class ArcNotifyEventPublisher {
 
         if (!dataset.publish()) {
             LOG.info("skipping publish of {} on {}", () -> notifyEvent.getClass().getSimpleName(), () -> eventBusName);
-            return;
+            return Optional.empty();
         }
 
-        LOG.info("publishing {} on {}", () -> notifyEvent.getClass().getSimpleName(), () -> eventBusName);
-
-        EventBus.Response response = eventBus.put(eventBusName, notifyEvent);
-
-        response.isSuccessOrThrowRuntime(
-                r -> String.format("unable to publish event: %s, %s", eventBusName, r.errorMessage())
-        );
+        return Optional.of(notifyEvent);
     }
 }
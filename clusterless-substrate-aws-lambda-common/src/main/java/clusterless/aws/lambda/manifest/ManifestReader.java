@@ -10,13 +10,21 @@ package clusterless.aws.lambda.manifest;
 
 import clusterless.cls.json.JSONUtil;
 import clusterless.cls.model.manifest.Manifest;
+import clusterless.cls.model.manifest.ManifestStreamReader;
 import clusterless.cls.substrate.aws.sdk.S3;
 import com.fasterxml.jackson.databind.ObjectReader;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.net.URI;
 
+/**
+ * Reads both json manifests and streamed manifests written by {@link ManifestWriter}.
+ * <p>
+ * Prefer {@link #openManifest(URI)} for large lots, uris are read lazily as they are iterated.
+ */
 public class ManifestReader {
     protected final S3 s3 = new S3();
     protected final ObjectReader manifestReader;
@@ -26,16 +34,53 @@ public class ManifestReader {
     }
 
     public Manifest getManifest(URI manifest) {
-        S3.Response response = s3.get(manifest);
+        try (ManifestStreamReader reader = openManifest(manifest)) {
+            return reader.toManifest();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The returned reader must be closed by the caller.
+     */
+    public ManifestStreamReader openManifest(URI manifest) {
+        S3.Response response = s3.getStream(manifest);
 
         if (!s3.exists(response)) {
             throw new IllegalStateException("manifest not found: " + manifest, response.exception());
         }
 
+        GetObjectResponse object = response.asGetObjectResponse();
+        InputStream inputStream = response.asInputStream();
+
         try {
-            return manifestReader.readValue(response.asInputStream());
+            if (isStreamed(object)) {
+                return new ManifestStreamReader(inputStream, Manifest.GZIP_ENCODING.equals(object.contentEncoding()));
+            }
+
+            try (inputStream) {
+                return ManifestStreamReader.of(manifestReader.readValue(inputStream));
+            }
         } catch (IOException e) {
+            close(inputStream);
             throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            close(inputStream);
+            throw e;
+        }
+    }
+
+    protected static boolean isStreamed(GetObjectResponse object) {
+        String contentType = object.contentType();
+        return contentType != null && contentType.startsWith(Manifest.NDJSON_CONTENT_TYPE);
+    }
+
+    private static void close(InputStream inputStream) {
+        try {
+            inputStream.close();
+        } catch (IOException e) {
+            // ignore
         }
     }
 }
@@ -11,62 +11,122 @@ package clusterless.aws.lambda.manifest;
 import clusterless.cls.model.UriType;
 import clusterless.cls.model.deploy.SinkDataset;
 import clusterless.cls.model.manifest.Manifest;
+import clusterless.cls.model.manifest.ManifestFormat;
+import clusterless.cls.model.manifest.ManifestHeader;
 import clusterless.cls.model.manifest.ManifestState;
+import clusterless.cls.model.manifest.ManifestStreamWriter;
+import clusterless.cls.model.manifest.ManifestUriEncoding;
 import clusterless.cls.substrate.aws.sdk.S3;
+import clusterless.cls.substrate.aws.sdk.S3UploadStream;
 import clusterless.cls.substrate.uri.ManifestURI;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Writes manifests as a single json document. If {@link ManifestFormat#ndjson} is given, once a lot holds more than
+ * {@link #streamingThreshold()} uris, it is streamed as gzip compressed newline delimited json, see
+ * {@link ManifestStreamWriter}.
+ * <p>
+ * Streamed uris are written with the given {@link ManifestUriEncoding}, front coded uris are coded against the
+ * dataset root, if known.
+ * <p>
+ * Both forms are written under the same manifest key, {@link ManifestReader} selects the form from the
+ * object content type.
+ */
 public class ManifestWriter {
     private static final Logger LOG = LogManager.getLogger(ManifestWriter.class);
 
+    public static final int DEFAULT_STREAMING_THRESHOLD = 10_000;
+
     private final S3 s3 = new S3();
     private final ManifestURI sinkManifestPath;
     private final UriType uriType;
+    private final URI datasetRoot;
+    private final ManifestFormat format;
+    private final ManifestUriEncoding uriEncoding;
+    private final int streamingThreshold;
+    private final boolean compress;
 
-    public static Map<String, ManifestWriter> writers(Map<String, SinkDataset> sinks, Map<String, ManifestURI> sinkManifestPaths, UriType uriType) {
+    public static Map<String, ManifestWriter> writers(Map<String, SinkDataset> sinks, Map<String, ManifestURI> sinkManifestPaths, UriType uriType, ManifestFormat format, ManifestUriEncoding uriEncoding) {
         Map<String, ManifestWriter> results = new HashMap<>();
 
         for (String role : sinks.keySet()) {
             ManifestURI sinkManifestPath = sinkManifestPaths.get(role);
-            results.put(role, new ManifestWriter(sinkManifestPath, uriType));
+            results.put(role, new ManifestWriter(sinkManifestPath, uriType, sinks.get(role).pathURI(), format, uriEncoding));
         }
 
         return results;
     }
 
     public ManifestWriter(ManifestURI sinkManifestPath, UriType uriType) {
+        this(sinkManifestPath, uriType, null, ManifestFormat.json, ManifestUriEncoding.absolute);
+    }
+
+    public ManifestWriter(ManifestURI sinkManifestPath, UriType uriType, URI datasetRoot, ManifestFormat format, ManifestUriEncoding uriEncoding) {
+        this(sinkManifestPath, uriType, datasetRoot, format, uriEncoding, DEFAULT_STREAMING_THRESHOLD, true);
+    }
+
+    /**
+     * @param datasetRoot        the dataset path front coded uris are coded against, may be null
+     * @param format             json, or ndjson to stream large manifests
+     * @param uriEncoding        the encoding of streamed uris
+     * @param streamingThreshold ndjson manifests with more uris than this are streamed, zero streams all manifests
+     * @param compress           gzip streamed manifests
+     */
+    public ManifestWriter(ManifestURI sinkManifestPath, UriType uriType, URI datasetRoot, ManifestFormat format, ManifestUriEncoding uriEncoding, int streamingThreshold, boolean compress) {
         this.sinkManifestPath = sinkManifestPath;
         this.uriType = uriType;
+        this.datasetRoot = datasetRoot;
+        this.format = format;
+        this.uriEncoding = uriEncoding;
+        this.streamingThreshold = streamingThreshold;
+        this.compress = compress;
+    }
+
+    public int streamingThreshold() {
+        return streamingThreshold;
     }
 
     public URI writeSuccessManifest(List<URI> uris, String lotId) {
-        return writeManifest(uris, lotId, sinkManifestPath, ManifestState.complete, null, null);
+        return writeSuccessManifest(uris.size(), uris, lotId);
+    }
+
+    /**
+     * Writes the uris as they are iterated, without first collecting them, if streaming and count is over the
+     * {@link #streamingThreshold()}.
+     *
+     * @param count the number of uris the iterable will return
+     */
+    public URI writeSuccessManifest(long count, Iterable<URI> uris, String lotId) {
+        return writeManifest(count, uris, lotId, sinkManifestPath, ManifestState.complete, null, null);
     }
 
     public URI writePartialManifest(List<URI> uris, String lotId, String attempt, String comment) {
-        return writeManifest(uris, lotId, sinkManifestPath, ManifestState.partial, attempt, comment);
+        return writePartialManifest(uris.size(), uris, lotId, attempt, comment);
     }
 
-    public URI writeEmptyManifest(String lotId) {
-        return writeManifest(Collections.emptyList(), lotId, sinkManifestPath, ManifestState.empty, null, null);
+    /**
+     * @param count the number of uris the iterable will return
+     * @see #writeSuccessManifest(long, Iterable, String)
+     */
+    public URI writePartialManifest(long count, Iterable<URI> uris, String lotId, String attempt, String comment) {
+        return writeManifest(count, uris, lotId, sinkManifestPath, ManifestState.partial, attempt, comment);
     }
 
-    private URI writeManifest(List<URI> uris, String lotId, ManifestURI sinkManifestPath, ManifestState state, String attempt, String comment) {
-        Manifest manifest = Manifest.builder()
-                .withState(state)
-                .withComment(comment)
-                .withLotId(lotId)
-                .withUriType(uriType)
-                .withUris(uris)
-                .build();
+    public URI writeEmptyManifest(String lotId) {
+        return writeManifest(0, Collections.emptyList(), lotId, sinkManifestPath, ManifestState.empty, null, null);
+    }
 
+    private URI writeManifest(long count, Iterable<URI> uris, String lotId, ManifestURI sinkManifestPath, ManifestState state, String attempt, String comment) {
         // put manifest, nested under the 'lot' partition
         URI sinkManifestIdentifier = sinkManifestPath
                 .withState(state)
@@ -74,19 +134,42 @@ public class ManifestWriter {
                 .withAttemptId(attempt)
                 .uri();
 
-        LOG.info("testing manifest: {}", sinkManifestIdentifier);
+        // manifests are create only, a put fails if the manifest already exists
+        if (format == ManifestFormat.ndjson && count > streamingThreshold) {
+            ManifestHeader header = new ManifestHeader(
+                    state,
+                    comment,
+                    lotId,
+                    uriType,
+                    count,
+                    uriEncoding,
+                    uriEncoding == ManifestUriEncoding.frontCoded ? datasetRoot : null
+            );
+
+            writeStream(header, uris, sinkManifestIdentifier);
+            return sinkManifestIdentifier;
+        }
 
-        // TODO: perform a listing to test for states (completed, empty, etc)
-        S3.Response exists = s3.exists(sinkManifestIdentifier);
+        List<URI> list = new ArrayList<>((int) count);
+        uris.forEach(list::add);
 
-        exists.isNotSuccessOrThrow(
-                r -> String.format("manifest already exists: %s", sinkManifestIdentifier),
-                ManifestExistsException::new
-        );
+        if (list.size() != count) {
+            throw new IllegalStateException(String.format("given %d uris, expected: %d", list.size(), count));
+        }
+
+        Manifest manifest = Manifest.builder()
+                .withState(state)
+                .withComment(comment)
+                .withLotId(lotId)
+                .withUriType(uriType)
+                .withUris(list)
+                .build();
 
         LOG.info("writing {} to path: {}", () -> manifest.getClass().getSimpleName(), () -> sinkManifestIdentifier);
 
-        S3.Response response = s3.put(sinkManifestIdentifier, manifest.contentType(), manifest);
+        S3.Response response = s3.putIfAbsent(sinkManifestIdentifier, manifest.contentType(), manifest);
+
+        throwIfExists(response, sinkManifestIdentifier);
 
         response.isSuccessOrThrowRuntime(
                 r -> String.format("unable to write object: %s, %s", sinkManifestIdentifier, r.errorMessage())
@@ -94,4 +177,29 @@ public class ManifestWriter {
 
         return sinkManifestIdentifier;
     }
+
+    private void writeStream(ManifestHeader header, Iterable<URI> uris, URI sinkManifestIdentifier) {
+        LOG.info("streaming {} with {} uris to path: {}", () -> Manifest.class.getSimpleName(), header::count, () -> sinkManifestIdentifier);
+
+        S3UploadStream upload = s3.putStreamIfAbsent(sinkManifestIdentifier, Manifest.NDJSON_CONTENT_TYPE, compress ? Manifest.GZIP_ENCODING : null);
+
+        try {
+            ManifestStreamWriter writer = new ManifestStreamWriter(upload, header, compress);
+            writer.writeAll(uris);
+            writer.close();
+        } catch (IOException e) {
+            upload.abort();
+            throwIfExists(upload.response(), sinkManifestIdentifier);
+            throw new UncheckedIOException(String.format("unable to write object: %s, %s", sinkManifestIdentifier, e.getMessage()), e);
+        } catch (RuntimeException e) {
+            upload.abort();
+            throw e;
+        }
+    }
+
+    private static void throwIfExists(S3.Response response, URI sinkManifestIdentifier) {
+        if (response != null && response.isPreconditionFailed()) {
+            throw new ManifestExistsException(String.format("manifest already exists: %s", sinkManifestIdentifier), response.exception());
+        }
+    }
 }
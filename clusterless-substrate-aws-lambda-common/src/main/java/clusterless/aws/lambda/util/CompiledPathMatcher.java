@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.aws.lambda.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matches a path against a set of ant style patterns, with the semantics of {@link AntPathMatcher#match(String, CharSequence)}.
+ * <p>
+ * Every pattern is tokenized, and every pattern segment is compiled, once. A path is tokenized once per call and
+ * shared by all patterns. Literal segments are compared without a regex, and patterns are indexed by their first
+ * literal segment, so only the patterns that could match the first path segment are evaluated.
+ * <p>
+ * Patterns starting with the path separator are matched against the full path, all others against the path
+ * relative to the base path.
+ */
+final class CompiledPathMatcher {
+    private final String basePath;
+    private final char pathSeparator;
+    private final boolean caseSensitive;
+    private final Group absolute;
+    private final Group relative;
+
+    CompiledPathMatcher(String basePath, List<String> patterns, char pathSeparator, boolean ignoreCase) {
+        this.basePath = basePath;
+        this.pathSeparator = pathSeparator;
+        this.caseSensitive = !ignoreCase;
+        this.absolute = new Group(true);
+        this.relative = new Group(false);
+
+        for (String pattern : patterns) {
+            if (pattern.isEmpty()) {
+                continue;
+            }
+
+            if (pattern.charAt(0) == pathSeparator) {
+                absolute.add(new CompiledPattern(pattern));
+            } else {
+                relative.add(new CompiledPattern(pattern));
+            }
+        }
+    }
+
+    boolean isEmpty() {
+        return absolute.isEmpty() && relative.isEmpty();
+    }
+
+    boolean matches(String path) {
+        if (absolute.matches(path)) {
+            return true;
+        }
+
+        if (relative.isEmpty()) {
+            return false;
+        }
+
+        return relative.matches(path.substring(basePath.length()));
+    }
+
+    private String[] tokenize(String path) {
+        List<String> tokens = new ArrayList<>();
+
+        int start = 0;
+        int length = path.length();
+
+        for (int i = 0; i <= length; i++) {
+            if (i == length || path.charAt(i) == pathSeparator) {
+                if (i > start) {
+                    tokens.add(path.substring(start, i));
+                }
+
+                start = i + 1;
+            }
+        }
+
+        return tokens.toArray(new String[0]);
+    }
+
+    private String fold(String value) {
+        if (caseSensitive) {
+            return value;
+        }
+
+        char[] chars = value.toCharArray();
+
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = fold(chars[i]);
+        }
+
+        return new String(chars);
+    }
+
+    /**
+     * Case-insensitive regex matching only folds US-ASCII characters, so the same is done here.
+     */
+    private static char fold(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private final class Group {
+        private final boolean leadingSeparator;
+        private final Map<String, List<CompiledPattern>> byFirstSegment = new HashMap<>();
+        private final List<CompiledPattern> wildcardFirst = new ArrayList<>();
+
+        private Group(boolean leadingSeparator) {
+            this.leadingSeparator = leadingSeparator;
+        }
+
+        private void add(CompiledPattern pattern) {
+            String first = pattern.firstLiteral();
+
+            if (first == null) {
+                wildcardFirst.add(pattern);
+            } else {
+                byFirstSegment.computeIfAbsent(fold(first), k -> new ArrayList<>()).add(pattern);
+            }
+        }
+
+        private boolean isEmpty() {
+            return byFirstSegment.isEmpty() && wildcardFirst.isEmpty();
+        }
+
+        private boolean matches(String path) {
+            if (isEmpty()) {
+                return false;
+            }
+
+            // throws on an empty path, as AntPathMatcher does
+            if ((path.charAt(0) == pathSeparator) != leadingSeparator) {
+                return false;
+            }
+
+            String[] pathDirs = tokenize(path);
+            boolean trailingSeparator = path.charAt(path.length() - 1) == pathSeparator;
+
+            if (pathDirs.length != 0 && !byFirstSegment.isEmpty()) {
+                List<CompiledPattern> candidates = byFirstSegment.get(fold(pathDirs[0]));
+
+                if (candidates != null) {
+                    for (CompiledPattern pattern : candidates) {
+                        if (pattern.matches(pathDirs, trailingSeparator)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+
+            for (CompiledPattern pattern : wildcardFirst) {
+                if (pattern.matches(pathDirs, trailingSeparator)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * A port of {@code AntPathMatcher#doMatch} for a full match, over a pre-tokenized pattern and path.
+     */
+    private final class CompiledPattern {
+        private final String[] pattDirs;
+        private final SegmentMatcher[] matchers;
+        private final boolean trailingSeparator;
+
+        private CompiledPattern(String pattern) {
+            this.pattDirs = tokenize(pattern);
+            this.matchers = new SegmentMatcher[pattDirs.length];
+            this.trailingSeparator = pattern.charAt(pattern.length() - 1) == pathSeparator;
+
+            for (int i = 0; i < pattDirs.length; i++) {
+                matchers[i] = segmentMatcher(pattDirs[i]);
+            }
+        }
+
+        private String firstLiteral() {
+            if (pattDirs.length == 0 || !(matchers[0] instanceof Literal)) {
+                return null;
+            }
+
+            return pattDirs[0];
+        }
+
+        private boolean isDoubleStar(int index) {
+            return matchers[index] == DOUBLE_STAR;
+        }
+
+        private boolean matches(String[] pathDirs, boolean pathTrailingSeparator) {
+            int pattIdxStart = 0;
+            int pattIdxEnd = pattDirs.length - 1;
+            int pathIdxStart = 0;
+            int pathIdxEnd = pathDirs.length - 1;
+
+            // match all elements up to the first **
+            while (pattIdxStart <= pattIdxEnd && pathIdxStart <= pathIdxEnd) {
+                if (isDoubleStar(pattIdxStart)) {
+                    break;
+                }
+                if (!matchers[pattIdxStart].matches(pathDirs[pathIdxStart])) {
+                    return false;
+                }
+                pattIdxStart++;
+                pathIdxStart++;
+            }
+
+            if (pathIdxStart > pathIdxEnd) {
+                // path is exhausted, only match if rest of pattern is * or **'s
+                if (pattIdxStart > pattIdxEnd) {
+                    return trailingSeparator == pathTrailingSeparator;
+                }
+                if (pattIdxStart == pattIdxEnd && pattDirs[pattIdxStart].equals("*") && pathTrailingSeparator) {
+                    return true;
+                }
+                return onlyDoubleStars(pattIdxStart, pattIdxEnd);
+            } else if (pattIdxStart > pattIdxEnd) {
+                // path not exhausted, but pattern is
+                return false;
+            }
+
+            // up to last **
+            while (pattIdxStart <= pattIdxEnd && pathIdxStart <= pathIdxEnd) {
+                if (isDoubleStar(pattIdxEnd)) {
+                    break;
+                }
+                if (!matchers[pattIdxEnd].matches(pathDirs[pathIdxEnd])) {
+                    return false;
+                }
+                pattIdxEnd--;
+                pathIdxEnd--;
+            }
+
+            if (pathIdxStart > pathIdxEnd) {
+                return onlyDoubleStars(pattIdxStart, pattIdxEnd);
+            }
+
+            while (pattIdxStart != pattIdxEnd && pathIdxStart <= pathIdxEnd) {
+                int patIdxTmp = -1;
+                for (int i = pattIdxStart + 1; i <= pattIdxEnd; i++) {
+                    if (isDoubleStar(i)) {
+                        patIdxTmp = i;
+                        break;
+                    }
+                }
+                if (patIdxTmp == pattIdxStart + 1) {
+                    // '**/**' situation, so skip one
+                    pattIdxStart++;
+                    continue;
+                }
+
+                // find the pattern between pattIdxStart and patIdxTmp in the path between pathIdxStart and pathIdxEnd
+                int patLength = (patIdxTmp - pattIdxStart - 1);
+                int strLength = (pathIdxEnd - pathIdxStart + 1);
+                int foundIdx = -1;
+
+                strLoop:
+                for (int i = 0; i <= strLength - patLength; i++) {
+                    for (int j = 0; j < patLength; j++) {
+                        if (!matchers[pattIdxStart + j + 1].matches(pathDirs[pathIdxStart + i + j])) {
+                            continue strLoop;
+                        }
+                    }
+                    foundIdx = pathIdxStart + i;
+                    break;
+                }
+
+                if (foundIdx == -1) {
+                    return false;
+                }
+
+                pattIdxStart = patIdxTmp;
+                pathIdxStart = foundIdx + patLength;
+            }
+
+            return onlyDoubleStars(pattIdxStart, pattIdxEnd);
+        }
+
+        private boolean onlyDoubleStars(int start, int end) {
+            for (int i = start; i <= end; i++) {
+                if (!isDoubleStar(i)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
+    private interface SegmentMatcher {
+        boolean matches(String segment);
+    }
+
+    private static final SegmentMatcher DOUBLE_STAR = segment -> {
+        throw new IllegalStateException("** is not matched against a segment");
+    };
+
+    private SegmentMatcher segmentMatcher(String pattDir) {
+        if (pattDir.equals("**")) {
+            return DOUBLE_STAR;
+        }
+
+        if (pattDir.indexOf('*') == -1 && pattDir.indexOf('?') == -1 && pattDir.indexOf('{') == -1) {
+            return new Literal(pattDir, caseSensitive);
+        }
+
+        AntPathMatcher.AntPathStringMatcher matcher = new AntPathMatcher.AntPathStringMatcher(pattDir, caseSensitive);
+
+        return segment -> matcher.matchStrings(segment, null);
+    }
+
+    private record Literal(String literal, boolean caseSensitive) implements SegmentMatcher {
+        @Override
+        public boolean matches(String segment) {
+            if (caseSensitive) {
+                return literal.equals(segment);
+            }
+
+            if (literal.length() != segment.length()) {
+                return false;
+            }
+
+            for (int i = 0; i < literal.length(); i++) {
+                if (fold(literal.charAt(i)) != fold(segment.charAt(i))) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.aws.lambda.util;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses a timestamp from an object key, so the lot of an object can be found without reading its metadata.
+ * <p>
+ * The text of every capturing group of the first match of the regex in the key is concatenated, in order, and
+ * parsed with the format, a {@link DateTimeFormatter} pattern. If the regex has no capturing groups, the whole match
+ * is parsed. Fields missing from the format default to the start of the period, and the timestamp is in UTC unless
+ * the format parses an offset.
+ * <p>
+ * For example, the regex {@code y=(\d{4})/m=(\d{2})/d=(\d{2})/h=(\d{2})} with the format {@code yyyyMMddHH}.
+ * <p>
+ * Parsers are cached by regex and format, so the pattern and formatter are compiled once per runtime.
+ */
+public class KeyTimestampParser {
+    private static final Map<String, KeyTimestampParser> parsers = new ConcurrentHashMap<>();
+
+    public static KeyTimestampParser of(String regex, String format) {
+        Objects.requireNonNull(regex, "keyRegex may not be null");
+        Objects.requireNonNull(format, "keyTimestampFormat may not be null");
+
+        return parsers.computeIfAbsent(regex + '\u0000' + format, k -> new KeyTimestampParser(regex, format));
+    }
+
+    private final Pattern pattern;
+    private final DateTimeFormatter formatter;
+
+    protected KeyTimestampParser(String regex, String format) {
+        this.pattern = Pattern.compile(regex);
+        this.formatter = new DateTimeFormatterBuilder()
+                .appendPattern(format)
+                .parseDefaulting(ChronoField.MONTH_OF_YEAR, 1)
+                .parseDefaulting(ChronoField.DAY_OF_MONTH, 1)
+                .parseDefaulting(ChronoField.HOUR_OF_DAY, 0)
+                .parseDefaulting(ChronoField.MINUTE_OF_HOUR, 0)
+                .parseDefaulting(ChronoField.SECOND_OF_MINUTE, 0)
+                .toFormatter(Locale.ROOT)
+                .withZone(ZoneOffset.UTC);
+    }
+
+    public Instant parse(String key) {
+        Matcher matcher = pattern.matcher(key);
+
+        if (!matcher.find()) {
+            throw new IllegalArgumentException(String.format("key does not match regex: %s, key: %s", pattern.pattern(), key));
+        }
+
+        String text = text(matcher);
+
+        try {
+            return formatter.parse(text, Instant::from);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(String.format("unable to parse timestamp: %s, from key: %s, %s", text, key, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Returns empty if the key does not match the regex, or the matched text is not a timestamp.
+     */
+    public Optional<Instant> find(String key) {
+        Matcher matcher = pattern.matcher(key);
+
+        if (!matcher.find()) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(formatter.parse(text(matcher), Instant::from));
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static String text(Matcher matcher) {
+        int groups = matcher.groupCount();
+
+        if (groups == 0) {
+            return matcher.group();
+        }
+
+        if (groups == 1) {
+            return matcher.group(1);
+        }
+
+        StringBuilder builder = new StringBuilder();
+
+        for (int i = 1; i <= groups; i++) {
+            String group = matcher.group(i);
+
+            if (group != null) {
+                builder.append(group);
+            }
+        }
+
+        return builder.toString();
+    }
+}
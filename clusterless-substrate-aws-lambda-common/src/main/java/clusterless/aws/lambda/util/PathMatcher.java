@@ -8,8 +8,6 @@
 
 package clusterless.aws.lambda.util;
 
-import org.jetbrains.annotations.NotNull;
-
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
@@ -30,28 +28,17 @@ public class PathMatcher {
         this.pathSeparator = pathSeparator == 0 ? '/' : pathSeparator;
         this.ignoreCase = ignoreCase;
 
-        AntPathMatcher matcher = new AntPathMatcher(this.pathSeparator);
-
-        matcher.setCaseSensitive(!this.ignoreCase);
-
-        Predicate<String> include = this.includes.stream()
-                .filter(s -> !s.isEmpty())
-                .map(s -> predicate(s, matcher))
-                .reduce(Predicate::or).orElse(null);
-
-        Predicate<String> exclude = this.excludes.stream()
-                .filter(s -> !s.isEmpty())
-                .map(s -> predicate(s, matcher))
-                .reduce(Predicate::or).orElse(null);
+        CompiledPathMatcher include = new CompiledPathMatcher(this.path, this.includes, this.pathSeparator, this.ignoreCase);
+        CompiledPathMatcher exclude = new CompiledPathMatcher(this.path, this.excludes, this.pathSeparator, this.ignoreCase);
 
-        if (include == null && exclude == null) {
+        if (include.isEmpty() && exclude.isEmpty()) {
             predicate = p -> true;
-        } else if (include != null && exclude != null) {
-            predicate = include.and(exclude.negate());
-        } else if (include != null & exclude == null) {
-            predicate = include;
+        } else if (!include.isEmpty() && !exclude.isEmpty()) {
+            predicate = p -> include.matches(p) && !exclude.matches(p);
+        } else if (!include.isEmpty()) {
+            predicate = include::matches;
         } else {
-            predicate = exclude.negate();
+            predicate = p -> !exclude.matches(p);
         }
     }
 
@@ -59,15 +46,6 @@ public class PathMatcher {
         return Builder.builder();
     }
 
-    @NotNull
-    private Predicate<String> predicate(String pattern, AntPathMatcher matcher) {
-        if (pattern.charAt(0) == pathSeparator) {
-            return path -> matcher.match(pattern, path);
-        }
-
-        return path -> matcher.match(pattern, path.subSequence(this.path.length(), path.length()));
-    }
-
     public boolean keep(URI uri) {
         return keep(uri.getPath());
     }
@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.aws.lambda.util;
+
+import clusterless.cls.substrate.aws.sdk.S3;
+
+import java.net.URI;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Collects the unique objects of a lot, keyed on bucket and key, retaining the latest sequencer seen for each key.
+ * <p>
+ * S3 event notifications are delivered at least once, and a key may be overwritten within a lot, so the same key
+ * may arrive many times. An event with a sequencer greater than the retained sequencer of its key is an overwrite,
+ * and replaces the retained sequencer, all other repeated events are duplicates and are dropped.
+ * <p>
+ * Keys are found by a 64 bit fingerprint held in an open addressing table of primitives, and only compared exactly
+ * against the retained key on a fingerprint match. Keys are retained as strings, and only materialized as uris as
+ * the manifest is written, see {@link #uris()}.
+ * <p>
+ * Sequencers of the same key are compared as hexadecimal values, per the S3 event notification documentation.
+ * <p>
+ * This class is thread safe.
+ */
+public class UniqueObjects {
+    public enum Result {
+        added,
+        overwritten,
+        duplicate
+    }
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] fingerprints = new long[INITIAL_CAPACITY * 2];
+    private int[] slots = new int[INITIAL_CAPACITY * 2]; // entry index + 1, zero is empty
+    private String[] buckets = new String[INITIAL_CAPACITY];
+    private String[] keys = new String[INITIAL_CAPACITY];
+    private String[] sequencers = new String[INITIAL_CAPACITY];
+    private int size;
+    private long duplicates;
+    private long overwrites;
+
+    public synchronized Result add(String bucket, String key, String sequencer) {
+        long fingerprint = fingerprint(bucket, key);
+        int mask = slots.length - 1;
+        int index = (int) fingerprint & mask;
+
+        while (slots[index] != 0) {
+            int entry = slots[index] - 1;
+
+            if (fingerprints[index] == fingerprint && keys[entry].equals(key) && buckets[entry].equals(bucket)) {
+                if (compareSequencers(sequencer, sequencers[entry]) > 0) {
+                    sequencers[entry] = sequencer;
+                    overwrites++;
+                    return Result.overwritten;
+                }
+
+                duplicates++;
+                return Result.duplicate;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        if (size == keys.length) {
+            grow();
+            return add(bucket, key, sequencer);
+        }
+
+        // share the bucket name, most lots hold a single bucket
+        buckets[size] = size != 0 && buckets[size - 1].equals(bucket) ? buckets[size - 1] : bucket;
+        keys[size] = key;
+        sequencers[size] = sequencer;
+        fingerprints[index] = fingerprint;
+        slots[index] = ++size;
+
+        return Result.added;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long duplicates() {
+        return duplicates;
+    }
+
+    public synchronized long overwrites() {
+        return overwrites;
+    }
+
+    public synchronized String sequencer(String bucket, String key) {
+        long fingerprint = fingerprint(bucket, key);
+        int mask = slots.length - 1;
+        int index = (int) fingerprint & mask;
+
+        while (slots[index] != 0) {
+            int entry = slots[index] - 1;
+
+            if (fingerprints[index] == fingerprint && keys[entry].equals(key) && buckets[entry].equals(bucket)) {
+                return sequencers[entry];
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        return null;
+    }
+
+    /**
+     * A view of the unique objects in arrival order, every uri is created as it is read.
+     * <p>
+     * The view is fixed to the objects added before it was created.
+     */
+    public synchronized List<URI> uris() {
+        String[] buckets = this.buckets;
+        String[] keys = this.keys;
+        int size = this.size;
+
+        return new AbstractList<>() {
+            @Override
+            public URI get(int index) {
+                if (index < 0 || index >= size) {
+                    throw new IndexOutOfBoundsException(index);
+                }
+
+                return S3.createS3URI(buckets[index], keys[index]);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Returns a positive value if lhs is greater, compared as hexadecimal values of any length, a null sequencer
+     * is never greater.
+     */
+    static int compareSequencers(String lhs, String rhs) {
+        if (lhs == null) {
+            return rhs == null ? 0 : -1;
+        }
+
+        if (rhs == null) {
+            return 1;
+        }
+
+        int lhsStart = firstSignificant(lhs);
+        int rhsStart = firstSignificant(rhs);
+        int lhsLength = lhs.length() - lhsStart;
+        int rhsLength = rhs.length() - rhsStart;
+
+        if (lhsLength != rhsLength) {
+            return Integer.compare(lhsLength, rhsLength);
+        }
+
+        for (int i = 0; i < lhsLength; i++) {
+            int compare = Character.compare(Character.toUpperCase(lhs.charAt(lhsStart + i)), Character.toUpperCase(rhs.charAt(rhsStart + i)));
+
+            if (compare != 0) {
+                return compare;
+            }
+        }
+
+        return 0;
+    }
+
+    private static int firstSignificant(String value) {
+        int i = 0;
+
+        while (i < value.length() - 1 && value.charAt(i) == '0') {
+            i++;
+        }
+
+        return i;
+    }
+
+    private void grow() {
+        int capacity = keys.length * 2;
+
+        buckets = Arrays.copyOf(buckets, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        sequencers = Arrays.copyOf(sequencers, capacity);
+
+        long[] oldFingerprints = fingerprints;
+        int[] oldSlots = slots;
+
+        fingerprints = new long[capacity * 2];
+        slots = new int[capacity * 2];
+
+        int mask = slots.length - 1;
+
+        for (int i = 0; i < oldSlots.length; i++) {
+            if (oldSlots[i] == 0) {
+                continue;
+            }
+
+            int index = (int) oldFingerprints[i] & mask;
+
+            while (slots[index] != 0) {
+                index = (index + 1) & mask;
+            }
+
+            fingerprints[index] = oldFingerprints[i];
+            slots[index] = oldSlots[i];
+        }
+    }
+
+    /**
+     * FNV-1a over the bucket, a separator, and the key, finished with the murmur3 64 bit mix.
+     */
+    private static long fingerprint(String bucket, String key) {
+        long hash = 0xcbf29ce484222325L;
+
+        hash = hash(hash, bucket);
+        hash = (hash ^ '/') * 0x100000001b3L;
+        hash = hash(hash, key);
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+
+    private static long hash(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+
+        return hash;
+    }
+}
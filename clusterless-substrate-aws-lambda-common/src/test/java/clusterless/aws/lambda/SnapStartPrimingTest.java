@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.aws.lambda;
+
+import clusterless.cls.json.JSONUtil;
+import clusterless.cls.substrate.aws.event.ArcNotifyEvent;
+import clusterless.cls.substrate.aws.event.ArcStateContext;
+import clusterless.cls.substrate.aws.sdk.ClientPool;
+import clusterless.cls.substrate.aws.sdk.S3;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Invokes the checkpoint and restore hooks directly, as Lambda SnapStart would.
+ */
+public class SnapStartPrimingTest {
+    @AfterEach
+    void closeAll() {
+        ClientPool.closeAll();
+    }
+
+    @Test
+    void hooks() {
+        // declares a client during handler initialization
+        new S3(null, "us-east-1");
+
+        SnapStartPriming priming = SnapStartPriming.register(
+                JSONUtil.OBJECT_MAPPER.constructType(ArcNotifyEvent.class),
+                JSONUtil.OBJECT_MAPPER.constructType(ArcStateContext.class)
+        );
+
+        Assertions.assertDoesNotThrow(() -> priming.beforeCheckpoint(null));
+
+        long created = ClientPool.stats().created();
+        Assertions.assertTrue(ClientPool.stats().size() >= 1);
+
+        Assertions.assertDoesNotThrow(() -> priming.afterRestore(null));
+
+        // restore does not discard the primed clients
+        Assertions.assertTrue(ClientPool.stats().size() >= 1);
+        Assertions.assertEquals(created, ClientPool.stats().created());
+    }
+}
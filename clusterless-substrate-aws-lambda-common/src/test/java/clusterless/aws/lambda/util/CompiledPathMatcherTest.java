@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.aws.lambda.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Verifies the compiled matcher agrees with {@link AntPathMatcher} on every pattern and path combination.
+ */
+public class CompiledPathMatcherTest {
+    static final List<String> PATTERNS = List.of(
+            "/", "*", "**", "/*", "/**", "/**/*", "/*/**", "**/*", "**/_*", "_*", "/**/_*",
+            "/foo", "/foo/", "/foo/*", "/foo/**", "/foo/**/bar", "/foo/**/**/bar", "/foo/*/bar", "/FOO/bar/**",
+            "/foo/bar", "/foo/bar/", "foo/bar", "bar", "Bar", "bar/", "*.parquet", "**/*.parquet", "**/*.PARQUET",
+            "/foo/**/*.parquet", "/foo/b?r/*", "/*bla*/**/bla/**", "/*bla*/**/bla/*", "/{name}.*", "/foo/{name:[a-z]+}/**",
+            "/foo/**/a/b/**/c", "/foo/**/a/*/**", "/x/x/**/bla", "\u00c4\u00d6/**", "/foo/\u00e4\u00f6"
+    );
+
+    static final List<String> PATHS = List.of(
+            "/", "//", "/foo", "/foo/", "//foo//bar", "/foo/bar", "/foo/bar/", "/FOO/BAR", "/foo/Bar/baz",
+            "/foo/_SUCCESS", "/foo/a/b/c/_SUCCESS", "/foo/a/b/c/bar.parquet", "/foo/a/b/c/bar.PARQUET",
+            "/foo/bar.parquet", "/foo/ber/x", "/XXXblaXXXX/testing/testing/bla/testing/testing/",
+            "/XXXblaXXXX/testing/testing/bla/testing", "/testing.html", "/foo/abc/d", "/foo/ABC/d",
+            "/foo/q/a/b/z/c", "/foo/q/a/x/y", "/x/x/x/", "/foo/\u00c4\u00d6/x", "/foo/\u00e4\u00d6", "/foo/\u00c4\u00d6", "/foo/\n/bar"
+    );
+
+    @ParameterizedTest
+    @CsvSource({
+            "/,false",
+            "/,true",
+            ".,false",
+            ".,true",
+    })
+    void equivalent(char separator, boolean ignoreCase) {
+        AntPathMatcher reference = new AntPathMatcher(separator);
+        reference.setCaseSensitive(!ignoreCase);
+
+        String basePath = convert("/foo/", separator);
+
+        for (String pattern : PATTERNS) {
+            String converted = convert(pattern, separator);
+            CompiledPathMatcher compiled = new CompiledPathMatcher(basePath, List.of(converted), separator, ignoreCase);
+
+            for (String path : PATHS) {
+                String convertedPath = convert(path, separator);
+
+                if (convertedPath.length() <= basePath.length() && converted.charAt(0) != separator) {
+                    continue;
+                }
+
+                boolean expected = match(reference, basePath, converted, convertedPath, separator);
+
+                Assertions.assertEquals(expected, compiled.matches(convertedPath), () -> "pattern: %s, path: %s".formatted(converted, convertedPath));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "/,false",
+            "/,true",
+    })
+    void equivalentMany(char separator, boolean ignoreCase) {
+        AntPathMatcher reference = new AntPathMatcher(separator);
+        reference.setCaseSensitive(!ignoreCase);
+
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100; i++) {
+            List<String> patterns = new ArrayList<>();
+
+            for (int j = 0; j < 1 + random.nextInt(6); j++) {
+                patterns.add(PATTERNS.get(random.nextInt(PATTERNS.size())));
+            }
+
+            CompiledPathMatcher compiled = new CompiledPathMatcher("/foo/", patterns, separator, ignoreCase);
+
+            for (String path : PATHS) {
+                if (path.length() <= "/foo/".length()) {
+                    continue;
+                }
+
+                boolean expected = patterns.stream()
+                        .anyMatch(pattern -> match(reference, "/foo/", pattern, path, separator));
+
+                Assertions.assertEquals(expected, compiled.matches(path), () -> "patterns: %s, path: %s".formatted(patterns, path));
+            }
+        }
+    }
+
+    private static boolean match(AntPathMatcher reference, String basePath, String pattern, String path, char separator) {
+        if (pattern.charAt(0) == separator) {
+            return reference.match(pattern, path);
+        }
+
+        return reference.match(pattern, path.subSequence(basePath.length(), path.length()));
+    }
+
+    private static String convert(String value, char separator) {
+        return value.replace('/', separator);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.aws.lambda.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+public class KeyTimestampParserTest {
+    @Test
+    void partitions() {
+        KeyTimestampParser parser = KeyTimestampParser.of("y=(\\d{4})/m=(\\d{2})/d=(\\d{2})/h=(\\d{2})", "yyyyMMddHH");
+
+        Assertions.assertEquals(Instant.parse("2023-12-31T05:00:00Z"), parser.parse("project/version/y=2023/m=12/d=31/h=05/data.json"));
+    }
+
+    @Test
+    void singleGroup() {
+        KeyTimestampParser parser = KeyTimestampParser.of("part-(\\d{8}T\\d{6})", "yyyyMMdd'T'HHmmss");
+
+        Assertions.assertEquals(Instant.parse("2023-12-31T05:10:15Z"), parser.parse("logs/part-20231231T051015-0001.gz"));
+    }
+
+    @Test
+    void wholeMatch() {
+        KeyTimestampParser parser = KeyTimestampParser.of("\\d{4}-\\d{2}-\\d{2}", "yyyy-MM-dd");
+
+        Assertions.assertEquals(Instant.parse("2023-12-31T00:00:00Z"), parser.parse("daily/2023-12-31.csv"));
+    }
+
+    @Test
+    void offset() {
+        KeyTimestampParser parser = KeyTimestampParser.of("at=([^/]+)/", "yyyy-MM-dd'T'HH:mmXXX");
+
+        Assertions.assertEquals(Instant.parse("2023-12-31T04:00:00Z"), parser.parse("at=2023-12-31T05:00+01:00/data.json"));
+    }
+
+    @Test
+    void cached() {
+        Assertions.assertSame(KeyTimestampParser.of("(\\d{8})", "yyyyMMdd"), KeyTimestampParser.of("(\\d{8})", "yyyyMMdd"));
+    }
+
+    @Test
+    void noMatch() {
+        KeyTimestampParser parser = KeyTimestampParser.of("y=(\\d{4})/m=(\\d{2})", "yyyyMM");
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> parser.parse("project/version/data.json"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> parser.parse("project/y=2023/m=13/data.json"));
+
+        Assertions.assertTrue(parser.find("project/version/data.json").isEmpty());
+        Assertions.assertTrue(parser.find("project/y=2023/m=13/data.json").isEmpty());
+        Assertions.assertEquals(Instant.parse("2023-12-01T00:00:00Z"), parser.find("project/y=2023/m=12/data.json").orElseThrow());
+    }
+}
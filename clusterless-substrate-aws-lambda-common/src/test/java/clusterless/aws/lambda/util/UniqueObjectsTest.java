@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.aws.lambda.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.List;
+
+public class UniqueObjectsTest {
+    @Test
+    void duplicates() {
+        UniqueObjects objects = new UniqueObjects();
+
+        Assertions.assertEquals(UniqueObjects.Result.added, objects.add("bucket", "a/b.json", "0055AED6DCD90281E5"));
+        Assertions.assertEquals(UniqueObjects.Result.added, objects.add("bucket", "a/c.json", "0055AED6DCD90281E5"));
+        Assertions.assertEquals(UniqueObjects.Result.added, objects.add("other", "a/b.json", "0055AED6DCD90281E5"));
+        Assertions.assertEquals(UniqueObjects.Result.duplicate, objects.add("bucket", "a/b.json", "0055AED6DCD90281E5"));
+
+        Assertions.assertEquals(3, objects.size());
+        Assertions.assertEquals(1, objects.duplicates());
+        Assertions.assertEquals(
+                List.of(URI.create("s3://bucket/a/b.json"), URI.create("s3://bucket/a/c.json"), URI.create("s3://other/a/b.json")),
+                objects.uris()
+        );
+    }
+
+    @Test
+    void lateOverwriteWins() {
+        UniqueObjects objects = new UniqueObjects();
+
+        objects.add("bucket", "a/b.json", "0055AED6DCD90281E6");
+
+        // an earlier event arriving late is dropped
+        Assertions.assertEquals(UniqueObjects.Result.duplicate, objects.add("bucket", "a/b.json", "0055AED6DCD90281E5"));
+        Assertions.assertEquals("0055AED6DCD90281E6", objects.sequencer("bucket", "a/b.json"));
+
+        Assertions.assertEquals(UniqueObjects.Result.overwritten, objects.add("bucket", "a/b.json", "0055AED6DCD90281E7"));
+        Assertions.assertEquals("0055AED6DCD90281E7", objects.sequencer("bucket", "a/b.json"));
+
+        Assertions.assertEquals(1, objects.size());
+        Assertions.assertEquals(1, objects.overwrites());
+    }
+
+    @Test
+    void compareSequencers() {
+        Assertions.assertTrue(UniqueObjects.compareSequencers("0055AED6DCD90281E7", "0055AED6DCD90281E5") > 0);
+        Assertions.assertTrue(UniqueObjects.compareSequencers("0055AED6DCD90281E5", "55AED6DCD90281E5") == 0);
+        Assertions.assertTrue(UniqueObjects.compareSequencers("0155AED6DCD90281E5", "FFAED6DCD90281E5") > 0);
+        Assertions.assertTrue(UniqueObjects.compareSequencers("00ff", "00FE") > 0);
+        Assertions.assertTrue(UniqueObjects.compareSequencers(null, "00") < 0);
+    }
+
+    @Test
+    void grows() {
+        UniqueObjects objects = new UniqueObjects();
+
+        for (int i = 0; i < 10_000; i++) {
+            objects.add("bucket", "part-%05d.json".formatted(i), "01");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            Assertions.assertEquals(UniqueObjects.Result.duplicate, objects.add("bucket", "part-%05d.json".formatted(i), "01"));
+        }
+
+        Assertions.assertEquals(10_000, objects.size());
+        Assertions.assertEquals(URI.create("s3://bucket/part-09999.json"), objects.uris().get(9_999));
+    }
+}
@@ -8,9 +8,11 @@
 
 package clusterless.aws.lambda;
 
+import clusterless.cls.substrate.aws.sdk.ClientPool;
 import clusterless.cls.substrate.store.StateStore;
 import clusterless.cls.substrate.store.Stores;
 import clusterless.cls.util.Env;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.testcontainers.containers.localstack.LocalStackContainer;
@@ -31,7 +33,7 @@ public abstract class LocalStackBase extends LambdaHandlerTestBase {
     }
 
     // pro disabled in favor of mocking glue apis in the tests
-    static DockerImageName localstackImage = DockerImageName.parse("localstack/localstack:3.0.2");
+    static DockerImageName localstackImage = DockerImageName.parse("localstack/localstack:4.2.0");
 
     @Container
     static LocalStackContainer localstack = new LocalStackContainer(localstackImage)
@@ -68,6 +70,12 @@ public abstract class LocalStackBase extends LambdaHandlerTestBase {
             .set("AWS_SQS_ENDPOINT", localstack.getEndpointOverride(LocalStackContainer.Service.SQS).toString())
             .set("AWS_CLOUDWATCHLOGS_ENDPOINT", localstack.getEndpointOverride(LocalStackContainer.Service.CLOUDWATCHLOGS).toString());
 
+    @AfterAll
+    public static void closeClients() {
+        // pooled clients are bound to the container endpoints of the current test class
+        ClientPool.closeAll();
+    }
+
     @BeforeEach
     public void bootstrap() {
         new BootstrapMachine()
@@ -12,6 +12,8 @@ import clusterless.cls.json.JsonRequiredProperty;
 import clusterless.cls.model.Struct;
 import clusterless.cls.model.deploy.SinkDataset;
 import clusterless.cls.model.deploy.partial.PathFilter;
+import clusterless.cls.model.manifest.ManifestFormat;
+import clusterless.cls.model.manifest.ManifestUriEncoding;
 import clusterless.cls.substrate.uri.ManifestURI;
 
 public class BoundaryProps implements Struct {
@@ -25,6 +27,8 @@ public class BoundaryProps implements Struct {
     protected SinkDataset dataset;
     protected String eventBusName;
     protected PathFilter filter = new PathFilter();
+    protected ManifestFormat manifestFormat = ManifestFormat.json;
+    protected ManifestUriEncoding manifestUriEncoding = ManifestUriEncoding.absolute;
 
     public String lotUnit() {
         return lotUnit;
@@ -49,4 +53,12 @@ public class BoundaryProps implements Struct {
     public PathFilter filter() {
         return filter;
     }
+
+    public ManifestFormat manifestFormat() {
+        return manifestFormat;
+    }
+
+    public ManifestUriEncoding manifestUriEncoding() {
+        return manifestUriEncoding;
+    }
 }
@@ -11,12 +11,18 @@ package clusterless.aws.lambda.boundary.frequents3put;
 import clusterless.aws.lambda.boundary.BoundaryProps;
 import clusterless.cls.model.deploy.SinkDataset;
 import clusterless.cls.model.deploy.partial.PathFilter;
+import clusterless.cls.model.manifest.ManifestFormat;
+import clusterless.cls.model.manifest.ManifestUriEncoding;
 import clusterless.cls.substrate.uri.ManifestURI;
 
 public class FrequentS3PutBoundaryProps extends BoundaryProps {
 
     protected String sqsQueueName;
     protected int sqsWaitTimeSeconds = 0;
+    protected int sqsReceivers = 1;
+    protected int sqsDrainReserveSeconds = 30;
+    protected String keyRegex;
+    protected String keyTimestampFormat;
 
     public static Builder builder() {
         return Builder.builder();
@@ -30,17 +36,39 @@ public class FrequentS3PutBoundaryProps extends BoundaryProps {
         return sqsWaitTimeSeconds;
     }
 
+    public int sqsReceivers() {
+        return sqsReceivers;
+    }
+
+    public int sqsDrainReserveSeconds() {
+        return sqsDrainReserveSeconds;
+    }
+
+    public String keyRegex() {
+        return keyRegex;
+    }
+
+    public String keyTimestampFormat() {
+        return keyTimestampFormat;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("FrequentS3PutTransformProps{");
         sb.append("sqsQueueName='").append(sqsQueueName).append('\'');
         sb.append(", sqsWaitTimeSeconds=").append(sqsWaitTimeSeconds);
+        sb.append(", sqsReceivers=").append(sqsReceivers);
+        sb.append(", sqsDrainReserveSeconds=").append(sqsDrainReserveSeconds);
+        sb.append(", keyRegex='").append(keyRegex).append('\'');
+        sb.append(", keyTimestampFormat='").append(keyTimestampFormat).append('\'');
         sb.append(", lotUnit='").append(lotUnit).append('\'');
         sb.append(", manifestCompletePath=").append(manifestCompletePath);
         sb.append(", manifestPartialPath=").append(manifestPartialPath);
         sb.append(", dataset=").append(dataset);
         sb.append(", eventBusName='").append(eventBusName).append('\'');
         sb.append(", filter=").append(filter);
+        sb.append(", manifestFormat=").append(manifestFormat);
+        sb.append(", manifestUriEncoding=").append(manifestUriEncoding);
         sb.append('}');
         return sb.toString();
     }
@@ -52,8 +80,14 @@ public class FrequentS3PutBoundaryProps extends BoundaryProps {
         protected SinkDataset dataset;
         protected String eventBusName;
         protected PathFilter filter = new PathFilter();
+        protected ManifestFormat manifestFormat = ManifestFormat.json;
+        protected ManifestUriEncoding manifestUriEncoding = ManifestUriEncoding.absolute;
         protected String sqsQueueName;
         protected int sqsWaitTimeSeconds = 0;
+        protected int sqsReceivers = 1;
+        protected int sqsDrainReserveSeconds = 30;
+        protected String keyRegex;
+        protected String keyTimestampFormat;
 
         private Builder() {
         }
@@ -92,6 +126,16 @@ public class FrequentS3PutBoundaryProps extends BoundaryProps {
             return this;
         }
 
+        public Builder withManifestFormat(ManifestFormat manifestFormat) {
+            this.manifestFormat = manifestFormat;
+            return this;
+        }
+
+        public Builder withManifestUriEncoding(ManifestUriEncoding manifestUriEncoding) {
+            this.manifestUriEncoding = manifestUriEncoding;
+            return this;
+        }
+
         public Builder withSqsQueueName(String sqsQueueName) {
             this.sqsQueueName = sqsQueueName;
             return this;
@@ -102,16 +146,42 @@ public class FrequentS3PutBoundaryProps extends BoundaryProps {
             return this;
         }
 
+        public Builder withSqsReceivers(int sqsReceivers) {
+            this.sqsReceivers = sqsReceivers;
+            return this;
+        }
+
+        public Builder withSqsDrainReserveSeconds(int sqsDrainReserveSeconds) {
+            this.sqsDrainReserveSeconds = sqsDrainReserveSeconds;
+            return this;
+        }
+
+        public Builder withKeyRegex(String keyRegex) {
+            this.keyRegex = keyRegex;
+            return this;
+        }
+
+        public Builder withKeyTimestampFormat(String keyTimestampFormat) {
+            this.keyTimestampFormat = keyTimestampFormat;
+            return this;
+        }
+
         public FrequentS3PutBoundaryProps build() {
             FrequentS3PutBoundaryProps frequentS3PutTransformProps = new FrequentS3PutBoundaryProps();
             frequentS3PutTransformProps.eventBusName = this.eventBusName;
             frequentS3PutTransformProps.sqsWaitTimeSeconds = this.sqsWaitTimeSeconds;
             frequentS3PutTransformProps.sqsQueueName = this.sqsQueueName;
+            frequentS3PutTransformProps.sqsReceivers = this.sqsReceivers;
+            frequentS3PutTransformProps.sqsDrainReserveSeconds = this.sqsDrainReserveSeconds;
+            frequentS3PutTransformProps.keyRegex = this.keyRegex;
+            frequentS3PutTransformProps.keyTimestampFormat = this.keyTimestampFormat;
             frequentS3PutTransformProps.manifestCompletePath = this.manifestCompletePath;
             frequentS3PutTransformProps.manifestPartialPath = this.manifestPartialPath;
             frequentS3PutTransformProps.dataset = this.dataset;
             frequentS3PutTransformProps.lotUnit = this.lotUnit;
             frequentS3PutTransformProps.filter = this.filter;
+            frequentS3PutTransformProps.manifestFormat = this.manifestFormat;
+            frequentS3PutTransformProps.manifestUriEncoding = this.manifestUriEncoding;
             return frequentS3PutTransformProps;
         }
     }
@@ -10,6 +10,7 @@ package clusterless.aws.lambda.boundary.s3put;
 
 public enum EventArrival {
     infrequent,
+    batched,
     frequent,
     veryFrequent
 }
@@ -12,6 +12,8 @@ import clusterless.aws.lambda.boundary.BoundaryProps;
 import clusterless.cls.json.JsonRequiredProperty;
 import clusterless.cls.model.deploy.SinkDataset;
 import clusterless.cls.model.deploy.partial.PathFilter;
+import clusterless.cls.model.manifest.ManifestFormat;
+import clusterless.cls.model.manifest.ManifestUriEncoding;
 import clusterless.cls.substrate.uri.ManifestURI;
 
 /**
@@ -21,6 +23,11 @@ public class S3PutBoundaryProps extends BoundaryProps {
     @JsonRequiredProperty
     LotSource lotSource;
     String keyRegex;
+    String keyTimestampFormat;
+    /**
+     * Batched arrival only, the seconds after a lot ends before its parts are merged into the lot manifest.
+     */
+    int lotCloseDelaySec;
 
     public S3PutBoundaryProps() {
     }
@@ -37,17 +44,29 @@ public class S3PutBoundaryProps extends BoundaryProps {
         return keyRegex;
     }
 
+    public String keyTimestampFormat() {
+        return keyTimestampFormat;
+    }
+
+    public int lotCloseDelaySec() {
+        return lotCloseDelaySec;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("S3PutTransformProps{");
         sb.append("lotSource=").append(lotSource);
         sb.append(", keyRegex='").append(keyRegex).append('\'');
+        sb.append(", keyTimestampFormat='").append(keyTimestampFormat).append('\'');
+        sb.append(", lotCloseDelaySec=").append(lotCloseDelaySec);
         sb.append(", lotUnit='").append(lotUnit).append('\'');
         sb.append(", manifestCompletePath=").append(manifestCompletePath);
         sb.append(", manifestPartialPath=").append(manifestPartialPath);
         sb.append(", dataset=").append(dataset);
         sb.append(", eventBusName='").append(eventBusName).append('\'');
         sb.append(", filter=").append(filter);
+        sb.append(", manifestFormat=").append(manifestFormat);
+        sb.append(", manifestUriEncoding=").append(manifestUriEncoding);
         sb.append('}');
         return sb.toString();
     }
@@ -59,8 +78,12 @@ public class S3PutBoundaryProps extends BoundaryProps {
         protected SinkDataset dataset;
         protected String eventBusName;
         protected PathFilter filter = new PathFilter();
+        protected ManifestFormat manifestFormat = ManifestFormat.json;
+        protected ManifestUriEncoding manifestUriEncoding = ManifestUriEncoding.absolute;
         LotSource lotSource;
         String keyRegex;
+        String keyTimestampFormat;
+        int lotCloseDelaySec;
 
         private Builder() {
         }
@@ -99,6 +122,16 @@ public class S3PutBoundaryProps extends BoundaryProps {
             return this;
         }
 
+        public Builder withManifestFormat(ManifestFormat manifestFormat) {
+            this.manifestFormat = manifestFormat;
+            return this;
+        }
+
+        public Builder withManifestUriEncoding(ManifestUriEncoding manifestUriEncoding) {
+            this.manifestUriEncoding = manifestUriEncoding;
+            return this;
+        }
+
         public Builder withLotSource(LotSource lotSource) {
             this.lotSource = lotSource;
             return this;
@@ -109,16 +142,30 @@ public class S3PutBoundaryProps extends BoundaryProps {
             return this;
         }
 
+        public Builder withKeyTimestampFormat(String keyTimestampFormat) {
+            this.keyTimestampFormat = keyTimestampFormat;
+            return this;
+        }
+
+        public Builder withLotCloseDelaySec(int lotCloseDelaySec) {
+            this.lotCloseDelaySec = lotCloseDelaySec;
+            return this;
+        }
+
         public S3PutBoundaryProps build() {
             S3PutBoundaryProps s3PutTransformProps = new S3PutBoundaryProps();
             s3PutTransformProps.eventBusName = this.eventBusName;
             s3PutTransformProps.lotSource = this.lotSource;
             s3PutTransformProps.manifestCompletePath = this.manifestCompletePath;
             s3PutTransformProps.keyRegex = this.keyRegex;
+            s3PutTransformProps.keyTimestampFormat = this.keyTimestampFormat;
+            s3PutTransformProps.lotCloseDelaySec = this.lotCloseDelaySec;
             s3PutTransformProps.manifestPartialPath = this.manifestPartialPath;
             s3PutTransformProps.dataset = this.dataset;
             s3PutTransformProps.lotUnit = this.lotUnit;
             s3PutTransformProps.filter = this.filter;
+            s3PutTransformProps.manifestFormat = this.manifestFormat;
+            s3PutTransformProps.manifestUriEncoding = this.manifestUriEncoding;
             return s3PutTransformProps;
         }
     }
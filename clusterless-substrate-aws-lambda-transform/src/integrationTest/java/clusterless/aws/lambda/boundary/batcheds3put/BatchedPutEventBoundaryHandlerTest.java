@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.aws.lambda.boundary.batcheds3put;
+
+import clusterless.aws.lambda.LocalStackBase;
+import clusterless.aws.lambda.TestDatasets;
+import clusterless.aws.lambda.TestLots;
+import clusterless.aws.lambda.boundary.s3put.LotSource;
+import clusterless.aws.lambda.boundary.s3put.S3PutBoundaryProps;
+import clusterless.cls.json.JSONUtil;
+import clusterless.cls.model.manifest.ManifestState;
+import clusterless.commons.temporal.IntervalUnit;
+import com.adelean.inject.resources.junit.jupiter.GivenJsonResource;
+import com.adelean.inject.resources.junit.jupiter.TestWithResources;
+import com.adelean.inject.resources.junit.jupiter.WithJacksonMapper;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.mockito.Mockito.*;
+
+/**
+ *
+ */
+@TestWithResources
+public class BatchedPutEventBoundaryHandlerTest extends LocalStackBase {
+    @WithJacksonMapper
+    static ObjectMapper objectMapper = JSONUtil.OBJECT_MAPPER;
+
+    TestDatasets datasets;
+
+    public TestDatasets datasets() {
+        if (datasets == null) {
+            datasets = new TestDatasets(defaultPlacement(), "main");
+        }
+
+        return datasets;
+    }
+
+    @Override
+    protected S3PutBoundaryProps getProps() {
+        return S3PutBoundaryProps.builder()
+                .withLotSource(LotSource.eventTime)
+                .withManifestCompletePath(datasets().manifestPathList(ManifestState.complete).get(0))
+                .withManifestPartialPath(datasets().manifestPathList(ManifestState.partial).get(0))
+                .withLotUnit(IntervalUnit.TWELFTHS.name())
+                .withDataset(datasets().sinkDatasetListAsSink().get(0))
+                .withEventBusName(eventBusName())
+                .build();
+    }
+
+    @Test
+    void invoke(
+            @GivenJsonResource("sqs-batched-object-created.json")
+            QueueEvent event
+    ) {
+        Assertions.assertEquals(2, event.records().size());
+
+        BatchedPutEventBoundaryHandler handler = new BatchedPutEventBoundaryHandler();
+
+        String lotId = TestLots.COMMON_LOT;
+
+        BatchedPutEventBoundaryObserver eventContext = mock();
+
+        SQSBatchResponse response = handler.handleEvent(event, context(), eventContext);
+
+        Assertions.assertTrue(response.getBatchItemFailures().isEmpty());
+
+        verify(eventContext).applyBatchSize(2);
+        verify(eventContext).applyIdentifierURI(URI.create("s3://DOC-EXAMPLE-BUCKET1/project/version/y=2023/m=12/d=31/data-1.json"));
+        verify(eventContext).applyIdentifierURI(URI.create("s3://DOC-EXAMPLE-BUCKET1/project/version/y=2023/m=12/d=31/data-2.json"));
+        verify(eventContext, times(1)).applyLotId(lotId);
+        verify(eventContext).applyDatasetItemsSize(2);
+        verify(eventContext).applyManifestURI(datasets().manifestPathList(ManifestState.complete).get(0).withLot(lotId).uri());
+
+        // the lot is now closed, so a redelivered batch is appended to the current lot, which has not ended
+        BatchedPutEventBoundaryObserver redelivered = mock();
+
+        response = handler.handleEvent(event, context(), redelivered);
+
+        Assertions.assertTrue(response.getBatchItemFailures().isEmpty());
+
+        verify(redelivered, never()).applyLotId(anyString());
+
+        // a third delivery rewrites the same part
+        BatchedPutEventBoundaryObserver rewritten = mock();
+
+        response = handler.handleEvent(event, context(), rewritten);
+
+        Assertions.assertTrue(response.getBatchItemFailures().isEmpty());
+
+        verify(rewritten, never()).applyLotId(anyString());
+        verify(rewritten).applyFailedMessages(0);
+    }
+
+    @Test
+    void batchesShareLot(
+            @GivenJsonResource("sqs-batched-object-created.json")
+            QueueEvent event
+    ) {
+        Instant lotTime = Instant.parse("2022-01-01T00:00:00Z");
+        String lotId = new TestLots().format(lotTime.atOffset(ZoneOffset.UTC));
+
+        AtomicReference<Instant> now = new AtomicReference<>(lotTime.plus(2, ChronoUnit.MINUTES));
+
+        BatchedPutEventBoundaryHandler handler = new BatchedPutEventBoundaryHandler() {
+            @Override
+            protected Instant now() {
+                return now.get();
+            }
+        };
+
+        // every batch holds one message sent within the lot, the lot has not yet ended
+        for (QueueEvent.Message message : event.records()) {
+            QueueEvent batch = new QueueEvent(List.of(
+                    new QueueEvent.Message(message.messageId(), message.body(), Map.of("SentTimestamp", String.valueOf(lotTime.toEpochMilli())))
+            ));
+
+            BatchedPutEventBoundaryObserver appended = mock();
+
+            SQSBatchResponse response = handler.handleEvent(batch, context(), appended);
+
+            Assertions.assertTrue(response.getBatchItemFailures().isEmpty());
+
+            verify(appended, never()).applyLotId(anyString());
+        }
+
+        // the scheduled message holds no records, and closes the lot once it has ended
+        now.set(lotTime.plus(10, ChronoUnit.MINUTES));
+
+        BatchedPutEventBoundaryObserver closed = mock();
+
+        QueueEvent scheduled = new QueueEvent(List.of(
+                new QueueEvent.Message("scheduled", "{\"detail-type\": \"Scheduled Event\", \"source\": \"aws.events\"}")
+        ));
+
+        SQSBatchResponse response = handler.handleEvent(scheduled, context(), closed);
+
+        Assertions.assertTrue(response.getBatchItemFailures().isEmpty());
+
+        verify(closed).applyLotId(lotId);
+        verify(closed).applyDatasetItemsSize(2);
+        verify(closed).applyManifestURI(datasets().manifestPathList(ManifestState.complete).get(0).withLot(lotId).uri());
+    }
+
+    @Test
+    void closeDuringAppend(
+            @GivenJsonResource("sqs-batched-object-created.json")
+            QueueEvent event
+    ) {
+        Instant lotTime = Instant.parse("2022-01-01T00:00:00Z");
+        String lotId = new TestLots().format(lotTime.atOffset(ZoneOffset.UTC));
+
+        AtomicReference<Instant> now = new AtomicReference<>(lotTime.plus(2, ChronoUnit.MINUTES));
+        AtomicBoolean interleave = new AtomicBoolean(false);
+        BatchedPutEventBoundaryObserver closed = mock();
+
+        BatchedPutEventBoundaryHandler handler = new BatchedPutEventBoundaryHandler() {
+            @Override
+            protected Instant now() {
+                return now.get();
+            }
+
+            @Override
+            protected boolean appendPart(String partLotId, Lot lot, Set<String> failed) {
+                // a concurrent batch closes the lot after it was found open, but before the part is written
+                if (interleave.getAndSet(false)) {
+                    close(partLotId, closed);
+                }
+
+                return super.appendPart(partLotId, lot, failed);
+            }
+        };
+
+        List<QueueEvent> batches = batches(event, lotTime);
+
+        Assertions.assertTrue(handler.handleEvent(batches.get(0), context(), mock()).getBatchItemFailures().isEmpty());
+
+        now.set(lotTime.plus(10, ChronoUnit.MINUTES));
+        interleave.set(true);
+
+        SQSBatchResponse response = handler.handleEvent(batches.get(1), context(), mock());
+
+        Assertions.assertTrue(response.getBatchItemFailures().isEmpty());
+
+        verify(closed).applyLotId(lotId);
+        verify(closed).applyDatasetItemsSize(1);
+
+        // the late part was removed from the closed lot, and its uris written to the current lot
+        Assertions.assertEquals(1, handler.listParts(lotId).size());
+        Assertions.assertEquals(1, handler.listParts(handler.intervalBuilder.truncateAndFormat(now.get())).size());
+    }
+
+    @Test
+    void appendDuringClose(
+            @GivenJsonResource("sqs-batched-object-created.json")
+            QueueEvent event
+    ) {
+        Instant lotTime = Instant.parse("2022-01-01T00:00:00Z");
+        String lotId = new TestLots().format(lotTime.atOffset(ZoneOffset.UTC));
+
+        AtomicReference<Instant> now = new AtomicReference<>(lotTime.plus(2, ChronoUnit.MINUTES));
+        AtomicBoolean interleave = new AtomicBoolean(false);
+
+        BatchedPutEventBoundaryHandler.Lot late = new BatchedPutEventBoundaryHandler.Lot();
+        late.add(URI.create("s3://DOC-EXAMPLE-BUCKET1/project/version/y=2023/m=12/d=31/data-2.json"), event.records().get(1).messageId());
+
+        BatchedPutEventBoundaryHandler handler = new BatchedPutEventBoundaryHandler() {
+            @Override
+            protected Instant now() {
+                return now.get();
+            }
+
+            @Override
+            protected List<URI> listParts(String partsLotId) {
+                List<URI> parts = super.listParts(partsLotId);
+
+                // a concurrent batch writes a part after the close listed the parts, but before the manifest is written
+                if (partsLotId.equals(lotId) && interleave.getAndSet(false)) {
+                    Assertions.assertTrue(appendPart(partsLotId, late, new HashSet<>()));
+                }
+
+                return parts;
+            }
+        };
+
+        List<QueueEvent> batches = batches(event, lotTime);
+
+        Assertions.assertTrue(handler.handleEvent(batches.get(0), context(), mock()).getBatchItemFailures().isEmpty());
+
+        now.set(lotTime.plus(10, ChronoUnit.MINUTES));
+        interleave.set(true);
+
+        BatchedPutEventBoundaryObserver closed = mock();
+
+        QueueEvent scheduled = new QueueEvent(List.of(
+                new QueueEvent.Message("scheduled", "{\"detail-type\": \"Scheduled Event\", \"source\": \"aws.events\"}")
+        ));
+
+        Assertions.assertTrue(handler.handleEvent(scheduled, context(), closed).getBatchItemFailures().isEmpty());
+
+        verify(closed).applyLotId(lotId);
+        verify(closed).applyDatasetItemsSize(1);
+
+        // the close moved the late part into the current lot
+        Assertions.assertEquals(1, handler.listParts(lotId).size());
+        Assertions.assertEquals(1, handler.listParts(handler.intervalBuilder.truncateAndFormat(now.get())).size());
+    }
+
+    /**
+     * One batch per message, each sent at the given time.
+     */
+    private static List<QueueEvent> batches(QueueEvent event, Instant sentTime) {
+        return event.records().stream()
+                .map(message -> new QueueEvent(List.of(
+                        new QueueEvent.Message(message.messageId(), message.body(), Map.of("SentTimestamp", String.valueOf(sentTime.toEpochMilli())))
+                )))
+                .toList();
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.aws.lambda.boundary.frequents3put;
+
+import clusterless.aws.lambda.transform.json.event.AWSEvent;
+import clusterless.cls.model.manifest.ManifestState;
+import clusterless.cls.substrate.aws.sdk.SQS;
+import clusterless.commons.temporal.IntervalUnit;
+import com.adelean.inject.resources.junit.jupiter.GivenJsonResource;
+import com.adelean.inject.resources.junit.jupiter.TestWithResources;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.sqs.model.Message;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Runs the same drain with a key regex the notification key does not match, the
+ * sent time is used instead of failing the drain.
+ */
+@TestWithResources
+public class FrequentPutEventBoundaryHandlerKeyRegexTest extends FrequentPutEventBoundaryHandlerTest {
+    @Override
+    protected FrequentS3PutBoundaryProps getProps() {
+        return FrequentS3PutBoundaryProps.builder()
+                .withManifestCompletePath(datasets().manifestPathList(ManifestState.complete).get(0))
+                .withManifestPartialPath(datasets().manifestPathList(ManifestState.partial).get(0))
+                .withLotUnit(IntervalUnit.TWELFTHS.name())
+                .withDataset(datasets().sinkDatasetListAsSink().get(0))
+                .withEventBusName(eventBusName())
+                .withSqsQueueName(sqsQueueName())
+                .withKeyRegex("y=(\\d{4})/m=(\\d{2})/d=(\\d{2})/h=(\\d{2})")
+                .withKeyTimestampFormat("yyyyMMddHH")
+                .build();
+    }
+
+    @Test
+    void redeliveredFutureKey(
+            @GivenJsonResource("eventbridge-scheduled.json")
+            AWSEvent event
+    ) {
+        SQS sqs = new SQS();
+        String queueUrl = sqs.queueUrl(sqs.queueUrl(sqsQueueName()));
+
+        // a far future key is deferred by every drain, so is always received more than once
+        sqs.put(queueUrl, notificationEvent.replace("y=2023/m=12/d=31/", "y=2099/m=01/d=01/h=00/"));
+
+        List<Message> received = sqs.get(sqs.get(queueUrl, 0));
+        sqs.changeVisibility(queueUrl, received.stream().map(Message::receiptHandle).toList(), 0);
+
+        FrequentPutEventBoundaryHandler handler = new FrequentPutEventBoundaryHandler();
+
+        FrequentPutEventBoundaryObserver eventContext = mock();
+        event.setTime(OffsetDateTime.now(ZoneId.of("UTC")).plus(2, IntervalUnit.TWELFTHS));
+        handler.handleEvent(event, context(), eventContext);
+
+        // the past message is still collected
+        verify(eventContext).applyDatasetItemsSize(1);
+        verify(eventContext).applyDeferredMessagesSize(1);
+    }
+}
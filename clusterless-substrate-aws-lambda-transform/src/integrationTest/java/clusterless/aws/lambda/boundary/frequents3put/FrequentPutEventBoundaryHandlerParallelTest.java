@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.aws.lambda.boundary.frequents3put;
+
+import clusterless.cls.model.manifest.ManifestState;
+import clusterless.commons.temporal.IntervalUnit;
+import com.adelean.inject.resources.junit.jupiter.TestWithResources;
+
+/**
+ * Runs the same drain with concurrent receivers.
+ */
+@TestWithResources
+public class FrequentPutEventBoundaryHandlerParallelTest extends FrequentPutEventBoundaryHandlerTest {
+    @Override
+    protected FrequentS3PutBoundaryProps getProps() {
+        return FrequentS3PutBoundaryProps.builder()
+                .withManifestCompletePath(datasets().manifestPathList(ManifestState.complete).get(0))
+                .withManifestPartialPath(datasets().manifestPathList(ManifestState.partial).get(0))
+                .withLotUnit(IntervalUnit.TWELFTHS.name())
+                .withDataset(datasets().sinkDatasetListAsSink().get(0))
+                .withEventBusName(eventBusName())
+                .withSqsQueueName(sqsQueueName())
+                .withSqsReceivers(4)
+                .build();
+    }
+}
@@ -93,4 +93,25 @@ public class FrequentPutEventBoundaryHandlerTest extends LocalStackBase {
         verify(eventContext).applyIdentifierURI(URI.create("s3://DOC-EXAMPLE-BUCKET1/project/version/y=2023/m=12/d=31/data.json"));
         verify(eventContext).applyManifestURI(datasets().manifestPathList(ManifestState.complete).get(0).withLot(testLot).uri());
     }
+
+    @Test
+    void deferFutureLot(
+            @GivenJsonResource("eventbridge-scheduled.json")
+            AWSEvent event
+    ) {
+        FrequentPutEventBoundaryHandler handler = new FrequentPutEventBoundaryHandler();
+
+        // the message was sent within the current interval, so belongs to the next lot
+        FrequentPutEventBoundaryObserver eventContext = mock();
+        event.setTime(OffsetDateTime.now(ZoneId.of("UTC")));
+        handler.handleEvent(event, context(), eventContext);
+
+        verify(eventContext).applyDatasetItemsSize(0);
+        verify(eventContext).applyDeferredMessagesSize(1);
+
+        // the deferred message is hidden until the next interval
+        SQS sqs = new SQS();
+        SQS.Response response = sqs.get(sqs.queueUrl(sqs.queueUrl(sqsQueueName())), 0);
+        Assertions.assertTrue(sqs.get(response).isEmpty());
+    }
 }
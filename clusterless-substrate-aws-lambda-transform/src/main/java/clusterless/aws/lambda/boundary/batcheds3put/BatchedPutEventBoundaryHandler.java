@@ -0,0 +1,502 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.aws.lambda.boundary.batcheds3put;
+
+import clusterless.aws.lambda.EventResultHandler;
+import clusterless.aws.lambda.arc.ArcNotifyEventPublisher;
+import clusterless.aws.lambda.boundary.s3put.LotSource;
+import clusterless.aws.lambda.boundary.s3put.S3PutBoundaryProps;
+import clusterless.aws.lambda.manifest.ManifestExistsException;
+import clusterless.aws.lambda.manifest.ManifestReader;
+import clusterless.aws.lambda.manifest.ManifestWriter;
+import clusterless.aws.lambda.util.KeyTimestampParser;
+import clusterless.aws.lambda.util.PathMatcher;
+import clusterless.cls.model.UriType;
+import clusterless.cls.model.manifest.Manifest;
+import clusterless.cls.model.manifest.ManifestState;
+import clusterless.cls.model.manifest.ManifestStreamReader;
+import clusterless.cls.substrate.aws.sdk.S3;
+import clusterless.cls.util.Env;
+import clusterless.cls.util.URIs;
+import clusterless.commons.temporal.IntervalBuilder;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.S3Event;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.amazonaws.services.lambda.runtime.events.models.s3.S3EventNotification;
+import com.amazonaws.services.lambda.runtime.serialization.PojoSerializer;
+import com.amazonaws.services.lambda.runtime.serialization.events.LambdaEventSerializers;
+import software.amazon.awssdk.services.sqs.model.MessageSystemAttributeName;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Receives batches of S3 put notifications from a queue, and appends a part, holding the uris of a lot in the batch,
+ * under the lot prefix.
+ * <p>
+ * Once a lot has ended, and the close delay has passed, its parts are merged into a single manifest and one
+ * availability event is published. Every batch attempts to close the lots it could, a scheduled message is sent to
+ * the queue every lot interval so lots are closed when no objects arrive.
+ * <p>
+ * Manifests are create only, objects arriving for a closed lot are written into the lot of the current time.
+ * Parts are named by the messages they hold, so a redelivered batch rewrites the same parts.
+ * <p>
+ * A concurrent batch may close a lot after it was found open, but before a part was written to it. A part written
+ * after the parts were listed, but before the manifest was written, is moved into the current lot by the close.
+ * A part written after the manifest is removed, and its uris moved, by the batch that wrote it.
+ */
+public class BatchedPutEventBoundaryHandler extends EventResultHandler<QueueEvent, SQSBatchResponse, BatchedPutEventBoundaryObserver> {
+    private static final Logger LOG = LogManager.getLogger(BatchedPutEventBoundaryHandler.class);
+    public static final PojoSerializer<S3Event> serializer = LambdaEventSerializers.serializerFor(S3Event.class, S3Event.class.getClassLoader());
+    protected static final S3 s3 = new S3();
+
+    protected final S3PutBoundaryProps transformProps = Env.fromEnv(
+            S3PutBoundaryProps.class,
+            () -> S3PutBoundaryProps.builder()
+                    .build()
+    );
+
+    protected final IntervalBuilder intervalBuilder = new IntervalBuilder(transformProps.lotUnit());
+
+    protected ManifestWriter manifestWriter = new ManifestWriter(
+            transformProps.manifestCompletePath(),
+            UriType.identifier,
+            transformProps.dataset().pathURI(),
+            transformProps.manifestFormat(),
+            transformProps.manifestUriEncoding()
+    );
+
+    protected ArcNotifyEventPublisher arcNotifyEventPublisher = new ArcNotifyEventPublisher(
+            transformProps.eventBusName(),
+            transformProps.dataset()
+    );
+
+    protected PathMatcher pathMatcher = PathMatcher.builder()
+            .withPath(transformProps.dataset().pathURI().getPath())
+            .withPathSeparator(transformProps.filter().pathSeparator())
+            .withIgnoreCase(transformProps.filter().ignoreCase())
+            .withIncludes(transformProps.filter().includes())
+            .withExcludes(transformProps.filter().excludes())
+            .build();
+
+    protected final KeyTimestampParser keyTimestampParser = transformProps.lotSource() == LotSource.keyTimestampRegex ?
+            KeyTimestampParser.of(transformProps.keyRegex(), transformProps.keyTimestampFormat()) : null;
+
+    public BatchedPutEventBoundaryHandler() {
+        super(QueueEvent.class, SQSBatchResponse.class);
+    }
+
+    protected BatchedPutEventBoundaryObserver observer() {
+        return new BatchedPutEventBoundaryObserver() {
+            @Override
+            public void applyBatchSize(int batchSize) {
+                LOG.info("received messages: {}", batchSize);
+            }
+
+            @Override
+            public void applyLotId(String lotId) {
+                LOG.info("using lot: {}", lotId);
+            }
+
+            @Override
+            public void applyDatasetItemsSize(int datasetItemsSize) {
+                LOG.info("dataset items size: {}", datasetItemsSize);
+            }
+
+            @Override
+            public void applyManifestURI(URI manifestURI) {
+                LOG.info("using manifest uri: {}", manifestURI);
+            }
+
+            @Override
+            public void applyFailedMessages(int failedMessages) {
+                if (failedMessages != 0) {
+                    LOG.warn("returning messages to queue: {}", failedMessages);
+                }
+            }
+        };
+    }
+
+    /**
+     * The uris of a lot, and the messages they arrived in.
+     */
+    protected static class Lot {
+        final List<URI> uris = new ArrayList<>();
+        final Set<String> messageIds = new LinkedHashSet<>();
+
+        void add(URI uri, String messageId) {
+            uris.add(uri);
+            messageIds.add(messageId);
+        }
+
+        void addAll(Lot lot) {
+            uris.addAll(lot.uris);
+            messageIds.addAll(lot.messageIds);
+        }
+    }
+
+    protected ManifestReader manifestReader = new ManifestReader();
+
+    @Override
+    protected SQSBatchResponse handleEvent(QueueEvent event, Context context, BatchedPutEventBoundaryObserver eventObserver) {
+        List<QueueEvent.Message> messages = event.records();
+
+        eventObserver.applyBatchSize(messages.size());
+
+        Set<String> failed = new LinkedHashSet<>();
+        Map<String, Lot> lots = new TreeMap<>();
+
+        for (QueueEvent.Message message : messages) {
+            // a message is retried in whole, so only retain the uris of a message that was read in whole
+            Map<String, Lot> messageLots = new HashMap<>();
+
+            try {
+                collect(message, messageLots, eventObserver);
+            } catch (RuntimeException e) {
+                LOG.error("{}, unable to read message, returning to queue: {}", message.messageId(), e.getMessage(), e);
+                failed.add(message.messageId());
+                continue;
+            }
+
+            messageLots.forEach((lotId, lot) -> lots.computeIfAbsent(lotId, k -> new Lot()).addAll(lot));
+        }
+
+        Instant now = now();
+        String currentLotId = intervalBuilder.truncateAndFormat(now);
+        Lot current = lots.remove(currentLotId);
+
+        if (current == null) {
+            current = new Lot();
+        }
+
+        Set<String> appended = new TreeSet<>();
+
+        for (Map.Entry<String, Lot> entry : lots.entrySet()) {
+            if (isClosed(entry.getKey())) {
+                LOG.info("lot closed: {}, moving uris: {}, to current lot: {}", entry.getKey(), entry.getValue().uris.size(), currentLotId);
+                current.addAll(entry.getValue());
+            } else if (!appendPart(entry.getKey(), entry.getValue(), failed)) {
+                continue;
+            } else if (isClosedWithout(entry.getKey(), entry.getValue())) {
+                LOG.info("lot closed during append: {}, moving uris: {}, to current lot: {}", entry.getKey(), entry.getValue().uris.size(), currentLotId);
+                current.addAll(entry.getValue());
+            } else {
+                appended.add(entry.getKey());
+            }
+        }
+
+        if (!current.uris.isEmpty()) {
+            if (isClosed(currentLotId)) {
+                LOG.info("current lot closed: {}, returning uris: {}", currentLotId, current.uris.size());
+                failed.addAll(current.messageIds);
+            } else if (appendPart(currentLotId, current, failed) && isClosedWithout(currentLotId, current)) {
+                LOG.info("current lot closed during append: {}, returning uris: {}", currentLotId, current.uris.size());
+                failed.addAll(current.messageIds);
+            }
+        }
+
+        // the lots just appended to, and the latest lots that could have closed since the last scheduled message
+        Instant closeableLot = closeableLot(now);
+        String closeableLotId = intervalBuilder.format(closeableLot);
+        Set<String> closeable = new TreeSet<>(appended);
+        closeable.add(closeableLotId);
+        closeable.add(intervalBuilder.format(intervalBuilder.previous(closeableLot)));
+
+        for (String lotId : closeable) {
+            if (lotId.compareTo(closeableLotId) <= 0) {
+                close(lotId, eventObserver);
+            }
+        }
+
+        eventObserver.applyFailedMessages(failed.size());
+
+        List<SQSBatchResponse.BatchItemFailure> failures = failed.stream()
+                .map(SQSBatchResponse.BatchItemFailure::new)
+                .toList();
+
+        return new SQSBatchResponse(failures);
+    }
+
+    protected void collect(QueueEvent.Message message, Map<String, Lot> lots, BatchedPutEventBoundaryObserver eventObserver) {
+        S3Event s3Event = serializer.fromJson(message.body());
+        List<S3EventNotification.S3EventNotificationRecord> records = s3Event.getRecords();
+
+        // s3 sends a test event without records when the notification is created
+        if (records == null) {
+            LOG.info("{}, message has no records, skipping", message.messageId());
+            return;
+        }
+
+        for (S3EventNotification.S3EventNotificationRecord record : records) {
+            String bucket = record.getS3().getBucket().getName();
+            String key = record.getS3().getObject().getKey();
+
+            if (key.endsWith("/")) {
+                LOG.info("key ends with a path separator, skipping: {}", key);
+                continue;
+            }
+
+            URI identifier = S3.createS3URI(bucket, key);
+
+            eventObserver.applyIdentifierURI(identifier);
+
+            if (!pathMatcher.keep(identifier)) {
+                continue;
+            }
+
+            String lotId = switch (transformProps.lotSource()) {
+                case eventTime -> intervalBuilder.truncateAndFormat(sentTime(message, record));
+                // object created events are emitted when the object is written, so the event time is used if present
+                case objectModifiedTime -> record.getEventTime() != null ?
+                        intervalBuilder.truncateAndFormat(Instant.ofEpochMilli(record.getEventTime().getMillis())) : fromModifiedTime(identifier);
+                case keyTimestampRegex -> intervalBuilder.truncateAndFormat(keyTime(message, record));
+            };
+
+            lots.computeIfAbsent(lotId, k -> new Lot()).add(identifier, message.messageId());
+        }
+    }
+
+    protected Instant now() {
+        return Instant.now();
+    }
+
+    /**
+     * The latest lot that has ended, and whose close delay has passed.
+     */
+    protected Instant closeableLot(Instant now) {
+        Instant closeTime = now.minusSeconds(transformProps.lotCloseDelaySec());
+
+        return intervalBuilder.previous(intervalBuilder.truncate(closeTime));
+    }
+
+    protected boolean isClosed(String lotId) {
+        return s3.exists(s3.exists(transformProps.manifestCompletePath().withLot(lotId).uri()));
+    }
+
+    protected URI partsPath(String lotId) {
+        URI lotPath = transformProps.manifestCompletePath()
+                .withState(null)
+                .withLot(lotId)
+                .uri();
+
+        return URIs.copyAppendAsPath(lotPath, "parts");
+    }
+
+    protected URI partURI(String lotId, Lot lot) {
+        String partId = UUID.nameUUIDFromBytes(String.join(",", lot.messageIds).concat(lotId).getBytes(StandardCharsets.UTF_8)).toString();
+
+        return URIs.copyAppend(partsPath(lotId), partId + ".json");
+    }
+
+    /**
+     * Returns false, and fails the messages of the lot, if the part could not be written.
+     */
+    protected boolean appendPart(String lotId, Lot lot, Set<String> failed) {
+        URI partURI = partURI(lotId, lot);
+
+        S3.Response response = writePart(partURI, lotId, lot.uris);
+
+        // a redelivered batch writes the same part
+        if (response.isSuccess() || response.isPreconditionFailed()) {
+            return true;
+        }
+
+        LOG.error("unable to write part: {}, returning messages to queue: {}", partURI, response.errorMessage());
+        failed.addAll(lot.messageIds);
+
+        return false;
+    }
+
+    protected S3.Response writePart(URI partURI, String lotId, List<URI> uris) {
+        Manifest part = Manifest.builder()
+                .withState(ManifestState.partial)
+                .withLotId(lotId)
+                .withUriType(UriType.identifier)
+                .withUris(uris)
+                .build();
+
+        LOG.info("writing part to lot: {}, uris: {}, path: {}", lotId, uris.size(), partURI);
+
+        return s3.putIfAbsent(partURI, part.contentType(), part);
+    }
+
+    protected List<URI> listParts(String lotId) {
+        URI partsPath = partsPath(lotId);
+        List<URI> parts = new ArrayList<>();
+
+        for (S3.Response response : s3.listObjectsIterable(partsPath)) {
+            response.isSuccessOrThrowRuntime(
+                    r -> String.format("unable to list parts: %s, %s", partsPath, r.errorMessage())
+            );
+
+            s3.listChildrenStream(response)
+                    .map(key -> S3.createS3URI(partsPath.getHost(), key))
+                    .forEach(parts::add);
+        }
+
+        return parts;
+    }
+
+    /**
+     * Returns true if the lot was closed, after its part was written, without every uri of the part, and removes
+     * the part, otherwise the uris are held by the open lot, or its manifest.
+     */
+    protected boolean isClosedWithout(String lotId, Lot lot) {
+        if (!isClosed(lotId)) {
+            return false;
+        }
+
+        Set<URI> missing = new HashSet<>(lot.uris);
+
+        try (ManifestStreamReader reader = manifestReader.openManifest(transformProps.manifestCompletePath().withLot(lotId).uri())) {
+            for (URI uri : reader) {
+                if (missing.remove(uri) && missing.isEmpty()) {
+                    return false;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        URI partURI = partURI(lotId, lot);
+        S3.Response response = s3.remove(partURI);
+
+        // a remaining part is at most moved again by the close, the current lot dedupes the uris
+        if (!response.isSuccess()) {
+            LOG.warn("unable to remove part: {}, {}", partURI, response.errorMessage());
+        }
+
+        return true;
+    }
+
+    /**
+     * Merges the parts of the lot into the lot manifest, and publishes the availability event.
+     */
+    protected void close(String lotId, BatchedPutEventBoundaryObserver eventObserver) {
+        if (isClosed(lotId)) {
+            return;
+        }
+
+        List<URI> parts = listParts(lotId);
+
+        if (parts.isEmpty()) {
+            return;
+        }
+
+        // parts may overlap if a message was redelivered into a later lot
+        Set<URI> uris = new LinkedHashSet<>();
+
+        for (URI part : parts) {
+            uris.addAll(manifestReader.getManifest(part).uris());
+        }
+
+        LOG.info("closing lot: {}, parts: {}, uris: {}", lotId, parts.size(), uris.size());
+
+        URI manifestURI;
+
+        try {
+            manifestURI = manifestWriter.writeSuccessManifest(new ArrayList<>(uris), lotId);
+        } catch (ManifestExistsException e) {
+            LOG.info("lot already closed: {}", lotId);
+            return;
+        }
+
+        moveLateParts(lotId, new HashSet<>(parts));
+
+        eventObserver.applyLotId(lotId);
+        eventObserver.applyDatasetItemsSize(uris.size());
+        eventObserver.applyManifestURI(manifestURI);
+
+        arcNotifyEventPublisher.publishEvent(lotId, manifestURI);
+    }
+
+    /**
+     * Moves the parts written after the parts were listed, but before the lot manifest was written, into the
+     * current lot. The batch that wrote a part may also move it, the close dedupes the uris of the current lot.
+     */
+    protected void moveLateParts(String lotId, Set<URI> merged) {
+        String currentLotId = intervalBuilder.truncateAndFormat(now());
+
+        for (URI part : listParts(lotId)) {
+            if (merged.contains(part)) {
+                continue;
+            }
+
+            S3.Response exists = s3.exists(part);
+
+            // removed by the batch that wrote it
+            if (!s3.exists(exists)) {
+                continue;
+            }
+
+            List<URI> uris = manifestReader.getManifest(part).uris();
+            String partName = part.getPath().substring(part.getPath().lastIndexOf('/') + 1);
+            URI currentPart = URIs.copyAppend(partsPath(currentLotId), partName);
+
+            LOG.info("lot closed during append: {}, moving part: {}, uris: {}, to current lot: {}", lotId, part, uris.size(), currentLotId);
+
+            S3.Response moved = writePart(currentPart, currentLotId, uris);
+
+            // another close may have moved the same part
+            if (!moved.isSuccess() && !moved.isPreconditionFailed()) {
+                throw new IllegalStateException(String.format("unable to move part: %s, to: %s, %s", part, currentPart, moved.errorMessage()), moved.exception());
+            }
+
+            S3.Response response = s3.remove(part);
+
+            if (!response.isSuccess()) {
+                LOG.warn("unable to remove part: {}, {}", part, response.errorMessage());
+            }
+        }
+    }
+
+    /**
+     * The timestamp parsed from the key, or the sent time if the key does not match, so the message is not
+     * returned to the queue on every delivery.
+     */
+    private Instant keyTime(QueueEvent.Message message, S3EventNotification.S3EventNotificationRecord record) {
+        String key = record.getS3().getObject().getUrlDecodedKey();
+
+        return keyTimestampParser.find(key)
+                .orElseGet(() -> {
+                    Instant sentTime = sentTime(message, record);
+                    LOG.warn("{}, key does not match key regex, using sent time: {}, key: {}", message.messageId(), sentTime, key);
+                    return sentTime;
+                });
+    }
+
+    /**
+     * The time the event was received by the queue, or emitted by S3 if not present.
+     */
+    private static Instant sentTime(QueueEvent.Message message, S3EventNotification.S3EventNotificationRecord record) {
+        String sentTimestamp = message.attributes() == null ? null : message.attributes().get(MessageSystemAttributeName.SENT_TIMESTAMP.toString());
+
+        if (sentTimestamp != null) {
+            return Instant.ofEpochMilli(Long.parseLong(sentTimestamp));
+        }
+
+        return Instant.ofEpochMilli(record.getEventTime().getMillis());
+    }
+
+    private String fromModifiedTime(URI objectPath) {
+        S3.Response response = s3.exists(objectPath);
+
+        if (!s3.exists(response)) {
+            throw new IllegalStateException("object not found: " + objectPath, response.exception());
+        }
+
+        return intervalBuilder.truncateAndFormat(s3.lastModified(response));
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package clusterless.aws.lambda.boundary.batcheds3put;
+
+import clusterless.cls.model.Struct;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The batch of messages a SQS event source invokes a function with.
+ * <p>
+ * Only the fields the boundary requires are retained.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class QueueEvent implements Struct {
+    @JsonProperty("Records")
+    List<Message> records = new ArrayList<>();
+
+    public QueueEvent() {
+    }
+
+    public QueueEvent(List<Message> records) {
+        this.records = records;
+    }
+
+    public List<Message> records() {
+        return records;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Message implements Struct {
+        String messageId;
+        String body;
+        Map<String, String> attributes;
+
+        public Message() {
+        }
+
+        public Message(String messageId, String body) {
+            this.messageId = messageId;
+            this.body = body;
+        }
+
+        public Message(String messageId, String body, Map<String, String> attributes) {
+            this.messageId = messageId;
+            this.body = body;
+            this.attributes = attributes;
+        }
+
+        public String messageId() {
+            return messageId;
+        }
+
+        public String body() {
+            return body;
+        }
+
+        public Map<String, String> attributes() {
+            return attributes;
+        }
+    }
+}
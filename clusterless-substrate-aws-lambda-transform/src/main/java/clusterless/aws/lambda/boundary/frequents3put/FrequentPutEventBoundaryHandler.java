@@ -12,12 +12,16 @@ import clusterless.aws.lambda.EventHandler;
 import clusterless.aws.lambda.arc.ArcNotifyEventPublisher;
 import clusterless.aws.lambda.manifest.ManifestWriter;
 import clusterless.aws.lambda.transform.json.event.AWSEvent;
+import clusterless.aws.lambda.util.KeyTimestampParser;
 import clusterless.aws.lambda.util.PathMatcher;
+import clusterless.aws.lambda.util.UniqueObjects;
 import clusterless.cls.model.UriType;
 import clusterless.cls.substrate.aws.sdk.S3;
 import clusterless.cls.substrate.aws.sdk.SQS;
 import clusterless.cls.util.Env;
+import clusterless.cls.util.Lazy;
 import clusterless.commons.temporal.IntervalBuilder;
+import clusterless.commons.temporal.IntervalUnits;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.events.S3Event;
 import com.amazonaws.services.lambda.runtime.events.models.s3.S3EventNotification;
@@ -33,16 +37,29 @@ import java.net.URI;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.OffsetDateTime;
-import java.util.LinkedHashSet;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Queue;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
+import static clusterless.cls.util.Threads.daemonThreads;
 import static software.amazon.awssdk.utils.StringUtils.isEmpty;
 
 public class FrequentPutEventBoundaryHandler extends EventHandler<AWSEvent, FrequentPutEventBoundaryObserver> {
     private static final Logger LOG = LogManager.getLogger(FrequentPutEventBoundaryHandler.class);
+    /**
+     * Consecutive receives holding only messages for a future lot before a receiver stops.
+     */
+    protected static final int FUTURE_ONLY_RECEIVES_LIMIT = 3;
+    /**
+     * The maximum visibility timeout allowed by SQS.
+     */
+    protected static final int MAX_VISIBILITY_TIMEOUT_SECONDS = 43200;
     public static final PojoSerializer<S3Event> serializer = LambdaEventSerializers.serializerFor(S3Event.class, S3Event.class.getClassLoader());
     protected final SQS sqs = new SQS();
     protected final FrequentS3PutBoundaryProps transformProps = Env.fromEnv(
@@ -53,9 +70,16 @@ public class FrequentPutEventBoundaryHandler extends EventHandler<AWSEvent, Freq
 
     protected final IntervalBuilder intervalBuilder = new IntervalBuilder(transformProps.lotUnit());
 
+    protected final Duration lotDuration = IntervalUnits.find(transformProps.lotUnit()).getDuration();
+
+    protected final Lazy<String> queueUrl = Lazy.of(this::lookupQueueUrl);
+
     protected ManifestWriter manifestWriter = new ManifestWriter(
             transformProps.manifestCompletePath(),
-            UriType.identifier
+            UriType.identifier,
+            transformProps.dataset().pathURI(),
+            transformProps.manifestFormat(),
+            transformProps.manifestUriEncoding()
     );
 
     protected ArcNotifyEventPublisher arcNotifyEventPublisher = new ArcNotifyEventPublisher(
@@ -71,6 +95,9 @@ public class FrequentPutEventBoundaryHandler extends EventHandler<AWSEvent, Freq
             .withExcludes(transformProps.filter().excludes())
             .build();
 
+    protected final KeyTimestampParser keyTimestampParser = transformProps.keyRegex() != null ?
+            KeyTimestampParser.of(transformProps.keyRegex(), transformProps.keyTimestampFormat()) : null;
+
     public FrequentPutEventBoundaryHandler() {
         super(AWSEvent.class);
     }
@@ -87,6 +114,11 @@ public class FrequentPutEventBoundaryHandler extends EventHandler<AWSEvent, Freq
                 LOG.info("dataset items size: {}", datasetItemsSize);
             }
 
+            @Override
+            public void applyDeferredMessagesSize(long deferredMessagesSize) {
+                LOG.info("deferred messages size: {}", deferredMessagesSize);
+            }
+
             @Override
             public void applyManifestURI(URI manifestURI) {
                 LOG.info("using manifest uri: {}", manifestURI);
@@ -117,98 +149,325 @@ public class FrequentPutEventBoundaryHandler extends EventHandler<AWSEvent, Freq
 
         eventObserver.applyLotId(lotId);
 
+        String queueUrl = this.queueUrl.get();
+
+        LOG.info("using queue: {}", queueUrl);
+
+        Instant deadline = deadlineFor(context);
+        int receivers = Math.max(1, transformProps.sqsReceivers());
+
+        LOG.info("draining queue with receivers: {}, until: {}", receivers, deadline == null ? "empty" : deadline);
+
+        Drain drain = new Drain(queueUrl, filterTime, deadline, eventObserver);
+
+        drain.drain(receivers);
+
+        List<URI> uris = drain.objects.uris();
+
+        LOG.info("dropped duplicate items: {}, overwritten items: {}", drain.objects.duplicates(), drain.objects.overwrites());
+
+        eventObserver.applyDuplicateItemsSize(drain.objects.duplicates());
+        eventObserver.applyDeferredMessagesSize(drain.deferred.sum());
+        eventObserver.applyDatasetItemsSize(uris.size());
+
+        URI manifestURI = uris.isEmpty() ?
+                manifestWriter.writeEmptyManifest(lotId) : manifestWriter.writeSuccessManifest(uris, lotId);
+
+        eventObserver.applyManifestURI(manifestURI);
+
+        arcNotifyEventPublisher.publishEvent(lotId, manifestURI);
+    }
+
+    protected String lookupQueueUrl() {
         SQS.Response urlResponse = sqs.queueUrl(transformProps.sqsQueueName());
 
         urlResponse.isSuccessOrThrowRuntime(
                 r -> String.format("unable to retrieve from queue url: %s, %s", transformProps.sqsQueueName(), r.errorMessage())
         );
 
-        String queueUrl = sqs.queueUrl(urlResponse);
+        return sqs.queueUrl(urlResponse);
+    }
 
-        LOG.info("using queue: {}", queueUrl);
+    /**
+     * Receiving stops at the deadline, leaving time to finish deletes, write the manifest, and publish the event.
+     * Any messages still in the queue will be collected into a later lot.
+     */
+    protected Instant deadlineFor(Context context) {
+        if (context == null) {
+            return null;
+        }
+
+        long budget = context.getRemainingTimeInMillis() - Duration.ofSeconds(transformProps.sqsDrainReserveSeconds()).toMillis();
+
+        return Instant.now().plusMillis(Math.max(0, budget));
+    }
+
+    /**
+     * Receives, parses, and deletes messages across one or more concurrent long-poll receivers.
+     * <p>
+     * Deletes are issued asynchronously so the next receive is not blocked, all deletes are confirmed
+     * before {@link #drain(int)} returns.
+     * <p>
+     * Messages sent after the filter time belong to a future lot, their visibility is extended until the next
+     * interval so they are not received again by this drain. A receiver stops once it only sees future lot messages,
+     * or sees one this drain already deferred.
+     */
+    protected class Drain {
+        final String queueUrl;
+        final Instant filterTime;
+        final Instant deadline;
+        final FrequentPutEventBoundaryObserver eventObserver;
+
+        final UniqueObjects objects = new UniqueObjects();
+        final Queue<Future<SQS.Response>> deletes = new ConcurrentLinkedQueue<>();
+        final Queue<Future<SQS.Response>> deferrals = new ConcurrentLinkedQueue<>();
+        final LongAdder deferred = new LongAdder();
+        final AtomicInteger futureOnlyReceives = new AtomicInteger();
+        final Set<String> deferredIds = ConcurrentHashMap.newKeySet();
+        final AtomicBoolean redelivered = new AtomicBoolean(false);
+        final LongAdder getNanos = new LongAdder();
+        final LongAdder deleteNanos = new LongAdder();
+        final AtomicBoolean expired = new AtomicBoolean(false);
+
+        ExecutorService deleteExecutor;
+
+        protected Drain(String queueUrl, Instant filterTime, Instant deadline, FrequentPutEventBoundaryObserver eventObserver) {
+            this.queueUrl = queueUrl;
+            this.filterTime = filterTime;
+            this.deadline = deadline;
+            this.eventObserver = eventObserver;
+        }
+
+        protected void drain(int receivers) {
+            Stopwatch stopwatch = Stopwatch.createStarted();
+
+            deleteExecutor = Executors.newFixedThreadPool(receivers, daemonThreads("sqs-delete"));
+            ExecutorService receiveExecutor = receivers == 1 ? null : Executors.newFixedThreadPool(receivers, daemonThreads("sqs-receive"));
+
+            try {
+                if (receiveExecutor == null) {
+                    receive();
+                } else {
+                    List<Future<?>> futures = new ArrayList<>(receivers);
 
-        Set<String> skipped = new LinkedHashSet<>();
-        List<URI> uris = new LinkedList<>();
+                    for (int i = 0; i < receivers; i++) {
+                        futures.add(receiveExecutor.submit(this::receive));
+                    }
 
-        Stopwatch getStopwatch = Stopwatch.createUnstarted();
-        Stopwatch deleteStopwatch = Stopwatch.createUnstarted();
+                    for (Future<?> future : futures) {
+                        await(future);
+                    }
+                }
+
+                LOG.info("awaiting deletes: {}", deletes.size());
 
-        while (true) {
-            getStopwatch.start();
-            SQS.Response messagesResponse = sqs.get(queueUrl, transformProps.sqsWaitTimeSeconds());
-            getStopwatch.stop();
+                for (Future<SQS.Response> delete : deletes) {
+                    await(delete).isSuccessOrThrowRuntime(
+                            r -> String.format("unable to delete messages from queue: %s, %s", queueUrl, r.errorMessage())
+                    );
+                }
 
-            messagesResponse.isSuccessOrThrowRuntime(
-                    r -> String.format("unable to retrieve messages from queue: %s, %s", queueUrl, r.errorMessage())
-            );
+                // a failed deferral only means the messages may be received again, and skipped again
+                for (Future<SQS.Response> deferral : deferrals) {
+                    SQS.Response response = await(deferral);
 
-            List<Message> messages = sqs.get(messagesResponse);
+                    if (!response.isSuccess()) {
+                        LOG.warn("unable to change message visibility on queue: {}, {}", queueUrl, response.errorMessage());
+                    }
+                }
+            } finally {
+                deleteExecutor.shutdownNow();
 
-            // if we have previously skipped the message, skip it again
-            // note original messages object is unmodifiable
-            if (!skipped.isEmpty()) {
-                messages = messages.stream()
-                        .filter(m -> !skipped.contains(m.messageId()))
-                        .collect(Collectors.toList());
+                if (receiveExecutor != null) {
+                    receiveExecutor.shutdownNow();
+                }
             }
 
-            LOG.info("received new messages: {}", messages.size());
+            stopwatch.stop();
 
-            if (messages.isEmpty()) {
-                break;
+            if (expired.get()) {
+                LOG.warn("stopped receiving on time budget, remaining messages will be collected in a later lot");
             }
 
-            List<String> deleteMessages = new LinkedList<>();
+            Duration getElapsed = Duration.ofNanos(getNanos.sum());
+            Duration deleteElapsed = Duration.ofNanos(deleteNanos.sum());
+            LOG.info("durations for, get: {}, delete: {}, total: {}, elapsed: {}", getElapsed, deleteElapsed, getElapsed.plus(deleteElapsed), stopwatch.elapsed());
+        }
+
+        protected void receive() {
+            while (true) {
+                if (deadline != null && Instant.now().isAfter(deadline)) {
+                    expired.set(true);
+                    return;
+                }
+
+                long start = System.nanoTime();
+                SQS.Response messagesResponse = sqs.get(queueUrl, transformProps.sqsWaitTimeSeconds());
+                getNanos.add(System.nanoTime() - start);
+
+                messagesResponse.isSuccessOrThrowRuntime(
+                        r -> String.format("unable to retrieve messages from queue: %s, %s", queueUrl, r.errorMessage())
+                );
+
+                List<Message> messages = sqs.get(messagesResponse);
 
-            for (Message message : messages) {
-                String sentTimestamp = message.attributes().get(MessageSystemAttributeName.SENT_TIMESTAMP);
-                Instant messageSentTime = Instant.ofEpochMilli(Long.parseLong(sentTimestamp));
+                LOG.info("received messages: {}", messages.size());
 
-                if (messageSentTime.isAfter(filterTime)) {
-                    skipped.add(message.messageId());
-                    LOG.info("{}, message sent time: {}, filter time: {}, skipping", message.messageId(), messageSentTime, filterTime);
-                    continue;
+                if (messages.isEmpty()) {
+                    return;
                 }
 
-                deleteMessages.add(message.receiptHandle());
+                List<String> deleteMessages = new LinkedList<>();
+                List<String> deferMessages = new LinkedList<>();
 
-                S3Event s3Event = serializer.fromJson(message.body());
-                List<S3EventNotification.S3EventNotificationRecord> records = s3Event.getRecords();
+                for (Message message : messages) {
+                    String sentTimestamp = message.attributes().get(MessageSystemAttributeName.SENT_TIMESTAMP);
+                    Instant messageSentTime = Instant.ofEpochMilli(Long.parseLong(sentTimestamp));
 
-                LOG.info("{}, received records: {}", message.messageId(), records.size());
+                    S3Event s3Event = keyTimestampParser == null ? null : serializer.fromJson(message.body());
 
-                records.stream()
-                        .map(S3EventNotification.S3EventNotificationRecord::getS3)
-                        .map(this::uriFromDetail)
-                        .filter(uri -> !isEmpty(uri.getPath()) && uri.getPath().charAt(uri.getPath().length() - 1) != '/') // only retain files
-                        .peek(eventObserver::applyIdentifierURI)
-                        .filter(pathMatcher::keep)
-                        .forEach(uris::add);
-            }
+                    // if given, the key timestamp places the object in a lot, otherwise the time the message was sent
+                    Instant messageTime = s3Event == null ? messageSentTime : keyTime(s3Event, messageSentTime);
 
-            LOG.info("deleting messages: {}", deleteMessages.size());
+                    if (messageTime.isAfter(filterTime)) {
+                        // a future lot message deferred by this drain is visible again, the queue is likely caught up,
+                        // messages deferred by a prior drain, or held by a far future key, are deferred again
+                        if (!deferredIds.add(message.messageId())) {
+                            redelivered.set(true);
+                        }
 
-            if (!deleteMessages.isEmpty()) {
-                deleteStopwatch.start();
-                sqs.delete(queueUrl, deleteMessages).isSuccessOrThrowRuntime(
-                        r -> String.format("unable to delete messages from queue: %s, %s", queueUrl, r.errorMessage())
-                );
-                deleteStopwatch.stop();
+                        deferMessages.add(message.receiptHandle());
+                        LOG.debug("{}, message time: {}, filter time: {}, deferring", message.messageId(), messageTime, filterTime);
+                        continue;
+                    }
+
+                    deleteMessages.add(message.receiptHandle());
+
+                    if (s3Event == null) {
+                        s3Event = serializer.fromJson(message.body());
+                    }
+
+                    List<S3EventNotification.S3EventNotificationRecord> records = s3Event.getRecords();
+
+                    LOG.info("{}, received records: {}", message.messageId(), records.size());
+
+                    for (S3EventNotification.S3EventNotificationRecord record : records) {
+                        S3EventNotification.S3Entity entity = record.getS3();
+                        URI uri = uriFromDetail(entity);
+
+                        // only retain files
+                        if (!isFile(uri)) {
+                            continue;
+                        }
+
+                        eventObserver.applyIdentifierURI(uri);
+
+                        if (!pathMatcher.keep(uri)) {
+                            continue;
+                        }
+
+                        // notifications are delivered at least once, retain each object once
+                        objects.add(entity.getBucket().getName(), entity.getObject().getKey(), entity.getObject().getSequencer());
+                    }
+                }
+
+                LOG.info("deleting messages: {}, deferring messages: {}", deleteMessages.size(), deferMessages.size());
+
+                if (!deferMessages.isEmpty()) {
+                    defer(deferMessages);
+                }
+
+                if (!deleteMessages.isEmpty()) {
+                    deletes.add(deleteExecutor.submit(() -> {
+                        long deleteStart = System.nanoTime();
+                        try {
+                            return sqs.delete(queueUrl, deleteMessages);
+                        } finally {
+                            deleteNanos.add(System.nanoTime() - deleteStart);
+                        }
+                    }));
+                }
+
+                if (!deleteMessages.isEmpty()) {
+                    futureOnlyReceives.set(0);
+                } else if (futureOnlyReceives.incrementAndGet() >= FUTURE_ONLY_RECEIVES_LIMIT || redelivered.get()) {
+                    LOG.info("only receiving future lot messages, receives: {}, redelivered: {}", futureOnlyReceives.get(), redelivered.get());
+                    return;
+                }
             }
         }
 
-        Duration getElapsed = getStopwatch.elapsed();
-        Duration deleteElapsed = deleteStopwatch.elapsed();
-        LOG.info("durations for, get: {}, delete: {}, total: {}", getElapsed, deleteElapsed, getElapsed.plus(deleteElapsed));
+        /**
+         * Hides the messages until the next interval begins, where they will be collected by the next drain.
+         */
+        protected void defer(List<String> receiptHandles) {
+            deferred.add(receiptHandles.size());
 
-        eventObserver.applyDatasetItemsSize(uris.size());
+            int visibilityTimeout = deferVisibilityTimeout(Instant.now());
 
-        URI manifestURI = uris.isEmpty() ?
-                manifestWriter.writeEmptyManifest(lotId) : manifestWriter.writeSuccessManifest(uris, lotId);
+            deferrals.add(deleteExecutor.submit(() -> sqs.changeVisibility(queueUrl, receiptHandles, visibilityTimeout)));
+        }
 
-        eventObserver.applyManifestURI(manifestURI);
+        protected int deferVisibilityTimeout(Instant now) {
+            Instant nextInterval = filterTime.plus(lotDuration);
+            long seconds = Duration.between(now, nextInterval).toSeconds();
 
-        arcNotifyEventPublisher.publishEvent(lotId, manifestURI);
+            return (int) Math.max(1, Math.min(MAX_VISIBILITY_TIMEOUT_SECONDS, seconds));
+        }
+    }
+
+    /**
+     * The latest timestamp parsed from the keys of the retained event records.
+     * <p>
+     * Keys not matching the regex fall back to the default time, so a stray object cannot stall the queue.
+     */
+    protected Instant keyTime(S3Event s3Event, Instant defaultTime) {
+        if (s3Event.getRecords() == null || s3Event.getRecords().isEmpty()) {
+            return defaultTime;
+        }
+
+        Instant latest = null;
+
+        for (S3EventNotification.S3EventNotificationRecord record : s3Event.getRecords()) {
+            URI uri = uriFromDetail(record.getS3());
+
+            if (!isFile(uri) || !pathMatcher.keep(uri)) {
+                continue;
+            }
+
+            String key = record.getS3().getObject().getUrlDecodedKey();
+            Instant keyTime = keyTimestampParser.find(key).orElse(null);
+
+            if (keyTime == null) {
+                LOG.warn("key does not match key regex, using sent time: {}, key: {}", defaultTime, key);
+                keyTime = defaultTime;
+            }
+
+            if (latest == null || keyTime.isAfter(latest)) {
+                latest = keyTime;
+            }
+        }
+
+        return latest == null ? defaultTime : latest;
+    }
+
+    private static boolean isFile(URI uri) {
+        return !isEmpty(uri.getPath()) && uri.getPath().charAt(uri.getPath().length() - 1) != '/';
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while draining queue", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+
+            throw new IllegalStateException(e.getCause());
+        }
     }
 
     private URI uriFromDetail(S3EventNotification.S3Entity event) {
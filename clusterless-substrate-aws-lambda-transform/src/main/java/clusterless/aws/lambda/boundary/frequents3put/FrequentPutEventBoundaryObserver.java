@@ -22,6 +22,14 @@ public interface FrequentPutEventBoundaryObserver extends EventObserver {
 
     }
 
+    default void applyDuplicateItemsSize(long duplicateItemsSize) {
+
+    }
+
+    default void applyDeferredMessagesSize(long deferredMessagesSize) {
+
+    }
+
     default void applyManifestURI(URI manifestURI) {
 
     }
@@ -12,6 +12,7 @@ import clusterless.aws.lambda.EventHandler;
 import clusterless.aws.lambda.arc.ArcNotifyEventPublisher;
 import clusterless.aws.lambda.manifest.ManifestWriter;
 import clusterless.aws.lambda.transform.json.object.AWSEvent;
+import clusterless.aws.lambda.util.KeyTimestampParser;
 import clusterless.aws.lambda.util.PathMatcher;
 import clusterless.cls.model.UriType;
 import clusterless.cls.substrate.aws.sdk.S3;
@@ -22,6 +23,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.net.URI;
+import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -42,7 +44,10 @@ public class PutEventBoundaryHandler extends EventHandler<AWSEvent, PutEventBoun
 
     protected ManifestWriter manifestWriter = new ManifestWriter(
             transformProps.manifestCompletePath(),
-            UriType.identifier
+            UriType.identifier,
+            transformProps.dataset().pathURI(),
+            transformProps.manifestFormat(),
+            transformProps.manifestUriEncoding()
     );
 
     protected ArcNotifyEventPublisher arcNotifyEventPublisher = new ArcNotifyEventPublisher(
@@ -58,6 +63,9 @@ public class PutEventBoundaryHandler extends EventHandler<AWSEvent, PutEventBoun
             .withExcludes(transformProps.filter().excludes())
             .build();
 
+    protected final KeyTimestampParser keyTimestampParser = transformProps.lotSource() == LotSource.keyTimestampRegex ?
+            KeyTimestampParser.of(transformProps.keyRegex(), transformProps.keyTimestampFormat()) : null;
+
     public PutEventBoundaryHandler() {
         super(AWSEvent.class);
     }
@@ -110,15 +118,16 @@ public class PutEventBoundaryHandler extends EventHandler<AWSEvent, PutEventBoun
         String lotId =
                 switch (transformProps.lotSource()) {
                     case eventTime -> intervalBuilder.truncateAndFormat(time);
-                    case objectModifiedTime -> fromModifiedTime(identifier);
-                    case keyTimestampRegex -> null;
+                    // object created events are emitted when the object is written, so the event time is used if present
+                    case objectModifiedTime -> time != null ? intervalBuilder.truncateAndFormat(time) : fromModifiedTime(identifier);
+                    case keyTimestampRegex -> intervalBuilder.truncateAndFormat(keyTime(key, time));
                 };
 
         eventObserver.applyLotId(lotId);
 
         List<URI> uris = Collections.emptyList();
 
-        if (pathMatcher.keep(key)) {
+        if (pathMatcher.keep(identifier)) {
             uris = List.of(identifier);
         }
 
@@ -132,6 +141,17 @@ public class PutEventBoundaryHandler extends EventHandler<AWSEvent, PutEventBoun
         arcNotifyEventPublisher.publishEvent(lotId, manifestURI);
     }
 
+    /**
+     * The timestamp parsed from the key, or the event time if the key does not match.
+     */
+    private Instant keyTime(String key, OffsetDateTime time) {
+        return keyTimestampParser.find(key)
+                .orElseGet(() -> {
+                    LOG.warn("key does not match key regex, using event time: {}, key: {}", time, key);
+                    return time.toInstant();
+                });
+    }
+
     private String fromModifiedTime(URI objectPath) {
         S3.Response response = s3.exists(objectPath);
 
@@ -27,6 +27,12 @@ public class GlueAddPartitionsProps extends WorkloadProps {
 
     PartitionResults partitionResults = PartitionResults.added;
 
+    int concurrency = 4;
+
+    int partitionCacheSize = 100_000;
+
+    int partitionCacheTTLMinutes = 60;
+
     public PartitionType partitionType() {
         return partitionType;
     }
@@ -38,4 +44,16 @@ public class GlueAddPartitionsProps extends WorkloadProps {
     public PartitionResults partitionResults() {
         return partitionResults;
     }
+
+    public int concurrency() {
+        return concurrency;
+    }
+
+    public int partitionCacheSize() {
+        return partitionCacheSize;
+    }
+
+    public int partitionCacheTTLMinutes() {
+        return partitionCacheTTLMinutes;
+    }
 }
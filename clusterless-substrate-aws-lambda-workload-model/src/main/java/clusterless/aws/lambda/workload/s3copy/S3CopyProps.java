@@ -16,6 +16,14 @@ public class S3CopyProps extends WorkloadProps {
 
     float failArcOnPartialPercent = 0f;
 
+    int copyConcurrency = 10;
+
+    long multipartThresholdMB = 5 * 1024;
+
+    long multipartPartSizeMB = 256;
+
+    int multipartConcurrency = 8;
+
     public PathFilter filter() {
         return filter;
     }
@@ -23,4 +31,20 @@ public class S3CopyProps extends WorkloadProps {
     public float failArcOnPartialPercent() {
         return failArcOnPartialPercent;
     }
+
+    public int copyConcurrency() {
+        return copyConcurrency;
+    }
+
+    public long multipartThresholdMB() {
+        return multipartThresholdMB;
+    }
+
+    public long multipartPartSizeMB() {
+        return multipartPartSizeMB;
+    }
+
+    public int multipartConcurrency() {
+        return multipartConcurrency;
+    }
 }
@@ -26,6 +26,7 @@ import org.junit.jupiter.api.TestFactory;
 import software.amazon.awssdk.services.glue.model.Table;
 
 import java.net.URI;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
 
@@ -114,7 +115,7 @@ public class GlueAddPartitionsArcEventHandlerTest extends LocalStackBase {
         Assertions.assertFalse(result.isEmpty());
 
         ArcNotifyEvent arcNotifyEvent = arcWorkloadContext.arcNotifyEvent();
-        verify(eventObserver).applyFromManifest(argThat(u -> u.equals(arcNotifyEvent.manifest())), argThat(m -> m.uris().size() == 1));
+        verify(eventObserver).applyFromManifest(argThat(u -> u.equals(arcNotifyEvent.manifest())), argThat(h -> h.count() == 1));
         verify(eventObserver).applyFromManifest(argThat(u -> u.equals(arcNotifyEvent.manifest())), isNotNull());
         verify(eventObserver).applyFromManifest(argThat(u -> u.equals(arcNotifyEvent.manifest())), isNotNull());
 
@@ -137,6 +138,11 @@ public class GlueAddPartitionsArcEventHandlerTest extends LocalStackBase {
         when(glue.addPartitions(nullable(String.class), any(Table.class), anyMap())).thenReturn(partitionResponse);
         when(glue.hasBatchErrors(any())).thenReturn(false);
 
+        Glue.Response listResponse = mock();
+        when(listResponse.isSuccess()).thenReturn(true);
+        when(glue.listPartitions(nullable(String.class), anyString(), anyString(), anyInt(), nullable(String.class))).thenReturn(listResponse);
+        when(glue.listPartitions(listResponse)).thenReturn(List.of());
+
         return glue;
     }
 
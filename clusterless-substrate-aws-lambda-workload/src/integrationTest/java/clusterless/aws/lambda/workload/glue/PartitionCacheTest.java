@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package clusterless.aws.lambda.workload.glue;
+
+import clusterless.cls.substrate.aws.sdk.Glue;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.glue.model.Partition;
+import software.amazon.awssdk.services.glue.model.Table;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class PartitionCacheTest {
+    Table table = Table.builder()
+            .databaseName("database")
+            .name("table")
+            .build();
+
+    Glue glue;
+    Glue.Response first;
+
+    @BeforeEach
+    void setUp() {
+        glue = mock();
+
+        // two pages of existing partitions
+        first = mock();
+        Glue.Response second = mock();
+        when(first.isSuccess()).thenReturn(true);
+        when(second.isSuccess()).thenReturn(true);
+
+        when(glue.listPartitions(nullable(String.class), eq("database"), eq("table"), anyInt(), isNull())).thenReturn(first);
+        when(glue.listPartitions(nullable(String.class), eq("database"), eq("table"), anyInt(), eq("page-2"))).thenReturn(second);
+        when(glue.listPartitions(first)).thenReturn(List.of(partition("a", "1"), partition("a", "2")));
+        when(glue.listPartitions(second)).thenReturn(List.of(partition("b", "1")));
+        when(glue.nextToken(first)).thenReturn("page-2");
+        when(glue.nextToken(second)).thenReturn(null);
+    }
+
+    static Partition partition(String... values) {
+        return Partition.builder()
+                .values(values)
+                .build();
+    }
+
+    static Map<URI, List<String>> partitions(String... values) {
+        Map<URI, List<String>> partitions = new LinkedHashMap<>();
+
+        for (int i = 0; i < values.length; i += 2) {
+            partitions.put(URI.create("s3://bucket/%s/%s/".formatted(values[i], values[i + 1])), List.of(values[i], values[i + 1]));
+        }
+
+        return partitions;
+    }
+
+    @Test
+    void filtersKnown() {
+        PartitionCache cache = new PartitionCache(100, Duration.ofHours(1));
+
+        Map<URI, List<String>> unknown = cache.unknown(glue, null, table, partitions("a", "1", "b", "1", "c", "1"));
+
+        Assertions.assertEquals(partitions("c", "1"), unknown);
+        Assertions.assertEquals(3, cache.size(null, table));
+
+        cache.addAll(null, table, unknown.values());
+
+        Assertions.assertTrue(cache.unknown(glue, null, table, partitions("c", "1")).isEmpty());
+
+        // seeded once
+        verify(glue, times(2)).listPartitions(nullable(String.class), anyString(), anyString(), anyInt(), nullable(String.class));
+    }
+
+    @Test
+    void reloadsAfterTTL() {
+        Instant now = Instant.parse("2023-01-01T00:00:00Z");
+        Clock clock = mock();
+        Instant later = now.plus(Duration.ofMinutes(61));
+        // loaded, then expired on the next lookup, and reloaded
+        when(clock.instant()).thenReturn(now, later, later);
+
+        PartitionCache cache = new PartitionCache(100, Duration.ofHours(1), clock);
+
+        cache.unknown(glue, null, table, partitions("a", "1"));
+        cache.unknown(glue, null, table, partitions("a", "1"));
+
+        verify(glue, times(4)).listPartitions(nullable(String.class), anyString(), anyString(), anyInt(), nullable(String.class));
+    }
+
+    @Test
+    void bounded() {
+        PartitionCache cache = new PartitionCache(2, Duration.ofHours(1), Clock.fixed(Instant.EPOCH, ZoneOffset.UTC));
+
+        Map<URI, List<String>> unknown = cache.unknown(glue, null, table, partitions("a", "1", "b", "1"));
+
+        Assertions.assertEquals(partitions("b", "1"), unknown);
+        Assertions.assertEquals(2, cache.size(null, table));
+
+        cache.addAll(null, table, unknown.values());
+
+        Assertions.assertEquals(2, cache.size(null, table));
+    }
+
+    /**
+     * Hits are not verified, a partition dropped after the table was listed is skipped until the ttl expires.
+     */
+    @Test
+    void droppedUntilTTL() {
+        Instant now = Instant.parse("2023-01-01T00:00:00Z");
+        Clock clock = mock();
+        Instant later = now.plus(Duration.ofMinutes(61));
+        // loaded, still valid, then expired on the last lookup, and reloaded
+        when(clock.instant()).thenReturn(now, now, later, later);
+
+        PartitionCache cache = new PartitionCache(100, Duration.ofHours(1), clock);
+
+        Assertions.assertTrue(cache.unknown(glue, null, table, partitions("a", "1")).isEmpty());
+
+        // dropped from the table
+        when(glue.listPartitions(first)).thenReturn(List.of(partition("a", "2")));
+
+        Assertions.assertTrue(cache.unknown(glue, null, table, partitions("a", "1")).isEmpty());
+        Assertions.assertEquals(partitions("a", "1"), cache.unknown(glue, null, table, partitions("a", "1")));
+    }
+}
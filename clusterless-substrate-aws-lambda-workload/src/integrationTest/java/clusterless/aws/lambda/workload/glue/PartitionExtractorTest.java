@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package clusterless.aws.lambda.workload.glue;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+public class PartitionExtractorTest {
+    static final Function<String, String> NAMED = s -> s.substring(s.indexOf('=') + 1);
+
+    static List<URI> uris(String... uris) {
+        return Arrays.stream(uris).map(URI::create).toList();
+    }
+
+    @Test
+    void identifiers() {
+        PartitionExtractor extractor = new PartitionExtractor(URI.create("s3://bucket/dataset"), true, NAMED);
+
+        Map<String, List<String>> result = extractor.extract(uris(
+                "s3://bucket/dataset/a=1/b=2/part-0.csv",
+                "s3://bucket/dataset/a=1/b=2/part-1.csv",
+                "s3://bucket/dataset/a=1/b=3/part-0.csv",
+                "s3://bucket/dataset/a=1/b=2/part-2.csv",
+                "s3://bucket/dataset/a=2//b=1/part-0.csv",
+                "s3://bucket/dataset/root.csv"
+        ));
+
+        Assertions.assertEquals(
+                Map.of(
+                        "a=1/b=2", List.of("1", "2"),
+                        "a=1/b=3", List.of("1", "3"),
+                        "a=2/b=1", List.of("2", "1")
+                ),
+                result
+        );
+    }
+
+    @Test
+    void paths() {
+        PartitionExtractor extractor = new PartitionExtractor(URI.create("s3://bucket/dataset/"), false, Function.identity());
+
+        Map<String, List<String>> result = extractor.extract(uris(
+                "s3://bucket/dataset/2023/01/",
+                "s3://bucket/dataset/2023/01",
+                "s3://bucket/dataset/2023/02/"
+        ));
+
+        Assertions.assertEquals(List.of("2023/01", "2023/02"), List.copyOf(result.keySet()));
+        Assertions.assertEquals(List.of("2023", "02"), result.get("2023/02"));
+    }
+
+    @Test
+    void outsideDataset() {
+        PartitionExtractor extractor = new PartitionExtractor(URI.create("s3://bucket/dataset/"), true, NAMED);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> extractor.extract(uris("s3://bucket/other/a=1/part-0.csv")));
+    }
+}
@@ -97,7 +97,7 @@ public class S3CopyArcEventHandlerTest extends LocalStackBase {
         Assertions.assertFalse(result.isEmpty());
 
         ArcNotifyEvent arcNotifyEvent = arcWorkloadContext.arcNotifyEvent();
-        verify(eventObserver).applyFromManifest(argThat(u -> u.equals(arcNotifyEvent.manifest())), argThat(m -> m.uris().size() == 1));
+        verify(eventObserver).applyFromManifest(argThat(u -> u.equals(arcNotifyEvent.manifest())), argThat(h -> h.count() == 1));
         verify(eventObserver).applyFromManifest(argThat(u -> u.equals(arcNotifyEvent.manifest())), isNotNull());
         verify(eventObserver).applyFromManifest(argThat(u -> u.equals(arcNotifyEvent.manifest())), isNotNull());
 
@@ -15,28 +15,42 @@ import clusterless.aws.lambda.manifest.ManifestReader;
 import clusterless.aws.lambda.manifest.ManifestWriter;
 import clusterless.cls.model.UriType;
 import clusterless.cls.model.deploy.SinkDataset;
-import clusterless.cls.model.manifest.Manifest;
+import clusterless.cls.model.manifest.ManifestHeader;
 import clusterless.cls.model.manifest.ManifestState;
+import clusterless.cls.model.manifest.ManifestStreamReader;
 import clusterless.cls.substrate.aws.event.ArcNotifyEvent;
 import clusterless.cls.substrate.aws.event.ArcWorkloadContext;
+import clusterless.cls.substrate.aws.sdk.ClientBase;
 import clusterless.cls.substrate.aws.sdk.Glue;
 import clusterless.cls.util.URIs;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Streams;
+import io.github.resilience4j.core.IntervalFunction;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
+import software.amazon.awssdk.services.glue.model.PartitionError;
 import software.amazon.awssdk.services.glue.model.Table;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static clusterless.cls.util.Threads.daemonThreads;
+
 /**
  *
  */
@@ -45,12 +59,29 @@ public class GlueAddPartitionsArcEventHandler extends ArcEventHandler<GlueAddPar
 
     protected static Glue glue = new Glue();
     protected static final AttemptCounter attemptCounter = new AttemptCounter();
+    protected static final int MAX_BATCH_SIZE = 100;
+    /**
+     * Partition errors within a batch that are resubmitted, all others are reported
+     */
+    protected static final Set<String> RETRYABLE_ERRORS = Set.of(
+            "ThrottlingException",
+            "InternalServiceException",
+            "ConcurrentModificationException",
+            "OperationTimeoutException"
+    );
+    /**
+     * Retained across invocations of a warm lambda, see {@link #partitionCache()}
+     */
+    protected static PartitionCache partitionCache;
+    protected static IntervalFunction retryInterval = IntervalFunction.ofExponentialRandomBackoff(Duration.ofMillis(200), 2.0, 0.5, Duration.ofSeconds(10));
 
     protected ManifestReader manifestReader = new ManifestReader();
     protected Map<String, ManifestWriter> manifestWriters = ManifestWriter.writers(
             arcProps().sinks(),
             arcProps().sinkManifestTemplates(),
-            UriType.identifier
+            UriType.identifier,
+            arcProps().manifestFormat(),
+            arcProps().manifestUriEncoding()
     );
     private final Function<String, String> partitionParser = workloadProperties().partitionType() == GlueAddPartitionsProps.PartitionType.named ? this::createNamedPartitionValue : this::createPartitionValue;
     private Table table;
@@ -62,38 +93,35 @@ public class GlueAddPartitionsArcEventHandler extends ArcEventHandler<GlueAddPar
         String lotId = notifyEvent.lot();
         URI incomingManifestIdentifier = notifyEvent.manifest();
 
-        Manifest incomingManifest = manifestReader.getManifest(incomingManifestIdentifier);
+        URI fromDatasetPath = notifyEvent.dataset().pathURI();
+        ManifestHeader incomingHeader;
+        Map<String, List<String>> uniquePartitions;
+
+        // only the unique partitions are retained, not the uris
+        try (ManifestStreamReader reader = manifestReader.openManifest(incomingManifestIdentifier)) {
+            incomingHeader = reader.header();
+
+            // remove filename or prefix if not a path
+            uniquePartitions = new PartitionExtractor(fromDatasetPath, incomingHeader.uriType() != UriType.path, partitionParser)
+                    .extract(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
 
-        eventObserver.applyFromManifest(incomingManifestIdentifier, incomingManifest);
+        eventObserver.applyFromManifest(incomingManifestIdentifier, incomingHeader);
 
         Map<String, URI> result = new LinkedHashMap<>();
 
-        URI fromDatasetPath = notifyEvent.dataset().pathURI();
-        Path parent = Paths.get(fromDatasetPath.getPath());
-        List<URI> fromUris = incomingManifest.uris();
-
-        Set<Path> uniquePaths = fromUris.stream()
-                .map(u -> parent.relativize(Paths.get(u.getPath())))
-                .map(p -> incomingManifest.uriType() == UriType.path ? p : p.getParent()) // remove filename or prefix if not a path
-                .collect(Collectors.toSet());
-
-        Map<URI, List<String>> partitions = uniquePaths.stream()
-                .collect(Collectors.toMap(
-                        p -> URIs.copyAppendAsPath(fromDatasetPath, p.toString()),
-                        p -> {
-                            List<String> partitionValues = new LinkedList<>();
-                            for (int i = 0; i < p.getNameCount(); i++) {
-                                partitionValues.add(partitionParser.apply(p.getName(i).getFileName().toString()));
-                            }
-                            return partitionValues;
-                        }
-                ));
+        long fromCount = incomingHeader.count();
+
+        Map<URI, List<String>> partitions = new LinkedHashMap<>();
+        uniquePartitions.forEach((p, values) -> partitions.put(URIs.copyAppendAsPath(fromDatasetPath, p), values));
 
         for (Map.Entry<String, SinkDataset> sinkRoleEntry : arcProps().sinks().entrySet()) {
             String toRole = sinkRoleEntry.getKey();
             ManifestWriter manifestWriter = manifestWriters.get(toRole);
 
-            if (incomingManifest.state() == ManifestState.empty) {
+            if (incomingHeader.state() == ManifestState.empty) {
                 LOG.info("manifest state empty, role: {} -> {}", fromRole, toRole);
                 URI manifestURI = manifestWriter.writeEmptyManifest(lotId);
                 result.put(toRole, manifestURI);
@@ -108,7 +136,7 @@ public class GlueAddPartitionsArcEventHandler extends ArcEventHandler<GlueAddPar
 
             URI toDatasetPath = sinkDataset.pathURI(); // glue://catalog/database/table
 
-            List<URI> results = uniquePaths.stream().map(p -> URIs.copyAppend(toDatasetPath, p.toString()))
+            List<URI> results = uniquePartitions.keySet().stream().map(p -> URIs.copyAppend(toDatasetPath, p))
                     .toList();
 
             Path path = Paths.get(toDatasetPath.getPath());
@@ -126,38 +154,47 @@ public class GlueAddPartitionsArcEventHandler extends ArcEventHandler<GlueAddPar
 
             LOG.info("database: {}, table: {}, storageDescriptor: {}", table.databaseName(), table.name(), table.storageDescriptor());
 
-            List<String> errors = new LinkedList<>();
-            List<List<String>> failed = new LinkedList<>();
-            List<List<String>> exists = new LinkedList<>();
+            // batches are added concurrently, so errors may arrive from many threads
+            List<String> errors = Collections.synchronizedList(new LinkedList<>());
+            List<List<String>> failed = Collections.synchronizedList(new LinkedList<>());
+            List<List<String>> exists = Collections.synchronizedList(new LinkedList<>());
 
-            Stream<Map<URI, List<String>>> batches = batch(partitions, 100);
+            PartitionCache cache = partitionCache();
+            Map<URI, List<String>> unknown = partitions;
 
-            batches.forEach(batch -> {
-                Glue.Response response = glue.addPartitions(catalog, table, batch);
+            // skip partitions known to exist, they are accounted for as already existing
+            if (cache != null) {
+                unknown = cache.unknown(glue, catalog, table, partitions);
 
-                // fail if the api call outright fails
-                response.isSuccessOrThrowRuntime(
-                        r -> String.format("unable to create partitions in: %s/%s, %s", databaseName, tableName, r.errorMessage())
-                );
+                Map<URI, List<String>> filtered = unknown;
+                partitions.forEach((location, values) -> {
+                    if (!filtered.containsKey(location)) {
+                        exists.add(values);
+                    }
+                });
 
-                // if the batch request has errors, log them
-                if (glue.hasBatchErrors(response)) {
-                    glue.batchErrors(response, partitionError -> {
-                        // need to disambiguate duplicates vs other errors
-                        LOG.info("batch error: {}", partitionError);
-                        String errorCode = partitionError.errorDetail().errorCode();
-
-                        // unsure if this is the right way to disambiguate
-                        if ("AlreadyExistsException".equals(errorCode)) {
-                            exists.add(partitionError.partitionValues());
-                        } else {
-                            errors.add(partitionError.toString());
-                            failed.add(partitionError.partitionValues());
-                        }
-                    });
+                eventObserver.applyCacheHits(toRole, partitions.size() - unknown.size(), unknown.size());
+            }
+
+            addPartitions(catalog, table, unknown, partitionError -> {
+                // need to disambiguate duplicates vs other errors
+                LOG.info("batch error: {}", partitionError);
+                String errorCode = partitionError.errorDetail().errorCode();
+
+                // unsure if this is the right way to disambiguate
+                if ("AlreadyExistsException".equals(errorCode)) {
+                    exists.add(partitionError.partitionValues());
+                } else {
+                    errors.add(partitionError.toString());
+                    failed.add(partitionError.partitionValues());
                 }
             });
 
+            if (cache != null) {
+                Set<List<String>> notAdded = new HashSet<>(failed);
+                cache.addAll(catalog, table, unknown.values().stream().filter(v -> !notAdded.contains(v)).toList());
+            }
+
             List<URI> success;
             switch (workloadProperties().partitionResults()) {
                 case none -> {
@@ -182,7 +219,7 @@ public class GlueAddPartitionsArcEventHandler extends ArcEventHandler<GlueAddPar
             // they all failed, throw an exception
             if (failed.size() == partitions.size()) {
                 String errorMessages = errors.stream().limit(5).collect(Collectors.joining(", "));
-                LOG.error("failed to add partitions, role: {} -> {}, having: {}, partitions: {}, errors: {}", fromRole, toRole, fromUris.size(), partitions.size(), errorMessages);
+                LOG.error("failed to add partitions, role: {} -> {}, having: {}, partitions: {}, errors: {}", fromRole, toRole, fromCount, partitions.size(), errorMessages);
                 throw new RuntimeException("of partitions: %s, succeeded: %s, failed: %s, with errors: %s".formatted(partitions.size(), partitions.size() - exists.size(), failed.size(), errorMessages));
             }
 
@@ -191,7 +228,7 @@ public class GlueAddPartitionsArcEventHandler extends ArcEventHandler<GlueAddPar
             // some failed
             if (!failed.isEmpty()) {
                 String errorMessages = errors.stream().limit(5).collect(Collectors.joining(", "));
-                LOG.warn("failed to add partitions, role: {} -> {}, having: {}, partitions: {}, errors: {}", fromRole, toRole, fromUris.size(), partitions.size(), errorMessages);
+                LOG.warn("failed to add partitions, role: {} -> {}, having: {}, partitions: {}, errors: {}", fromRole, toRole, fromCount, partitions.size(), errorMessages);
                 manifestURI = manifestWriter.writePartialManifest(
                         success,
                         lotId,
@@ -199,10 +236,10 @@ public class GlueAddPartitionsArcEventHandler extends ArcEventHandler<GlueAddPar
                         "of partitions: %s, succeeded: %s, failed: %s, with errors: %s".formatted(partitions.size(), partitions.size() - exists.size(), failed.size(), errorMessages)
                 );
             } else if (exists.size() == partitions.size()) {
-                LOG.info("no partitions added with no errors, role: {} -> {}, having: {}", fromRole, toRole, fromUris.size());
+                LOG.info("no partitions added with no errors, role: {} -> {}, having: {}", fromRole, toRole, fromCount);
                 manifestURI = manifestWriter.writeEmptyManifest(lotId);
             } else {
-                LOG.info("successfully added partitions with no errors, role: {} -> {}, having: {}, partitions: {}", fromRole, toRole, fromUris.size(), partitions.size());
+                LOG.info("successfully added partitions with no errors, role: {} -> {}, having: {}, partitions: {}", fromRole, toRole, fromCount, partitions.size());
                 manifestURI = manifestWriter.writeSuccessManifest(success, lotId);
             }
 
@@ -214,6 +251,104 @@ public class GlueAddPartitionsArcEventHandler extends ArcEventHandler<GlueAddPar
         return result;
     }
 
+    /**
+     * Adds the partitions in batches, with up to {@link GlueAddPartitionsProps#concurrency()} batches in flight.
+     * <p>
+     * Each partition is given to the errors consumer at most once, with its final error.
+     */
+    private void addPartitions(String catalog, Table table, Map<URI, List<String>> partitions, Consumer<PartitionError> errors) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+
+        List<Map<URI, List<String>>> batches = batch(partitions, MAX_BATCH_SIZE).toList();
+        int concurrency = Math.max(1, Math.min(workloadProperties().concurrency(), batches.size()));
+
+        LOG.info("adding partitions: {}, in batches: {}, with concurrency: {}", partitions.size(), batches.size(), concurrency);
+
+        if (concurrency == 1) {
+            batches.forEach(batch -> addBatch(catalog, table, batch, errors));
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, daemonThreads("glue-partitions"));
+
+        try {
+            List<Future<?>> futures = batches.stream()
+                    .<Future<?>>map(batch -> executor.submit(() -> addBatch(catalog, table, batch, errors)))
+                    .toList();
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("interrupted adding partitions to: %s/%s".formatted(table.databaseName(), table.name()), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Throttled requests are retried by the client, partitions that fail within a batch with a retryable error
+     * are resubmitted alone, with backoff.
+     */
+    private void addBatch(String catalog, Table table, Map<URI, List<String>> batch, Consumer<PartitionError> errors) {
+        Map<URI, List<String>> pending = batch;
+
+        for (int attempt = 1; ; attempt++) {
+            Glue.Response response = glue.addPartitions(catalog, table, pending);
+
+            // fail if the api call outright fails
+            response.isSuccessOrThrowRuntime(
+                    r -> String.format("unable to create partitions in: %s/%s, %s", table.databaseName(), table.name(), r.errorMessage())
+            );
+
+            if (!glue.hasBatchErrors(response)) {
+                return;
+            }
+
+            Map<List<String>, URI> locations = new HashMap<>();
+            pending.forEach((location, values) -> locations.put(values, location));
+
+            boolean lastAttempt = attempt >= ClientBase.DEFAULT_MAX_ATTEMPTS;
+            Map<URI, List<String>> retry = new LinkedHashMap<>();
+
+            glue.batchErrors(response, partitionError -> {
+                URI location = locations.get(partitionError.partitionValues());
+
+                if (!lastAttempt && location != null && RETRYABLE_ERRORS.contains(partitionError.errorDetail().errorCode())) {
+                    retry.put(location, partitionError.partitionValues());
+                } else {
+                    errors.accept(partitionError);
+                }
+            });
+
+            if (retry.isEmpty()) {
+                return;
+            }
+
+            long interval = retryInterval.apply(attempt);
+
+            LOG.warn("resubmitting partitions: {}, attempt: {}, in: {}ms", retry.size(), attempt + 1, interval);
+
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("interrupted adding partitions to: %s/%s".formatted(table.databaseName(), table.name()), e);
+            }
+
+            pending = retry;
+        }
+    }
+
     private Stream<Map<URI, List<String>>> batch(Map<URI, List<String>> partitions, int partitionSize) {
         if (partitions.size() <= partitionSize) {
             return Stream.of(partitions);
@@ -223,6 +358,22 @@ public class GlueAddPartitionsArcEventHandler extends ArcEventHandler<GlueAddPar
                 .map(e -> e.stream().collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
     }
 
+    /**
+     * @return the cache shared by all invocations of this lambda, or null if disabled
+     */
+    protected PartitionCache partitionCache() {
+        synchronized (GlueAddPartitionsArcEventHandler.class) {
+            if (partitionCache == null && workloadProperties().partitionCacheSize() > 0) {
+                partitionCache = new PartitionCache(
+                        workloadProperties().partitionCacheSize(),
+                        Duration.ofMinutes(workloadProperties().partitionCacheTTLMinutes())
+                );
+            }
+
+            return partitionCache;
+        }
+    }
+
     private Table tableDescriptor(String databaseName, String tableName) {
         if (table != null) {
             return table;
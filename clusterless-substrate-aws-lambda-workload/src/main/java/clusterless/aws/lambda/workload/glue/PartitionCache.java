@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package clusterless.aws.lambda.workload.glue;
+
+import clusterless.cls.substrate.aws.sdk.Glue;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import software.amazon.awssdk.services.glue.model.Partition;
+import software.amazon.awssdk.services.glue.model.Table;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the partition values known to exist in each table, retained across invocations of a warm Lambda.
+ * <p>
+ * A table is seeded by listing all its partitions the first time it is used, and again after the ttl expires.
+ * <p>
+ * Hits are not verified against the table, so a cache hit costs no requests. The trade-off is that a partition
+ * dropped from the table after it was cached is skipped, and not added again, until the ttl expires and the table
+ * is listed again. A shorter ttl bounds how long a dropped partition stays missing, at the cost of listing the
+ * table more often.
+ * <p>
+ * Each table holds at most maxSize partitions, once full, newer partitions are not retained.
+ */
+public class PartitionCache {
+    private static final Logger LOG = LogManager.getLogger(PartitionCache.class);
+
+    public static final int PAGE_SIZE = 1000;
+
+    record Key(String catalog, String databaseName, String tableName) {
+    }
+
+    static class Values {
+        final Set<List<String>> values = ConcurrentHashMap.newKeySet();
+        final Instant loadedAt;
+
+        Values(Instant loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private final int maxSize;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<Key, Values> tables = new ConcurrentHashMap<>();
+
+    public PartitionCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, Clock.systemUTC());
+    }
+
+    PartitionCache(int maxSize, Duration ttl, Clock clock) {
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /**
+     * @return the partitions not known to exist in the table, in the given order
+     */
+    public Map<URI, List<String>> unknown(Glue glue, String catalog, Table table, Map<URI, List<String>> partitions) {
+        Values values = valuesFor(glue, keyFor(catalog, table));
+
+        Map<URI, List<String>> unknown = new LinkedHashMap<>();
+
+        partitions.forEach((location, partitionValues) -> {
+            if (!values.values.contains(partitionValues)) {
+                unknown.put(location, partitionValues);
+            }
+        });
+
+        return unknown;
+    }
+
+    /**
+     * Retains partitions now known to exist, added or found to already exist.
+     */
+    public void addAll(String catalog, Table table, Collection<List<String>> partitionValues) {
+        Values values = tables.get(keyFor(catalog, table));
+
+        if (values == null) {
+            return;
+        }
+
+        for (List<String> partitionValue : partitionValues) {
+            if (values.values.size() >= maxSize) {
+                return;
+            }
+
+            values.values.add(partitionValue);
+        }
+    }
+
+    int size(String catalog, Table table) {
+        Values values = tables.get(keyFor(catalog, table));
+
+        return values == null ? 0 : values.values.size();
+    }
+
+    private Values valuesFor(Glue glue, Key key) {
+        Values values = tables.get(key);
+
+        if (values != null && values.loadedAt.plus(ttl).isAfter(clock.instant())) {
+            return values;
+        }
+
+        values = load(glue, key);
+
+        tables.put(key, values);
+
+        return values;
+    }
+
+    private Values load(Glue glue, Key key) {
+        Values values = new Values(clock.instant());
+        String nextToken = null;
+
+        do {
+            Glue.Response response = glue.listPartitions(key.catalog(), key.databaseName(), key.tableName(), PAGE_SIZE, nextToken);
+
+            // what was listed is still valid, anything missing is added redundantly
+            if (!response.isSuccess()) {
+                LOG.warn("unable to list partitions for: {}/{}, cached: {}, {}", key.databaseName(), key.tableName(), values.values.size(), response.errorMessage());
+                return values;
+            }
+
+            for (Partition partition : glue.listPartitions(response)) {
+                if (values.values.size() >= maxSize) {
+                    LOG.info("partition cache full for: {}/{}, size: {}", key.databaseName(), key.tableName(), maxSize);
+                    return values;
+                }
+
+                values.values.add(partition.values());
+            }
+
+            nextToken = glue.nextToken(response);
+        } while (nextToken != null);
+
+        LOG.info("cached partitions for: {}/{}, size: {}", key.databaseName(), key.tableName(), values.values.size());
+
+        return values;
+    }
+
+    private static Key keyFor(String catalog, Table table) {
+        return new Key(catalog, table.databaseName(), table.name());
+    }
+}
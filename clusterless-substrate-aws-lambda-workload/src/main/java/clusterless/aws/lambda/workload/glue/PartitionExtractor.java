@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2023 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package clusterless.aws.lambda.workload.glue;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Extracts the unique partitions from manifest uris in a single pass over their raw paths.
+ * <p>
+ * Given a dataset path of {@code s3://bucket/dataset/}, the uri {@code s3://bucket/dataset/a=1/b=2/file.csv}
+ * has the partition {@code a=1/b=2} with the values parsed from {@code a=1} and {@code b=2}. If the uris are
+ * paths, the last name is not dropped.
+ * <p>
+ * Consecutive uris in the same partition, the common case for a listing, are detected by comparing the raw path
+ * in place, so no strings are allocated for them. Values are only parsed once per unique partition.
+ */
+public class PartitionExtractor {
+    private final String rootPath;
+    private final boolean dropLast;
+    private final Function<String, String> partitionParser;
+
+    /**
+     * @param datasetPath     the path all uris are relative to
+     * @param dropLast        true if the last name, the object name, is not part of the partition
+     * @param partitionParser parses the value from each name in a partition
+     */
+    public PartitionExtractor(URI datasetPath, boolean dropLast, Function<String, String> partitionParser) {
+        Objects.requireNonNull(datasetPath, "datasetPath");
+        String path = datasetPath.getPath();
+        this.rootPath = path.endsWith("/") ? path : path + "/";
+        this.dropLast = dropLast;
+        this.partitionParser = Objects.requireNonNull(partitionParser, "partitionParser");
+    }
+
+    /**
+     * @return the unique partitions, relative to the dataset path and without a trailing slash, and their values
+     */
+    public Map<String, List<String>> extract(Iterable<URI> uris) {
+        Map<String, List<String>> partitions = new LinkedHashMap<>();
+        Set<String> seen = new HashSet<>();
+        String last = null;
+
+        for (URI uri : uris) {
+            String path = uri.getPath();
+
+            if (!path.startsWith(rootPath)) {
+                throw new IllegalArgumentException("uri is not within the dataset path: " + rootPath + ", got: " + uri);
+            }
+
+            int start = rootPath.length();
+            int end = path.length();
+
+            while (end > start && path.charAt(end - 1) == '/') {
+                end--;
+            }
+
+            if (dropLast) {
+                end = Math.max(start, path.lastIndexOf('/', end - 1));
+            }
+
+            // no partition, the object is in the dataset root
+            if (end == start) {
+                continue;
+            }
+
+            int length = end - start;
+
+            if (last != null && last.length() == length && path.regionMatches(start, last, 0, length)) {
+                continue;
+            }
+
+            last = path.substring(start, end);
+
+            if (!seen.add(last)) {
+                continue;
+            }
+
+            String partition = normalize(last);
+
+            if (!partition.isEmpty() && !partitions.containsKey(partition)) {
+                partitions.put(partition, values(partition));
+            }
+        }
+
+        return partitions;
+    }
+
+    private List<String> values(String partition) {
+        List<String> values = new ArrayList<>();
+        int start = 0;
+
+        while (start < partition.length()) {
+            int end = partition.indexOf('/', start);
+
+            if (end == -1) {
+                end = partition.length();
+            }
+
+            values.add(partitionParser.apply(partition.substring(start, end)));
+
+            start = end + 1;
+        }
+
+        return values;
+    }
+
+    /**
+     * Collapses any empty names, as a file system path would.
+     */
+    private static String normalize(String partition) {
+        if (!partition.contains("//") && partition.charAt(0) != '/') {
+            return partition;
+        }
+
+        return String.join("/", Arrays.stream(partition.split("/")).filter(s -> !s.isEmpty()).toList());
+    }
+}
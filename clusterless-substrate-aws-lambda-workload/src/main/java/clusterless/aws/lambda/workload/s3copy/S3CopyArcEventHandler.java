@@ -16,8 +16,9 @@ import clusterless.aws.lambda.manifest.ManifestWriter;
 import clusterless.aws.lambda.util.PathMatcher;
 import clusterless.cls.model.UriType;
 import clusterless.cls.model.deploy.SinkDataset;
-import clusterless.cls.model.manifest.Manifest;
+import clusterless.cls.model.manifest.ManifestHeader;
 import clusterless.cls.model.manifest.ManifestState;
+import clusterless.cls.model.manifest.ManifestStreamReader;
 import clusterless.cls.substrate.aws.event.ArcNotifyEvent;
 import clusterless.cls.substrate.aws.event.ArcWorkloadContext;
 import clusterless.cls.substrate.aws.sdk.ClientBase;
@@ -26,12 +27,17 @@ import clusterless.cls.util.Tuple2;
 import clusterless.cls.util.Tuple3;
 import clusterless.cls.util.URIs;
 import com.amazonaws.services.lambda.runtime.Context;
+import com.google.common.collect.Streams;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import software.amazon.awssdk.services.s3.S3Client;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 /**
  *
@@ -39,6 +45,8 @@ import java.util.*;
 public class S3CopyArcEventHandler extends ArcEventHandler<S3CopyProps> {
     private static final Logger LOG = LogManager.getLogger(S3CopyArcEventHandler.class);
 
+    private static final long MB = 1024 * 1024;
+
     protected static final S3 s3 = new S3();
     protected static final AttemptCounter attemptCounter = new AttemptCounter();
 
@@ -46,7 +54,9 @@ public class S3CopyArcEventHandler extends ArcEventHandler<S3CopyProps> {
     protected Map<String, ManifestWriter> manifestWriters = ManifestWriter.writers(
             arcProps().sinks(),
             arcProps().sinkManifestTemplates(),
-            UriType.identifier
+            UriType.identifier,
+            arcProps().manifestFormat(),
+            arcProps().manifestUriEncoding()
     );
     protected PathMatcher.Builder pathMatcher = PathMatcher.builder()
             .withPathSeparator(arcProps().workloadProps().filter().pathSeparator())
@@ -54,6 +64,12 @@ public class S3CopyArcEventHandler extends ArcEventHandler<S3CopyProps> {
             .withIncludes(arcProps().workloadProps().filter().includes())
             .withExcludes(arcProps().workloadProps().filter().excludes());
 
+    protected S3.MultipartCopy multipartCopy = new S3.MultipartCopy(
+            arcProps().workloadProps().multipartThresholdMB() * MB,
+            arcProps().workloadProps().multipartPartSizeMB() * MB,
+            arcProps().workloadProps().multipartConcurrency()
+    );
+
     @Override
     protected Map<String, URI> handleEvent(ArcWorkloadContext arcWorkloadContext, Context context, ArcEventObserver eventObserver) {
         String fromRole = arcWorkloadContext.role();
@@ -61,15 +77,15 @@ public class S3CopyArcEventHandler extends ArcEventHandler<S3CopyProps> {
         String lotId = notifyEvent.lot();
         URI incomingManifestIdentifier = notifyEvent.manifest();
 
-        Manifest incomingManifest = manifestReader.getManifest(incomingManifestIdentifier);
+        ManifestHeader incomingHeader = readHeader(incomingManifestIdentifier);
 
-        eventObserver.applyFromManifest(incomingManifestIdentifier, incomingManifest);
+        eventObserver.applyFromManifest(incomingManifestIdentifier, incomingHeader);
 
         Map<String, URI> result = new LinkedHashMap<>();
 
         //  copy files
         URI fromDatasetPath = notifyEvent.dataset().pathURI();
-        List<URI> fromUris = incomingManifest.uris();
+        long fromCount = incomingHeader.count();
 
         PathMatcher match = pathMatcher.withPath(fromDatasetPath.getPath())
                 .build();
@@ -77,7 +93,7 @@ public class S3CopyArcEventHandler extends ArcEventHandler<S3CopyProps> {
         for (Map.Entry<String, SinkDataset> sinkRoleEntry : arcProps().sinks().entrySet()) {
             String toRole = sinkRoleEntry.getKey();
             ManifestWriter manifestWriter = manifestWriters.get(toRole);
-            if (incomingManifest.state() == ManifestState.empty) {
+            if (incomingHeader.state() == ManifestState.empty) {
                 LOG.info("manifest state empty, role: {} -> {}", fromRole, toRole);
                 URI manifestURI = manifestWriter.writeEmptyManifest(lotId);
                 result.put(toRole, manifestURI);
@@ -91,29 +107,21 @@ public class S3CopyArcEventHandler extends ArcEventHandler<S3CopyProps> {
             eventObserver.applyToDataset(toRole, sinkDataset);
 
             URI toDatasetPath = sinkDataset.pathURI();
-
-            // not using a map so that collisions can be managed independently on the to/from sides
-            List<Tuple2<URI, URI>> toUris = new LinkedList<>();
-            for (URI fromUri : fromUris) {
-
-                if (!match.keep(fromUri.getPath())) {
-                    continue;
-                }
-
-                URI toURI = URIs.fromTo(fromDatasetPath, fromUri, toDatasetPath);
-                toUris.add(new Tuple2<>(fromUri, toURI));
-            }
+            UnaryOperator<URI> fromTo = URIs.fromTo(fromDatasetPath, toDatasetPath);
 
             // TODO: check integrity of uris to be copied
 
-            List<URI> completed = new LinkedList<>();
+            Set<URI> copied = new HashSet<>();
             List<Tuple3<URI, URI, S3.Response>> failed = new LinkedList<>();
 
-            int maxAllowedFailures = (int) Math.ceil(toUris.size() * workloadProperties().failArcOnPartialPercent());
+            // the number of matching uris is only known once the manifest is read, so stop early against all of them
+            int maxEarlyFailures = maxAllowedFailures(fromCount);
 
-            s3.copy(
-                    toUris,
-                    completed::add,
+            boolean stopped = !withManifest(incomingManifestIdentifier, fromUris -> s3.copy(
+                    toUris(fromUris, match, fromTo),
+                    workloadProperties().copyConcurrency(),
+                    multipartCopy,
+                    copied::add,
                     (tuple, response) -> {
                         failed.add(new Tuple3<>(tuple.get_1(), tuple.get_2(), response));
 
@@ -121,14 +129,17 @@ public class S3CopyArcEventHandler extends ArcEventHandler<S3CopyProps> {
                             return true;
                         }
 
-                        return failed.size() > maxAllowedFailures;
+                        return failed.size() > maxEarlyFailures;
                     }
-            );
+            ));
+
+            // if not stopped, every matching uri was attempted
+            int maxAllowedFailures = stopped ? maxEarlyFailures : maxAllowedFailures(copied.size() + failed.size());
 
             URI manifestURI;
 
             if (!failed.isEmpty()) { // unintentional
-                LOG.error("s3 object copy errors: {}, failed: {}", fromUris.size(), failed.size());
+                LOG.error("s3 object copy errors: {}, failed: {}", fromCount, failed.size());
 
                 Tuple3<URI, URI, ClientBase<S3Client>.Response> firstFailure = failed.get(0);
                 if (firstFailure.get_3().isAccessDenied()) {
@@ -159,19 +170,26 @@ public class S3CopyArcEventHandler extends ArcEventHandler<S3CopyProps> {
 
                 List<String> errors = messages.stream().limit(3).toList();
 
-                manifestURI = manifestWriter.writePartialManifest(
-                        completed,
-                        lotId,
-                        attemptCounter.attemptId(context.getAwsRequestId()),
-                        String.format("copy failed on role: %s, num: %d with messages: %s", toRole, failed.size(), errors)
+                String attemptId = attemptCounter.attemptId(context.getAwsRequestId());
+                String comment = String.format("copy failed on role: %s, num: %d with messages: %s", toRole, failed.size(), errors);
+                int count = copied.size();
+
+                manifestURI = withManifest(
+                        incomingManifestIdentifier,
+                        fromUris -> manifestWriter.writePartialManifest(count, completed(fromUris, match, fromTo, copied), lotId, attemptId, comment)
                 );
-            } else if (completed.isEmpty()) { // intentional
+            } else if (copied.isEmpty()) { // intentional
                 // if we allow for a filter predicate on the declaration, this will be a valid state
-                LOG.info("no objects copied with no errors, role: {} -> {}, having: {}", fromRole, toRole, fromUris.size());
+                LOG.info("no objects copied with no errors, role: {} -> {}, having: {}", fromRole, toRole, fromCount);
                 manifestURI = manifestWriter.writeEmptyManifest(lotId);
             } else { // intentional
-                LOG.info("successfully copied objects with no errors, role: {} -> {}, having: {}", fromRole, toRole, fromUris.size());
-                manifestURI = manifestWriter.writeSuccessManifest(completed, lotId);
+                LOG.info("successfully copied objects with no errors, role: {} -> {}, having: {}", fromRole, toRole, fromCount);
+                int count = copied.size();
+
+                manifestURI = withManifest(
+                        incomingManifestIdentifier,
+                        fromUris -> manifestWriter.writeSuccessManifest(count, completed(fromUris, match, fromTo, copied), lotId)
+                );
             }
 
             result.put(toRole, manifestURI);
@@ -181,4 +199,45 @@ public class S3CopyArcEventHandler extends ArcEventHandler<S3CopyProps> {
 
         return result;
     }
+
+    private int maxAllowedFailures(long count) {
+        return (int) Math.ceil(count * workloadProperties().failArcOnPartialPercent());
+    }
+
+    private ManifestHeader readHeader(URI manifest) {
+        return withManifest(manifest, ManifestStreamReader::header);
+    }
+
+    /**
+     * Streams the manifest uris to the given function, the manifest is re-read on every call.
+     */
+    private <R> R withManifest(URI manifest, Function<ManifestStreamReader, R> function) {
+        try (ManifestStreamReader reader = manifestReader.openManifest(manifest)) {
+            return function.apply(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Not using a map so that collisions can be managed independently on the to/from sides.
+     */
+    private static Iterable<Tuple2<URI, URI>> toUris(Iterable<URI> fromUris, PathMatcher match, UnaryOperator<URI> fromTo) {
+        return () -> Streams.stream(fromUris)
+                .filter(fromUri -> match.keep(fromUri.getPath()))
+                .map(fromUri -> new Tuple2<>(fromUri, fromTo.apply(fromUri)))
+                .iterator();
+    }
+
+    /**
+     * Copies complete out of order, retain the manifest order by re-reading the manifest.
+     * <p>
+     * Removes from copied as uris are returned so a uri duplicated in the manifest is only returned once.
+     */
+    private static Iterable<URI> completed(Iterable<URI> fromUris, PathMatcher match, UnaryOperator<URI> fromTo, Set<URI> copied) {
+        return () -> Streams.stream(toUris(fromUris, match, fromTo))
+                .map(Tuple2::get_2)
+                .filter(copied::remove)
+                .iterator();
+    }
 }
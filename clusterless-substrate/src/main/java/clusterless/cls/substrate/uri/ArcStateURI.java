@@ -12,7 +12,6 @@ import clusterless.cls.model.deploy.Placement;
 import clusterless.cls.model.deploy.Project;
 import clusterless.cls.model.state.ArcState;
 import clusterless.cls.substrate.store.StateStore;
-import clusterless.cls.util.Optionals;
 import clusterless.commons.naming.Partition;
 import com.fasterxml.jackson.core.JacksonException;
 import com.fasterxml.jackson.core.JsonGenerator;
@@ -27,11 +26,9 @@ import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
 
 import java.io.IOException;
 import java.net.URI;
-import java.net.URLDecoder;
 import java.util.Objects;
 import java.util.Optional;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Optional.ofNullable;
 
 /**
@@ -47,6 +44,14 @@ import static java.util.Optional.ofNullable;
 @JsonDeserialize(using = ArcStateURI.DeSerializer.class)
 public class ArcStateURI extends StateURI<ArcState, ArcStateURI> {
     public static final String ARCS = "arcs";
+    /**
+     * The name of the single object per lot written by a conditional arc state store, {@code {lot}/lot.arc}.
+     */
+    public static final String LOT_STATE_OBJECT = "lot.arc";
+    /**
+     * The user metadata key holding the state of a {@link #LOT_STATE_OBJECT}.
+     */
+    public static final String STATE_METADATA = "arc-state";
 
     static class Serializer extends StdScalarSerializer<ArcStateURI> {
         protected Serializer() {
@@ -113,6 +118,10 @@ public class ArcStateURI extends StateURI<ArcState, ArcStateURI> {
         return state == null;
     }
 
+    public static boolean isLotStateObject(String template) {
+        return template.endsWith("/" + LOT_STATE_OBJECT);
+    }
+
     public static ArcState parseState(String template) {
         int index = template.lastIndexOf('/');
         return ArcState.parse(template.substring(index + 1));
@@ -121,23 +130,23 @@ public class ArcStateURI extends StateURI<ArcState, ArcStateURI> {
     public static ArcStateURI parse(String template) {
         Objects.requireNonNull(template, "template is null");
 
-        template = URLDecoder.decode(template, UTF_8);
+        template = decode(template);
 
         // {providerService}://{stateStore}/arcs/{projectName}/{projectVersion}/{arcName}/{lot}/{state}.arc
-        String[] split = template.split("/");
+        Segments split = new Segments(template);
 
         Format format = isOnlyPath(ARCS, template);
         int index = format.offset();
-        String storeName = format == Format.full ? value(split, 2) : null;
+        String storeName = format == Format.full ? split.value(2) : null;
         return new ArcStateURI()
                 .setStoreName(storeName)
                 .setProject(Project.Builder.builder()
-                        .withName(value(split, index++))
-                        .withVersion(value(split, index++))
+                        .withName(split.value(index++))
+                        .withVersion(split.value(index++))
                         .build())
-                .setArcName(value(split, index++))
-                .setLotId(value(split, index++))
-                .setState(ArcState.parse(Optionals.optional(index, split).orElse(null)));
+                .setArcName(split.value(index++))
+                .setLotId(split.value(index++))
+                .setState(ArcState.parse(split.raw(index)));
     }
 
     @Override
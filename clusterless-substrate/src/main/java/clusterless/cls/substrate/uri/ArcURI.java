@@ -104,18 +104,18 @@ public class ArcURI extends MetaURI<Project, ArcURI> {
         Objects.requireNonNull(template, "template is null");
 
         // {providerService}://{stateStore}/arcs/{projectName}/{projectVersion}/{arcName}/arc.json
-        String[] split = template.split("/");
+        Segments split = new Segments(template);
 
         Format format = isOnlyPath(ARCS, template);
         int index = format.offset();
-        String storeName = format == Format.full ? value(split, 2) : null;
+        String storeName = format == Format.full ? split.value(2) : null;
         return new ArcURI()
                 .setStoreName(storeName)
                 .setProject(Project.Builder.builder()
-                        .withName(value(split, index++))
-                        .withVersion(value(split, index++))
+                        .withName(split.value(index++))
+                        .withVersion(split.value(index++))
                         .build())
-                .withArcName(value(split, index));
+                .withArcName(split.value(index));
     }
 
     @Override
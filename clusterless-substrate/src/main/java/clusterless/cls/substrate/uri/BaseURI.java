@@ -10,8 +10,11 @@ package clusterless.cls.substrate.uri;
 
 import clusterless.cls.util.Optionals;
 
+import java.net.URLDecoder;
 import java.util.regex.Pattern;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 public class BaseURI {
 
     protected enum Format {
@@ -39,6 +42,17 @@ public class BaseURI {
                 .orElse(null);
     }
 
+    /**
+     * Only decodes the template if it contains an escape, most keys do not.
+     */
+    protected static String decode(String template) {
+        if (template.indexOf('%') == -1 && template.indexOf('+') == -1) {
+            return template;
+        }
+
+        return URLDecoder.decode(template, UTF_8);
+    }
+
     protected static boolean isNotTemplate(String s) {
         return !s.startsWith("{") || !s.endsWith("}");
     }
@@ -51,4 +65,95 @@ public class BaseURI {
 
         return Format.full;
     }
+
+    /**
+     * The {@code /} delimited segments of a template, found in a single pass without copying each segment.
+     * <p>
+     * Follows {@link String#split(String)}, trailing empty segments are dropped, and {@link #value(int)} follows
+     * {@link BaseURI#value(String[], int)}.
+     */
+    protected static final class Segments {
+        private final String template;
+        private final int[] starts;
+        private final int size;
+
+        public Segments(String template) {
+            this.template = template;
+
+            int count = 1;
+            for (int i = 0; i < template.length(); i++) {
+                if (template.charAt(i) == '/') {
+                    count++;
+                }
+            }
+
+            // the start of each segment, and one past the end of the template
+            this.starts = new int[count + 1];
+
+            int index = 0;
+            starts[index++] = 0;
+            for (int i = 0; i < template.length(); i++) {
+                if (template.charAt(i) == '/') {
+                    starts[index++] = i + 1;
+                }
+            }
+            starts[index] = template.length() + 1;
+
+            int size = count;
+            while (size > 0 && end(size - 1) == starts[size - 1]) {
+                size--;
+            }
+
+            // split() returns the template when there is no delimiter, even if empty
+            this.size = count == 1 ? 1 : size;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        private int end(int index) {
+            return starts[index + 1] - 1;
+        }
+
+        public String raw(int index) {
+            if (index < 0 || index >= size) {
+                return null;
+            }
+
+            return template.substring(starts[index], end(index));
+        }
+
+        public String value(int index) {
+            if (index < 0 || index >= size) {
+                return null;
+            }
+
+            int start = starts[index];
+            int end = end(index);
+
+            // same as removing ^.+= where . does not match line terminators
+            int limit = start;
+            while (limit < end && !isLineTerminator(template.charAt(limit))) {
+                limit++;
+            }
+
+            for (int i = limit - 1; i > start; i--) {
+                if (template.charAt(i) == '=') {
+                    start = i + 1;
+                    break;
+                }
+            }
+
+            if (end - start >= 2 && template.charAt(start) == '{' && template.charAt(end - 1) == '}') {
+                return null;
+            }
+
+            return template.substring(start, end);
+        }
+
+        private static boolean isLineTerminator(char c) {
+            return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+        }
+    }
 }
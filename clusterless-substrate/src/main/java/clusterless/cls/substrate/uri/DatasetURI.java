@@ -114,16 +114,16 @@ public class DatasetURI extends MetaURI<Dataset, DatasetURI> {
         Objects.requireNonNull(template, "template is null");
 
         // {providerService}://{stateStore}/datasets/{datasetName}/{datasetVersion}/dataset.json
-        String[] split = template.split("/");
+        Segments split = new Segments(template);
 
         Format format = isOnlyPath(DATASETS, template);
         int index = format.offset();
-        String storeName = format == Format.full ? value(split, 2) : null;
+        String storeName = format == Format.full ? split.value(2) : null;
         return new DatasetURI()
                 .setStoreName(storeName) // the bucket in s3
                 .setDataset(Dataset.Builder.builder()
-                        .withName(value(split, index++))
-                        .withVersion(value(split, index))
+                        .withName(split.value(index++))
+                        .withVersion(split.value(index))
                         .build());
     }
 
@@ -14,7 +14,6 @@ import clusterless.cls.model.deploy.Placement;
 import clusterless.cls.model.manifest.ManifestState;
 import clusterless.cls.substrate.store.StateStore;
 import clusterless.cls.util.Lazy;
-import clusterless.cls.util.Optionals;
 import clusterless.cls.util.URIs;
 import clusterless.commons.naming.Partition;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -31,13 +30,10 @@ import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
 
 import java.io.IOException;
 import java.net.URI;
-import java.net.URLDecoder;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Supplier;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
-
 /**
  * Identifier
  * <p>
@@ -121,23 +117,23 @@ public class ManifestURI extends StateURI<ManifestState, ManifestURI> {
     public static ManifestURI parse(String template) {
         Objects.requireNonNull(template, "template is null");
 
-        template = URLDecoder.decode(template, UTF_8);
+        template = decode(template);
 
         // {provider-service}://{manifest-store}/datasets/{dataset-name}/{dataset-version}/{lot}/{state}[/{attempt}]/manifest.{ext}
-        String[] split = template.split("/");
+        Segments split = new Segments(template);
 
         Format format = isOnlyPath(DATASETS, template);
         int index = format.offset();
-        String storeName = format == Format.full ? value(split, 2) : null;
+        String storeName = format == Format.full ? split.value(2) : null;
         return new ManifestURI()
                 .setStoreName(storeName)
                 .setDataset(LocatedDataset.Builder.builder()
-                        .withName(value(split, index++))
-                        .withVersion(value(split, index++))
+                        .withName(split.value(index++))
+                        .withVersion(split.value(index++))
                         .build())
-                .setLotId(value(split, index++))
-                .setState(ManifestState.parse(Optionals.optional(index++, split).orElse(null)))
-                .setAttemptId(value(split, index));
+                .setLotId(split.value(index++))
+                .setState(ManifestState.parse(split.raw(index++)))
+                .setAttemptId(split.value(index));
     }
 
     @Override
@@ -114,16 +114,16 @@ public class ProjectURI extends MetaURI<Project, ProjectURI> {
         Objects.requireNonNull(template, "template is null");
 
         // {providerService}://{stateStore}/projects/{projectName}/{projectVersion}/project.json
-        String[] split = template.split("/");
+        Segments split = new Segments(template);
 
         Format format = isOnlyPath(PROJECTS, template);
         int index = format.offset();
-        String storeName = format == Format.full ? value(split, 2) : null;
+        String storeName = format == Format.full ? split.value(2) : null;
         return new ProjectURI()
                 .setStoreName(storeName) // the bucket in s3
                 .setProject(Project.Builder.builder()
-                        .withName(value(split, index++))
-                        .withVersion(value(split, index))
+                        .withName(split.value(index++))
+                        .withVersion(split.value(index))
                         .build());
     }
 
@@ -18,6 +18,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.net.URI;
+import java.util.List;
 
 public class StateURITest {
     @Test
@@ -151,4 +152,33 @@ public class StateURITest {
         Assertions.assertEquals("20230921PT5M242", ManifestURI.parse("datasets/name=access-logs-parquet/version=20230817/lot=20230921PT5M242/").lotId());
     }
 
+    @Test
+    void manifestStateEncoded() {
+        ManifestURI parsed = ManifestURI.parse("s3://store/datasets/name=test-dataset/version=20230101/lot=2021%2011%2B12/state=partial/attempt=1/manifest.json");
+
+        Assertions.assertEquals("2021 11+12", parsed.lotId());
+        Assertions.assertEquals(ManifestState.partial, parsed.state());
+        Assertions.assertEquals("1", parsed.attemptId());
+    }
+
+    @Test
+    void segments() {
+        List<String> templates = List.of(
+                "", "/", "//", "a", "a/", "/a", "a//b", "a/b//",
+                "s3://store/datasets/name=test/version=1/lot={lot}/{state}/manifest.json",
+                "name=", "=value", "a=b=c", "{}", "{", "}", "{a}", "x={a}", "a\n=b", "a=\nb=c"
+        );
+
+        for (String template : templates) {
+            String[] split = template.split("/");
+            BaseURI.Segments segments = new BaseURI.Segments(template);
+
+            Assertions.assertEquals(split.length, segments.size(), template);
+
+            for (int i = -1; i <= split.length; i++) {
+                Assertions.assertEquals(i < 0 || i >= split.length ? null : split[i], segments.raw(i), template);
+                Assertions.assertEquals(BaseURI.value(split, i), segments.value(i), template);
+            }
+        }
+    }
 }
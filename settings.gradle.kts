@@ -54,3 +54,6 @@ include("clusterless-substrate-aws-lambda-workload-model")
 
 // test scenarios
 include("clusterless-scenario")
+
+// jmh benchmarks of the hot paths
+include("clusterless-benchmarks")